@@ -0,0 +1,69 @@
+package com.salon.agendamento.carga;
+
+import java.util.Arrays;
+
+/**
+ * Latências (em microssegundos) e erros de uma operação
+ *
+ * Cada recepcionista tem as suas amostras (sem disputa entre threads); no fim, as de todas
+ * são juntadas com {@link #juntar(Amostras)} para calcular os percentis exatos.
+ */
+final class Amostras {
+
+    private long[] latencias = new long[1024];
+
+    private int quantidade;
+
+    private long erros;
+
+    void registrar(long micros) {
+        if (quantidade == latencias.length) {
+            latencias = Arrays.copyOf(latencias, quantidade * 2);
+        }
+        latencias[quantidade++] = micros;
+    }
+
+    void registrarErro() {
+        erros++;
+    }
+
+    void juntar(Amostras outras) {
+        if (quantidade + outras.quantidade > latencias.length) {
+            latencias = Arrays.copyOf(latencias, quantidade + outras.quantidade);
+        }
+        System.arraycopy(outras.latencias, 0, latencias, quantidade, outras.quantidade);
+        quantidade += outras.quantidade;
+        erros += outras.erros;
+    }
+
+    int getQuantidade() {
+        return quantidade;
+    }
+
+    long getErros() {
+        return erros;
+    }
+
+    /**
+     * @return latências ordenadas (para percentis)
+     */
+    long[] ordenadas() {
+        long[] ordenadas = Arrays.copyOf(latencias, quantidade);
+        Arrays.sort(ordenadas);
+        return ordenadas;
+    }
+
+    /**
+     * Percentil pelo método do posto mais próximo
+     * @param ordenadas latências ordenadas
+     * @param percentil entre 0 e 100
+     * @return latência do percentil (0 sem amostras)
+     */
+    static long percentil(long[] ordenadas, double percentil) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        int posto = (int) Math.ceil(percentil / 100.0 * ordenadas.length);
+        return ordenadas[Math.max(posto, 1) - 1];
+    }
+}
@@ -0,0 +1,15 @@
+package com.salon.agendamento.carga;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * IDs usados pelas recepcionistas para preencher formulários e escolher horários
+ * @param clienteIds clientes cadastrados
+ * @param servicoIds serviços ativos
+ * @param profissionaisPorServico profissionais ativos que fazem cada serviço
+ * @param agendamentoIds agendamentos futuros ainda abertos (alvo das mudanças de status)
+ */
+record DadosSimulacao(long[] clienteIds, List<Long> servicoIds, Map<Long, List<Long>> profissionaisPorServico,
+                      long[] agendamentoIds) {
+}
@@ -0,0 +1,24 @@
+package com.salon.agendamento.carga;
+
+/**
+ * Requisições que as recepcionistas simuladas fazem, na ordem do relatório
+ */
+enum Operacao {
+    DASHBOARD("GET  /"),
+    LISTA("GET  /agendamentos"),
+    FORMULARIO("GET  /agendamentos/novo"),
+    CRIAR("POST /agendamentos"),
+    CONFIRMAR("POST /agendamentos/{id}/confirmar"),
+    REALIZAR("POST /agendamentos/{id}/realizar"),
+    CANCELAR("POST /agendamentos/{id}/cancelar");
+
+    private final String descricao;
+
+    Operacao(String descricao) {
+        this.descricao = descricao;
+    }
+
+    String getDescricao() {
+        return descricao;
+    }
+}
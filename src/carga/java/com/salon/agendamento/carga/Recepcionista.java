@@ -0,0 +1,244 @@
+package com.salon.agendamento.carga;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Uma recepcionista simulada: navega pelas telas da agenda como no balcão do salão
+ *
+ * Cada ciclo escolhe uma tarefa (agendar, mudar o status de um horário, consultar a agenda ou
+ * o painel), com pausas aleatórias entre as telas. A sessão (JSESSIONID) é própria de cada
+ * recepcionista, como em navegadores diferentes, para que as mensagens de flash dos
+ * redirecionamentos não se misturem.
+ *
+ * Só são medidas as requisições iniciadas dentro da janela de medição (depois do aquecimento).
+ */
+final class Recepcionista implements Runnable {
+
+    private static final DateTimeFormatter FORMATO_DATA_HORA = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
+
+    private static final int[] MINUTOS = {0, 15, 30, 45};
+
+    private final HttpClient cliente;
+
+    private final String base;
+
+    private final DadosSimulacao dados;
+
+    private final SimulacaoRecepcao.Configuracao configuracao;
+
+    private final long inicioMedicao;
+
+    private final long fimMedicao;
+
+    private final Map<Operacao, Amostras> amostras = new EnumMap<>(Operacao.class);
+
+    private String sessao;
+
+    private long tentativas;
+
+    private long criados;
+
+    private long recusados;
+
+    Recepcionista(HttpClient cliente, String base, DadosSimulacao dados, SimulacaoRecepcao.Configuracao configuracao,
+                  long inicioMedicao, long fimMedicao) {
+        this.cliente = cliente;
+        this.base = base;
+        this.dados = dados;
+        this.configuracao = configuracao;
+        this.inicioMedicao = inicioMedicao;
+        this.fimMedicao = fimMedicao;
+        for (Operacao operacao : Operacao.values()) {
+            amostras.put(operacao, new Amostras());
+        }
+    }
+
+    @Override
+    public void run() {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        try {
+            // Nem todas começam juntas, como num salão de verdade
+            pausar(aleatorio);
+            while (System.nanoTime() < fimMedicao) {
+                int sorteio = aleatorio.nextInt(100);
+                if (sorteio < 40) {
+                    agendar(aleatorio);
+                } else if (sorteio < 60) {
+                    mudarStatus(aleatorio);
+                } else if (sorteio < 85) {
+                    requisitar(Operacao.LISTA, get("/agendamentos"));
+                } else {
+                    requisitar(Operacao.DASHBOARD, get("/"));
+                }
+                pausar(aleatorio);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Abre o formulário, preenche e grava um agendamento (metade das vezes sem escolher profissional)
+     */
+    private void agendar(ThreadLocalRandom aleatorio) throws InterruptedException {
+        requisitar(Operacao.FORMULARIO, get("/agendamentos/novo"));
+        pausar(aleatorio);
+
+        Long servicoId = dados.servicoIds().get(aleatorio.nextInt(dados.servicoIds().size()));
+        List<Long> profissionais = dados.profissionaisPorServico().getOrDefault(servicoId, List.of());
+        Map<String, String> formulario = new LinkedHashMap<>();
+        formulario.put("clienteId", String.valueOf(dados.clienteIds()[aleatorio.nextInt(dados.clienteIds().length)]));
+        formulario.put("servicoId", String.valueOf(servicoId));
+        if (!profissionais.isEmpty() && aleatorio.nextBoolean()) {
+            formulario.put("profissionalId", String.valueOf(profissionais.get(aleatorio.nextInt(profissionais.size()))));
+        }
+        LocalDateTime dataHora = LocalDate.now().plusDays(1 + aleatorio.nextInt(configuracao.dias()))
+                .atTime(8 + aleatorio.nextInt(10), MINUTOS[aleatorio.nextInt(MINUTOS.length)]);
+        formulario.put("dataHora", dataHora.format(FORMATO_DATA_HORA));
+
+        long inicio = System.nanoTime();
+        Optional<String> destino = requisitar(Operacao.CRIAR, post("/agendamentos", formulario));
+        if (destino.isEmpty()) {
+            return;
+        }
+        if (medir(inicio)) {
+            tentativas++;
+            // O controller volta ao formulário quando recusa e vai para a agenda quando grava
+            if (destino.get().endsWith("/agendamentos/novo")) {
+                recusados++;
+            } else {
+                criados++;
+            }
+        }
+        seguir(destino.get());
+    }
+
+    /**
+     * Consulta a agenda e confirma, realiza ou cancela um horário
+     */
+    private void mudarStatus(ThreadLocalRandom aleatorio) throws InterruptedException {
+        requisitar(Operacao.LISTA, get("/agendamentos"));
+        pausar(aleatorio);
+
+        long id = dados.agendamentoIds()[aleatorio.nextInt(dados.agendamentoIds().length)];
+        int sorteio = aleatorio.nextInt(10);
+        Operacao operacao = sorteio < 5 ? Operacao.CONFIRMAR : sorteio < 8 ? Operacao.REALIZAR : Operacao.CANCELAR;
+        String acao = operacao.name().toLowerCase();
+        requisitar(operacao, post("/agendamentos/" + id + "/" + acao, Map.of())).ifPresent(this::seguir);
+    }
+
+    /**
+     * Segue o redirecionamento de um POST, como o navegador faria (exibe a mensagem de flash)
+     */
+    private void seguir(String destino) {
+        Operacao operacao = destino.endsWith("/agendamentos/novo") ? Operacao.FORMULARIO : Operacao.LISTA;
+        requisitar(operacao, get(URI.create(base).resolve(destino).getPath()));
+    }
+
+    /**
+     * Envia a requisição e registra a latência se ela começou dentro da janela de medição
+     * @return o Location do redirecionamento (vazio para GETs e em caso de erro)
+     */
+    private Optional<String> requisitar(Operacao operacao, HttpRequest requisicao) {
+        long inicio = System.nanoTime();
+        Amostras destino = medir(inicio) ? amostras.get(operacao) : null;
+        try {
+            HttpResponse<Void> resposta = cliente.send(requisicao, HttpResponse.BodyHandlers.discarding());
+            long micros = (System.nanoTime() - inicio) / 1_000;
+            resposta.headers().allValues("Set-Cookie").stream()
+                    .filter(cookie -> cookie.startsWith("JSESSIONID="))
+                    .findFirst()
+                    .ifPresent(cookie -> sessao = cookie.substring(0, cookie.indexOf(';') > 0 ? cookie.indexOf(';') : cookie.length()));
+            boolean esperado = "GET".equals(requisicao.method()) ? resposta.statusCode() == 200 : resposta.statusCode() == 302;
+            if (!esperado) {
+                if (destino != null) {
+                    destino.registrarErro();
+                }
+                return Optional.empty();
+            }
+            if (destino != null) {
+                destino.registrar(micros);
+            }
+            // Antes de o navegador devolver o cookie, o Tomcat põe a sessão no próprio endereço
+            return resposta.headers().firstValue("Location")
+                    .map(local -> local.contains(";") ? local.substring(0, local.indexOf(';')) : local);
+        } catch (IOException e) {
+            if (destino != null) {
+                destino.registrarErro();
+            }
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+    }
+
+    private boolean medir(long instante) {
+        return instante >= inicioMedicao && instante < fimMedicao;
+    }
+
+    private HttpRequest get(String caminho) {
+        return requisicao(caminho).GET().build();
+    }
+
+    private HttpRequest post(String caminho, Map<String, String> formulario) {
+        String corpo = formulario.entrySet().stream()
+                .map(campo -> campo.getKey() + "=" + URLEncoder.encode(campo.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+        return requisicao(caminho)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(corpo))
+                .build();
+    }
+
+    private HttpRequest.Builder requisicao(String caminho) {
+        HttpRequest.Builder construtor = HttpRequest.newBuilder(URI.create(base + caminho))
+                .timeout(Duration.ofSeconds(30));
+        if (sessao != null) {
+            construtor.header("Cookie", sessao);
+        }
+        return construtor;
+    }
+
+    /**
+     * Pausa entre telas, exponencial com a média configurada
+     */
+    private void pausar(ThreadLocalRandom aleatorio) throws InterruptedException {
+        if (configuracao.pausaMs() > 0) {
+            Thread.sleep((long) (-configuracao.pausaMs() * Math.log(1 - aleatorio.nextDouble())));
+        }
+    }
+
+    Map<Operacao, Amostras> getAmostras() {
+        return amostras;
+    }
+
+    long getTentativas() {
+        return tentativas;
+    }
+
+    long getCriados() {
+        return criados;
+    }
+
+    long getRecusados() {
+        return recusados;
+    }
+}
@@ -0,0 +1,240 @@
+package com.salon.agendamento.carga;
+
+import com.salon.agendamento.AgendamentoApplication;
+import com.salon.agendamento.config.GeradorMassaDados;
+import com.salon.agendamento.model.Profissional;
+import com.salon.agendamento.model.Servico;
+import com.salon.agendamento.service.ProfissionalService;
+import com.salon.agendamento.service.ServicoService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Simulação de carga da recepção: centenas de recepcionistas usando a agenda ao mesmo tempo
+ *
+ * Sobe a aplicação completa (Tomcat em uma porta livre, H2 em memória), gera a massa de dados
+ * com GeradorMassaDados e solta as recepcionistas (uma thread cada) sobre as telas de verdade:
+ * painel, agenda, formulário, gravação de agendamentos e mudanças de status. No fim, mostra
+ * vazão e latências (p50/p95/p99) por requisição e a taxa de agendamentos recusados, com os
+ * motivos contados pelo próprio servidor (métrica agenda.agendamentos.rejeitados).
+ *
+ * Uso: mvn -Pcarga test-compile exec:exec -Dcarga.args="recepcionistas=300 duracao=120"
+ * Opções (chave=valor): recepcionistas, duracao e aquecimento (segundos), agendamentos (massa
+ * inicial), pausa (média em ms entre telas) e dias (até quantos dias à frente se agenda).
+ * Argumentos começando com -- vão para a aplicação (ex.: --spring.datasource.hikari.maximum-pool-size=20).
+ *
+ * Cliente e servidor dividem a mesma JVM e os mesmos processadores: os números servem para
+ * comparar versões e configurações na mesma máquina, não como capacidade absoluta.
+ */
+public final class SimulacaoRecepcao {
+
+    private static final int MAXIMO_AGENDAMENTOS_ABERTOS = 20_000;
+
+    private static final String METRICA_RECUSAS = "agenda.agendamentos.rejeitados";
+
+    /**
+     * Parâmetros da simulação
+     */
+    record Configuracao(int recepcionistas, int duracao, int aquecimento, int agendamentos, long pausaMs, int dias) {
+
+        static Configuracao de(Map<String, String> opcoes) {
+            return new Configuracao(
+                    inteiro(opcoes, "recepcionistas", 200),
+                    inteiro(opcoes, "duracao", 60),
+                    inteiro(opcoes, "aquecimento", 10),
+                    inteiro(opcoes, "agendamentos", 100_000),
+                    inteiro(opcoes, "pausa", 500),
+                    inteiro(opcoes, "dias", 14));
+        }
+
+        private static int inteiro(Map<String, String> opcoes, String chave, int padrao) {
+            String valor = opcoes.remove(chave);
+            if (valor == null) {
+                return padrao;
+            }
+            try {
+                int numero = Integer.parseInt(valor);
+                if (numero < 0 || (numero == 0 && !"pausa".equals(chave) && !"aquecimento".equals(chave))) {
+                    throw new NumberFormatException();
+                }
+                return numero;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Valor inválido para " + chave + ": " + valor);
+            }
+        }
+    }
+
+    private SimulacaoRecepcao() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> opcoes = new TreeMap<>();
+        List<String> argumentosAplicacao = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:carga;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.jpa.show-sql=false",
+                "--agenda.diario.diretorio=target/carga/diario",
+                "--spring.thymeleaf.cache=true",
+                "--logging.level.root=WARN",
+                "--logging.level.com.salon.agendamento=WARN",
+                "--logging.level.org.springframework.web=WARN"));
+        for (String argumento : args) {
+            if (argumento.startsWith("--")) {
+                argumentosAplicacao.add(argumento);
+            } else if (argumento.contains("=")) {
+                opcoes.put(argumento.substring(0, argumento.indexOf('=')), argumento.substring(argumento.indexOf('=') + 1));
+            } else {
+                throw new IllegalArgumentException("Argumento inválido (use chave=valor): " + argumento);
+            }
+        }
+        Configuracao configuracao = Configuracao.de(opcoes);
+        if (!opcoes.isEmpty()) {
+            throw new IllegalArgumentException("Opções desconhecidas: " + opcoes.keySet());
+        }
+
+        // O reinício do devtools lê a propriedade de sistema, antes dos argumentos; com ele, main rodaria duas vezes
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        System.out.printf("Subindo a aplicação e gerando %,d agendamentos...%n", configuracao.agendamentos());
+        ServletWebServerApplicationContext contexto = (ServletWebServerApplicationContext) new SpringApplicationBuilder(AgendamentoApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run(argumentosAplicacao.toArray(String[]::new));
+        int codigoSaida = 0;
+        try {
+            contexto.getBean(GeradorMassaDados.class).gerar(configuracao.agendamentos());
+            DadosSimulacao dados = carregarDados(contexto);
+            executar(contexto, configuracao, dados);
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            codigoSaida = 1;
+        } finally {
+            contexto.close();
+        }
+        System.exit(codigoSaida);
+    }
+
+    private static DadosSimulacao carregarDados(ServletWebServerApplicationContext contexto) {
+        JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+        long[] clienteIds = jdbc.queryForList("SELECT id FROM clientes", Long.class).stream()
+                .mapToLong(Long::longValue).toArray();
+        List<Long> servicoIds = contexto.getBean(ServicoService.class).listarAtivos().stream()
+                .map(Servico::getId)
+                .toList();
+        Map<Long, List<Long>> profissionais = contexto.getBean(ProfissionalService.class).listarPorServicos(servicoIds)
+                .entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey,
+                        entrada -> entrada.getValue().stream().map(Profissional::getId).toList()));
+        long[] agendamentoIds = jdbc.queryForList(
+                        "SELECT id FROM agendamentos WHERE data_hora > CURRENT_TIMESTAMP " +
+                        "AND status IN ('AGENDADO', 'CONFIRMADO') ORDER BY data_hora LIMIT ?",
+                        Long.class, MAXIMO_AGENDAMENTOS_ABERTOS).stream()
+                .mapToLong(Long::longValue).toArray();
+        if (clienteIds.length == 0 || servicoIds.isEmpty() || agendamentoIds.length == 0) {
+            throw new IllegalStateException("Massa de dados sem clientes, serviços ativos ou agendamentos futuros");
+        }
+        return new DadosSimulacao(clienteIds, servicoIds, profissionais, agendamentoIds);
+    }
+
+    private static void executar(ServletWebServerApplicationContext contexto, Configuracao configuracao,
+                                 DadosSimulacao dados) throws InterruptedException {
+        HttpClient cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        String base = "http://localhost:" + contexto.getWebServer().getPort();
+        MeterRegistry registro = contexto.getBean(MeterRegistry.class);
+
+        long agora = System.nanoTime();
+        long inicioMedicao = agora + TimeUnit.SECONDS.toNanos(configuracao.aquecimento());
+        long fimMedicao = inicioMedicao + TimeUnit.SECONDS.toNanos(configuracao.duracao());
+        List<Recepcionista> recepcionistas = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < configuracao.recepcionistas(); i++) {
+            Recepcionista recepcionista = new Recepcionista(cliente, base, dados, configuracao, inicioMedicao, fimMedicao);
+            recepcionistas.add(recepcionista);
+            Thread thread = new Thread(recepcionista, "recepcionista-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+        System.out.printf("%d recepcionistas: %d s de aquecimento e %d s de medição%n",
+                configuracao.recepcionistas(), configuracao.aquecimento(), configuracao.duracao());
+
+        TimeUnit.NANOSECONDS.sleep(inicioMedicao - System.nanoTime());
+        Map<String, Double> recusasAntes = recusasPorMotivo(registro);
+        TimeUnit.NANOSECONDS.sleep(fimMedicao - System.nanoTime());
+        Map<String, Double> recusasDepois = recusasPorMotivo(registro);
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(60));
+        }
+
+        relatorio(configuracao, recepcionistas, recusasAntes, recusasDepois);
+    }
+
+    private static Map<String, Double> recusasPorMotivo(MeterRegistry registro) {
+        return registro.find(METRICA_RECUSAS).counters().stream()
+                .collect(Collectors.toMap(contador -> contador.getId().getTag("motivo"), Counter::count,
+                        Double::sum, TreeMap::new));
+    }
+
+    private static void relatorio(Configuracao configuracao, List<Recepcionista> recepcionistas,
+                                  Map<String, Double> recusasAntes, Map<String, Double> recusasDepois) {
+        Map<Operacao, Amostras> totais = new EnumMap<>(Operacao.class);
+        long tentativas = 0;
+        long criados = 0;
+        long recusados = 0;
+        for (Operacao operacao : Operacao.values()) {
+            totais.put(operacao, new Amostras());
+        }
+        for (Recepcionista recepcionista : recepcionistas) {
+            recepcionista.getAmostras().forEach((operacao, amostras) -> totais.get(operacao).juntar(amostras));
+            tentativas += recepcionista.getTentativas();
+            criados += recepcionista.getCriados();
+            recusados += recepcionista.getRecusados();
+        }
+
+        double segundos = configuracao.duracao();
+        System.out.println();
+        System.out.printf(Locale.ROOT, "%-36s %9s %9s %7s %9s %9s %9s %9s%n",
+                "Requisição", "total", "req/s", "erros", "p50 ms", "p95 ms", "p99 ms", "máx ms");
+        Amostras geral = new Amostras();
+        for (Map.Entry<Operacao, Amostras> entrada : totais.entrySet()) {
+            imprimirLinha(entrada.getKey().getDescricao(), entrada.getValue(), segundos);
+            geral.juntar(entrada.getValue());
+        }
+        imprimirLinha("Total", geral, segundos);
+
+        System.out.println();
+        System.out.printf(Locale.ROOT, "Agendamentos: %d tentativas, %d criados, %d recusados (%.1f%% recusados)%n",
+                tentativas, criados, recusados, tentativas == 0 ? 0.0 : 100.0 * recusados / tentativas);
+        // A contagem do servidor é por verificação: sem profissional escolhido, cada candidato ocupado conta um conflito
+        System.out.print("Recusas registradas pelo servidor:");
+        recusasDepois.forEach((motivo, depois) -> System.out.printf(Locale.ROOT, " %s=%.0f", motivo,
+                depois - recusasAntes.getOrDefault(motivo, 0.0)));
+        System.out.println();
+    }
+
+    private static void imprimirLinha(String descricao, Amostras amostras, double segundos) {
+        long[] ordenadas = amostras.ordenadas();
+        System.out.printf(Locale.ROOT, "%-36s %9d %9.1f %7d %9.1f %9.1f %9.1f %9.1f%n",
+                descricao, amostras.getQuantidade(), amostras.getQuantidade() / segundos, amostras.getErros(),
+                Amostras.percentil(ordenadas, 50) / 1000.0, Amostras.percentil(ordenadas, 95) / 1000.0,
+                Amostras.percentil(ordenadas, 99) / 1000.0,
+                (ordenadas.length == 0 ? 0 : ordenadas[ordenadas.length - 1]) / 1000.0);
+    }
+}
@@ -0,0 +1,44 @@
+package com.salon.agendamento.benchmark;
+
+import com.salon.agendamento.dto.SugestaoCliente;
+import com.salon.agendamento.model.Cliente;
+import com.salon.agendamento.service.ClienteService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Busca de clientes pelo índice de trigramas (a massa tem um cliente para cada 100 agendamentos)
+ *
+ * buscarPorNome inclui a leitura das entidades encontradas no banco; sugestoes é o caminho
+ * da busca incremental, só em memória.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class BuscaClienteBenchmark {
+
+    @Benchmark
+    public List<Cliente> trechoDoNome(ContextoBenchmark contexto) {
+        return contexto.bean(ClienteService.class).buscarPorNome("00042");
+    }
+
+    @Benchmark
+    public List<Cliente> nomeInexistente(ContextoBenchmark contexto) {
+        return contexto.bean(ClienteService.class).buscarPorNome("Inexistente");
+    }
+
+    @Benchmark
+    public List<SugestaoCliente> sugestoes(ContextoBenchmark contexto) {
+        return contexto.bean(ClienteService.class).sugerir("cliente 00004", 10);
+    }
+}
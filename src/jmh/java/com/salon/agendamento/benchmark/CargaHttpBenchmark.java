@@ -0,0 +1,54 @@
+package com.salon.agendamento.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga HTTP sobre os controllers, com threads de plataforma
+ *
+ * 256 clientes simultâneos (mais que as 200 threads do Tomcat no modo padrão), cada um
+ * esperando a resposta antes da próxima requisição. Throughput dá as requisições por ms;
+ * SampleTime dá a distribuição da latência, com o p99 (p0.99) no relatório do JMH.
+ *
+ * Uso: mvn -Pbenchmark test-compile exec:exec -Djmh.args="CargaHttp"
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(256)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class CargaHttpBenchmark {
+
+    @Benchmark
+    public int listaAgendamentos(ServidorBenchmark servidor) throws IOException, InterruptedException {
+        return servidor.get("/agendamentos");
+    }
+
+    @Benchmark
+    public int dashboard(ServidorBenchmark servidor) throws IOException, InterruptedException {
+        return servidor.get("/");
+    }
+
+    @Benchmark
+    public int disponibilidadeSemana(ServidorBenchmark servidor) throws IOException, InterruptedException {
+        LocalDate amanha = LocalDate.now().plusDays(1);
+        return servidor.get("/agendamentos/disponibilidade?servicoId=" + servidor.getServicoId()
+                + "&de=" + amanha + "&ate=" + amanha.plusDays(6));
+    }
+
+    @Benchmark
+    public int sugestoesClientes(ServidorBenchmark servidor) throws IOException, InterruptedException {
+        return servidor.get("/clientes/sugestoes?termo=cliente+00004");
+    }
+}
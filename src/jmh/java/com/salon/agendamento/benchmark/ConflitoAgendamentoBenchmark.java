@@ -0,0 +1,52 @@
+package com.salon.agendamento.benchmark;
+
+import com.salon.agendamento.repository.AgendamentoRepository;
+import com.salon.agendamento.service.AgendamentoService;
+import com.salon.agendamento.service.IndiceAgenda;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verificação de conflito de horário na criação de agendamento
+ *
+ * criarComConflito passa por todo o caminho de AgendamentoService.criar (validações, travas,
+ * transação e verificação) até a rejeição, sem gravar nada. Os outros dois medem isoladamente
+ * o índice em memória e a consulta de conflito no banco.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ConflitoAgendamentoBenchmark {
+
+    @Benchmark
+    public String criarComConflito(ContextoBenchmark contexto) {
+        try {
+            contexto.bean(AgendamentoService.class).criar(contexto.getClienteId(), contexto.getServicoId(),
+                    contexto.getProfissionalId(), contexto.getHorarioOcupado(), null);
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        throw new IllegalStateException("O horário do benchmark deveria estar ocupado");
+    }
+
+    @Benchmark
+    public boolean indiceEmMemoria(ContextoBenchmark contexto) {
+        return contexto.bean(IndiceAgenda.class).existeConflito(contexto.getProfissionalId(),
+                contexto.getHorarioOcupado(), contexto.getFimHorarioOcupado(), (Long) null);
+    }
+
+    @Benchmark
+    public boolean consultaNoBanco(ContextoBenchmark contexto) {
+        return contexto.bean(AgendamentoRepository.class).existsConflitoHorario(contexto.getProfissionalId(),
+                contexto.getHorarioOcupado(), contexto.getFimHorarioOcupado(), null);
+    }
+}
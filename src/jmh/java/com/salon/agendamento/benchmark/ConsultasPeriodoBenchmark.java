@@ -0,0 +1,67 @@
+package com.salon.agendamento.benchmark;
+
+import com.salon.agendamento.dto.AgendamentoResumo;
+import com.salon.agendamento.model.Agendamento;
+import com.salon.agendamento.repository.AgendamentoRepository;
+import com.salon.agendamento.repository.IntervaloAgendamento;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas de agendamentos por data/hora do AgendamentoRepository
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ConsultasPeriodoBenchmark {
+
+    @Benchmark
+    public List<Agendamento> agendamentosDeHoje(ContextoBenchmark contexto) {
+        LocalDate hoje = LocalDate.now();
+        return contexto.bean(AgendamentoRepository.class)
+                .findAgendamentosDeHoje(hoje.atStartOfDay(), hoje.plusDays(1).atStartOfDay());
+    }
+
+    @Benchmark
+    public List<AgendamentoResumo> resumosDeHoje(ContextoBenchmark contexto) {
+        LocalDate hoje = LocalDate.now();
+        return contexto.bean(AgendamentoRepository.class)
+                .findResumosDeHoje(hoje.atStartOfDay(), hoje.plusDays(1).atStartOfDay());
+    }
+
+    @Benchmark
+    public List<Agendamento> periodoDeUmaSemana(ContextoBenchmark contexto) {
+        LocalDateTime inicio = LocalDate.now().atStartOfDay();
+        return contexto.bean(AgendamentoRepository.class)
+                .findByDataHoraBetweenOrderByDataHoraAsc(inicio, inicio.plusDays(7));
+    }
+
+    @Benchmark
+    public List<IntervaloAgendamento> intervalosAtivosDeUmaSemana(ContextoBenchmark contexto) {
+        LocalDateTime inicio = LocalDate.now().atStartOfDay();
+        return contexto.bean(AgendamentoRepository.class).findIntervalosAtivos(inicio, inicio.plusDays(7));
+    }
+
+    @Benchmark
+    public long contagemDeFuturos(ContextoBenchmark contexto) {
+        return contexto.bean(AgendamentoRepository.class).countAgendamentosFuturos(LocalDateTime.now());
+    }
+
+    @Benchmark
+    public List<Agendamento> primeiraPaginaDaListagem(ContextoBenchmark contexto) {
+        return contexto.bean(AgendamentoRepository.class).findPaginaMaisRecentes(Limit.of(21));
+    }
+}
@@ -0,0 +1,110 @@
+package com.salon.agendamento.benchmark;
+
+import com.salon.agendamento.AgendamentoApplication;
+import com.salon.agendamento.config.GeradorMassaDados;
+import com.salon.agendamento.model.Cliente;
+import com.salon.agendamento.model.Profissional;
+import com.salon.agendamento.model.Servico;
+import com.salon.agendamento.repository.ClienteRepository;
+import com.salon.agendamento.service.AgendamentoService;
+import com.salon.agendamento.service.ProfissionalService;
+import com.salon.agendamento.service.ServicoService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Aplicação completa (sem servidor web) sobre um H2 em memória com a massa de dados do benchmark
+ *
+ * Cada fork do JMH sobe um contexto, gera a quantidade de agendamentos do parâmetro e garante
+ * um agendamento amanhã às 10h na agenda do primeiro profissional apto ao serviço, usado como
+ * horário ocupado pelos benchmarks de conflito.
+ */
+@State(Scope.Benchmark)
+public class ContextoBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int quantidadeAgendamentos;
+
+    private ConfigurableApplicationContext contexto;
+
+    private Long clienteId;
+
+    private Long servicoId;
+
+    private Long profissionalId;
+
+    private LocalDateTime horarioOcupado;
+
+    private LocalDateTime fimHorarioOcupado;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = new SpringApplicationBuilder(AgendamentoApplication.class)
+                .web(WebApplicationType.NONE)
+                // Como argumentos de linha de comando, para prevalecer sobre o application.properties
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.show-sql=false",
+                        "--agenda.diario.diretorio=target/benchmark/diario",
+                        "--spring.thymeleaf.cache=true",
+                        "--spring.devtools.restart.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.salon.agendamento=WARN",
+                        "--logging.level.org.springframework.web=WARN");
+        bean(GeradorMassaDados.class).gerar(quantidadeAgendamentos);
+
+        Cliente cliente = bean(ClienteRepository.class).findPaginaPorNome(Limit.of(1)).get(0);
+        Servico servico = bean(ServicoService.class).listarAtivos().get(0);
+        clienteId = cliente.getId();
+        servicoId = servico.getId();
+        List<Profissional> profissionais = bean(ProfissionalService.class).listarPorServico(servicoId);
+        profissionalId = profissionais.isEmpty() ? null : profissionais.get(0).getId();
+        horarioOcupado = LocalDate.now().plusDays(1).atTime(10, 0);
+        fimHorarioOcupado = horarioOcupado.plusMinutes(servico.getDuracaoMinutos());
+        try {
+            bean(AgendamentoService.class).criar(clienteId, servicoId, profissionalId, horarioOcupado, "benchmark");
+        } catch (IllegalArgumentException e) {
+            // A massa gerada já ocupa o horário
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    public <T> T bean(Class<T> tipo) {
+        return contexto.getBean(tipo);
+    }
+
+    public Long getClienteId() {
+        return clienteId;
+    }
+
+    public Long getServicoId() {
+        return servicoId;
+    }
+
+    public Long getProfissionalId() {
+        return profissionalId;
+    }
+
+    public LocalDateTime getHorarioOcupado() {
+        return horarioOcupado;
+    }
+
+    public LocalDateTime getFimHorarioOcupado() {
+        return fimHorarioOcupado;
+    }
+}
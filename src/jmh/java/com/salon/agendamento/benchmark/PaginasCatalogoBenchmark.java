@@ -0,0 +1,119 @@
+package com.salon.agendamento.benchmark;
+
+import com.salon.agendamento.AgendamentoApplication;
+import com.salon.agendamento.config.GeradorMassaDados;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo por requisição das listagens de serviços e clientes, com e sem o cache de fragmentos
+ *
+ * Um cliente por vez (o tempo médio é praticamente CPU do servidor). As variantes "Revalidada"
+ * mandam a ETag da resposta anterior e medem o caminho do 304.
+ *
+ * Uso: mvn -Pbenchmark test-compile exec:exec -Djmh.args="PaginasCatalogo"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PaginasCatalogoBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Servidor {
+
+        @Param({"true", "false"})
+        public boolean cacheFragmentos;
+
+        private ServletWebServerApplicationContext contexto;
+
+        private HttpClient cliente;
+
+        private String base;
+
+        private String etagServicos;
+
+        private String etagClientes;
+
+        @Setup(Level.Trial)
+        public void iniciar() throws IOException, InterruptedException {
+            contexto = (ServletWebServerApplicationContext) new SpringApplicationBuilder(AgendamentoApplication.class)
+                    .web(WebApplicationType.SERVLET)
+                    .run("--server.port=0",
+                            "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_ON_EXIT=FALSE",
+                            "--spring.jpa.show-sql=false",
+                            "--agenda.diario.diretorio=target/benchmark/diario",
+                            "--spring.thymeleaf.cache=true",
+                            "--spring.devtools.restart.enabled=false",
+                            "--paginas.cache-fragmentos.habilitado=" + cacheFragmentos,
+                            "--logging.level.root=WARN",
+                            "--logging.level.com.salon.agendamento=WARN",
+                            "--logging.level.org.springframework.web=WARN");
+            contexto.getBean(GeradorMassaDados.class).gerar(10000);
+            base = "http://localhost:" + contexto.getWebServer().getPort();
+            cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            etagServicos = get("/servicos", null).headers().firstValue("ETag").orElseThrow();
+            etagClientes = get("/clientes", null).headers().firstValue("ETag").orElseThrow();
+        }
+
+        @TearDown(Level.Trial)
+        public void encerrar() {
+            contexto.close();
+        }
+
+        HttpResponse<byte[]> get(String caminho, String etag) throws IOException, InterruptedException {
+            HttpRequest.Builder requisicao = HttpRequest.newBuilder(URI.create(base + caminho)).GET();
+            if (etag != null) {
+                requisicao.header("If-None-Match", etag);
+            }
+            HttpResponse<byte[]> resposta = cliente.send(requisicao.build(), HttpResponse.BodyHandlers.ofByteArray());
+            int esperado = etag != null ? 304 : 200;
+            if (resposta.statusCode() != esperado) {
+                throw new IllegalStateException("GET " + caminho + ": HTTP " + resposta.statusCode());
+            }
+            return resposta;
+        }
+    }
+
+    @Benchmark
+    public int listaServicos(Servidor servidor) throws IOException, InterruptedException {
+        return servidor.get("/servicos", null).body().length;
+    }
+
+    @Benchmark
+    public int listaClientes(Servidor servidor) throws IOException, InterruptedException {
+        return servidor.get("/clientes", null).body().length;
+    }
+
+    @Benchmark
+    public int listaServicosRevalidada(Servidor servidor) throws IOException, InterruptedException {
+        return servidor.get("/servicos", servidor.etagServicos).statusCode();
+    }
+
+    @Benchmark
+    public int listaClientesRevalidada(Servidor servidor) throws IOException, InterruptedException {
+        return servidor.get("/clientes", servidor.etagClientes).statusCode();
+    }
+}
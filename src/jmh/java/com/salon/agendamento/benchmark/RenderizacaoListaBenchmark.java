@@ -0,0 +1,77 @@
+package com.salon.agendamento.benchmark;
+
+import com.salon.agendamento.dto.Pagina;
+import com.salon.agendamento.model.Agendamento;
+import com.salon.agendamento.service.AgendamentoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renderização do template agendamento/lista.html com uma página da listagem
+ *
+ * A página (20 agendamentos) é buscada uma vez; o benchmark mede só o Thymeleaf,
+ * com o template já em cache, como em produção.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class RenderizacaoListaBenchmark {
+
+    private static final int TAMANHO_PAGINA = 20;
+
+    @State(Scope.Benchmark)
+    public static class PaginaRenderizada {
+
+        ITemplateEngine templateEngine;
+
+        JakartaServletWebApplication aplicacaoWeb;
+
+        Map<String, Object> variaveis;
+
+        @Setup(Level.Trial)
+        public void preparar(ContextoBenchmark contexto) {
+            templateEngine = contexto.bean(ITemplateEngine.class);
+            aplicacaoWeb = JakartaServletWebApplication.buildApplication(new MockServletContext());
+            Pagina<Agendamento> pagina =
+                    contexto.bean(AgendamentoService.class).listarPagina(null, TAMANHO_PAGINA);
+            variaveis = new HashMap<>();
+            variaveis.put("agendamentos", pagina.getItens());
+            variaveis.put("proximoCursor", pagina.getProximoCursor());
+            variaveis.put("cursor", null);
+        }
+    }
+
+    @Benchmark
+    public int renderizarLista(PaginaRenderizada pagina) {
+        MockHttpServletRequest requisicao = new MockHttpServletRequest("GET", "/agendamentos");
+        WebContext contexto = new WebContext(
+                pagina.aplicacaoWeb.buildExchange(requisicao, new MockHttpServletResponse()),
+                Locale.getDefault(), pagina.variaveis);
+        StringWriter html = new StringWriter();
+        pagina.templateEngine.process("agendamento/lista", contexto, html);
+        return html.getBuffer().length();
+    }
+}
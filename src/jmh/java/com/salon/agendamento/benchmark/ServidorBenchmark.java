@@ -0,0 +1,92 @@
+package com.salon.agendamento.benchmark;
+
+import com.salon.agendamento.AgendamentoApplication;
+import com.salon.agendamento.config.GeradorMassaDados;
+import com.salon.agendamento.service.ServicoService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Aplicação completa com o Tomcat em uma porta livre, na configuração padrão (threads de plataforma)
+ *
+ * O profile "virtual" só tem efeito em Java 21; enquanto o projeto roda em Java 17 não há um
+ * segundo modo a comparar.
+ */
+@State(Scope.Benchmark)
+public class ServidorBenchmark {
+
+    @Param({"100000"})
+    public int quantidadeAgendamentos;
+
+    private ServletWebServerApplicationContext contexto;
+
+    private HttpClient cliente;
+
+    private String base;
+
+    private Long servicoId;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        List<String> argumentos = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.jpa.show-sql=false",
+                "--agenda.diario.diretorio=target/benchmark/diario",
+                "--spring.thymeleaf.cache=true",
+                "--spring.devtools.restart.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.salon.agendamento=WARN",
+                "--logging.level.org.springframework.web=WARN"));
+        contexto = (ServletWebServerApplicationContext) new SpringApplicationBuilder(AgendamentoApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run(argumentos.toArray(String[]::new));
+        contexto.getBean(GeradorMassaDados.class).gerar(quantidadeAgendamentos);
+        servicoId = contexto.getBean(ServicoService.class).listarAtivos().get(0).getId();
+
+        base = "http://localhost:" + contexto.getWebServer().getPort();
+        cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    /**
+     * Faz um GET e devolve o tamanho da resposta
+     * @param caminho caminho com a query string, a partir da raiz da aplicação
+     * @return tamanho do corpo em bytes
+     */
+    public int get(String caminho) throws IOException, InterruptedException {
+        HttpResponse<byte[]> resposta = cliente.send(HttpRequest.newBuilder(URI.create(base + caminho)).GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (resposta.statusCode() != 200) {
+            throw new IllegalStateException("GET " + caminho + ": HTTP " + resposta.statusCode());
+        }
+        return resposta.body().length;
+    }
+
+    public Long getServicoId() {
+        return servicoId;
+    }
+}
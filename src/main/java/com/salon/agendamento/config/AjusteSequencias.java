@@ -0,0 +1,43 @@
+package com.salon.agendamento.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ajusta as sequências de ID ao conteúdo das tabelas na inicialização
+ *
+ * As entidades usam sequências com alocação em blocos de 50 (o que permite insert em lote).
+ * Em um banco criado quando os IDs eram gerados por IDENTITY, a sequência nova começaria em 1
+ * e colidiria com as linhas existentes; por isso ela é reiniciada acima do maior ID de cada tabela.
+ */
+@Component
+@Order(0)
+public class AjusteSequencias implements CommandLineRunner {
+
+    private static final int TAMANHO_BLOCO = 50;
+
+    private static final String[][] TABELAS = {
+            {"clientes", "clientes_seq"},
+            {"servicos", "servicos_seq"},
+            {"profissionais", "profissionais_seq"},
+            {"agendamentos", "agendamentos_seq"},
+            {"faturamento_diario", "faturamento_diario_seq"}
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        for (String[] tabela : TABELAS) {
+            Long maiorId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + tabela[0], Long.class);
+            if (maiorId != null) {
+                // Um bloco inteiro de folga garante que nenhum ID do primeiro bloco alocado já exista
+                jdbcTemplate.execute("ALTER SEQUENCE " + tabela[1] + " RESTART WITH " + (maiorId + TAMANHO_BLOCO + 1));
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.salon.agendamento.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Carga de uma massa do tamanho de produção na inicialização
+ *
+ * Ativada pelo profile "massa" (application-massa.properties): com o banco vazio, gera clientes e
+ * agendamentos com o GeradorMassaDados nas quantidades configuradas. Roda antes da verificação
+ * de planos e do DataInitializer, que então encontram o banco já populado e não criam os dados
+ * de exemplo.
+ */
+@Component
+@Profile("massa")
+@Order(-2)
+public class CargaMassaDados implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CargaMassaDados.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private GeradorMassaDados geradorMassaDados;
+
+    @Value("${massa.clientes:200000}")
+    private int clientes;
+
+    @Value("${massa.agendamentos:5000000}")
+    private int agendamentos;
+
+    @Value("${massa.dias-historico:1095}")
+    private int diasHistorico;
+
+    @Value("${massa.dias-futuros:60}")
+    private int diasFuturos;
+
+    @Override
+    public void run(String... args) {
+        Long existentes = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM agendamentos", Long.class);
+        if (existentes != null && existentes > 0) {
+            log.info("Banco já tem {} agendamentos; massa não gerada", existentes);
+            return;
+        }
+        geradorMassaDados.gerar(new GeradorMassaDados.Volume(clientes, agendamentos, diasHistorico, diasFuturos));
+    }
+}
@@ -0,0 +1,57 @@
+package com.salon.agendamento.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Coleta o SQL que o Hibernate envia ao banco (profile "planos")
+ *
+ * Registrado como StatementInspector da fábrica de sessões: durante coletar(), cada comando
+ * preparado na thread atual é guardado sem alteração. Assim a VerificacaoPlanosConsulta roda
+ * EXPLAIN sobre o SQL gerado pelos próprios repositórios, e não sobre uma cópia escrita à mão.
+ *
+ * Não depende de outros beans: é usado na criação do EntityManagerFactory.
+ */
+@Component
+@Profile("planos")
+public class ColetorSql implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private final ThreadLocal<List<String>> coletados = new ThreadLocal<>();
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        List<String> destino = coletados.get();
+        if (destino != null) {
+            destino.add(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Executa uma ação e devolve o SQL preparado por ela, na ordem
+     * @param acao ação que usa os repositórios
+     * @return comandos SQL preparados na thread atual durante a ação
+     */
+    public List<String> coletar(Runnable acao) {
+        List<String> destino = new ArrayList<>();
+        coletados.set(destino);
+        try {
+            acao.run();
+        } finally {
+            coletados.remove();
+        }
+        return destino;
+    }
+}
@@ -0,0 +1,21 @@
+package com.salon.agendamento.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Habilita o cache de leitura do catálogo de serviços
+ *
+ * Os caches são Caffeine, limitados em tamanho e configurados em application.properties
+ * (spring.cache.*). O ServicoService invalida as entradas a cada alteração de serviço.
+ */
+@Configuration
+@EnableCaching
+public class ConfiguracaoCache {
+
+    /** Serviço por ID */
+    public static final String SERVICOS = "servicos";
+
+    /** Lista de serviços ativos em ordem alfabética */
+    public static final String SERVICOS_ATIVOS = "servicosAtivos";
+}
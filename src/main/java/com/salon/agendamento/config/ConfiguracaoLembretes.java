@@ -0,0 +1,25 @@
+package com.salon.agendamento.config;
+
+import com.salon.agendamento.service.EnvioLembretes;
+import com.salon.agendamento.service.EnvioLembretesLocal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Canal de envio dos lembretes
+ *
+ * O canal padrão é local: os lembretes vão para o log ou, com lembretes.envio.arquivo
+ * configurado, para esse arquivo. Um canal real é outro bean EnvioLembretes marcado com
+ * {@code @Primary}.
+ */
+@Configuration
+public class ConfiguracaoLembretes {
+
+    @Bean
+    public EnvioLembretes envioLembretes(@Value("${lembretes.envio.arquivo:}") String arquivo) {
+        return new EnvioLembretesLocal(arquivo.isBlank() ? null : Path.of(arquivo));
+    }
+}
@@ -0,0 +1,26 @@
+package com.salon.agendamento.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Métricas da aplicação (Micrometer), expostas pelo Actuator em /actuator/prometheus
+ *
+ * O TimedAspect mede os métodos dos beans anotados com @Timed (AgendamentoService,
+ * ClienteService e ServicoService): um timer por classe e método, com histograma.
+ * As consultas dos repositórios são medidas pelo próprio Spring Boot
+ * (spring.data.repository.invocations), e as métricas da agenda ficam em MetricasAgenda.
+ */
+@Configuration
+public class ConfiguracaoMetricas {
+
+    /** Timer dos métodos de serviço (tags class, method e exception) */
+    public static final String METODOS_SERVICO = "agenda.servico.metodos";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
@@ -0,0 +1,17 @@
+package com.salon.agendamento.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita as tarefas periódicas (@Scheduled)
+ *
+ * A reconstrução noturna dos totais de faturamento (faturamento.reconstrucao.cron, "-" desliga)
+ * os lembretes de agendamento: o avanço da roda a cada segundo e as novas tentativas de envio
+ * (lembretes.envio.intervalo), e a sincronização do diário de agendamentos com o disco
+ * (agenda.diario.sincronizacao.intervalo).
+ */
+@Configuration
+@EnableScheduling
+public class ConfiguracaoTarefas {
+}
@@ -1,14 +1,21 @@
 package com.salon.agendamento.config;
 
 import com.salon.agendamento.model.Cliente;
+import com.salon.agendamento.model.Profissional;
 import com.salon.agendamento.model.Servico;
 import com.salon.agendamento.repository.ClienteRepository;
+import com.salon.agendamento.repository.ProfissionalRepository;
 import com.salon.agendamento.repository.ServicoRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Classe para inicializar dados de exemplo no banco de dados
@@ -25,6 +32,9 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired
     private ServicoRepository servicoRepository;
     
+    @Autowired
+    private ProfissionalRepository profissionalRepository;
+    
     @Override
     public void run(String... args) throws Exception {
         // Só inicializa se não houver dados
@@ -36,6 +46,10 @@ public class DataInitializer implements CommandLineRunner {
             inicializarServicos();
         }
         
+        if (profissionalRepository.count() == 0) {
+            inicializarProfissionais();
+        }
+        
         System.out.println("✅ Dados de exemplo carregados com sucesso!");
     }
     
@@ -49,11 +63,7 @@ public class DataInitializer implements CommandLineRunner {
         Cliente cliente4 = new Cliente("Pedro Oliveira", "pedro@email.com", "(11) 99999-4444", "Travessa das Palmeiras, 321");
         Cliente cliente5 = new Cliente("Lucia Ferreira", "lucia@email.com", "(11) 99999-5555", "Rua das Acácias, 654");
         
-        clienteRepository.save(cliente1);
-        clienteRepository.save(cliente2);
-        clienteRepository.save(cliente3);
-        clienteRepository.save(cliente4);
-        clienteRepository.save(cliente5);
+        clienteRepository.saveAll(List.of(cliente1, cliente2, cliente3, cliente4, cliente5));
         
         System.out.println("👥 5 clientes de exemplo criados");
     }
@@ -71,15 +81,38 @@ public class DataInitializer implements CommandLineRunner {
         Servico servico7 = new Servico("Hidratação", "Tratamento hidratante profundo", new BigDecimal("60.00"), 60);
         Servico servico8 = new Servico("Pintura", "Pintura simples com secagem", new BigDecimal("50.00"), 45);
         
-        servicoRepository.save(servico1);
-        servicoRepository.save(servico2);
-        servicoRepository.save(servico3);
-        servicoRepository.save(servico4);
-        servicoRepository.save(servico5);
-        servicoRepository.save(servico6);
-        servicoRepository.save(servico7);
-        servicoRepository.save(servico8);
+        servicoRepository.saveAll(List.of(servico1, servico2, servico3, servico4,
+                servico5, servico6, servico7, servico8));
         
         System.out.println("✂️ 8 serviços de exemplo criados");
     }
+    
+    /**
+     * Inicializa profissionais de exemplo, cada um com os serviços que realiza
+     */
+    private void inicializarProfissionais() {
+        Map<String, Servico> servicos = servicoRepository.findAll().stream()
+                .collect(Collectors.toMap(Servico::getNome, Function.identity(), (a, b) -> a));
+        
+        Profissional profissional1 = new Profissional("Carla Souza", "(11) 98888-1111", "carla@salao.com");
+        profissional1.setServicos(servicosPorNome(servicos, "Corte Feminino", "Coloração", "Escova", "Hidratação", "Pintura"));
+        Profissional profissional2 = new Profissional("Rafael Lima", "(11) 98888-2222", "rafael@salao.com");
+        profissional2.setServicos(servicosPorNome(servicos, "Corte Feminino", "Corte Masculino"));
+        Profissional profissional3 = new Profissional("Juliana Alves", "(11) 98888-3333", "juliana@salao.com");
+        profissional3.setServicos(servicosPorNome(servicos, "Manicure", "Pedicure"));
+        
+        profissionalRepository.saveAll(List.of(profissional1, profissional2, profissional3));
+        
+        System.out.println("💇 3 profissionais de exemplo criados");
+    }
+    
+    private static HashSet<Servico> servicosPorNome(Map<String, Servico> servicos, String... nomes) {
+        HashSet<Servico> encontrados = new HashSet<>();
+        for (String nome : nomes) {
+            if (servicos.containsKey(nome)) {
+                encontrados.add(servicos.get(nome));
+            }
+        }
+        return encontrados;
+    }
 }
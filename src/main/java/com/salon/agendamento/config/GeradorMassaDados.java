@@ -0,0 +1,251 @@
+package com.salon.agendamento.config;
+
+import com.salon.agendamento.service.AgendamentoService;
+import com.salon.agendamento.service.FaturamentoService;
+import com.salon.agendamento.service.IndiceAgenda;
+import com.salon.agendamento.service.LembreteService;
+import com.salon.agendamento.service.ResumoDashboard;
+import com.salon.agendamento.service.VersaoDados;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gera uma massa grande de clientes, serviços, profissionais e agendamentos direto no H2
+ *
+ * Usa INSERT ... SELECT sobre SYSTEM_RANGE, sem passar pelo Hibernate. Os IDs começam acima
+ * dos já existentes e as sequências são reposicionadas no fim, de modo que a aplicação continua
+ * cadastrando normalmente depois da geração.
+ *
+ * Os agendamentos têm 30 minutos e ficam no horário de funcionamento, espalhados por igual do
+ * início do histórico até o fim do período futuro. A quantidade de profissionais (todos realizam
+ * todos os serviços gerados) é calculada para ocupar cerca de 70% da agenda, então nenhum
+ * agendamento se sobrepõe a outro do mesmo profissional. O status depende da data: no passado,
+ * a maioria foi realizada e o resto cancelado, com falta ou esquecido como agendado; no futuro,
+ * agendados, confirmados e alguns cancelados.
+ *
+ * Os totais de faturamento são recalculados e os dados em memória (índice da agenda, dashboard,
+ * lembretes, versões) refeitos no fim da geração.
+ *
+ * Usado pela carga inicial do profile "massa", pela verificação de planos de consulta
+ * (profile "planos"), pelos benchmarks e pela simulação de carga.
+ */
+@Component
+public class GeradorMassaDados {
+
+    private static final Logger log = LoggerFactory.getLogger(GeradorMassaDados.class);
+
+    // Agendamentos por cliente quando só a quantidade de agendamentos é informada
+    private static final int AGENDAMENTOS_POR_CLIENTE = 100;
+
+    private static final int DIAS_HISTORICO_PADRAO = 365;
+
+    private static final int DIAS_FUTUROS_PADRAO = 60;
+
+    private static final int QUANTIDADE_SERVICOS = 20;
+
+    private static final int DURACAO_MINUTOS = 30;
+
+    // Horários de 30 minutos por dia, das 8h às 18h
+    private static final int HORARIOS_POR_DIA = (AgendamentoService.HORA_FECHAMENTO - AgendamentoService.HORA_ABERTURA)
+            * 60 / DURACAO_MINUTOS;
+
+    private static final double OCUPACAO_AGENDA = 0.7;
+
+    // Em blocos: um único INSERT de 1 milhão de linhas deixa o commit do H2 muito lento
+    private static final int BLOCO_INSERCAO = 50_000;
+
+    private static final int TAMANHO_BLOCO_SEQUENCIA = 50;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private FaturamentoService faturamentoService;
+
+    @Autowired
+    private VersaoDados versaoDados;
+
+    @Autowired
+    private IndiceAgenda indiceAgenda;
+
+    @Autowired
+    private ResumoDashboard resumoDashboard;
+
+    @Autowired
+    private LembreteService lembreteService;
+
+    /**
+     * Gera a massa de dados com um cliente para cada 100 agendamentos, um ano de histórico
+     * e 60 dias de agenda futura
+     * @param quantidadeAgendamentos quantidade de agendamentos a gerar
+     */
+    public void gerar(int quantidadeAgendamentos) {
+        gerar(new Volume(Math.max(1, quantidadeAgendamentos / AGENDAMENTOS_POR_CLIENTE), quantidadeAgendamentos,
+                DIAS_HISTORICO_PADRAO, DIAS_FUTUROS_PADRAO));
+    }
+
+    /**
+     * Gera a massa de dados
+     * @param volume quantidades e período
+     */
+    public void gerar(Volume volume) {
+        long inicio = System.currentTimeMillis();
+        int dias = volume.diasHistorico() + volume.diasFuturos();
+        int quantidadeProfissionais = (int) Math.max(1,
+                Math.ceil(volume.agendamentos() / (OCUPACAO_AGENDA * HORARIOS_POR_DIA * dias)));
+        // Horários disponíveis (profissional x dia x horário), dos quais os agendamentos ocupam uma fração
+        long horarios = (long) quantidadeProfissionais * HORARIOS_POR_DIA * dias;
+        long baseServicos = primeiroIdLivre("servicos", "servicos_seq");
+        long baseClientes = primeiroIdLivre("clientes", "clientes_seq");
+        long baseProfissionais = primeiroIdLivre("profissionais", "profissionais_seq");
+        long baseAgendamentos = primeiroIdLivre("agendamentos", "agendamentos_seq");
+
+        jdbcTemplate.update("INSERT INTO servicos (id, nome, descricao, preco, duracao_minutos, ativo) " +
+                "SELECT ? + X, 'Serviço ' || LPAD(X, 3, '0'), NULL, 40 + X * 5, ?, MOD(X, 5) <> 0 " +
+                "FROM SYSTEM_RANGE(1, ?)", baseServicos, DURACAO_MINUTOS, QUANTIDADE_SERVICOS);
+        carregarSemIndices("clientes", () -> {
+            for (long primeiro = 1; primeiro <= volume.clientes(); primeiro += BLOCO_INSERCAO) {
+                jdbcTemplate.update("INSERT INTO clientes (id, nome, email, telefone, endereco, data_cadastro) " +
+                        "SELECT ? + X, 'Cliente ' || LPAD(X, 7, '0'), 'cliente' || X || '@exemplo.com', " +
+                        "'(11) 9' || LPAD(X, 8, '0'), NULL, DATEADD(DAY, -MOD(X, ?), CURRENT_TIMESTAMP) " +
+                        "FROM SYSTEM_RANGE(?, ?)", baseClientes, volume.diasHistorico() + 1,
+                        primeiro, Math.min(primeiro + BLOCO_INSERCAO - 1, volume.clientes()));
+            }
+        });
+        jdbcTemplate.update("INSERT INTO profissionais (id, nome, telefone, email, ativo, data_cadastro) " +
+                "SELECT ? + X, 'Profissional ' || LPAD(X, 3, '0'), '(11) 8' || LPAD(X, 8, '0'), " +
+                "'profissional' || X || '@exemplo.com', TRUE, CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, ?)",
+                baseProfissionais, quantidadeProfissionais);
+        jdbcTemplate.update("INSERT INTO profissionais_servicos (profissional_id, servico_id) " +
+                "SELECT ? + P.X, ? + S.X FROM SYSTEM_RANGE(1, ?) P, SYSTEM_RANGE(1, ?) S",
+                baseProfissionais, baseServicos, quantidadeProfissionais, QUANTIDADE_SERVICOS);
+
+        Timestamp primeiroDia = Timestamp.valueOf(LocalDate.now().minusDays(volume.diasHistorico())
+                .atTime(AgendamentoService.HORA_ABERTURA, 0));
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+        carregarSemIndices("agendamentos", () -> {
+            for (long primeiro = 1; primeiro <= volume.agendamentos(); primeiro += BLOCO_INSERCAO) {
+                long ultimo = Math.min(primeiro + BLOCO_INSERCAO - 1, volume.agendamentos());
+                // H: posição na grade profissional x dia x horário, a intervalos iguais; P: profissional.
+                // O status é sorteado por espalhamento multiplicativo, sem acompanhar profissional nem horário
+                jdbcTemplate.update("INSERT INTO agendamentos " +
+                        "(id, cliente_id, servico_id, profissional_id, data_hora, data_hora_fim, valor, status, observacoes, data_criacao) " +
+                        "SELECT ? + X, ? + MOD(X, ?) + 1, ? + MOD(X, ?) + 1, ? + P + 1, INICIO, DATEADD(MINUTE, ?, INICIO), " +
+                        "40 + (MOD(X, ?) + 1) * 5, " +
+                        "CASE WHEN INICIO < ? THEN CASE WHEN SORTEIO < 80 THEN 'REALIZADO' WHEN SORTEIO < 90 THEN 'CANCELADO' " +
+                        "WHEN SORTEIO < 97 THEN 'NAO_COMPARECEU' ELSE 'AGENDADO' END " +
+                        "ELSE CASE WHEN SORTEIO < 60 THEN 'AGENDADO' WHEN SORTEIO < 90 THEN 'CONFIRMADO' ELSE 'CANCELADO' END END, " +
+                        "NULL, LEAST(DATEADD(DAY, -MOD(X, 30), INICIO), ?) " +
+                        "FROM (SELECT X, MOD(H, ?) AS P, " +
+                        "DATEADD(MINUTE, MOD(H / ?, ?) * ?, DATEADD(DAY, H / ? / ?, CAST(? AS TIMESTAMP))) AS INICIO, " +
+                        "MOD(X * 2654435761 / 1000, 100) AS SORTEIO " +
+                        "FROM (SELECT X, (X - 1) * ? / ? AS H FROM SYSTEM_RANGE(?, ?)))",
+                        baseAgendamentos, baseClientes, volume.clientes(), baseServicos, QUANTIDADE_SERVICOS,
+                        baseProfissionais, DURACAO_MINUTOS, QUANTIDADE_SERVICOS, agora, agora,
+                        quantidadeProfissionais, quantidadeProfissionais, HORARIOS_POR_DIA, DURACAO_MINUTOS,
+                        quantidadeProfissionais, HORARIOS_POR_DIA, primeiroDia,
+                        horarios, volume.agendamentos(), primeiro, ultimo);
+            }
+        });
+
+        ajustarSequencia("servicos", "servicos_seq");
+        ajustarSequencia("clientes", "clientes_seq");
+        ajustarSequencia("profissionais", "profissionais_seq");
+        ajustarSequencia("agendamentos", "agendamentos_seq");
+        // Os agendamentos não passaram pelo serviço: totais recalculados e dados em memória descartados
+        faturamentoService.reconstruir();
+        indiceAgenda.limpar();
+        resumoDashboard.invalidar();
+        lembreteService.recarregar();
+        versaoDados.tudoAlterado();
+        jdbcTemplate.execute("ANALYZE");
+        log.info("Massa de {} agendamentos, {} clientes e {} profissionais gerada em {} ms",
+                volume.agendamentos(), volume.clientes(), quantidadeProfissionais, System.currentTimeMillis() - inicio);
+    }
+
+    /**
+     * Executa a carga de uma tabela vazia sem os índices secundários, recriados no fim
+     *
+     * Montar cada índice de uma vez sobre a tabela cheia sai mais barato que atualizá-lo a cada
+     * linha inserida (1 milhão de agendamentos em um núcleo: ~60 s contra ~75 s). Os índices de
+     * chave primária, únicos e de chaves estrangeiras ficam. Com a tabela já populada, a carga
+     * roda com os índices, que seriam reconstruídos sobre os dados antigos também.
+     */
+    private void carregarSemIndices(String tabela, Runnable carga) {
+        Long linhas = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + tabela, Long.class);
+        if (linhas == null || linhas > 0) {
+            carga.run();
+            return;
+        }
+        Map<String, List<String>> indices = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT C.INDEX_NAME, C.COLUMN_NAME, C.ORDERING_SPECIFICATION " +
+                "FROM INFORMATION_SCHEMA.INDEX_COLUMNS C JOIN INFORMATION_SCHEMA.INDEXES I " +
+                "ON I.INDEX_SCHEMA = C.INDEX_SCHEMA AND I.INDEX_NAME = C.INDEX_NAME " +
+                "WHERE I.TABLE_SCHEMA = SCHEMA() AND I.TABLE_NAME = ? AND I.INDEX_TYPE_NAME = 'INDEX' " +
+                "AND I.INDEX_NAME NOT IN (SELECT INDEX_NAME FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS " +
+                "WHERE INDEX_NAME IS NOT NULL) " +
+                "ORDER BY C.INDEX_NAME, C.ORDINAL_POSITION",
+                linha -> {
+                    indices.computeIfAbsent(linha.getString(1), nome -> new ArrayList<>())
+                            .add(linha.getString(2) + ("DESC".equals(linha.getString(3)) ? " DESC" : ""));
+                }, tabela.toUpperCase());
+        indices.keySet().forEach(nome -> jdbcTemplate.execute("DROP INDEX " + nome));
+        try {
+            carga.run();
+        } finally {
+            long inicio = System.currentTimeMillis();
+            indices.forEach((nome, colunas) -> jdbcTemplate.execute(
+                    "CREATE INDEX " + nome + " ON " + tabela + " (" + String.join(", ", colunas) + ")"));
+            log.info("{} índices de {} recriados em {} ms", indices.size(), tabela, System.currentTimeMillis() - inicio);
+        }
+    }
+
+    /**
+     * O Hibernate reserva IDs em blocos da sequência; os gerados aqui começam depois tanto do maior
+     * ID gravado quanto do próximo valor da sequência, para não colidir com um bloco já reservado.
+     */
+    private long primeiroIdLivre(String tabela, String sequencia) {
+        Long proximoValor = jdbcTemplate.queryForObject(
+                "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = ?",
+                Long.class, sequencia.toUpperCase());
+        return Math.max(maiorId(tabela), proximoValor == null ? 0 : proximoValor);
+    }
+
+    private long maiorId(String tabela) {
+        Long maiorId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + tabela, Long.class);
+        return maiorId == null ? 0 : maiorId;
+    }
+
+    private void ajustarSequencia(String tabela, String sequencia) {
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequencia + " RESTART WITH "
+                + (maiorId(tabela) + TAMANHO_BLOCO_SEQUENCIA + 1));
+    }
+
+    /**
+     * Tamanho da massa gerada
+     * @param clientes quantidade de clientes
+     * @param agendamentos quantidade de agendamentos
+     * @param diasHistorico dias de agendamentos passados (até ontem)
+     * @param diasFuturos dias de agenda a partir de hoje
+     */
+    public record Volume(int clientes, int agendamentos, int diasHistorico, int diasFuturos) {
+
+        public Volume {
+            if (clientes < 1 || agendamentos < 1 || diasHistorico < 0 || diasFuturos < 0 || diasHistorico + diasFuturos < 1) {
+                throw new IllegalArgumentException("Volume de massa inválido: " + clientes + " clientes, "
+                        + agendamentos + " agendamentos, " + diasHistorico + "+" + diasFuturos + " dias");
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.salon.agendamento.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Modo de execução das requisições: threads de plataforma (padrão) ou threads virtuais
+ *
+ * O modo de threads virtuais é ligado pelo profile "virtual" (spring.threads.virtual.enabled):
+ * o Tomcat passa a atender cada requisição em uma thread virtual, e o serviço e o JDBC rodam
+ * nela. A espera pelo banco deixa de ocupar uma thread do pool do Tomcat, e o limite de
+ * concorrência passa a ser o pool de conexões (configurado no mesmo profile).
+ *
+ * Threads virtuais exigem Java 21. Em versões anteriores o Spring Boot ignora a propriedade e
+ * a aplicação segue com threads de plataforma; isso é avisado na inicialização.
+ */
+@Component
+public class ModoExecucao {
+
+    private static final Logger log = LoggerFactory.getLogger(ModoExecucao.class);
+
+    private static final int VERSAO_JAVA_THREADS_VIRTUAIS = 21;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean threadsVirtuaisSolicitadas;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int conexoes;
+
+    @Value("${server.tomcat.threads.max:200}")
+    private int threadsTomcat;
+
+    /**
+     * @return true se a JVM atual oferece threads virtuais
+     */
+    public static boolean threadsVirtuaisDisponiveis() {
+        return Runtime.version().feature() >= VERSAO_JAVA_THREADS_VIRTUAIS;
+    }
+
+    /**
+     * @return true se as requisições estão sendo atendidas em threads virtuais
+     */
+    public boolean isThreadsVirtuais() {
+        return threadsVirtuaisSolicitadas && threadsVirtuaisDisponiveis();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void informar() {
+        if (isThreadsVirtuais()) {
+            log.info("Requisições em threads virtuais; até {} conexões simultâneas com o banco", conexoes);
+        } else if (threadsVirtuaisSolicitadas) {
+            log.warn("Threads virtuais exigem Java {} (JVM atual: {}); requisições em threads de plataforma ({} threads, {} conexões)",
+                    VERSAO_JAVA_THREADS_VIRTUAIS, Runtime.version().feature(), threadsTomcat, conexoes);
+        } else {
+            log.info("Requisições em threads de plataforma ({} threads, {} conexões)", threadsTomcat, conexoes);
+        }
+    }
+}
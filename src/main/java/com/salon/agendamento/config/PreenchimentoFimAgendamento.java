@@ -0,0 +1,26 @@
+package com.salon.agendamento.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Preenche data_hora_fim dos agendamentos antigos que ficaram sem fim
+ *
+ * As consultas de conflito e de intervalos filtram por data_hora_fim diretamente (sem COALESCE)
+ * para poder usar o índice; um agendamento sem fim ocupa apenas o instante de início.
+ */
+@Component
+@Order(0)
+public class PreenchimentoFimAgendamento implements CommandLineRunner {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        jdbcTemplate.update("UPDATE agendamentos SET data_hora_fim = data_hora WHERE data_hora_fim IS NULL");
+    }
+}
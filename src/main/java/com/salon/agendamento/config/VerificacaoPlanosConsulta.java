@@ -0,0 +1,427 @@
+package com.salon.agendamento.config;
+
+import com.salon.agendamento.model.Agendamento.StatusAgendamento;
+import com.salon.agendamento.repository.AgendamentoRepository;
+import com.salon.agendamento.repository.ClienteRepository;
+import com.salon.agendamento.repository.FaturamentoDiarioRepository;
+import com.salon.agendamento.repository.LembreteRepository;
+import com.salon.agendamento.repository.ProfissionalRepository;
+import com.salon.agendamento.repository.ServicoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Verificação dos planos de consulta sobre uma massa grande de agendamentos
+ *
+ * Ativada pelo profile "planos": popula o banco com o GeradorMassaDados (por padrão
+ * 1 milhão de agendamentos), atualiza as estatísticas e chama cada consulta declarada nos
+ * repositórios, dentro de uma transação desfeita ao final. O SQL que o Hibernate gera é
+ * capturado pelo ColetorSql e passa por EXPLAIN. São listadas no log (e, se configurado,
+ * impedem a aplicação de subir):
+ * - consultas cujo plano faz varredura completa de uma tabela grande;
+ * - páginas keyset que não vêm ordenadas pelo índice;
+ * - verificações de conflito que percorrem um intervalo aberto do índice de agendamentos;
+ * - consultas declaradas nos repositórios sem verificação cadastrada aqui.
+ *
+ * Roda antes do DataInitializer, que então encontra o banco já populado.
+ */
+@Component
+@Profile("planos")
+@Order(-1)
+public class VerificacaoPlanosConsulta implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(VerificacaoPlanosConsulta.class);
+
+    private static final List<Class<?>> REPOSITORIOS = List.of(AgendamentoRepository.class, ClienteRepository.class,
+            FaturamentoDiarioRepository.class, LembreteRepository.class, ProfissionalRepository.class,
+            ServicoRepository.class);
+
+    // Índice usado na leitura de agendamentos, com as condições que delimitam a busca nele
+    private static final Pattern INDICE_AGENDAMENTOS = Pattern.compile(
+            "\\.\"AGENDAMENTOS\" \"\\w+\"\\s*/\\* ([^:*]+?)(?:: (.*?))?\\s*\\*/", Pattern.DOTALL);
+
+    private static final Pattern CONDICAO = Pattern.compile("(\\w+)\"?\\s*(<=|>=|<|>|=|IN\\b)");
+
+    private static final int LIMITE_PAGINA = 21;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private GeradorMassaDados geradorMassaDados;
+
+    @Autowired
+    private ColetorSql coletorSql;
+
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private FaturamentoDiarioRepository faturamentoDiarioRepository;
+
+    @Autowired
+    private LembreteRepository lembreteRepository;
+
+    @Autowired
+    private ProfissionalRepository profissionalRepository;
+
+    @Autowired
+    private ServicoRepository servicoRepository;
+
+    @Value("${agenda.planos.quantidade:1000000}")
+    private int quantidadeAgendamentos;
+
+    @Value("${agenda.planos.falhar-sem-indice:true}")
+    private boolean falharSemIndice;
+
+    @Override
+    public void run(String... args) {
+        Long existentes = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM agendamentos", Long.class);
+        if (existentes == null || existentes == 0) {
+            geradorMassaDados.gerar(quantidadeAgendamentos);
+        }
+        jdbcTemplate.execute("ANALYZE");
+
+        Map<String, Verificacao> verificacoes = verificacoes();
+        List<String> semIndice = new ArrayList<>(semVerificacao(verificacoes));
+        for (String consulta : semIndice) {
+            log.warn("{}: consulta sem verificação de plano", consulta);
+        }
+
+        for (Map.Entry<String, Verificacao> entrada : verificacoes.entrySet()) {
+            Verificacao verificacao = entrada.getValue();
+            List<String> comandos = coletorSql.coletar(() -> transactionTemplate.executeWithoutResult(transacao -> {
+                transacao.setRollbackOnly();
+                verificacao.chamada().run();
+            }));
+            if (comandos.isEmpty()) {
+                semIndice.add(entrada.getKey());
+                log.warn("{}: nenhum SQL capturado", entrada.getKey());
+                continue;
+            }
+            for (String sql : comandos) {
+                String plano = explicar(sql);
+                String problema = problema(verificacao.expectativa(), plano);
+                if (problema != null) {
+                    semIndice.add(entrada.getKey());
+                    log.warn("{}: {}\n{}", entrada.getKey(), problema, plano);
+                } else {
+                    log.info("{}: {}\n{}", entrada.getKey(),
+                            verificacao.expectativa() == Expectativa.TABELA_INTEIRA ? "lê a tabela inteira" : "usa índice",
+                            plano);
+                }
+            }
+        }
+
+        if (semIndice.isEmpty()) {
+            log.info("Todas as {} consultas verificadas usam índice", verificacoes.size());
+        } else if (falharSemIndice) {
+            throw new IllegalStateException("Consultas sem índice: " + String.join(", ", semIndice));
+        }
+    }
+
+    /**
+     * Motivo para recusar o plano de um comando, ou null se ele atende à expectativa
+     */
+    private static String problema(Expectativa expectativa, String plano) {
+        if (expectativa != Expectativa.TABELA_INTEIRA && varreTabelaGrande(plano)) {
+            return "varredura completa de tabela";
+        }
+        if (expectativa == Expectativa.PAGINA && !plano.contains("index sorted")) {
+            return "página ordenada fora do índice";
+        }
+        if (expectativa == Expectativa.JANELA && intervaloAberto(plano)) {
+            return "intervalo aberto no índice de agendamentos";
+        }
+        return null;
+    }
+
+    /**
+     * Varredura completa só conta para agendamentos, clientes e totais de faturamento; a tabela
+     * de serviços é pequena e o H2 pode preferir lê-la inteira como primeira tabela de uma junção.
+     */
+    private static boolean varreTabelaGrande(String plano) {
+        return plano.contains("AGENDAMENTOS.tableScan") || plano.contains("CLIENTES.tableScan")
+                || plano.contains("FATURAMENTO_DIARIO.tableScan");
+    }
+
+    /**
+     * Se a leitura de agendamentos percorre um intervalo aberto do índice: índice sem condição,
+     * ou alguma coluna limitada só de um lado (ex.: DATA_HORA <= ?), o que lê todo o histórico
+     * anterior ao horário (ou todo o futuro posterior a ele) a cada verificação.
+     */
+    private static boolean intervaloAberto(String plano) {
+        Matcher indice = INDICE_AGENDAMENTOS.matcher(plano);
+        if (!indice.find() || indice.group(2) == null) {
+            return true;
+        }
+        // Por coluna: 1 = limite inferior, 2 = limite superior, 3 = os dois (ou igualdade)
+        Map<String, Integer> limites = new HashMap<>();
+        Matcher condicao = CONDICAO.matcher(indice.group(2));
+        while (condicao.find()) {
+            int lado = switch (condicao.group(2)) {
+                case ">", ">=" -> 1;
+                case "<", "<=" -> 2;
+                default -> 3;
+            };
+            limites.merge(condicao.group(1), lado, (a, b) -> a | b);
+        }
+        return limites.isEmpty() || limites.containsValue(1) || limites.containsValue(2);
+    }
+
+    /**
+     * Plano de um comando capturado; o H2 escolhe o plano na preparação, então os parâmetros
+     * são todos ligados a NULL
+     */
+    private String explicar(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) conexao -> {
+            try (PreparedStatement comando = conexao.prepareStatement("EXPLAIN " + sql)) {
+                int parametros = comando.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parametros; i++) {
+                    comando.setNull(i, Types.NULL);
+                }
+                StringBuilder plano = new StringBuilder();
+                try (ResultSet linhas = comando.executeQuery()) {
+                    while (linhas.next()) {
+                        plano.append(linhas.getString(1)).append('\n');
+                    }
+                }
+                return plano.toString().trim();
+            }
+        });
+    }
+
+    /**
+     * Consultas declaradas nos repositórios (métodos abstratos) sem verificação cadastrada
+     */
+    private static List<String> semVerificacao(Map<String, Verificacao> verificacoes) {
+        List<String> faltando = new ArrayList<>();
+        for (Class<?> repositorio : REPOSITORIOS) {
+            for (Method metodo : repositorio.getDeclaredMethods()) {
+                if (metodo.isDefault() || metodo.isSynthetic() || Modifier.isStatic(metodo.getModifiers())) {
+                    continue;
+                }
+                String nome = repositorio.getSimpleName() + "." + metodo.getName();
+                if (!verificacoes.containsKey(nome)) {
+                    faltando.add(nome);
+                }
+            }
+        }
+        return faltando;
+    }
+
+    /**
+     * Chamada de cada consulta dos repositórios, com argumentos típicos tirados da massa
+     */
+    private Map<String, Verificacao> verificacoes() {
+        LocalDateTime hoje = LocalDate.now().atStartOfDay();
+        LocalDateTime amanha = hoje.plusDays(1);
+        LocalDateTime umaSemana = hoje.plusDays(7);
+        LocalDateTime horario = amanha.withHour(10);
+        LocalDateTime horarioFim = amanha.withHour(11);
+        LocalDate dia = hoje.toLocalDate();
+        LocalDate inicioMes = dia.minusDays(30);
+
+        Map<String, Object> agendamento = jdbcTemplate.queryForMap(
+                "SELECT a.id, a.cliente_id, a.servico_id FROM agendamentos a " +
+                "ORDER BY a.data_hora DESC, a.id DESC FETCH FIRST 1 ROW ONLY");
+        Long agendamentoId = ((Number) agendamento.get("id")).longValue();
+        Long clienteId = ((Number) agendamento.get("cliente_id")).longValue();
+        Long servicoId = ((Number) agendamento.get("servico_id")).longValue();
+        LocalDateTime dataHora = jdbcTemplate.queryForObject(
+                "SELECT data_hora FROM agendamentos WHERE id = ?", LocalDateTime.class, agendamentoId);
+        Long profissionalId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM profissionais", Long.class);
+        String serieId = jdbcTemplate.queryForObject("SELECT MIN(serie_id) FROM agendamentos", String.class);
+        Map<String, Object> cliente = jdbcTemplate.queryForMap(
+                "SELECT c.nome, c.email, c.telefone FROM clientes c WHERE c.id = ?", clienteId);
+        String nome = (String) cliente.get("nome");
+        String email = (String) cliente.get("email");
+        String telefone = (String) cliente.get("telefone");
+        List<Long> ids = List.of(agendamentoId);
+
+        Map<String, Verificacao> verificacoes = new LinkedHashMap<>();
+        AgendamentoRepository agendamentos = agendamentoRepository;
+        verificacoes.put("AgendamentoRepository.findById", Verificacao.indice(
+                () -> agendamentos.findById(agendamentoId)));
+        verificacoes.put("AgendamentoRepository.findByClienteIdOrderByDataHoraDesc", Verificacao.indice(
+                () -> agendamentos.findByClienteIdOrderByDataHoraDesc(clienteId)));
+        verificacoes.put("AgendamentoRepository.findByStatusOrderByDataHoraAsc", Verificacao.indice(
+                () -> agendamentos.findByStatusOrderByDataHoraAsc(StatusAgendamento.NAO_COMPARECEU)));
+        verificacoes.put("AgendamentoRepository.findByDataHoraBetweenOrderByDataHoraAsc", Verificacao.indice(
+                () -> agendamentos.findByDataHoraBetweenOrderByDataHoraAsc(hoje, umaSemana)));
+        verificacoes.put("AgendamentoRepository.findAgendamentosDeHoje", Verificacao.indice(
+                () -> agendamentos.findAgendamentosDeHoje(hoje, amanha)));
+        verificacoes.put("AgendamentoRepository.findAgendamentosFuturos", Verificacao.indice(
+                () -> agendamentos.findAgendamentosFuturos(horario)));
+        verificacoes.put("AgendamentoRepository.findResumosDeHoje", Verificacao.indice(
+                () -> agendamentos.findResumosDeHoje(hoje, amanha)));
+        verificacoes.put("AgendamentoRepository.streamParaExportacao", Verificacao.indice(() -> {
+            try (Stream<?> linhas = agendamentos.streamParaExportacao(hoje, umaSemana)) {
+                linhas.findFirst();
+            }
+        }));
+        verificacoes.put("AgendamentoRepository.findParaApi", Verificacao.indice(
+                () -> agendamentos.findParaApi(hoje, umaSemana)));
+        verificacoes.put("AgendamentoRepository.findParaApiPorId", Verificacao.indice(
+                () -> agendamentos.findParaApiPorId(agendamentoId)));
+        verificacoes.put("AgendamentoRepository.countAgendamentosFuturos", Verificacao.indice(
+                () -> agendamentos.countAgendamentosFuturos(horario)));
+        verificacoes.put("AgendamentoRepository.countByDataHoraGreaterThanEqual", Verificacao.indice(
+                () -> agendamentos.countByDataHoraGreaterThanEqual(amanha)));
+        verificacoes.put("AgendamentoRepository.existsConflitoHorarioNaJanela", Verificacao.janela(
+                () -> agendamentos.existsConflitoHorario(profissionalId, horario, horarioFim, agendamentoId)));
+        verificacoes.put("AgendamentoRepository.existsConflitoHorarioIgnorandoNaJanela", Verificacao.janela(
+                () -> agendamentos.existsConflitoHorarioIgnorando(profissionalId, horario, horarioFim, ids)));
+        verificacoes.put("AgendamentoRepository.findBySerieIdOrderByDataHoraAsc", Verificacao.indice(
+                () -> agendamentos.findBySerieIdOrderByDataHoraAsc(serieId != null ? serieId : "")));
+        verificacoes.put("AgendamentoRepository.existsByProfissionalId", Verificacao.indice(
+                () -> agendamentos.existsByProfissionalId(profissionalId)));
+        verificacoes.put("AgendamentoRepository.findIntervalosAtivos", Verificacao.indice(
+                () -> agendamentos.findIntervalosAtivos(amanha, umaSemana)));
+        verificacoes.put("AgendamentoRepository.findFuturosParaLembrete", Verificacao.indice(
+                () -> agendamentos.findFuturosParaLembrete(horario)));
+        verificacoes.put("AgendamentoRepository.findByIdIn", Verificacao.indice(
+                () -> agendamentos.findByIdIn(ids)));
+        verificacoes.put("AgendamentoRepository.findParaMudarStatus", Verificacao.indice(
+                () -> agendamentos.findParaMudarStatus(ids)));
+        verificacoes.put("AgendamentoRepository.findParaMudarStatusNoPeriodo", Verificacao.indice(
+                () -> agendamentos.findParaMudarStatusNoPeriodo(amanha, amanha.plusDays(1), StatusAgendamento.AGENDADO)));
+        verificacoes.put("AgendamentoRepository.atualizarStatus", Verificacao.indice(
+                () -> agendamentos.atualizarStatus(ids, List.of(StatusAgendamento.AGENDADO), StatusAgendamento.CONFIRMADO)));
+        verificacoes.put("AgendamentoRepository.findByServicoIdOrderByDataHoraDesc", Verificacao.indice(
+                () -> agendamentos.findByServicoIdOrderByDataHoraDesc(servicoId)));
+        verificacoes.put("AgendamentoRepository.findAllByOrderByDataHoraDesc", Verificacao.tabelaInteira(
+                agendamentos::findAllByOrderByDataHoraDesc));
+        verificacoes.put("AgendamentoRepository.findPaginaMaisRecentes", Verificacao.pagina(
+                () -> agendamentos.findPaginaMaisRecentes(Limit.of(LIMITE_PAGINA))));
+        verificacoes.put("AgendamentoRepository.findPaginaMaisRecentesApos", Verificacao.pagina(
+                () -> agendamentos.findPaginaMaisRecentesApos(dataHora, agendamentoId, Limit.of(LIMITE_PAGINA))));
+
+        ClienteRepository clientes = clienteRepository;
+        verificacoes.put("ClienteRepository.findByEmail", Verificacao.indice(() -> clientes.findByEmail(email)));
+        verificacoes.put("ClienteRepository.findDadosBusca", Verificacao.tabelaInteira(clientes::findDadosBusca));
+        verificacoes.put("ClienteRepository.findEmailsExistentes", Verificacao.indice(
+                () -> clientes.findEmailsExistentes(List.of(email, "nao.existe@exemplo.com"))));
+        verificacoes.put("ClienteRepository.findByTelefone", Verificacao.indice(() -> clientes.findByTelefone(telefone)));
+        verificacoes.put("ClienteRepository.findAllByOrderByNomeAsc", Verificacao.tabelaInteira(
+                clientes::findAllByOrderByNomeAsc));
+        verificacoes.put("ClienteRepository.findByDataCadastroBetween", Verificacao.indice(
+                () -> clientes.findByDataCadastroBetween(hoje.minusDays(7), amanha)));
+        verificacoes.put("ClienteRepository.existsByEmail", Verificacao.indice(() -> clientes.existsByEmail(email)));
+        verificacoes.put("ClienteRepository.findPaginaPorNome", Verificacao.pagina(
+                () -> clientes.findPaginaPorNome(Limit.of(LIMITE_PAGINA))));
+        verificacoes.put("ClienteRepository.findPaginaPorNomeApos", Verificacao.pagina(
+                () -> clientes.findPaginaPorNomeApos(nome, clienteId, Limit.of(LIMITE_PAGINA))));
+
+        FaturamentoDiarioRepository faturamento = faturamentoDiarioRepository;
+        verificacoes.put("FaturamentoDiarioRepository.somar", Verificacao.indice(
+                () -> faturamento.somar(dia, servicoId, 1, BigDecimal.ONE, 30)));
+        verificacoes.put("FaturamentoDiarioRepository.removerVazio", Verificacao.indice(
+                () -> faturamento.removerVazio(dia, servicoId)));
+        verificacoes.put("FaturamentoDiarioRepository.calcularTotaisDosAgendamentos", Verificacao.tabelaInteira(
+                faturamento::calcularTotaisDosAgendamentos));
+        verificacoes.put("FaturamentoDiarioRepository.somarPorServico", Verificacao.indice(
+                () -> faturamento.somarPorServico(inicioMes, dia)));
+        verificacoes.put("FaturamentoDiarioRepository.somarPorDia", Verificacao.indice(
+                () -> faturamento.somarPorDia(inicioMes, dia)));
+
+        LembreteRepository lembretes = lembreteRepository;
+        verificacoes.put("LembreteRepository.findPendentes", Verificacao.indice(
+                () -> lembretes.findPendentes(3, Limit.of(100))));
+        verificacoes.put("LembreteRepository.findByAgendamentoIdIn", Verificacao.indice(
+                () -> lembretes.findByAgendamentoIdIn(ids)));
+        verificacoes.put("LembreteRepository.marcarEnviados", Verificacao.indice(
+                () -> lembretes.marcarEnviados(ids, LocalDateTime.now())));
+        verificacoes.put("LembreteRepository.registrarFalha", Verificacao.indice(
+                () -> lembretes.registrarFalha(ids, "verificação de plano")));
+
+        ProfissionalRepository profissionais = profissionalRepository;
+        verificacoes.put("ProfissionalRepository.findAllByOrderByNomeAsc", Verificacao.indice(
+                profissionais::findAllByOrderByNomeAsc));
+        verificacoes.put("ProfissionalRepository.findByAtivoTrueOrderByNomeAsc", Verificacao.indice(
+                profissionais::findByAtivoTrueOrderByNomeAsc));
+        verificacoes.put("ProfissionalRepository.findAtivosPorServicos", Verificacao.indice(
+                () -> profissionais.findAtivosPorServicos(List.of(servicoId))));
+
+        ServicoRepository servicos = servicoRepository;
+        verificacoes.put("ServicoRepository.findByAtivoTrue", Verificacao.indice(servicos::findByAtivoTrue));
+        verificacoes.put("ServicoRepository.countByAtivoTrue", Verificacao.indice(servicos::countByAtivoTrue));
+        verificacoes.put("ServicoRepository.findByNomeContainingIgnoreCase", Verificacao.indice(
+                () -> servicos.findByNomeContainingIgnoreCase("corte")));
+        verificacoes.put("ServicoRepository.findByAtivoTrueOrderByNomeAsc", Verificacao.indice(
+                servicos::findByAtivoTrueOrderByNomeAsc));
+        verificacoes.put("ServicoRepository.findByPrecoBetweenAndAtivoTrue", Verificacao.indice(
+                () -> servicos.findByPrecoBetweenAndAtivoTrue(BigDecimal.ZERO, new BigDecimal("100"))));
+        verificacoes.put("ServicoRepository.findPaginaPorNome", Verificacao.indice(
+                () -> servicos.findPaginaPorNome(Limit.of(LIMITE_PAGINA))));
+        verificacoes.put("ServicoRepository.findPaginaPorNomeApos", Verificacao.indice(
+                () -> servicos.findPaginaPorNomeApos("Corte", 0L, Limit.of(LIMITE_PAGINA))));
+        return verificacoes;
+    }
+
+    /**
+     * O que se espera do plano de uma consulta
+     */
+    private enum Expectativa {
+        /** Não varre tabela grande */
+        INDICE,
+        /** Página keyset: além de usar índice, vem ordenada por ele */
+        PAGINA,
+        /** Verificação de conflito: busca limitada dos dois lados no índice de agendamentos */
+        JANELA,
+        /** Lê a tabela inteira por definição (listagem completa, carga de cache, recálculo) */
+        TABELA_INTEIRA
+    }
+
+    private record Verificacao(Expectativa expectativa, Runnable chamada) {
+
+        static Verificacao indice(Runnable chamada) {
+            return new Verificacao(Expectativa.INDICE, chamada);
+        }
+
+        static Verificacao pagina(Runnable chamada) {
+            return new Verificacao(Expectativa.PAGINA, chamada);
+        }
+
+        static Verificacao janela(Runnable chamada) {
+            return new Verificacao(Expectativa.JANELA, chamada);
+        }
+
+        static Verificacao tabelaInteira(Runnable chamada) {
+            return new Verificacao(Expectativa.TABELA_INTEIRA, chamada);
+        }
+    }
+}
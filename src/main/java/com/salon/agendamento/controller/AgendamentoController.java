@@ -1,18 +1,39 @@
 package com.salon.agendamento.controller;
 
+import com.salon.agendamento.dto.DisponibilidadeDia;
+import com.salon.agendamento.dto.Pagina;
+import com.salon.agendamento.dto.ResultadoItemLote;
+import com.salon.agendamento.dto.ResultadoSerie;
+import com.salon.agendamento.dto.SolicitacaoAgendamento;
+import com.salon.agendamento.dto.SolicitacaoSerie;
 import com.salon.agendamento.model.Agendamento;
+import com.salon.agendamento.model.Recorrencia;
 import com.salon.agendamento.service.AgendamentoService;
-import com.salon.agendamento.service.ClienteService;
+import com.salon.agendamento.service.DisponibilidadeService;
+import com.salon.agendamento.service.ExportacaoAgendamentosService;
+import com.salon.agendamento.service.ProfissionalService;
 import com.salon.agendamento.service.ServicoService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Controller para gerenciar operações de Agendamentos
@@ -21,22 +42,32 @@ import java.util.List;
 @RequestMapping("/agendamentos")
 public class AgendamentoController {
     
+    private static final int TAMANHO_PAGINA = 20;
+    
     @Autowired
     private AgendamentoService agendamentoService;
     
     @Autowired
-    private ClienteService clienteService;
+    private ServicoService servicoService;
     
     @Autowired
-    private ServicoService servicoService;
+    private ProfissionalService profissionalService;
+    
+    @Autowired
+    private DisponibilidadeService disponibilidadeService;
+    
+    @Autowired
+    private ExportacaoAgendamentosService exportacaoAgendamentosService;
     
     /**
-     * Lista todos os agendamentos
+     * Lista os agendamentos, uma página por vez
      */
     @GetMapping
-    public String listar(Model model) {
-        List<Agendamento> agendamentos = agendamentoService.listarTodos();
-        model.addAttribute("agendamentos", agendamentos);
+    public String listar(@RequestParam(required = false) String cursor, Model model) {
+        Pagina<Agendamento> pagina = agendamentoService.listarPagina(cursor, TAMANHO_PAGINA);
+        model.addAttribute("agendamentos", pagina.getItens());
+        model.addAttribute("proximoCursor", pagina.getProximoCursor());
+        model.addAttribute("cursor", cursor);
         return "agendamento/lista";
     }
     
@@ -45,27 +76,54 @@ public class AgendamentoController {
      */
     @GetMapping("/novo")
     public String novo(Model model) {
-        model.addAttribute("clientes", clienteService.listarTodos());
         model.addAttribute("servicos", servicoService.listarAtivos());
+        model.addAttribute("profissionais", profissionalService.listarAtivos());
         model.addAttribute("agendamento", new Agendamento());
+        model.addAttribute("recorrencias", Recorrencia.values());
         return "agendamento/form";
     }
     
     /**
-     * Salva um novo agendamento
+     * Salva um novo agendamento (ou uma série, se uma recorrência for informada)
      */
     @PostMapping
     public String salvar(@RequestParam Long clienteId,
                         @RequestParam Long servicoId,
+                        @RequestParam(required = false) Long profissionalId,
                         @RequestParam String dataHora,
                         @RequestParam(required = false) String observacoes,
+                        @RequestParam(required = false) Recorrencia recorrencia,
+                        @RequestParam(required = false) Integer quantidadeOcorrencias,
+                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFimRecorrencia,
                         RedirectAttributes redirectAttributes) {
         try {
             DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
             LocalDateTime dataHoraObj = LocalDateTime.parse(dataHora, formatter);
             
-            agendamentoService.criar(clienteId, servicoId, dataHoraObj, observacoes);
-            redirectAttributes.addFlashAttribute("mensagem", "Agendamento criado com sucesso!");
+            if (recorrencia != null) {
+                SolicitacaoSerie solicitacao = new SolicitacaoSerie();
+                solicitacao.setClienteId(clienteId);
+                solicitacao.setServicoId(servicoId);
+                solicitacao.setProfissionalId(profissionalId);
+                solicitacao.setDataHoraInicial(dataHoraObj);
+                solicitacao.setRecorrencia(recorrencia);
+                solicitacao.setQuantidade(quantidadeOcorrencias);
+                solicitacao.setDataFim(dataFimRecorrencia);
+                solicitacao.setObservacoes(observacoes);
+                
+                ResultadoSerie resultado = agendamentoService.criarSerie(solicitacao);
+                redirectAttributes.addFlashAttribute("mensagem", resultado.getTotalAgendadas() + " de "
+                        + resultado.getOcorrencias().size() + " ocorrências agendadas.");
+                if (resultado.getTotalAgendadas() < resultado.getOcorrencias().size()) {
+                    redirectAttributes.addFlashAttribute("erro", "Não agendadas: " + descreverRejeitadas(resultado));
+                }
+                return "redirect:/agendamentos";
+            }
+            
+            Agendamento agendamento = agendamentoService.criar(clienteId, servicoId, profissionalId, dataHoraObj, observacoes);
+            redirectAttributes.addFlashAttribute("mensagem", agendamento.getProfissional() != null
+                    ? "Agendamento criado com sucesso com " + agendamento.getProfissional().getNome() + "!"
+                    : "Agendamento criado com sucesso!");
             return "redirect:/agendamentos";
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("erro", e.getMessage());
@@ -73,6 +131,102 @@ public class AgendamentoController {
         }
     }
     
+    /**
+     * Cria vários agendamentos de uma vez (JSON), informando o resultado de cada item
+     */
+    @PostMapping("/lote")
+    @ResponseBody
+    public List<ResultadoItemLote> salvarLote(@RequestBody List<SolicitacaoAgendamento> solicitacoes) {
+        try {
+            return agendamentoService.criarEmLote(solicitacoes);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+    
+    /**
+     * Cria uma série de agendamentos recorrentes (JSON), informando o resultado de cada ocorrência
+     */
+    @PostMapping("/serie")
+    @ResponseBody
+    public ResultadoSerie salvarSerie(@RequestBody SolicitacaoSerie solicitacao) {
+        try {
+            return agendamentoService.criarSerie(solicitacao);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+    
+    /**
+     * Cancela as ocorrências futuras de uma série
+     */
+    @PostMapping("/serie/{serieId}/cancelar")
+    public String cancelarSerie(@PathVariable String serieId, RedirectAttributes redirectAttributes) {
+        try {
+            int canceladas = agendamentoService.cancelarSerie(serieId);
+            redirectAttributes.addFlashAttribute("mensagem", canceladas + " ocorrências da série canceladas!");
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("erro", e.getMessage());
+        }
+        return "redirect:/agendamentos";
+    }
+    
+    /**
+     * Remarca as ocorrências futuras de uma série a partir de um novo horário
+     */
+    @PostMapping("/serie/{serieId}/reagendar")
+    public String reagendarSerie(@PathVariable String serieId,
+                                 @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd'T'HH:mm") LocalDateTime novaDataHora,
+                                 RedirectAttributes redirectAttributes) {
+        try {
+            int remarcadas = agendamentoService.reagendarSerie(serieId, novaDataHora);
+            redirectAttributes.addFlashAttribute("mensagem", remarcadas + " ocorrências da série remarcadas!");
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("erro", e.getMessage());
+        }
+        return "redirect:/agendamentos";
+    }
+    
+    /**
+     * Lista os horários livres para um serviço em um período (JSON), de um profissional ou de qualquer apto
+     */
+    @GetMapping("/disponibilidade")
+    @ResponseBody
+    public List<DisponibilidadeDia> disponibilidade(@RequestParam Long servicoId,
+                                                    @RequestParam(required = false) Long profissionalId,
+                                                    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+                                                    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate,
+                                                    @RequestParam(defaultValue = "15") int passoMinutos) {
+        try {
+            return disponibilidadeService.buscarHorariosLivres(servicoId, profissionalId, de, ate, passoMinutos);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+    
+    /**
+     * Exporta os agendamentos de um período em CSV (ou CSV comprimido em gzip)
+     * 
+     * A resposta é escrita enquanto o banco é lido, sem montar o período em memória.
+     */
+    @GetMapping("/exportar")
+    public ResponseEntity<StreamingResponseBody> exportar(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+                                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate,
+                                                          @RequestParam(defaultValue = "false") boolean compactar) {
+        try {
+            exportacaoAgendamentosService.validarPeriodo(de, ate);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        String arquivo = "agendamentos-" + de + "-a-" + ate + (compactar ? ".csv.gz" : ".csv");
+        StreamingResponseBody corpo = saida -> exportacaoAgendamentosService.exportar(de, ate, compactar, saida);
+        return ResponseEntity.ok()
+                .contentType(compactar ? MediaType.parseMediaType("application/gzip")
+                        : new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(arquivo).build().toString())
+                .body(corpo);
+    }
+    
     /**
      * Exibe detalhes de um agendamento
      */
@@ -81,6 +235,9 @@ public class AgendamentoController {
         return agendamentoService.buscarPorId(id)
                 .map(agendamento -> {
                     model.addAttribute("agendamento", agendamento);
+                    if (agendamento.getSerieId() != null) {
+                        model.addAttribute("ocorrenciasSerie", agendamentoService.listarPorSerie(agendamento.getSerieId()).size());
+                    }
                     return "agendamento/detalhes";
                 })
                 .orElseGet(() -> {
@@ -93,9 +250,10 @@ public class AgendamentoController {
      * Cancela um agendamento
      */
     @PostMapping("/{id}/cancelar")
-    public String cancelar(@PathVariable Long id, RedirectAttributes redirectAttributes) {
+    public String cancelar(@PathVariable Long id, @RequestParam(required = false) Long versao,
+                            RedirectAttributes redirectAttributes) {
         try {
-            agendamentoService.cancelar(id);
+            agendamentoService.atualizarStatus(id, Agendamento.StatusAgendamento.CANCELADO, versao);
             redirectAttributes.addFlashAttribute("mensagem", "Agendamento cancelado com sucesso!");
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("erro", e.getMessage());
@@ -107,9 +265,10 @@ public class AgendamentoController {
      * Confirma um agendamento
      */
     @PostMapping("/{id}/confirmar")
-    public String confirmar(@PathVariable Long id, RedirectAttributes redirectAttributes) {
+    public String confirmar(@PathVariable Long id, @RequestParam(required = false) Long versao,
+                            RedirectAttributes redirectAttributes) {
         try {
-            agendamentoService.confirmar(id);
+            agendamentoService.atualizarStatus(id, Agendamento.StatusAgendamento.CONFIRMADO, versao);
             redirectAttributes.addFlashAttribute("mensagem", "Agendamento confirmado com sucesso!");
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("erro", e.getMessage());
@@ -121,13 +280,55 @@ public class AgendamentoController {
      * Marca agendamento como realizado
      */
     @PostMapping("/{id}/realizar")
-    public String realizar(@PathVariable Long id, RedirectAttributes redirectAttributes) {
+    public String realizar(@PathVariable Long id, @RequestParam(required = false) Long versao,
+                            RedirectAttributes redirectAttributes) {
         try {
-            agendamentoService.marcarComoRealizado(id);
+            agendamentoService.atualizarStatus(id, Agendamento.StatusAgendamento.REALIZADO, versao);
             redirectAttributes.addFlashAttribute("mensagem", "Agendamento marcado como realizado!");
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("erro", e.getMessage());
         }
         return "redirect:/agendamentos";
     }
-}
+    
+    /**
+     * Cancela os agendamentos selecionados na lista
+     */
+    @PostMapping("/cancelar-lote")
+    public String cancelarLote(@RequestParam(required = false) List<Long> ids, RedirectAttributes redirectAttributes) {
+        try {
+            List<Long> cancelados = agendamentoService.cancelarEmLote(ids);
+            int ignorados = new HashSet<>(ids).size() - cancelados.size();
+            redirectAttributes.addFlashAttribute("mensagem", cancelados.size() + " agendamentos cancelados"
+                    + (ignorados > 0 ? " (" + ignorados + " ignorados por já estarem encerrados)" : "") + "!");
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("erro", e.getMessage());
+        }
+        return "redirect:/agendamentos";
+    }
+    
+    /**
+     * Confirma os agendamentos de um dia (padrão: amanhã) que ainda não foram confirmados
+     */
+    @PostMapping("/confirmar-dia")
+    public String confirmarDia(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dia,
+                               RedirectAttributes redirectAttributes) {
+        LocalDate alvo = dia != null ? dia : LocalDate.now().plusDays(1);
+        try {
+            List<Long> confirmados = agendamentoService.confirmarDoDia(alvo);
+            redirectAttributes.addFlashAttribute("mensagem", confirmados.size() + " agendamentos de "
+                    + alvo.format(DateTimeFormatter.ofPattern("dd/MM/yyyy")) + " confirmados!");
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("erro", e.getMessage());
+        }
+        return "redirect:/agendamentos";
+    }
+    
+    private static String descreverRejeitadas(ResultadoSerie resultado) {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+        return resultado.getOcorrencias().stream()
+                .filter(ocorrencia -> !ocorrencia.isAgendada())
+                .map(ocorrencia -> ocorrencia.getDataHora().format(formatter) + " (" + ocorrencia.getMotivo() + ")")
+                .collect(Collectors.joining("; "));
+    }
+}
\ No newline at end of file
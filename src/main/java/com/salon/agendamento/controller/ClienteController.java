@@ -1,14 +1,35 @@
 package com.salon.agendamento.controller;
 
+import com.salon.agendamento.dto.Pagina;
+import com.salon.agendamento.dto.ResultadoImportacao;
+import com.salon.agendamento.dto.SugestaoCliente;
 import com.salon.agendamento.model.Cliente;
 import com.salon.agendamento.service.ClienteService;
+import com.salon.agendamento.service.ImportacaoClientesService;
+import com.salon.agendamento.service.VersaoDados;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Controller para gerenciar operações de Clientes
@@ -19,23 +40,48 @@ import java.util.List;
  * - Editar cliente
  * - Deletar cliente
  * - Buscar clientes
+ * - Sugerir clientes enquanto o usuário digita
+ * - Importar clientes de um arquivo CSV
  */
 @Controller
 @RequestMapping("/clientes")
 public class ClienteController {
     
+    private static final int TAMANHO_PAGINA = 20;
+    
+    private static final int MAXIMO_SUGESTOES = 50;
+    
     @Autowired
     private ClienteService clienteService;
     
+    @Autowired
+    private ImportacaoClientesService importacaoClientesService;
+    
+    @Autowired
+    private PaginasEmCache paginasEmCache;
+    
     /**
-     * Lista todos os clientes
+     * Lista os clientes, uma página por vez (304 se o navegador já tem a versão atual)
+     * @param cursor cursor da página (ausente na primeira página)
      * @param model modelo para passar dados para a view
-     * @return nome da view
+     * @param requisicao requisição atual, para a revalidação por ETag/Last-Modified
+     * @return nome da view (null quando a resposta é 304)
      */
     @GetMapping
-    public String listar(Model model) {
-        List<Cliente> clientes = clienteService.listarTodos();
-        model.addAttribute("clientes", clientes);
+    public String listar(@RequestParam(required = false) String cursor, Model model, ServletWebRequest requisicao) {
+        if (paginasEmCache.naoModificada(VersaoDados.Dominio.CLIENTES, model, requisicao)) {
+            return null;
+        }
+        // Só consulta e renderiza as linhas se não estiverem em cache para a versão atual
+        String lista = paginasEmCache.fragmento(VersaoDados.Dominio.CLIENTES, "cliente/lista", "lista", cursor, () -> {
+            Pagina<Cliente> pagina = clienteService.listarPagina(cursor, TAMANHO_PAGINA);
+            Map<String, Object> variaveis = new HashMap<>();
+            variaveis.put("clientes", pagina.getItens());
+            variaveis.put("proximoCursor", pagina.getProximoCursor());
+            variaveis.put("cursor", cursor);
+            return variaveis;
+        }, requisicao);
+        model.addAttribute("listaRenderizada", lista);
         return "cliente/lista";
     }
     
@@ -158,4 +204,59 @@ public class ClienteController {
         model.addAttribute("termoBusca", nome);
         return "cliente/lista";
     }
+    
+    /**
+     * Sugere clientes enquanto o usuário digita (JSON), por nome, email ou telefone
+     * @param termo texto digitado
+     * @param limite quantidade máxima de sugestões
+     * @return clientes mais relevantes
+     */
+    @GetMapping("/sugestoes")
+    @ResponseBody
+    public List<SugestaoCliente> sugestoes(@RequestParam String termo,
+                                           @RequestParam(defaultValue = "10") int limite) {
+        return clienteService.sugerir(termo, Math.min(Math.max(limite, 1), MAXIMO_SUGESTOES));
+    }
+    
+    /**
+     * Importa clientes de um arquivo CSV
+     * @param arquivo arquivo enviado pelo formulário
+     * @param redirectAttributes para mensagens e o link do relatório de rejeitados
+     * @return redirecionamento
+     */
+    @PostMapping("/importar")
+    public String importar(@RequestParam MultipartFile arquivo, RedirectAttributes redirectAttributes) {
+        if (arquivo.isEmpty()) {
+            redirectAttributes.addFlashAttribute("erro", "Selecione um arquivo CSV");
+            return "redirect:/clientes";
+        }
+        try (InputStream entrada = arquivo.getInputStream()) {
+            ResultadoImportacao resultado = importacaoClientesService.importar(entrada, arquivo.getSize());
+            redirectAttributes.addFlashAttribute("mensagem", resultado.getImportados() + " de "
+                    + resultado.getTotalRegistros() + " clientes importados.");
+            if (resultado.getRelatorioId() != null) {
+                redirectAttributes.addFlashAttribute("erro", resultado.getRejeitados() + " registros rejeitados.");
+                redirectAttributes.addFlashAttribute("relatorioImportacao", resultado.getRelatorioId());
+            }
+        } catch (IllegalArgumentException | IOException e) {
+            redirectAttributes.addFlashAttribute("erro", "Falha na importação: " + e.getMessage());
+        }
+        return "redirect:/clientes";
+    }
+    
+    /**
+     * Baixa o relatório CSV dos registros rejeitados em uma importação
+     * @param id ID do relatório
+     * @return arquivo CSV
+     */
+    @GetMapping("/importacoes/{id}/rejeitados")
+    public ResponseEntity<Resource> relatorioRejeitados(@PathVariable String id) {
+        Path relatorio = importacaoClientesService.buscarRelatorio(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Relatório não encontrado ou expirado"));
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("clientes-rejeitados.csv").build().toString())
+                .body(new FileSystemResource(relatorio));
+    }
 }
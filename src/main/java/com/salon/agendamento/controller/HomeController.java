@@ -1,8 +1,6 @@
 package com.salon.agendamento.controller;
 
-import com.salon.agendamento.service.AgendamentoService;
-import com.salon.agendamento.service.ClienteService;
-import com.salon.agendamento.service.ServicoService;
+import com.salon.agendamento.service.ResumoDashboard;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -18,13 +16,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 public class HomeController {
     
     @Autowired
-    private AgendamentoService agendamentoService;
-    
-    @Autowired
-    private ClienteService clienteService;
-    
-    @Autowired
-    private ServicoService servicoService;
+    private ResumoDashboard resumoDashboard;
     
     /**
      * Página inicial - Dashboard
@@ -33,11 +25,12 @@ public class HomeController {
      */
     @GetMapping("/")
     public String home(Model model) {
-        // Busca dados para o dashboard
-        model.addAttribute("agendamentosHoje", agendamentoService.listarAgendamentosDeHoje());
-        model.addAttribute("agendamentosFuturos", agendamentoService.listarAgendamentosFuturos());
-        model.addAttribute("totalClientes", clienteService.listarTodos().size());
-        model.addAttribute("totalServicos", servicoService.listarAtivos().size());
+        // Dados do dashboard mantidos em memória (sem consultas ao banco)
+        ResumoDashboard.Fotografia dashboard = resumoDashboard.obter();
+        model.addAttribute("agendamentosHoje", dashboard.agendamentosHoje());
+        model.addAttribute("totalAgendamentosFuturos", dashboard.totalAgendamentosFuturos());
+        model.addAttribute("totalClientes", dashboard.totalClientes());
+        model.addAttribute("totalServicos", dashboard.totalServicosAtivos());
         
         return "home";
     }
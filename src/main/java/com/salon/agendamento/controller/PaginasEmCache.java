@@ -0,0 +1,143 @@
+package com.salon.agendamento.controller;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.salon.agendamento.service.VersaoDados;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.ui.Model;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Cache de páginas de listagem cujos dados mudam pouco (serviços, clientes)
+ *
+ * Duas camadas, ambas pela versão dos dados em VersaoDados (que os serviços incrementam a cada
+ * alteração gravada, o que já invalida tudo o que foi montado com a versão anterior):
+ * - HTTP: ETag e Last-Modified da versão; o navegador revalida e recebe 304 sem nada ser
+ *   consultado ou renderizado enquanto os dados não mudarem.
+ * - HTML: o trecho da página com as linhas da listagem (th:fragment) é renderizado uma vez por
+ *   versão e página, e reaproveitado com th:utext; só o restante do template, que não depende
+ *   dos dados, é processado a cada requisição.
+ *
+ * Páginas com mensagens de flash ("mensagem", "erro") não participam da revalidação: a mensagem
+ * só deve aparecer uma vez, então a resposta sai com no-store.
+ */
+@Component
+public class PaginasEmCache {
+
+    private static final Set<String> ATRIBUTOS_FLASH = Set.of("mensagem", "erro");
+
+    // Uma entrada por template, fragmento e página; as mais antigas saem primeiro
+    private static final int MAXIMO_FRAGMENTOS = 500;
+
+    @Autowired
+    private ITemplateEngine templateEngine;
+
+    @Autowired
+    private VersaoDados versaoDados;
+
+    @Autowired
+    private ServletContext servletContext;
+
+    @Value("${paginas.cache-fragmentos.habilitado:true}")
+    private boolean habilitado;
+
+    private final Cache<Chave, Fragmento> fragmentos = Caffeine.newBuilder()
+            .maximumSize(MAXIMO_FRAGMENTOS)
+            .build();
+
+    /**
+     * Responde 304 se o navegador já tem a página na versão atual dos dados
+     *
+     * Quando a página vai ser gerada, deixa ETag, Last-Modified e Cache-Control na resposta.
+     * @param dominio domínio dos dados exibidos na página
+     * @param model modelo da requisição (já com os atributos de flash)
+     * @param requisicao requisição atual
+     * @return true se a resposta 304 já foi preparada (o controller deve devolver null)
+     */
+    public boolean naoModificada(VersaoDados.Dominio dominio, Model model, ServletWebRequest requisicao) {
+        HttpServletResponse resposta = requisicao.getResponse();
+        if (ATRIBUTOS_FLASH.stream().anyMatch(model::containsAttribute)) {
+            resposta.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+            return false;
+        }
+        resposta.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        return requisicao.checkNotModified(versaoDados.etag(dominio), versaoDados.ultimaAlteracao(dominio));
+    }
+
+    /**
+     * HTML de um fragmento de template, renderizado uma vez por versão dos dados
+     * @param dominio domínio dos dados exibidos no fragmento
+     * @param template nome do template (ex.: "servico/lista")
+     * @param fragmento nome do th:fragment dentro do template
+     * @param variante o que mais distingue o conteúdo (ex.: o cursor da página)
+     * @param variaveis consulta os dados e monta as variáveis do fragmento (só em caso de falta)
+     * @param requisicao requisição atual
+     * @return HTML do fragmento
+     */
+    public String fragmento(VersaoDados.Dominio dominio, String template, String fragmento, String variante,
+                            Supplier<Map<String, Object>> variaveis, ServletWebRequest requisicao) {
+        // A versão é lida antes dos dados: na dúvida, o fragmento fica com uma versão mais antiga
+        long versao = versaoDados.versao(dominio);
+        if (!habilitado) {
+            return renderizar(template, fragmento, variaveis.get(), requisicao);
+        }
+        Chave chave = new Chave(template, fragmento, variante != null ? variante : "");
+        Fragmento emCache = fragmentos.getIfPresent(chave);
+        if (emCache != null && emCache.versao() == versao) {
+            return emCache.html();
+        }
+        String html = renderizar(template, fragmento, variaveis.get(), requisicao);
+        fragmentos.put(chave, new Fragmento(versao, html));
+        return html;
+    }
+
+    private String renderizar(String template, String fragmento, Map<String, Object> variaveis,
+                              ServletWebRequest requisicao) {
+        HttpServletRequest request = requisicao.getRequest();
+        JakartaServletWebApplication aplicacaoWeb = JakartaServletWebApplication.buildApplication(servletContext);
+        HttpServletResponse resposta = new SemReescritaDeUrl(requisicao.getResponse());
+        WebContext contexto = new WebContext(aplicacaoWeb.buildExchange(request, resposta), request.getLocale(), variaveis);
+        return templateEngine.process(template, Set.of(fragmento), contexto);
+    }
+
+    /**
+     * Resposta que não acrescenta ;jsessionid aos links: o HTML em cache é servido a todos os usuários
+     */
+    private static final class SemReescritaDeUrl extends HttpServletResponseWrapper {
+
+        SemReescritaDeUrl(HttpServletResponse resposta) {
+            super(resposta);
+        }
+
+        @Override
+        public String encodeURL(String url) {
+            return url;
+        }
+
+        @Override
+        public String encodeRedirectURL(String url) {
+            return url;
+        }
+    }
+
+    private record Chave(String template, String fragmento, String variante) {
+    }
+
+    private record Fragmento(long versao, String html) {
+    }
+}
@@ -0,0 +1,145 @@
+package com.salon.agendamento.controller;
+
+import com.salon.agendamento.model.Profissional;
+import com.salon.agendamento.model.Servico;
+import com.salon.agendamento.service.ProfissionalService;
+import com.salon.agendamento.service.ServicoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Controller para gerenciar operações de Profissionais
+ */
+@Controller
+@RequestMapping("/profissionais")
+public class ProfissionalController {
+    
+    @Autowired
+    private ProfissionalService profissionalService;
+    
+    @Autowired
+    private ServicoService servicoService;
+    
+    /**
+     * Lista todos os profissionais
+     */
+    @GetMapping
+    public String listar(Model model) {
+        model.addAttribute("profissionais", profissionalService.listarTodos());
+        return "profissional/lista";
+    }
+    
+    /**
+     * Exibe formulário para novo profissional
+     */
+    @GetMapping("/novo")
+    public String novo(Model model) {
+        return formulario(new Profissional(), model);
+    }
+    
+    /**
+     * Salva um novo profissional
+     */
+    @PostMapping
+    public String salvar(@ModelAttribute Profissional profissional,
+                         @RequestParam(required = false) List<Long> servicoIds,
+                         RedirectAttributes redirectAttributes) {
+        try {
+            profissionalService.salvar(profissional, servicoIds);
+            redirectAttributes.addFlashAttribute("mensagem", "Profissional cadastrado com sucesso!");
+            return "redirect:/profissionais";
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("erro", e.getMessage());
+            return "redirect:/profissionais/novo";
+        }
+    }
+    
+    /**
+     * Exibe formulário para editar profissional
+     */
+    @GetMapping("/{id}/editar")
+    public String editar(@PathVariable Long id, Model model, RedirectAttributes redirectAttributes) {
+        return profissionalService.buscarPorId(id)
+                .map(profissional -> formulario(profissional, model))
+                .orElseGet(() -> {
+                    redirectAttributes.addFlashAttribute("erro", "Profissional não encontrado");
+                    return "redirect:/profissionais";
+                });
+    }
+    
+    /**
+     * Atualiza um profissional existente
+     */
+    @PostMapping("/{id}")
+    public String atualizar(@PathVariable Long id, @ModelAttribute Profissional profissional,
+                            @RequestParam(required = false) List<Long> servicoIds,
+                            RedirectAttributes redirectAttributes) {
+        try {
+            profissionalService.atualizar(id, profissional, servicoIds);
+            redirectAttributes.addFlashAttribute("mensagem", "Profissional atualizado com sucesso!");
+            return "redirect:/profissionais";
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("erro", e.getMessage());
+            return "redirect:/profissionais/" + id + "/editar";
+        }
+    }
+    
+    /**
+     * Ativa um profissional
+     */
+    @PostMapping("/{id}/ativar")
+    public String ativar(@PathVariable Long id, RedirectAttributes redirectAttributes) {
+        try {
+            profissionalService.ativar(id);
+            redirectAttributes.addFlashAttribute("mensagem", "Profissional ativado com sucesso!");
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("erro", e.getMessage());
+        }
+        return "redirect:/profissionais";
+    }
+    
+    /**
+     * Desativa um profissional
+     */
+    @PostMapping("/{id}/desativar")
+    public String desativar(@PathVariable Long id, RedirectAttributes redirectAttributes) {
+        try {
+            profissionalService.desativar(id);
+            redirectAttributes.addFlashAttribute("mensagem", "Profissional desativado com sucesso!");
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("erro", e.getMessage());
+        }
+        return "redirect:/profissionais";
+    }
+    
+    /**
+     * Deleta um profissional
+     */
+    @PostMapping("/{id}/deletar")
+    public String deletar(@PathVariable Long id, RedirectAttributes redirectAttributes) {
+        try {
+            profissionalService.deletar(id);
+            redirectAttributes.addFlashAttribute("mensagem", "Profissional deletado com sucesso!");
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("erro", e.getMessage());
+        }
+        return "redirect:/profissionais";
+    }
+    
+    private String formulario(Profissional profissional, Model model) {
+        Set<Long> servicosSelecionados = profissional.getServicos().stream()
+                .map(Servico::getId)
+                .collect(Collectors.toSet());
+        model.addAttribute("profissional", profissional);
+        model.addAttribute("servicos", servicoService.listarTodos());
+        model.addAttribute("servicosSelecionados", servicosSelecionados);
+        return "profissional/form";
+    }
+}
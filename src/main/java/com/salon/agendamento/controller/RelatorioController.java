@@ -0,0 +1,63 @@
+package com.salon.agendamento.controller;
+
+import com.salon.agendamento.service.FaturamentoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import java.time.LocalDate;
+
+/**
+ * Controller dos relatórios gerenciais
+ */
+@Controller
+@RequestMapping("/relatorios")
+public class RelatorioController {
+
+    @Autowired
+    private FaturamentoService faturamentoService;
+
+    /**
+     * Relatório de faturamento por serviço e por dia (padrão: mês atual)
+     */
+    @GetMapping("/faturamento")
+    public String faturamento(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate,
+                              Model model) {
+        LocalDate hoje = LocalDate.now();
+        LocalDate inicio = de != null ? de : hoje.withDayOfMonth(1);
+        LocalDate fim = ate != null ? ate : hoje;
+        model.addAttribute("de", inicio);
+        model.addAttribute("ate", fim);
+        try {
+            model.addAttribute("relatorio", faturamentoService.relatorio(inicio, fim));
+        } catch (IllegalArgumentException e) {
+            model.addAttribute("erro", e.getMessage());
+        }
+        return "relatorio/faturamento";
+    }
+
+    /**
+     * Recalcula os totais de faturamento a partir dos agendamentos
+     */
+    @PostMapping("/faturamento/reconstruir")
+    public String reconstruirFaturamento(@RequestParam(required = false) String de,
+                                         @RequestParam(required = false) String ate,
+                                         RedirectAttributes redirectAttributes) {
+        try {
+            int linhas = faturamentoService.reconstruir();
+            redirectAttributes.addFlashAttribute("mensagem", "Totais de faturamento recalculados (" + linhas + " dias/serviços).");
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("erro", e.getMessage());
+        }
+        // Volta ao período que estava na tela
+        if (de != null && ate != null) {
+            redirectAttributes.addAttribute("de", de);
+            redirectAttributes.addAttribute("ate", ate);
+        }
+        return "redirect:/relatorios/faturamento";
+    }
+}
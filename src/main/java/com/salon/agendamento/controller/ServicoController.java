@@ -1,15 +1,20 @@
 package com.salon.agendamento.controller;
 
+import com.salon.agendamento.dto.Pagina;
 import com.salon.agendamento.model.Servico;
 import com.salon.agendamento.service.ServicoService;
+import com.salon.agendamento.service.VersaoDados;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.math.BigDecimal;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Controller para gerenciar operações de Serviços
@@ -18,19 +23,44 @@ import java.util.List;
 @RequestMapping("/servicos")
 public class ServicoController {
     
+    private static final int TAMANHO_PAGINA = 20;
+    
     @Autowired
     private ServicoService servicoService;
     
+    @Autowired
+    private PaginasEmCache paginasEmCache;
+    
     /**
-     * Lista todos os serviços
+     * Lista os serviços, uma página por vez (304 se o navegador já tem a versão atual)
      */
     @GetMapping
-    public String listar(Model model) {
-        List<Servico> servicos = servicoService.listarTodos();
-        model.addAttribute("servicos", servicos);
+    public String listar(@RequestParam(required = false) String cursor, Model model, ServletWebRequest requisicao) {
+        if (paginasEmCache.naoModificada(VersaoDados.Dominio.SERVICOS, model, requisicao)) {
+            return null;
+        }
+        // Só consulta e renderiza as linhas se não estiverem em cache para a versão atual
+        String lista = paginasEmCache.fragmento(VersaoDados.Dominio.SERVICOS, "servico/lista", "lista", cursor, () -> {
+            Pagina<Servico> pagina = servicoService.listarPagina(cursor, TAMANHO_PAGINA);
+            Map<String, Object> variaveis = new HashMap<>();
+            variaveis.put("servicos", pagina.getItens());
+            variaveis.put("proximoCursor", pagina.getProximoCursor());
+            variaveis.put("cursor", cursor);
+            return variaveis;
+        }, requisicao);
+        model.addAttribute("listaRenderizada", lista);
         return "servico/lista";
     }
     
+    /**
+     * Estatísticas do cache de serviços (JSON)
+     */
+    @GetMapping("/cache")
+    @ResponseBody
+    public Map<String, Map<String, Object>> estatisticasCache() {
+        return servicoService.estatisticasCache();
+    }
+    
     /**
      * Exibe formulário para novo serviço
      */
@@ -0,0 +1,168 @@
+package com.salon.agendamento.controller.api;
+
+import com.salon.agendamento.dto.AgendamentoApi;
+import com.salon.agendamento.dto.ResultadoStatusLote;
+import com.salon.agendamento.dto.SolicitacaoAgendamento;
+import com.salon.agendamento.model.Agendamento;
+import com.salon.agendamento.service.AgendamentoService;
+import com.salon.agendamento.service.VersaoDados;
+import com.salon.agendamento.service.VersaoDados.Dominio;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * API JSON de agendamentos
+ *
+ * As respostas trazem nomes de cliente, serviço e profissional, então a ETag muda quando
+ * qualquer um desses domínios muda.
+ *
+ * As mudanças de status aceitam a versão do agendamento lida pelo cliente (parâmetro versao):
+ * se ele foi alterado desde então, a resposta é 409 e nada é gravado.
+ */
+@RestController
+@RequestMapping("/api/v1/agendamentos")
+public class AgendamentoApiController {
+
+    private static final Dominio[] DOMINIOS = {
+            Dominio.AGENDAMENTOS, Dominio.CLIENTES, Dominio.SERVICOS, Dominio.PROFISSIONAIS
+    };
+
+    @Autowired
+    private AgendamentoService agendamentoService;
+
+    @Autowired
+    private VersaoDados versaoDados;
+
+    /**
+     * Lista os agendamentos de um período (padrão: hoje)
+     * @param de primeiro dia
+     * @param ate último dia (inclusivo)
+     */
+    @GetMapping
+    public ResponseEntity<List<AgendamentoApi>> listar(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate,
+            WebRequest requisicao) {
+        LocalDate inicio = de != null ? de : LocalDate.now();
+        LocalDate fim = ate != null ? ate : inicio;
+        // Antes da ETag: um período inválido é 400 mesmo com If-None-Match
+        try {
+            agendamentoService.validarPeriodoApi(inicio, fim);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        return RespostaCondicional.responder(requisicao, versaoDados.etag(DOMINIOS),
+                () -> agendamentoService.listarParaApi(inicio, fim));
+    }
+
+    /**
+     * Busca um agendamento por ID
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<AgendamentoApi> buscar(@PathVariable Long id, WebRequest requisicao) {
+        return RespostaCondicional.responder(requisicao, versaoDados.etag(DOMINIOS), () ->
+                agendamentoService.buscarParaApi(id)
+                        .orElseThrow(RespostaCondicional.naoEncontrado("Agendamento não encontrado")));
+    }
+
+    /**
+     * Cria um agendamento
+     * @return 201 com o agendamento criado e o endereço dele em Location
+     */
+    @PostMapping
+    public ResponseEntity<AgendamentoApi> criar(@RequestBody SolicitacaoAgendamento solicitacao) {
+        Agendamento criado;
+        try {
+            criado = agendamentoService.criar(solicitacao.getClienteId(), solicitacao.getServicoId(),
+                    solicitacao.getProfissionalId(), solicitacao.getDataHora(), solicitacao.getObservacoes());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        URI endereco = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{id}")
+                .buildAndExpand(criado.getId())
+                .toUri();
+        return ResponseEntity.created(endereco).body(representacao(criado.getId()));
+    }
+
+    /**
+     * Confirma um agendamento
+     */
+    @PostMapping("/{id}/confirmar")
+    public AgendamentoApi confirmar(@PathVariable Long id, @RequestParam(required = false) Long versao) {
+        return alterarStatus(id, Agendamento.StatusAgendamento.CONFIRMADO, versao);
+    }
+
+    /**
+     * Cancela um agendamento
+     */
+    @PostMapping("/{id}/cancelar")
+    public AgendamentoApi cancelar(@PathVariable Long id, @RequestParam(required = false) Long versao) {
+        return alterarStatus(id, Agendamento.StatusAgendamento.CANCELADO, versao);
+    }
+
+    /**
+     * Marca um agendamento como realizado
+     */
+    @PostMapping("/{id}/realizar")
+    public AgendamentoApi realizar(@PathVariable Long id, @RequestParam(required = false) Long versao) {
+        return alterarStatus(id, Agendamento.StatusAgendamento.REALIZADO, versao);
+    }
+
+    /**
+     * Confirma os agendamentos de um dia que ainda não foram confirmados (padrão: amanhã)
+     */
+    @PostMapping("/confirmar-dia")
+    public ResultadoStatusLote confirmarDia(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dia) {
+        List<Long> confirmados = agendamentoService.confirmarDoDia(dia != null ? dia : LocalDate.now().plusDays(1));
+        return new ResultadoStatusLote(confirmados, List.of());
+    }
+
+    /**
+     * Cancela vários agendamentos de uma vez
+     * @param ids IDs dos agendamentos; os que não existem ou não podem ser cancelados voltam em ignorados
+     */
+    @PostMapping("/cancelar")
+    public ResultadoStatusLote cancelarLote(@RequestBody List<Long> ids) {
+        List<Long> cancelados;
+        try {
+            cancelados = agendamentoService.cancelarEmLote(ids);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        Set<Long> ignorados = new LinkedHashSet<>(ids);
+        cancelados.forEach(ignorados::remove);
+        return new ResultadoStatusLote(cancelados, new ArrayList<>(ignorados));
+    }
+
+    private AgendamentoApi alterarStatus(Long id, Agendamento.StatusAgendamento status, Long versao) {
+        try {
+            agendamentoService.atualizarStatus(id, status, versao);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+        return representacao(id);
+    }
+
+    private AgendamentoApi representacao(Long id) {
+        return agendamentoService.buscarParaApi(id)
+                .orElseThrow(RespostaCondicional.naoEncontrado("Agendamento não encontrado"));
+    }
+}
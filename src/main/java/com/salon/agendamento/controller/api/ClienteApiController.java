@@ -0,0 +1,75 @@
+package com.salon.agendamento.controller.api;
+
+import com.salon.agendamento.dto.ClienteApi;
+import com.salon.agendamento.dto.Pagina;
+import com.salon.agendamento.dto.SugestaoCliente;
+import com.salon.agendamento.model.Cliente;
+import com.salon.agendamento.service.ClienteService;
+import com.salon.agendamento.service.VersaoDados;
+import com.salon.agendamento.service.VersaoDados.Dominio;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+
+/**
+ * API JSON de clientes
+ */
+@RestController
+@RequestMapping("/api/v1/clientes")
+public class ClienteApiController {
+
+    private static final int TAMANHO_PAGINA = 50;
+
+    private static final int MAXIMO_TAMANHO_PAGINA = 200;
+
+    private static final int MAXIMO_SUGESTOES = 50;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private VersaoDados versaoDados;
+
+    /**
+     * Lista os clientes, uma página por vez (cursor da resposta anterior em "cursor")
+     * @param cursor cursor da página (ausente na primeira página)
+     * @param tamanho quantidade de clientes por página
+     */
+    @GetMapping
+    public ResponseEntity<Pagina<ClienteApi>> listar(@RequestParam(required = false) String cursor,
+                                                     @RequestParam(defaultValue = "" + TAMANHO_PAGINA) int tamanho,
+                                                     WebRequest requisicao) {
+        int tamanhoPagina = Math.min(Math.max(tamanho, 1), MAXIMO_TAMANHO_PAGINA);
+        return RespostaCondicional.responder(requisicao, versaoDados.etag(Dominio.CLIENTES), () -> {
+            Pagina<Cliente> pagina = clienteService.listarPagina(cursor, tamanhoPagina);
+            return new Pagina<>(pagina.getItens().stream().map(ClienteApi::de).toList(), pagina.getProximoCursor());
+        });
+    }
+
+    /**
+     * Sugere clientes por nome, email ou telefone (busca enquanto o usuário digita)
+     * @param termo texto digitado
+     * @param limite quantidade máxima de sugestões
+     */
+    @GetMapping("/sugestoes")
+    public ResponseEntity<List<SugestaoCliente>> sugestoes(@RequestParam String termo,
+                                                           @RequestParam(defaultValue = "10") int limite,
+                                                           WebRequest requisicao) {
+        return RespostaCondicional.responder(requisicao, versaoDados.etag(Dominio.CLIENTES), () ->
+                clienteService.sugerir(termo, Math.min(Math.max(limite, 1), MAXIMO_SUGESTOES)));
+    }
+
+    /**
+     * Busca um cliente por ID
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ClienteApi> buscar(@PathVariable Long id, WebRequest requisicao) {
+        return RespostaCondicional.responder(requisicao, versaoDados.etag(Dominio.CLIENTES), () ->
+                clienteService.buscarPorId(id)
+                        .map(ClienteApi::de)
+                        .orElseThrow(RespostaCondicional.naoEncontrado("Cliente não encontrado")));
+    }
+}
@@ -0,0 +1,50 @@
+package com.salon.agendamento.controller.api;
+
+import com.salon.agendamento.dto.ProfissionalApi;
+import com.salon.agendamento.service.ProfissionalService;
+import com.salon.agendamento.service.VersaoDados;
+import com.salon.agendamento.service.VersaoDados.Dominio;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+
+/**
+ * API JSON de profissionais
+ */
+@RestController
+@RequestMapping("/api/v1/profissionais")
+public class ProfissionalApiController {
+
+    @Autowired
+    private ProfissionalService profissionalService;
+
+    @Autowired
+    private VersaoDados versaoDados;
+
+    /**
+     * Lista os profissionais
+     * @param ativos true para listar só os profissionais ativos
+     */
+    @GetMapping
+    public ResponseEntity<List<ProfissionalApi>> listar(@RequestParam(defaultValue = "false") boolean ativos,
+                                                        WebRequest requisicao) {
+        return RespostaCondicional.responder(requisicao, versaoDados.etag(Dominio.PROFISSIONAIS), () ->
+                (ativos ? profissionalService.listarAtivos() : profissionalService.listarTodos()).stream()
+                        .map(ProfissionalApi::de)
+                        .toList());
+    }
+
+    /**
+     * Busca um profissional por ID
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ProfissionalApi> buscar(@PathVariable Long id, WebRequest requisicao) {
+        return RespostaCondicional.responder(requisicao, versaoDados.etag(Dominio.PROFISSIONAIS), () ->
+                profissionalService.buscarPorId(id)
+                        .map(ProfissionalApi::de)
+                        .orElseThrow(RespostaCondicional.naoEncontrado("Profissional não encontrado")));
+    }
+}
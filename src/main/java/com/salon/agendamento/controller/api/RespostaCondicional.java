@@ -0,0 +1,43 @@
+package com.salon.agendamento.controller.api;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.function.Supplier;
+
+/**
+ * Respostas GET condicionais da API JSON (ETag / If-None-Match)
+ *
+ * A ETag vem das versões de VersaoDados e é calculada antes de qualquer leitura: se o cliente
+ * já tem a versão atual, responde 304 sem consultar o banco nem serializar o corpo.
+ */
+final class RespostaCondicional {
+
+    private RespostaCondicional() {
+    }
+
+    /**
+     * @param requisicao requisição atual (lê o If-None-Match)
+     * @param etag ETag da versão atual dos dados
+     * @param corpo monta o corpo da resposta (só é chamado quando os dados mudaram)
+     * @return 304 sem corpo, ou 200 com o corpo e a ETag
+     */
+    static <T> ResponseEntity<T> responder(WebRequest requisicao, String etag, Supplier<T> corpo) {
+        if (requisicao.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        // no-cache: o cliente pode guardar a resposta, mas revalida a cada uso
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(corpo.get());
+    }
+
+    /**
+     * @param mensagem mensagem do erro (ex.: "Cliente não encontrado")
+     * @return fornecedor do erro 404, para uso com Optional.orElseThrow
+     */
+    static Supplier<ResponseStatusException> naoEncontrado(String mensagem) {
+        return () -> new ResponseStatusException(HttpStatus.NOT_FOUND, mensagem);
+    }
+}
@@ -0,0 +1,73 @@
+package com.salon.agendamento.controller.api;
+
+import com.salon.agendamento.dto.ProfissionalApi;
+import com.salon.agendamento.dto.ServicoApi;
+import com.salon.agendamento.service.ProfissionalService;
+import com.salon.agendamento.service.ServicoService;
+import com.salon.agendamento.service.VersaoDados;
+import com.salon.agendamento.service.VersaoDados.Dominio;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * API JSON de serviços
+ */
+@RestController
+@RequestMapping("/api/v1/servicos")
+public class ServicoApiController {
+
+    @Autowired
+    private ServicoService servicoService;
+
+    @Autowired
+    private ProfissionalService profissionalService;
+
+    @Autowired
+    private VersaoDados versaoDados;
+
+    /**
+     * Lista os serviços
+     * @param ativos true para listar só os serviços ativos
+     */
+    @GetMapping
+    public ResponseEntity<List<ServicoApi>> listar(@RequestParam(defaultValue = "false") boolean ativos,
+                                                   WebRequest requisicao) {
+        return RespostaCondicional.responder(requisicao, versaoDados.etag(Dominio.SERVICOS), () ->
+                (ativos ? servicoService.listarAtivos() : servicoService.listarTodos()).stream()
+                        .map(ServicoApi::de)
+                        .toList());
+    }
+
+    /**
+     * Busca um serviço por ID
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ServicoApi> buscar(@PathVariable Long id, WebRequest requisicao) {
+        return RespostaCondicional.responder(requisicao, versaoDados.etag(Dominio.SERVICOS), () ->
+                servicoService.buscarPorId(id)
+                        .map(ServicoApi::de)
+                        .orElseThrow(RespostaCondicional.naoEncontrado("Serviço não encontrado")));
+    }
+
+    /**
+     * Lista os profissionais ativos que atendem um serviço
+     */
+    @GetMapping("/{id}/profissionais")
+    public ResponseEntity<List<ProfissionalApi>> profissionais(@PathVariable Long id, WebRequest requisicao) {
+        String etag = versaoDados.etag(Dominio.SERVICOS, Dominio.PROFISSIONAIS);
+        return RespostaCondicional.responder(requisicao, etag, () -> {
+            if (!servicoService.existe(id)) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Serviço não encontrado");
+            }
+            return profissionalService.listarPorServico(id).stream()
+                    .map(ProfissionalApi::de)
+                    .toList();
+        });
+    }
+}
@@ -0,0 +1,120 @@
+package com.salon.agendamento.dto;
+
+import com.salon.agendamento.model.Agendamento;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Agendamento na API JSON (/api/v1)
+ *
+ * Cliente, serviço e profissional vêm só com ID e nome, preenchidos diretamente pela
+ * consulta (sem entidades gerenciadas).
+ */
+public class AgendamentoApi {
+
+    private final Long id;
+
+    private final LocalDateTime dataHora;
+
+    private final LocalDateTime dataHoraFim;
+
+    private final Agendamento.StatusAgendamento status;
+
+    private final BigDecimal valor;
+
+    private final Long clienteId;
+
+    private final String clienteNome;
+
+    private final Long servicoId;
+
+    private final String servicoNome;
+
+    private final Long profissionalId;
+
+    private final String profissionalNome;
+
+    private final String serieId;
+
+    private final String observacoes;
+
+    // Versão para o controle de concorrência: informada de volta nas mudanças de status
+    private final Long versao;
+
+    public AgendamentoApi(Long id, LocalDateTime dataHora, LocalDateTime dataHoraFim,
+                          Agendamento.StatusAgendamento status, BigDecimal valor, Long clienteId, String clienteNome,
+                          Long servicoId, String servicoNome, Long profissionalId, String profissionalNome,
+                          String serieId, String observacoes, Long versao) {
+        this.id = id;
+        this.dataHora = dataHora;
+        this.dataHoraFim = dataHoraFim;
+        this.status = status;
+        this.valor = valor;
+        this.clienteId = clienteId;
+        this.clienteNome = clienteNome;
+        this.servicoId = servicoId;
+        this.servicoNome = servicoNome;
+        this.profissionalId = profissionalId;
+        this.profissionalNome = profissionalNome;
+        this.serieId = serieId;
+        this.observacoes = observacoes;
+        this.versao = versao;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDateTime getDataHora() {
+        return dataHora;
+    }
+
+    public LocalDateTime getDataHoraFim() {
+        return dataHoraFim;
+    }
+
+    public Agendamento.StatusAgendamento getStatus() {
+        return status;
+    }
+
+    public BigDecimal getValor() {
+        return valor;
+    }
+
+    public Long getClienteId() {
+        return clienteId;
+    }
+
+    public String getClienteNome() {
+        return clienteNome;
+    }
+
+    public Long getServicoId() {
+        return servicoId;
+    }
+
+    public String getServicoNome() {
+        return servicoNome;
+    }
+
+    public Long getProfissionalId() {
+        return profissionalId;
+    }
+
+    public String getProfissionalNome() {
+        return profissionalNome;
+    }
+
+    public String getSerieId() {
+        return serieId;
+    }
+
+    public String getObservacoes() {
+        return observacoes;
+    }
+
+    public Long getVersao() {
+        return versao;
+    }
+}
@@ -0,0 +1,98 @@
+package com.salon.agendamento.dto;
+
+import com.salon.agendamento.model.Agendamento;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Linha da exportação de agendamentos
+ *
+ * Preenchida diretamente pela consulta (sem entidades gerenciadas), de modo que
+ * cada linha pode ser escrita e descartada enquanto o cursor avança.
+ */
+public class AgendamentoExportado {
+
+    private final Long id;
+
+    private final LocalDateTime dataHora;
+
+    private final LocalDateTime dataHoraFim;
+
+    private final Agendamento.StatusAgendamento status;
+
+    private final BigDecimal valor;
+
+    private final String clienteNome;
+
+    private final String clienteEmail;
+
+    private final String clienteTelefone;
+
+    private final String servicoNome;
+
+    private final String profissionalNome;
+
+    private final String observacoes;
+
+    public AgendamentoExportado(Long id, LocalDateTime dataHora, LocalDateTime dataHoraFim,
+                                Agendamento.StatusAgendamento status, BigDecimal valor, String clienteNome,
+                                String clienteEmail, String clienteTelefone, String servicoNome,
+                                String profissionalNome, String observacoes) {
+        this.id = id;
+        this.dataHora = dataHora;
+        this.dataHoraFim = dataHoraFim;
+        this.status = status;
+        this.valor = valor;
+        this.clienteNome = clienteNome;
+        this.clienteEmail = clienteEmail;
+        this.clienteTelefone = clienteTelefone;
+        this.servicoNome = servicoNome;
+        this.profissionalNome = profissionalNome;
+        this.observacoes = observacoes;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDateTime getDataHora() {
+        return dataHora;
+    }
+
+    public LocalDateTime getDataHoraFim() {
+        return dataHoraFim;
+    }
+
+    public Agendamento.StatusAgendamento getStatus() {
+        return status;
+    }
+
+    public BigDecimal getValor() {
+        return valor;
+    }
+
+    public String getClienteNome() {
+        return clienteNome;
+    }
+
+    public String getClienteEmail() {
+        return clienteEmail;
+    }
+
+    public String getClienteTelefone() {
+        return clienteTelefone;
+    }
+
+    public String getServicoNome() {
+        return servicoNome;
+    }
+
+    public String getProfissionalNome() {
+        return profissionalNome;
+    }
+
+    public String getObservacoes() {
+        return observacoes;
+    }
+}
@@ -0,0 +1,76 @@
+package com.salon.agendamento.dto;
+
+import com.salon.agendamento.model.Agendamento;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Visão somente leitura de um agendamento para listagens
+ *
+ * Carrega apenas as colunas exibidas nas telas, preenchidas diretamente
+ * pela consulta (sem entidades gerenciadas de cliente e serviço).
+ */
+public class AgendamentoResumo {
+
+    private final Long id;
+
+    private final LocalDateTime dataHora;
+
+    private final String clienteNome;
+
+    private final String clienteTelefone;
+
+    private final String servicoNome;
+
+    private final Integer servicoDuracaoMinutos;
+
+    private final BigDecimal valor;
+
+    private final Agendamento.StatusAgendamento status;
+
+    public AgendamentoResumo(Long id, LocalDateTime dataHora, String clienteNome, String clienteTelefone,
+                             String servicoNome, Integer servicoDuracaoMinutos, BigDecimal valor,
+                             Agendamento.StatusAgendamento status) {
+        this.id = id;
+        this.dataHora = dataHora;
+        this.clienteNome = clienteNome;
+        this.clienteTelefone = clienteTelefone;
+        this.servicoNome = servicoNome;
+        this.servicoDuracaoMinutos = servicoDuracaoMinutos;
+        this.valor = valor;
+        this.status = status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDateTime getDataHora() {
+        return dataHora;
+    }
+
+    public String getClienteNome() {
+        return clienteNome;
+    }
+
+    public String getClienteTelefone() {
+        return clienteTelefone;
+    }
+
+    public String getServicoNome() {
+        return servicoNome;
+    }
+
+    public Integer getServicoDuracaoMinutos() {
+        return servicoDuracaoMinutos;
+    }
+
+    public BigDecimal getValor() {
+        return valor;
+    }
+
+    public Agendamento.StatusAgendamento getStatus() {
+        return status;
+    }
+}
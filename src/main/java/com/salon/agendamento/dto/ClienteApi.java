@@ -0,0 +1,62 @@
+package com.salon.agendamento.dto;
+
+import com.salon.agendamento.model.Cliente;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cliente na API JSON (/api/v1): só os dados cadastrais, sem os agendamentos
+ */
+public class ClienteApi {
+
+    private final Long id;
+
+    private final String nome;
+
+    private final String email;
+
+    private final String telefone;
+
+    private final String endereco;
+
+    private final LocalDateTime dataCadastro;
+
+    public ClienteApi(Long id, String nome, String email, String telefone, String endereco,
+                      LocalDateTime dataCadastro) {
+        this.id = id;
+        this.nome = nome;
+        this.email = email;
+        this.telefone = telefone;
+        this.endereco = endereco;
+        this.dataCadastro = dataCadastro;
+    }
+
+    public static ClienteApi de(Cliente cliente) {
+        return new ClienteApi(cliente.getId(), cliente.getNome(), cliente.getEmail(), cliente.getTelefone(),
+                cliente.getEndereco(), cliente.getDataCadastro());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getTelefone() {
+        return telefone;
+    }
+
+    public String getEndereco() {
+        return endereco;
+    }
+
+    public LocalDateTime getDataCadastro() {
+        return dataCadastro;
+    }
+}
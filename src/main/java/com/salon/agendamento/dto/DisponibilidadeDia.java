@@ -0,0 +1,31 @@
+package com.salon.agendamento.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Horários livres de um dia para um determinado serviço
+ */
+public class DisponibilidadeDia {
+
+    private final LocalDate data;
+
+    @JsonFormat(pattern = "HH:mm")
+    private final List<LocalTime> horarios;
+
+    public DisponibilidadeDia(LocalDate data, List<LocalTime> horarios) {
+        this.data = data;
+        this.horarios = horarios;
+    }
+
+    public LocalDate getData() {
+        return data;
+    }
+
+    public List<LocalTime> getHorarios() {
+        return horarios;
+    }
+}
@@ -0,0 +1,41 @@
+package com.salon.agendamento.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Faturamento de um dia, somando todos os serviços
+ */
+public class FaturamentoDia {
+
+    private final LocalDate dia;
+
+    private final long quantidade;
+
+    private final BigDecimal faturamento;
+
+    private final long minutos;
+
+    public FaturamentoDia(LocalDate dia, Long quantidade, BigDecimal faturamento, Long minutos) {
+        this.dia = dia;
+        this.quantidade = quantidade != null ? quantidade : 0;
+        this.faturamento = faturamento != null ? faturamento : BigDecimal.ZERO;
+        this.minutos = minutos != null ? minutos : 0;
+    }
+
+    public LocalDate getDia() {
+        return dia;
+    }
+
+    public long getQuantidade() {
+        return quantidade;
+    }
+
+    public BigDecimal getFaturamento() {
+        return faturamento;
+    }
+
+    public long getMinutos() {
+        return minutos;
+    }
+}
@@ -0,0 +1,51 @@
+package com.salon.agendamento.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Faturamento de um serviço em um período, somado a partir dos totais diários
+ */
+public class FaturamentoServico {
+
+    private final Long servicoId;
+
+    private final String servicoNome;
+
+    private final long quantidade;
+
+    private final BigDecimal faturamento;
+
+    private final long minutos;
+
+    public FaturamentoServico(Long servicoId, String servicoNome, Long quantidade, BigDecimal faturamento,
+                              Long minutos) {
+        this.servicoId = servicoId;
+        this.servicoNome = servicoNome;
+        this.quantidade = quantidade != null ? quantidade : 0;
+        this.faturamento = faturamento != null ? faturamento : BigDecimal.ZERO;
+        this.minutos = minutos != null ? minutos : 0;
+    }
+
+    public Long getServicoId() {
+        return servicoId;
+    }
+
+    /**
+     * @return nome do serviço (null se o serviço foi excluído)
+     */
+    public String getServicoNome() {
+        return servicoNome;
+    }
+
+    public long getQuantidade() {
+        return quantidade;
+    }
+
+    public BigDecimal getFaturamento() {
+        return faturamento;
+    }
+
+    public long getMinutos() {
+        return minutos;
+    }
+}
@@ -0,0 +1,36 @@
+package com.salon.agendamento.dto;
+
+import java.util.List;
+
+/**
+ * Uma página de resultados paginados por cursor (keyset)
+ *
+ * O cursor identifica o último item da página; a próxima página começa
+ * logo depois dele, sem precisar pular as linhas anteriores com OFFSET.
+ */
+public class Pagina<T> {
+
+    private final List<T> itens;
+
+    private final String proximoCursor;
+
+    public Pagina(List<T> itens, String proximoCursor) {
+        this.itens = itens;
+        this.proximoCursor = proximoCursor;
+    }
+
+    public List<T> getItens() {
+        return itens;
+    }
+
+    /**
+     * @return cursor da próxima página, ou null se esta é a última
+     */
+    public String getProximoCursor() {
+        return proximoCursor;
+    }
+
+    public boolean isTemProxima() {
+        return proximoCursor != null;
+    }
+}
@@ -0,0 +1,55 @@
+package com.salon.agendamento.dto;
+
+import com.salon.agendamento.model.Profissional;
+
+/**
+ * Profissional na API JSON (/api/v1)
+ *
+ * Não inclui os serviços que o profissional atende (carregá-los custaria uma consulta por
+ * profissional); quem atende um serviço é consultado em /api/v1/servicos/{id}/profissionais.
+ */
+public class ProfissionalApi {
+
+    private final Long id;
+
+    private final String nome;
+
+    private final String telefone;
+
+    private final String email;
+
+    private final boolean ativo;
+
+    public ProfissionalApi(Long id, String nome, String telefone, String email, Boolean ativo) {
+        this.id = id;
+        this.nome = nome;
+        this.telefone = telefone;
+        this.email = email;
+        this.ativo = Boolean.TRUE.equals(ativo);
+    }
+
+    public static ProfissionalApi de(Profissional profissional) {
+        return new ProfissionalApi(profissional.getId(), profissional.getNome(), profissional.getTelefone(),
+                profissional.getEmail(), profissional.getAtivo());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public String getTelefone() {
+        return telefone;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public boolean isAtivo() {
+        return ativo;
+    }
+}
@@ -0,0 +1,81 @@
+package com.salon.agendamento.dto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Relatório de faturamento de um período, montado só com os totais diários
+ */
+public class RelatorioFaturamento {
+
+    private final LocalDate de;
+
+    private final LocalDate ate;
+
+    private final List<FaturamentoServico> porServico;
+
+    private final List<FaturamentoDia> porDia;
+
+    private final long quantidade;
+
+    private final BigDecimal faturamento;
+
+    private final long minutos;
+
+    public RelatorioFaturamento(LocalDate de, LocalDate ate, List<FaturamentoServico> porServico,
+                                List<FaturamentoDia> porDia) {
+        this.de = de;
+        this.ate = ate;
+        this.porServico = porServico;
+        this.porDia = porDia;
+        long quantidade = 0;
+        BigDecimal faturamento = BigDecimal.ZERO;
+        long minutos = 0;
+        for (FaturamentoServico servico : porServico) {
+            quantidade += servico.getQuantidade();
+            faturamento = faturamento.add(servico.getFaturamento());
+            minutos += servico.getMinutos();
+        }
+        this.quantidade = quantidade;
+        this.faturamento = faturamento;
+        this.minutos = minutos;
+    }
+
+    public LocalDate getDe() {
+        return de;
+    }
+
+    public LocalDate getAte() {
+        return ate;
+    }
+
+    public List<FaturamentoServico> getPorServico() {
+        return porServico;
+    }
+
+    public List<FaturamentoDia> getPorDia() {
+        return porDia;
+    }
+
+    public long getQuantidade() {
+        return quantidade;
+    }
+
+    public BigDecimal getFaturamento() {
+        return faturamento;
+    }
+
+    public long getMinutos() {
+        return minutos;
+    }
+
+    /**
+     * @return faturamento médio por agendamento realizado (zero sem agendamentos)
+     */
+    public BigDecimal getTicketMedio() {
+        return quantidade == 0 ? BigDecimal.ZERO
+                : faturamento.divide(BigDecimal.valueOf(quantidade), 2, RoundingMode.HALF_UP);
+    }
+}
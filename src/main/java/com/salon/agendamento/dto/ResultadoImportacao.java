@@ -0,0 +1,52 @@
+package com.salon.agendamento.dto;
+
+/**
+ * Resultado da importação de clientes a partir de um arquivo CSV
+ *
+ * Os registros rejeitados ficam em um relatório CSV para download,
+ * identificado por relatorioId (null quando nada foi rejeitado).
+ */
+public class ResultadoImportacao {
+
+    private final int totalRegistros;
+
+    private final int importados;
+
+    private final int rejeitados;
+
+    private final int confirmacoesNoBanco;
+
+    private final String relatorioId;
+
+    public ResultadoImportacao(int totalRegistros, int importados, int rejeitados, int confirmacoesNoBanco,
+                               String relatorioId) {
+        this.totalRegistros = totalRegistros;
+        this.importados = importados;
+        this.rejeitados = rejeitados;
+        this.confirmacoesNoBanco = confirmacoesNoBanco;
+        this.relatorioId = relatorioId;
+    }
+
+    public int getTotalRegistros() {
+        return totalRegistros;
+    }
+
+    public int getImportados() {
+        return importados;
+    }
+
+    public int getRejeitados() {
+        return rejeitados;
+    }
+
+    /**
+     * @return emails que o filtro de Bloom apontou como possivelmente repetidos e foram conferidos no banco
+     */
+    public int getConfirmacoesNoBanco() {
+        return confirmacoesNoBanco;
+    }
+
+    public String getRelatorioId() {
+        return relatorioId;
+    }
+}
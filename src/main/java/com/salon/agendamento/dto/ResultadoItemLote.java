@@ -0,0 +1,49 @@
+package com.salon.agendamento.dto;
+
+/**
+ * Resultado de um item de uma operação em lote
+ *
+ * Indica, para a posição do item na requisição, se ele foi aceito
+ * (com o ID gerado) ou rejeitado (com o motivo).
+ */
+public class ResultadoItemLote {
+
+    private final int indice;
+
+    private final boolean aceito;
+
+    private final Long id;
+
+    private final String motivo;
+
+    private ResultadoItemLote(int indice, boolean aceito, Long id, String motivo) {
+        this.indice = indice;
+        this.aceito = aceito;
+        this.id = id;
+        this.motivo = motivo;
+    }
+
+    public static ResultadoItemLote aceito(int indice, Long id) {
+        return new ResultadoItemLote(indice, true, id, null);
+    }
+
+    public static ResultadoItemLote rejeitado(int indice, String motivo) {
+        return new ResultadoItemLote(indice, false, null, motivo);
+    }
+
+    public int getIndice() {
+        return indice;
+    }
+
+    public boolean isAceito() {
+        return aceito;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getMotivo() {
+        return motivo;
+    }
+}
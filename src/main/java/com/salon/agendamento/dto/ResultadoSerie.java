@@ -0,0 +1,76 @@
+package com.salon.agendamento.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Resultado da criação de uma série de agendamentos
+ *
+ * Lista cada ocorrência da série, em ordem de data, indicando se foi agendada
+ * (com o ID gerado) ou não (com o motivo).
+ */
+public class ResultadoSerie {
+
+    private final String serieId;
+
+    private final List<Ocorrencia> ocorrencias;
+
+    public ResultadoSerie(String serieId, List<Ocorrencia> ocorrencias) {
+        this.serieId = serieId;
+        this.ocorrencias = ocorrencias;
+    }
+
+    public String getSerieId() {
+        return serieId;
+    }
+
+    public List<Ocorrencia> getOcorrencias() {
+        return ocorrencias;
+    }
+
+    public long getTotalAgendadas() {
+        return ocorrencias.stream().filter(Ocorrencia::isAgendada).count();
+    }
+
+    /**
+     * Uma ocorrência da série
+     */
+    public static class Ocorrencia {
+
+        private final LocalDateTime dataHora;
+
+        private final Long id;
+
+        private final String motivo;
+
+        private Ocorrencia(LocalDateTime dataHora, Long id, String motivo) {
+            this.dataHora = dataHora;
+            this.id = id;
+            this.motivo = motivo;
+        }
+
+        public static Ocorrencia agendada(LocalDateTime dataHora, Long id) {
+            return new Ocorrencia(dataHora, id, null);
+        }
+
+        public static Ocorrencia rejeitada(LocalDateTime dataHora, String motivo) {
+            return new Ocorrencia(dataHora, null, motivo);
+        }
+
+        public LocalDateTime getDataHora() {
+            return dataHora;
+        }
+
+        public boolean isAgendada() {
+            return id != null;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getMotivo() {
+            return motivo;
+        }
+    }
+}
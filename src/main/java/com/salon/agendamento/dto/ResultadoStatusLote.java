@@ -0,0 +1,29 @@
+package com.salon.agendamento.dto;
+
+import java.util.List;
+
+/**
+ * Resultado de uma mudança de status em lote
+ *
+ * Lista os agendamentos alterados e os ignorados (inexistentes ou cujo status
+ * atual não permite a mudança).
+ */
+public class ResultadoStatusLote {
+
+    private final List<Long> alterados;
+
+    private final List<Long> ignorados;
+
+    public ResultadoStatusLote(List<Long> alterados, List<Long> ignorados) {
+        this.alterados = alterados;
+        this.ignorados = ignorados;
+    }
+
+    public List<Long> getAlterados() {
+        return alterados;
+    }
+
+    public List<Long> getIgnorados() {
+        return ignorados;
+    }
+}
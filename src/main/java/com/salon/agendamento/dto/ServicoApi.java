@@ -0,0 +1,62 @@
+package com.salon.agendamento.dto;
+
+import com.salon.agendamento.model.Servico;
+
+import java.math.BigDecimal;
+
+/**
+ * Serviço na API JSON (/api/v1)
+ */
+public class ServicoApi {
+
+    private final Long id;
+
+    private final String nome;
+
+    private final String descricao;
+
+    private final BigDecimal preco;
+
+    private final Integer duracaoMinutos;
+
+    private final boolean ativo;
+
+    public ServicoApi(Long id, String nome, String descricao, BigDecimal preco, Integer duracaoMinutos,
+                      Boolean ativo) {
+        this.id = id;
+        this.nome = nome;
+        this.descricao = descricao;
+        this.preco = preco;
+        this.duracaoMinutos = duracaoMinutos;
+        this.ativo = Boolean.TRUE.equals(ativo);
+    }
+
+    public static ServicoApi de(Servico servico) {
+        return new ServicoApi(servico.getId(), servico.getNome(), servico.getDescricao(), servico.getPreco(),
+                servico.getDuracaoMinutos(), servico.getAtivo());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    public BigDecimal getPreco() {
+        return preco;
+    }
+
+    public Integer getDuracaoMinutos() {
+        return duracaoMinutos;
+    }
+
+    public boolean isAtivo() {
+        return ativo;
+    }
+}
@@ -0,0 +1,69 @@
+package com.salon.agendamento.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Dados de um agendamento a ser criado em lote
+ */
+public class SolicitacaoAgendamento {
+
+    private Long clienteId;
+
+    private Long servicoId;
+
+    // Opcional: sem profissional, o primeiro profissional apto e livre é escolhido
+    private Long profissionalId;
+
+    private LocalDateTime dataHora;
+
+    private String observacoes;
+
+    public SolicitacaoAgendamento() {}
+
+    public SolicitacaoAgendamento(Long clienteId, Long servicoId, LocalDateTime dataHora, String observacoes) {
+        this.clienteId = clienteId;
+        this.servicoId = servicoId;
+        this.dataHora = dataHora;
+        this.observacoes = observacoes;
+    }
+
+    public Long getClienteId() {
+        return clienteId;
+    }
+
+    public void setClienteId(Long clienteId) {
+        this.clienteId = clienteId;
+    }
+
+    public Long getServicoId() {
+        return servicoId;
+    }
+
+    public void setServicoId(Long servicoId) {
+        this.servicoId = servicoId;
+    }
+
+    public Long getProfissionalId() {
+        return profissionalId;
+    }
+
+    public void setProfissionalId(Long profissionalId) {
+        this.profissionalId = profissionalId;
+    }
+
+    public LocalDateTime getDataHora() {
+        return dataHora;
+    }
+
+    public void setDataHora(LocalDateTime dataHora) {
+        this.dataHora = dataHora;
+    }
+
+    public String getObservacoes() {
+        return observacoes;
+    }
+
+    public void setObservacoes(String observacoes) {
+        this.observacoes = observacoes;
+    }
+}
@@ -0,0 +1,96 @@
+package com.salon.agendamento.dto;
+
+import com.salon.agendamento.model.Recorrencia;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Pedido de criação de uma série de agendamentos recorrentes
+ *
+ * A série começa em dataHoraInicial e se repete conforme a recorrência até dataFim
+ * (inclusive) ou até completar a quantidade de ocorrências, o que vier primeiro.
+ */
+public class SolicitacaoSerie {
+
+    private Long clienteId;
+
+    private Long servicoId;
+
+    // Opcional: sem profissional, o primeiro profissional apto e livre é escolhido
+    private Long profissionalId;
+
+    private LocalDateTime dataHoraInicial;
+
+    private Recorrencia recorrencia;
+
+    private LocalDate dataFim;
+
+    private Integer quantidade;
+
+    private String observacoes;
+
+    public Long getClienteId() {
+        return clienteId;
+    }
+
+    public void setClienteId(Long clienteId) {
+        this.clienteId = clienteId;
+    }
+
+    public Long getServicoId() {
+        return servicoId;
+    }
+
+    public void setServicoId(Long servicoId) {
+        this.servicoId = servicoId;
+    }
+
+    public Long getProfissionalId() {
+        return profissionalId;
+    }
+
+    public void setProfissionalId(Long profissionalId) {
+        this.profissionalId = profissionalId;
+    }
+
+    public LocalDateTime getDataHoraInicial() {
+        return dataHoraInicial;
+    }
+
+    public void setDataHoraInicial(LocalDateTime dataHoraInicial) {
+        this.dataHoraInicial = dataHoraInicial;
+    }
+
+    public Recorrencia getRecorrencia() {
+        return recorrencia;
+    }
+
+    public void setRecorrencia(Recorrencia recorrencia) {
+        this.recorrencia = recorrencia;
+    }
+
+    public LocalDate getDataFim() {
+        return dataFim;
+    }
+
+    public void setDataFim(LocalDate dataFim) {
+        this.dataFim = dataFim;
+    }
+
+    public Integer getQuantidade() {
+        return quantidade;
+    }
+
+    public void setQuantidade(Integer quantidade) {
+        this.quantidade = quantidade;
+    }
+
+    public String getObservacoes() {
+        return observacoes;
+    }
+
+    public void setObservacoes(String observacoes) {
+        this.observacoes = observacoes;
+    }
+}
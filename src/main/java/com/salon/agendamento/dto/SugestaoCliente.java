@@ -0,0 +1,41 @@
+package com.salon.agendamento.dto;
+
+/**
+ * Cliente sugerido pela busca incremental (typeahead)
+ *
+ * Carrega apenas os dados exibidos na lista de sugestões; é preenchido
+ * diretamente pela consulta de carga do índice de busca, sem a entidade.
+ */
+public class SugestaoCliente {
+
+    private final Long id;
+
+    private final String nome;
+
+    private final String email;
+
+    private final String telefone;
+
+    public SugestaoCliente(Long id, String nome, String email, String telefone) {
+        this.id = id;
+        this.nome = nome;
+        this.email = email;
+        this.telefone = telefone;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getTelefone() {
+        return telefone;
+    }
+}
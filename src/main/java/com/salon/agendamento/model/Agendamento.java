@@ -1,31 +1,55 @@
 package com.salon.agendamento.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Entidade que representa um Agendamento no salão
  * 
  * Esta é a entidade principal que conecta Cliente, Serviço e horário.
- * Cada agendamento representa uma reserva de horário para um serviço.
+ * Cada agendamento representa uma reserva de horário para um serviço,
+ * na agenda de um profissional (ou na agenda única do salão, sem profissional).
  */
 @Entity
-@Table(name = "agendamentos")
+@Table(name = "agendamentos", indexes = {
+        // Listagem paginada (keyset), períodos, agenda do dia e contagem de futuros.
+        // Decrescente como a listagem: a página é lida direto do índice, sem ordenar a tabela
+        @Index(name = "idx_agendamentos_data_hora", columnList = "data_hora DESC, id DESC"),
+        // Verificação de conflito e carga do índice de agenda (intervalos que terminam após um instante)
+        @Index(name = "idx_agendamentos_data_hora_fim", columnList = "data_hora_fim, data_hora"),
+        @Index(name = "idx_agendamentos_status_data_hora", columnList = "status, data_hora"),
+        @Index(name = "idx_agendamentos_cliente_data_hora", columnList = "cliente_id, data_hora"),
+        @Index(name = "idx_agendamentos_servico_data_hora", columnList = "servico_id, data_hora"),
+        @Index(name = "idx_agendamentos_serie_data_hora", columnList = "serie_id, data_hora"),
+        @Index(name = "idx_agendamentos_profissional_data_hora", columnList = "profissional_id, data_hora")
+})
 public class Agendamento {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "agendamentos_seq")
+    @SequenceGenerator(name = "agendamentos_seq", sequenceName = "agendamentos_seq", allocationSize = 50)
     private Long id;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cliente_id", nullable = false)
     private Cliente cliente;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "servico_id", nullable = false)
     private Servico servico;
     
+    // Agendamentos sem profissional dividem uma única agenda (a do salão)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "profissional_id")
+    private Profissional profissional;
+    
     @Column(name = "data_hora", nullable = false)
     private LocalDateTime dataHora;
     
@@ -45,6 +69,17 @@ public class Agendamento {
     @Column(name = "data_criacao")
     private LocalDateTime dataCriacao;
     
+    // Identifica os agendamentos criados juntos por uma recorrência (null para agendamento avulso)
+    @Column(name = "serie_id", length = 36)
+    private String serieId;
+    
+    // Controle de concorrência otimista: cada gravação incrementa e confere a versão lida.
+    // O default preenche as linhas já existentes quando a coluna é criada pelo ddl-auto=update
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "versao")
+    private Long versao;
+    
     // Enum para status do agendamento
     public enum StatusAgendamento {
         AGENDADO("Agendado"),
@@ -53,6 +88,18 @@ public class Agendamento {
         REALIZADO("Realizado"),
         NAO_COMPARECEU("Não Compareceu");
         
+        // Transições permitidas: cancelado, realizado e não compareceu são finais
+        // (voltar a ocupar a agenda exigiria verificar conflito de novo)
+        private static final Map<StatusAgendamento, Set<StatusAgendamento>> TRANSICOES = new EnumMap<>(StatusAgendamento.class);
+        
+        static {
+            TRANSICOES.put(AGENDADO, EnumSet.of(CONFIRMADO, CANCELADO, REALIZADO, NAO_COMPARECEU));
+            TRANSICOES.put(CONFIRMADO, EnumSet.of(CANCELADO, REALIZADO, NAO_COMPARECEU));
+            TRANSICOES.put(CANCELADO, EnumSet.noneOf(StatusAgendamento.class));
+            TRANSICOES.put(REALIZADO, EnumSet.noneOf(StatusAgendamento.class));
+            TRANSICOES.put(NAO_COMPARECEU, EnumSet.noneOf(StatusAgendamento.class));
+        }
+        
         private final String descricao;
         
         StatusAgendamento(String descricao) {
@@ -62,6 +109,30 @@ public class Agendamento {
         public String getDescricao() {
             return descricao;
         }
+        
+        /**
+         * Indica se um agendamento neste status pode passar para outro
+         * @param novo status pretendido
+         * @return true se a transição é permitida
+         */
+        public boolean podeMudarPara(StatusAgendamento novo) {
+            return TRANSICOES.get(this).contains(novo);
+        }
+        
+        /**
+         * Status a partir dos quais se pode chegar a um status
+         * @param destino status pretendido
+         * @return status de origem permitidos (vazio se nenhum)
+         */
+        public static Set<StatusAgendamento> origensPara(StatusAgendamento destino) {
+            Set<StatusAgendamento> origens = EnumSet.noneOf(StatusAgendamento.class);
+            for (StatusAgendamento origem : values()) {
+                if (origem.podeMudarPara(destino)) {
+                    origens.add(origem);
+                }
+            }
+            return origens;
+        }
     }
     
     // Construtores
@@ -77,8 +148,11 @@ public class Agendamento {
         this.valor = servico.getPreco();
         
         // Calcula o horário de fim baseado na duração do serviço
+        // (sem duração, o fim coincide com o início; a coluna nunca fica nula)
         if (servico.getDuracaoMinutos() != null) {
             this.dataHoraFim = dataHora.plusMinutes(servico.getDuracaoMinutos());
+        } else {
+            this.dataHoraFim = dataHora;
         }
     }
     
@@ -107,6 +181,14 @@ public class Agendamento {
         this.servico = servico;
     }
     
+    public Profissional getProfissional() {
+        return profissional;
+    }
+    
+    public void setProfissional(Profissional profissional) {
+        this.profissional = profissional;
+    }
+    
     public LocalDateTime getDataHora() {
         return dataHora;
     }
@@ -155,6 +237,24 @@ public class Agendamento {
         this.dataCriacao = dataCriacao;
     }
     
+    public String getSerieId() {
+        return serieId;
+    }
+    
+    public void setSerieId(String serieId) {
+        this.serieId = serieId;
+    }
+    
+    public Long getVersao() {
+        return versao;
+    }
+    
+    // Só para entidades desanexadas: acompanha a versão gravada por um UPDATE em lote
+    // (numa entidade gerenciada quem incrementa a versão é o Hibernate)
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
+    
     @Override
     public String toString() {
         return "Agendamento{" +
@@ -10,11 +10,17 @@ import java.time.LocalDateTime;
  * Cada campo da classe se torna uma coluna na tabela.
  */
 @Entity
-@Table(name = "clientes")
+@Table(name = "clientes", indexes = {
+        @Index(name = "idx_clientes_email", columnList = "email"),
+        @Index(name = "idx_clientes_nome", columnList = "nome, id"),
+        @Index(name = "idx_clientes_telefone", columnList = "telefone"),
+        @Index(name = "idx_clientes_data_cadastro", columnList = "data_cadastro")
+})
 public class Cliente {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "clientes_seq")
+    @SequenceGenerator(name = "clientes_seq", sequenceName = "clientes_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false, length = 100)
@@ -0,0 +1,114 @@
+package com.salon.agendamento.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Totais dos agendamentos realizados em um dia, para um serviço
+ *
+ * Tabela derivada (rollup) dos agendamentos: é mantida incrementalmente quando um
+ * agendamento entra ou sai do status REALIZADO e pode ser reconstruída a qualquer momento
+ * a partir da tabela de agendamentos. Os relatórios de faturamento leem só esta tabela.
+ *
+ * O serviço é guardado apenas pelo ID (sem chave estrangeira), já que a linha é só um total.
+ */
+@Entity
+@Table(name = "faturamento_diario",
+        uniqueConstraints = @UniqueConstraint(name = "uk_faturamento_diario_dia_servico",
+                columnNames = {"dia", "servico_id"}))
+public class FaturamentoDiario {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "faturamento_diario_seq")
+    @SequenceGenerator(name = "faturamento_diario_seq", sequenceName = "faturamento_diario_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate dia;
+
+    @Column(name = "servico_id", nullable = false)
+    private Long servicoId;
+
+    // Quantidade de agendamentos realizados
+    @Column(nullable = false)
+    private long quantidade;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal faturamento = BigDecimal.ZERO;
+
+    // Soma das durações dos agendamentos realizados
+    @Column(nullable = false)
+    private long minutos;
+
+    // Construtores
+    public FaturamentoDiario() {}
+
+    public FaturamentoDiario(LocalDate dia, Long servicoId, Long quantidade, BigDecimal faturamento, Long minutos) {
+        this.dia = dia;
+        this.servicoId = servicoId;
+        this.quantidade = quantidade != null ? quantidade : 0;
+        this.faturamento = faturamento != null ? faturamento : BigDecimal.ZERO;
+        this.minutos = minutos != null ? minutos : 0;
+    }
+
+    // Getters e Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDate getDia() {
+        return dia;
+    }
+
+    public void setDia(LocalDate dia) {
+        this.dia = dia;
+    }
+
+    public Long getServicoId() {
+        return servicoId;
+    }
+
+    public void setServicoId(Long servicoId) {
+        this.servicoId = servicoId;
+    }
+
+    public long getQuantidade() {
+        return quantidade;
+    }
+
+    public void setQuantidade(long quantidade) {
+        this.quantidade = quantidade;
+    }
+
+    public BigDecimal getFaturamento() {
+        return faturamento;
+    }
+
+    public void setFaturamento(BigDecimal faturamento) {
+        this.faturamento = faturamento;
+    }
+
+    public long getMinutos() {
+        return minutos;
+    }
+
+    public void setMinutos(long minutos) {
+        this.minutos = minutos;
+    }
+
+    @Override
+    public String toString() {
+        return "FaturamentoDiario{" +
+                "dia=" + dia +
+                ", servicoId=" + servicoId +
+                ", quantidade=" + quantidade +
+                ", faturamento=" + faturamento +
+                ", minutos=" + minutos +
+                '}';
+    }
+}
@@ -0,0 +1,193 @@
+package com.salon.agendamento.model;
+
+import jakarta.persistence.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Lembrete de agendamento na fila de saída (outbox)
+ *
+ * Gravado quando chega a hora de lembrar o cliente e apagado da fila (enviadoEm preenchido)
+ * quando o canal de envio aceita o lote. A chave única por agendamento, tipo e horário impede
+ * que o mesmo lembrete entre duas vezes na fila, inclusive depois de reiniciar a aplicação;
+ * um agendamento remarcado ganha lembretes novos para o novo horário.
+ *
+ * O agendamento é guardado apenas pelo ID (sem chave estrangeira): o lembrete já enviado
+ * continua no histórico mesmo que o agendamento seja excluído.
+ */
+@Entity
+@Table(name = "lembretes",
+        uniqueConstraints = @UniqueConstraint(name = "uk_lembretes_agendamento_tipo_data_hora",
+                columnNames = {"agendamento_id", "tipo", "data_hora_agendamento"}),
+        indexes = {
+                // Fila de envio: pendentes em ordem de chegada
+                @Index(name = "idx_lembretes_enviado_em", columnList = "enviado_em, id")
+        })
+public class Lembrete {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lembretes_seq")
+    @SequenceGenerator(name = "lembretes_seq", sequenceName = "lembretes_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "agendamento_id", nullable = false)
+    private Long agendamentoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Tipo tipo;
+
+    @Column(name = "data_hora_agendamento", nullable = false)
+    private LocalDateTime dataHoraAgendamento;
+
+    @Column(name = "cliente_nome", length = 100)
+    private String clienteNome;
+
+    @Column(length = 20)
+    private String telefone;
+
+    @Column(length = 100)
+    private String email;
+
+    @Column(nullable = false, length = 500)
+    private String mensagem;
+
+    @Column(name = "criado_em", nullable = false)
+    private LocalDateTime criadoEm;
+
+    // Preenchido quando o canal de envio aceita o lembrete
+    @Column(name = "enviado_em")
+    private LocalDateTime enviadoEm;
+
+    @Column(nullable = false)
+    private int tentativas;
+
+    @Column(name = "ultimo_erro", length = 500)
+    private String ultimoErro;
+
+    /**
+     * Tipo do lembrete, pela antecedência em relação ao horário do agendamento
+     */
+    public enum Tipo {
+        VESPERA(Duration.ofHours(24)),
+        DUAS_HORAS(Duration.ofHours(2));
+
+        private final Duration antecedencia;
+
+        Tipo(Duration antecedencia) {
+            this.antecedencia = antecedencia;
+        }
+
+        public Duration getAntecedencia() {
+            return antecedencia;
+        }
+    }
+
+    // Construtores
+    public Lembrete() {}
+
+    public Lembrete(Long agendamentoId, Tipo tipo, LocalDateTime dataHoraAgendamento, String mensagem) {
+        this.agendamentoId = agendamentoId;
+        this.tipo = tipo;
+        this.dataHoraAgendamento = dataHoraAgendamento;
+        this.mensagem = mensagem;
+        this.criadoEm = LocalDateTime.now();
+    }
+
+    // Getters e Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getAgendamentoId() {
+        return agendamentoId;
+    }
+
+    public void setAgendamentoId(Long agendamentoId) {
+        this.agendamentoId = agendamentoId;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(Tipo tipo) {
+        this.tipo = tipo;
+    }
+
+    public LocalDateTime getDataHoraAgendamento() {
+        return dataHoraAgendamento;
+    }
+
+    public void setDataHoraAgendamento(LocalDateTime dataHoraAgendamento) {
+        this.dataHoraAgendamento = dataHoraAgendamento;
+    }
+
+    public String getClienteNome() {
+        return clienteNome;
+    }
+
+    public void setClienteNome(String clienteNome) {
+        this.clienteNome = clienteNome;
+    }
+
+    public String getTelefone() {
+        return telefone;
+    }
+
+    public void setTelefone(String telefone) {
+        this.telefone = telefone;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getMensagem() {
+        return mensagem;
+    }
+
+    public void setMensagem(String mensagem) {
+        this.mensagem = mensagem;
+    }
+
+    public LocalDateTime getCriadoEm() {
+        return criadoEm;
+    }
+
+    public void setCriadoEm(LocalDateTime criadoEm) {
+        this.criadoEm = criadoEm;
+    }
+
+    public LocalDateTime getEnviadoEm() {
+        return enviadoEm;
+    }
+
+    public void setEnviadoEm(LocalDateTime enviadoEm) {
+        this.enviadoEm = enviadoEm;
+    }
+
+    public int getTentativas() {
+        return tentativas;
+    }
+
+    public void setTentativas(int tentativas) {
+        this.tentativas = tentativas;
+    }
+
+    public String getUltimoErro() {
+        return ultimoErro;
+    }
+
+    public void setUltimoErro(String ultimoErro) {
+        this.ultimoErro = ultimoErro;
+    }
+}
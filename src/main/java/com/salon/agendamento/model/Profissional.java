@@ -0,0 +1,126 @@
+package com.salon.agendamento.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Entidade que representa um Profissional do salão
+ * 
+ * Cada profissional tem sua própria agenda: agendamentos de profissionais
+ * diferentes no mesmo horário não conflitam. Um profissional só pode ser
+ * agendado para os serviços que realiza.
+ */
+@Entity
+@Table(name = "profissionais", indexes = {
+        @Index(name = "idx_profissionais_nome", columnList = "nome, id"),
+        @Index(name = "idx_profissionais_ativo_nome", columnList = "ativo, nome")
+})
+public class Profissional {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "profissionais_seq")
+    @SequenceGenerator(name = "profissionais_seq", sequenceName = "profissionais_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(nullable = false, length = 100)
+    private String nome;
+    
+    @Column(length = 20)
+    private String telefone;
+    
+    @Column(length = 100)
+    private String email;
+    
+    @Column(name = "ativo")
+    private Boolean ativo = true;
+    
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(name = "profissionais_servicos",
+            joinColumns = @JoinColumn(name = "profissional_id"),
+            inverseJoinColumns = @JoinColumn(name = "servico_id"),
+            indexes = @Index(name = "idx_profissionais_servicos_servico", columnList = "servico_id, profissional_id"))
+    private Set<Servico> servicos = new HashSet<>();
+    
+    @Column(name = "data_cadastro")
+    private LocalDateTime dataCadastro;
+    
+    // Construtores
+    public Profissional() {
+        this.dataCadastro = LocalDateTime.now();
+    }
+    
+    public Profissional(String nome, String telefone, String email) {
+        this();
+        this.nome = nome;
+        this.telefone = telefone;
+        this.email = email;
+    }
+    
+    // Getters e Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getNome() {
+        return nome;
+    }
+    
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+    
+    public String getTelefone() {
+        return telefone;
+    }
+    
+    public void setTelefone(String telefone) {
+        this.telefone = telefone;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public void setEmail(String email) {
+        this.email = email;
+    }
+    
+    public Boolean getAtivo() {
+        return ativo;
+    }
+    
+    public void setAtivo(Boolean ativo) {
+        this.ativo = ativo;
+    }
+    
+    public Set<Servico> getServicos() {
+        return servicos;
+    }
+    
+    public void setServicos(Set<Servico> servicos) {
+        this.servicos = servicos;
+    }
+    
+    public LocalDateTime getDataCadastro() {
+        return dataCadastro;
+    }
+    
+    public void setDataCadastro(LocalDateTime dataCadastro) {
+        this.dataCadastro = dataCadastro;
+    }
+    
+    @Override
+    public String toString() {
+        return "Profissional{" +
+                "id=" + id +
+                ", nome='" + nome + '\'' +
+                ", ativo=" + ativo +
+                '}';
+    }
+}
@@ -0,0 +1,29 @@
+package com.salon.agendamento.model;
+
+/**
+ * Regra de repetição de uma série de agendamentos
+ */
+public enum Recorrencia {
+    SEMANAL("Semanal", 7),
+    QUINZENAL("Quinzenal", 14);
+    
+    private final String descricao;
+    
+    private final int intervaloDias;
+    
+    Recorrencia(String descricao, int intervaloDias) {
+        this.descricao = descricao;
+        this.intervaloDias = intervaloDias;
+    }
+    
+    public String getDescricao() {
+        return descricao;
+    }
+    
+    /**
+     * @return dias entre uma ocorrência e a seguinte
+     */
+    public int getIntervaloDias() {
+        return intervaloDias;
+    }
+}
@@ -10,11 +10,23 @@ import java.math.BigDecimal;
  * como corte de cabelo, manicure, pedicure, etc.
  */
 @Entity
-@Table(name = "servicos")
+@Table(name = "servicos", indexes = {
+        @Index(name = "idx_servicos_nome", columnList = "nome, id"),
+        @Index(name = "idx_servicos_ativo_nome", columnList = "ativo, nome")
+})
 public class Servico {
     
+    /**
+     * Duração máxima de um serviço, em minutos
+     * 
+     * Limita quanto tempo antes do início um agendamento conflitante pode começar, o que
+     * permite à verificação de conflito percorrer uma janela fechada do índice de data/hora.
+     */
+    public static final int DURACAO_MAXIMA_MINUTOS = 12 * 60;
+    
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "servicos_seq")
+    @SequenceGenerator(name = "servicos_seq", sequenceName = "servicos_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false, length = 100)
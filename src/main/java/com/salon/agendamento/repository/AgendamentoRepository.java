@@ -1,27 +1,62 @@
 package com.salon.agendamento.repository;
 
+import com.salon.agendamento.dto.AgendamentoApi;
+import com.salon.agendamento.dto.AgendamentoExportado;
+import com.salon.agendamento.dto.AgendamentoResumo;
 import com.salon.agendamento.model.Agendamento;
+import com.salon.agendamento.model.Servico;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repositório para a entidade Agendamento
  * 
  * Esta interface fornece métodos para acessar dados de agendamentos no banco.
+ * 
+ * Cliente e serviço são carregados de forma preguiçosa (LAZY); as consultas de listagem
+ * usam um entity graph para trazê-los no mesmo SELECT, evitando uma consulta extra por linha.
  */
 @Repository
 public interface AgendamentoRepository extends JpaRepository<Agendamento, Long> {
     
+    // Restringe a verificação de conflito à agenda de um profissional (ou à do salão, sem profissional)
+    String MESMA_AGENDA = "(a.profissional.id = :profissionalId OR (:profissionalId IS NULL AND a.profissional IS NULL))";
+
+    // Argumentos do construtor de AgendamentoApi (a = agendamento, c = cliente, s = serviço, p = profissional)
+    String COLUNAS_API = "a.id, a.dataHora, a.dataHoraFim, a.status, a.valor, c.id, c.nome, s.id, s.nome, " +
+                         "p.id, p.nome, a.serieId, a.observacoes, a.versao";
+    
+    /**
+     * Busca um agendamento por ID, já com cliente e serviço
+     * @param id ID do agendamento
+     * @return Optional contendo o agendamento se encontrado
+     */
+    @Override
+    @EntityGraph(attributePaths = {"cliente", "servico"})
+    Optional<Agendamento> findById(Long id);
+    
     /**
      * Busca agendamentos por cliente
      * @param clienteId ID do cliente
      * @return lista de agendamentos do cliente
      */
+    @EntityGraph(attributePaths = {"cliente", "servico"})
     List<Agendamento> findByClienteIdOrderByDataHoraDesc(Long clienteId);
     
     /**
@@ -29,6 +64,7 @@ public interface AgendamentoRepository extends JpaRepository<Agendamento, Long>
      * @param status status do agendamento
      * @return lista de agendamentos com o status especificado
      */
+    @EntityGraph(attributePaths = {"cliente", "servico"})
     List<Agendamento> findByStatusOrderByDataHoraAsc(Agendamento.StatusAgendamento status);
     
     /**
@@ -37,51 +73,321 @@ public interface AgendamentoRepository extends JpaRepository<Agendamento, Long>
      * @param dataFim data de fim
      * @return lista de agendamentos no período
      */
+    @EntityGraph(attributePaths = {"cliente", "servico"})
     List<Agendamento> findByDataHoraBetweenOrderByDataHoraAsc(LocalDateTime dataInicio, LocalDateTime dataFim);
     
     /**
      * Busca agendamentos de hoje
-     * @param hoje data de hoje
+     * 
+     * Usa um intervalo semiaberto [inicio, fim) sobre data_hora, em vez de converter a coluna
+     * para data, para que a consulta possa usar o índice.
+     * @param inicio início do dia
+     * @param fim início do dia seguinte
      * @return lista de agendamentos de hoje
      */
-    @Query("SELECT a FROM Agendamento a WHERE CAST(a.dataHora AS date) = CAST(:hoje AS date) ORDER BY a.dataHora ASC")
-    List<Agendamento> findAgendamentosDeHoje(@Param("hoje") LocalDateTime hoje);
+    @EntityGraph(attributePaths = {"cliente", "servico"})
+    @Query("SELECT a FROM Agendamento a WHERE a.dataHora >= :inicio AND a.dataHora < :fim ORDER BY a.dataHora ASC")
+    List<Agendamento> findAgendamentosDeHoje(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
     
     /**
      * Busca agendamentos futuros
      * @param agora momento atual
      * @return lista de agendamentos futuros
      */
+    @EntityGraph(attributePaths = {"cliente", "servico"})
     @Query("SELECT a FROM Agendamento a WHERE a.dataHora > :agora ORDER BY a.dataHora ASC")
     List<Agendamento> findAgendamentosFuturos(@Param("agora") LocalDateTime agora);
     
     /**
-     * Verifica se existe conflito de horário
+     * Busca o resumo dos agendamentos de hoje (somente as colunas exibidas no dashboard)
+     * @param inicio início do dia
+     * @param fim início do dia seguinte
+     * @return resumos dos agendamentos de hoje
+     */
+    @Query("SELECT new com.salon.agendamento.dto.AgendamentoResumo(a.id, a.dataHora, c.nome, c.telefone, " +
+           "s.nome, s.duracaoMinutos, a.valor, a.status) " +
+           "FROM Agendamento a JOIN a.cliente c JOIN a.servico s " +
+           "WHERE a.dataHora >= :inicio AND a.dataHora < :fim ORDER BY a.dataHora ASC")
+    List<AgendamentoResumo> findResumosDeHoje(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+    
+    /**
+     * Percorre os agendamentos de um período para exportação, com cursor somente para frente
+     * 
+     * Deve ser consumido dentro de uma transação e fechado ao final. As linhas chegam do banco
+     * em blocos do tamanho do fetch size, sem entidades gerenciadas.
+     * @param inicio início do período
+     * @param fim fim do período (exclusivo)
+     * @return linhas do período em ordem de data/hora e ID
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.salon.agendamento.dto.AgendamentoExportado(a.id, a.dataHora, a.dataHoraFim, a.status, " +
+           "a.valor, c.nome, c.email, c.telefone, s.nome, p.nome, a.observacoes) " +
+           "FROM Agendamento a JOIN a.cliente c JOIN a.servico s LEFT JOIN a.profissional p " +
+           "WHERE a.dataHora >= :inicio AND a.dataHora < :fim ORDER BY a.dataHora ASC, a.id ASC")
+    Stream<AgendamentoExportado> streamParaExportacao(@Param("inicio") LocalDateTime inicio,
+                                                      @Param("fim") LocalDateTime fim);
+
+    /**
+     * Busca os agendamentos de um período para a API JSON (somente as colunas expostas)
+     * @param inicio início do período
+     * @param fim fim do período (exclusivo)
+     * @return agendamentos do período em ordem de data/hora e ID
+     */
+    @Query("SELECT new com.salon.agendamento.dto.AgendamentoApi(" + COLUNAS_API + ") " +
+           "FROM Agendamento a JOIN a.cliente c JOIN a.servico s LEFT JOIN a.profissional p " +
+           "WHERE a.dataHora >= :inicio AND a.dataHora < :fim ORDER BY a.dataHora ASC, a.id ASC")
+    List<AgendamentoApi> findParaApi(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+
+    /**
+     * Busca um agendamento para a API JSON (somente as colunas expostas)
+     * @param id ID do agendamento
+     * @return Optional contendo o agendamento se encontrado
+     */
+    @Query("SELECT new com.salon.agendamento.dto.AgendamentoApi(" + COLUNAS_API + ") " +
+           "FROM Agendamento a JOIN a.cliente c JOIN a.servico s LEFT JOIN a.profissional p WHERE a.id = :id")
+    Optional<AgendamentoApi> findParaApiPorId(@Param("id") Long id);
+
+    /**
+     * Conta os agendamentos futuros
+     * @param agora momento atual
+     * @return quantidade de agendamentos futuros
+     */
+    @Query("SELECT COUNT(a) FROM Agendamento a WHERE a.dataHora > :agora")
+    long countAgendamentosFuturos(@Param("agora") LocalDateTime agora);
+    
+    /**
+     * Conta os agendamentos a partir de um momento (inclusivo)
+     * @param dataHora momento inicial
+     * @return quantidade de agendamentos a partir do momento
+     */
+    long countByDataHoraGreaterThanEqual(LocalDateTime dataHora);
+    
+    /**
+     * Verifica se existe conflito de horário na agenda de um profissional
+     * 
+     * Dois intervalos fechados se sobrepõem quando cada um começa antes (ou no instante)
+     * em que o outro termina. Como nenhum serviço dura mais que Servico.DURACAO_MAXIMA_MINUTOS,
+     * um agendamento conflitante começa no máximo essa duração antes do início verificado:
+     * a busca no índice fica limitada dos dois lados, em vez de percorrer todo o histórico
+     * anterior ao fim do horário.
+     * @param profissionalId ID do profissional (null para a agenda do salão, sem profissional)
      * @param dataHora data e hora do agendamento
      * @param dataHoraFim data e hora de fim do agendamento
      * @param idAgendamento ID do agendamento (para excluir na verificação de edição)
      * @return true se há conflito, false caso contrário
      */
+    default boolean existsConflitoHorario(Long profissionalId, LocalDateTime dataHora, LocalDateTime dataHoraFim,
+                                          Long idAgendamento) {
+        return existsConflitoHorarioNaJanela(profissionalId, dataHora, dataHoraFim, inicioDaJanela(dataHora),
+                fimDaJanela(dataHoraFim), idAgendamento);
+    }
+    
+    /**
+     * Verifica conflito de horário desconsiderando vários agendamentos (ex.: os de uma série sendo remarcada)
+     * @param profissionalId ID do profissional (null para a agenda do salão, sem profissional)
+     * @param dataHora data e hora de início
+     * @param dataHoraFim data e hora de fim
+     * @param idsIgnorados IDs dos agendamentos a desconsiderar
+     * @return true se há conflito, false caso contrário
+     */
+    default boolean existsConflitoHorarioIgnorando(Long profissionalId, LocalDateTime dataHora,
+                                                   LocalDateTime dataHoraFim, Collection<Long> idsIgnorados) {
+        return existsConflitoHorarioIgnorandoNaJanela(profissionalId, dataHora, dataHoraFim, inicioDaJanela(dataHora),
+                fimDaJanela(dataHoraFim), idsIgnorados);
+    }
+    
+    /**
+     * Verifica conflito de horário entre os agendamentos que começam dentro de uma janela
+     * (use existsConflitoHorario, que calcula a janela)
+     * @param profissionalId ID do profissional (null para a agenda do salão, sem profissional)
+     * @param dataHora data e hora do agendamento
+     * @param dataHoraFim data e hora de fim do agendamento
+     * @param inicioMinimo início mais cedo de um agendamento conflitante
+     * @param fimMaximo fim mais tarde de um agendamento conflitante
+     * @param idAgendamento ID do agendamento (para excluir na verificação de edição)
+     * @return true se há conflito, false caso contrário
+     */
     @Query("SELECT COUNT(a) > 0 FROM Agendamento a WHERE " +
-           "((a.dataHora BETWEEN :dataHora AND :dataHoraFim) OR " +
-           "(a.dataHoraFim BETWEEN :dataHora AND :dataHoraFim) OR " +
-           "(:dataHora BETWEEN a.dataHora AND a.dataHoraFim)) AND " +
+           "a.dataHora >= :inicioMinimo AND a.dataHora <= :dataHoraFim AND " +
+           "a.dataHoraFim >= :dataHora AND a.dataHoraFim <= :fimMaximo AND " +
            "a.status NOT IN ('CANCELADO', 'NAO_COMPARECEU') AND " +
-           "(:idAgendamento IS NULL OR a.id != :idAgendamento)")
-    boolean existsConflitoHorario(@Param("dataHora") LocalDateTime dataHora,
-                                  @Param("dataHoraFim") LocalDateTime dataHoraFim,
-                                  @Param("idAgendamento") Long idAgendamento);
+           "(:idAgendamento IS NULL OR a.id != :idAgendamento) AND " + MESMA_AGENDA)
+    boolean existsConflitoHorarioNaJanela(@Param("profissionalId") Long profissionalId,
+                                          @Param("dataHora") LocalDateTime dataHora,
+                                          @Param("dataHoraFim") LocalDateTime dataHoraFim,
+                                          @Param("inicioMinimo") LocalDateTime inicioMinimo,
+                                          @Param("fimMaximo") LocalDateTime fimMaximo,
+                                          @Param("idAgendamento") Long idAgendamento);
     
+    /**
+     * Verifica conflito de horário entre os agendamentos que começam dentro de uma janela,
+     * desconsiderando vários agendamentos (use existsConflitoHorarioIgnorando, que calcula a janela)
+     * @param profissionalId ID do profissional (null para a agenda do salão, sem profissional)
+     * @param dataHora data e hora de início
+     * @param dataHoraFim data e hora de fim
+     * @param inicioMinimo início mais cedo de um agendamento conflitante
+     * @param fimMaximo fim mais tarde de um agendamento conflitante
+     * @param idsIgnorados IDs dos agendamentos a desconsiderar
+     * @return true se há conflito, false caso contrário
+     */
+    @Query("SELECT COUNT(a) > 0 FROM Agendamento a WHERE " +
+           "a.dataHora >= :inicioMinimo AND a.dataHora <= :dataHoraFim AND " +
+           "a.dataHoraFim >= :dataHora AND a.dataHoraFim <= :fimMaximo AND " +
+           "a.status NOT IN ('CANCELADO', 'NAO_COMPARECEU') AND a.id NOT IN :idsIgnorados AND " + MESMA_AGENDA)
+    boolean existsConflitoHorarioIgnorandoNaJanela(@Param("profissionalId") Long profissionalId,
+                                                   @Param("dataHora") LocalDateTime dataHora,
+                                                   @Param("dataHoraFim") LocalDateTime dataHoraFim,
+                                                   @Param("inicioMinimo") LocalDateTime inicioMinimo,
+                                                   @Param("fimMaximo") LocalDateTime fimMaximo,
+                                                   @Param("idsIgnorados") Collection<Long> idsIgnorados);
+    
+    // Início mais cedo de um agendamento que ainda não terminou em dataHora
+    private static LocalDateTime inicioDaJanela(LocalDateTime dataHora) {
+        return dataHora == null ? null : dataHora.minusMinutes(Servico.DURACAO_MAXIMA_MINUTOS);
+    }
+    
+    // Fim mais tarde de um agendamento que já começou em dataHoraFim
+    private static LocalDateTime fimDaJanela(LocalDateTime dataHoraFim) {
+        return dataHoraFim == null ? null : dataHoraFim.plusMinutes(Servico.DURACAO_MAXIMA_MINUTOS);
+    }
+    
+    /**
+     * Busca os agendamentos de uma série recorrente
+     * @param serieId identificador da série
+     * @return agendamentos da série, em ordem de data/hora
+     */
+    @EntityGraph(attributePaths = {"cliente", "servico"})
+    List<Agendamento> findBySerieIdOrderByDataHoraAsc(String serieId);
+    
+    /**
+     * Verifica se um profissional tem agendamentos
+     * @param profissionalId ID do profissional
+     * @return true se há ao menos um agendamento do profissional
+     */
+    boolean existsByProfissionalId(Long profissionalId);
+    
+    /**
+     * Busca os intervalos dos agendamentos ativos que tocam um período, de todos os profissionais
+     * @param inicio início do período (inclusivo)
+     * @param fim fim do período (exclusivo)
+     * @return intervalos ocupados no período
+     */
+    @Query("SELECT a.id AS id, a.profissional.id AS profissionalId, a.dataHora AS dataHora, " +
+           "a.dataHoraFim AS dataHoraFim FROM Agendamento a WHERE " +
+           "a.dataHoraFim >= :inicio AND a.dataHora < :fim AND " +
+           "a.status NOT IN ('CANCELADO', 'NAO_COMPARECEU')")
+    List<IntervaloAgendamento> findIntervalosAtivos(@Param("inicio") LocalDateTime inicio,
+                                                    @Param("fim") LocalDateTime fim);
+
+    /**
+     * Busca os horários dos agendamentos futuros que ainda vão acontecer (agendados ou confirmados)
+     *
+     * Usada para montar a agenda de lembretes na inicialização; só id e data/hora são usados.
+     * @param agora instante atual
+     * @return intervalos dos agendamentos futuros ativos
+     */
+    @Query("SELECT a.id AS id, a.profissional.id AS profissionalId, a.dataHora AS dataHora, " +
+           "a.dataHoraFim AS dataHoraFim FROM Agendamento a WHERE " +
+           "a.dataHora > :agora AND a.status IN ('AGENDADO', 'CONFIRMADO')")
+    List<IntervaloAgendamento> findFuturosParaLembrete(@Param("agora") LocalDateTime agora);
+
+    /**
+     * Busca vários agendamentos por ID, já com cliente e serviço
+     * @param ids IDs dos agendamentos
+     * @return agendamentos encontrados (em qualquer ordem)
+     */
+    @EntityGraph(attributePaths = {"cliente", "servico"})
+    List<Agendamento> findByIdIn(Collection<Long> ids);
+
+    /*
+     * Mudança de status em lote: as linhas são lidas com trava de escrita (SELECT ... FOR UPDATE),
+     * sempre em ordem de ID para que dois lotes concorrentes não se travem, e então alteradas por
+     * um único UPDATE. A leitura fornece o estado anterior que o índice de agenda, o resumo do
+     * dashboard, os lembretes e o faturamento precisam.
+     */
+
+    /**
+     * Trava e busca vários agendamentos por ID, já com cliente e serviço
+     * @param ids IDs dos agendamentos
+     * @return agendamentos encontrados, em ordem de ID
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @EntityGraph(attributePaths = {"cliente", "servico"})
+    @Query("SELECT a FROM Agendamento a WHERE a.id IN :ids ORDER BY a.id")
+    List<Agendamento> findParaMudarStatus(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Trava e busca os agendamentos de um período em um status, já com cliente e serviço
+     * @param inicio início do período
+     * @param fim fim do período (exclusivo)
+     * @param status status atual
+     * @return agendamentos encontrados, em ordem de ID
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @EntityGraph(attributePaths = {"cliente", "servico"})
+    @Query("SELECT a FROM Agendamento a WHERE a.status = :status AND a.dataHora >= :inicio AND a.dataHora < :fim " +
+           "ORDER BY a.id")
+    List<Agendamento> findParaMudarStatusNoPeriodo(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim,
+                                                   @Param("status") Agendamento.StatusAgendamento status);
+
+    /**
+     * Muda o status de vários agendamentos com um único UPDATE, incrementando a versão
+     *
+     * Só altera as linhas que ainda estão em um dos status de origem. Esvazia o contexto de
+     * persistência: as entidades lidas antes ficam desanexadas, com o estado anterior.
+     * @param ids IDs dos agendamentos
+     * @param origens status a partir dos quais a mudança é permitida
+     * @param novo novo status
+     * @return quantidade de linhas alteradas
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Agendamento a SET a.status = :novo, a.versao = a.versao + 1 " +
+           "WHERE a.id IN :ids AND a.status IN :origens")
+    int atualizarStatus(@Param("ids") Collection<Long> ids,
+                        @Param("origens") Collection<Agendamento.StatusAgendamento> origens,
+                        @Param("novo") Agendamento.StatusAgendamento novo);
+
     /**
      * Busca agendamentos por serviço
      * @param servicoId ID do serviço
      * @return lista de agendamentos do serviço
      */
+    @EntityGraph(attributePaths = {"cliente", "servico"})
     List<Agendamento> findByServicoIdOrderByDataHoraDesc(Long servicoId);
     
     /**
      * Busca agendamentos ordenados por data/hora (mais recentes primeiro)
      * @return lista de agendamentos ordenados
      */
+    @EntityGraph(attributePaths = {"cliente", "servico"})
     List<Agendamento> findAllByOrderByDataHoraDesc();
+    
+    /*
+     * As páginas usam LEFT JOIN FETCH em vez do entity graph: com junção interna o H2 pode começar
+     * pela tabela de serviços (pequena) e então ordenar todos os agendamentos; com LEFT JOIN a leitura
+     * parte do índice de data_hora já na ordem da página e para no limite.
+     */
+    
+    /**
+     * Busca a primeira página de agendamentos (mais recentes primeiro)
+     * @param limite quantidade máxima de agendamentos
+     * @return agendamentos ordenados por data/hora e ID decrescentes
+     */
+    @Query("SELECT a FROM Agendamento a LEFT JOIN FETCH a.cliente LEFT JOIN FETCH a.servico LEFT JOIN FETCH a.profissional " +
+           "ORDER BY a.dataHora DESC, a.id DESC")
+    List<Agendamento> findPaginaMaisRecentes(Limit limite);
+    
+    /**
+     * Busca a página de agendamentos seguinte a um cursor (keyset)
+     * @param dataHora data/hora do último agendamento da página anterior
+     * @param id ID do último agendamento da página anterior
+     * @param limite quantidade máxima de agendamentos
+     * @return agendamentos anteriores ao cursor, ordenados por data/hora e ID decrescentes
+     */
+    @Query("SELECT a FROM Agendamento a LEFT JOIN FETCH a.cliente LEFT JOIN FETCH a.servico LEFT JOIN FETCH a.profissional " +
+           "WHERE a.dataHora <= :dataHora AND (a.dataHora < :dataHora OR a.id < :id) " +
+           "ORDER BY a.dataHora DESC, a.id DESC")
+    List<Agendamento> findPaginaMaisRecentesApos(@Param("dataHora") LocalDateTime dataHora,
+                                                 @Param("id") Long id,
+                                                 Limit limite);
 }
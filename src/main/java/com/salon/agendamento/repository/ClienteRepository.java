@@ -1,11 +1,14 @@
 package com.salon.agendamento.repository;
 
+import com.salon.agendamento.dto.SugestaoCliente;
 import com.salon.agendamento.model.Cliente;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,12 +35,20 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
     Optional<Cliente> findByEmail(String email);
     
     /**
-     * Busca clientes por nome (ignorando maiúsculas/minúsculas)
-     * @param nome nome do cliente
-     * @return lista de clientes com o nome especificado
+     * Busca os dados de todos os clientes usados pelo índice de busca
+     * @return nome, email e telefone de cada cliente
      */
-    List<Cliente> findByNomeContainingIgnoreCase(String nome);
-    
+    @Query("SELECT new com.salon.agendamento.dto.SugestaoCliente(c.id, c.nome, c.email, c.telefone) FROM Cliente c")
+    List<SugestaoCliente> findDadosBusca();
+
+    /**
+     * Busca quais dos emails informados já estão cadastrados
+     * @param emails emails a conferir
+     * @return emails encontrados
+     */
+    @Query("SELECT c.email FROM Cliente c WHERE c.email IN :emails")
+    List<String> findEmailsExistentes(@Param("emails") Collection<String> emails);
+
     /**
      * Busca clientes por telefone
      * @param telefone telefone do cliente
@@ -67,4 +78,23 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
      * @return true se o email já existe, false caso contrário
      */
     boolean existsByEmail(String email);
+    
+    /**
+     * Busca a primeira página de clientes em ordem alfabética
+     * @param limite quantidade máxima de clientes
+     * @return clientes ordenados por nome e ID
+     */
+    @Query("SELECT c FROM Cliente c ORDER BY c.nome ASC, c.id ASC")
+    List<Cliente> findPaginaPorNome(Limit limite);
+    
+    /**
+     * Busca a página de clientes seguinte a um cursor (keyset)
+     * @param nome nome do último item da página anterior
+     * @param id ID do último item da página anterior
+     * @param limite quantidade máxima de clientes
+     * @return clientes posteriores ao cursor, ordenados por nome e ID
+     */
+    @Query("SELECT c FROM Cliente c WHERE c.nome >= :nome AND (c.nome > :nome OR c.id > :id) " +
+           "ORDER BY c.nome ASC, c.id ASC")
+    List<Cliente> findPaginaPorNomeApos(@Param("nome") String nome, @Param("id") Long id, Limit limite);
 }
@@ -0,0 +1,84 @@
+package com.salon.agendamento.repository;
+
+import com.salon.agendamento.dto.FaturamentoDia;
+import com.salon.agendamento.dto.FaturamentoServico;
+import com.salon.agendamento.model.FaturamentoDiario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repositório dos totais diários de faturamento por serviço
+ *
+ * Os relatórios somam no máximo uma linha por dia e serviço do período,
+ * sem tocar na tabela de agendamentos.
+ */
+@Repository
+public interface FaturamentoDiarioRepository extends JpaRepository<FaturamentoDiario, Long> {
+
+    /**
+     * Soma (ou subtrai, com valores negativos) um agendamento aos totais de um dia e serviço
+     * @param dia dia do agendamento
+     * @param servicoId ID do serviço
+     * @param quantidade variação da quantidade
+     * @param faturamento variação do faturamento
+     * @param minutos variação dos minutos
+     * @return quantidade de linhas alteradas (0 se ainda não há totais para o dia e serviço)
+     */
+    @Modifying
+    @Query("UPDATE FaturamentoDiario f SET f.quantidade = f.quantidade + :quantidade, " +
+           "f.faturamento = f.faturamento + :faturamento, f.minutos = f.minutos + :minutos " +
+           "WHERE f.dia = :dia AND f.servicoId = :servicoId")
+    int somar(@Param("dia") LocalDate dia, @Param("servicoId") Long servicoId, @Param("quantidade") long quantidade,
+              @Param("faturamento") BigDecimal faturamento, @Param("minutos") long minutos);
+
+    /**
+     * Remove os totais de um dia e serviço que ficaram sem agendamentos realizados
+     * @param dia dia
+     * @param servicoId ID do serviço
+     * @return quantidade de linhas removidas
+     */
+    @Modifying
+    @Query("DELETE FROM FaturamentoDiario f WHERE f.dia = :dia AND f.servicoId = :servicoId AND f.quantidade <= 0")
+    int removerVazio(@Param("dia") LocalDate dia, @Param("servicoId") Long servicoId);
+
+    /**
+     * Calcula os totais diários a partir dos agendamentos realizados (usado na reconstrução)
+     * @return uma linha por dia e serviço com agendamentos realizados, ainda não gravada
+     */
+    @Query("SELECT new com.salon.agendamento.model.FaturamentoDiario(cast(a.dataHora as LocalDate), a.servico.id, " +
+           "count(a), sum(coalesce(a.valor, 0)), sum((coalesce(a.dataHoraFim, a.dataHora) - a.dataHora) by minute)) " +
+           "FROM Agendamento a WHERE a.status = 'REALIZADO' " +
+           "GROUP BY cast(a.dataHora as LocalDate), a.servico.id")
+    List<FaturamentoDiario> calcularTotaisDosAgendamentos();
+
+    /**
+     * Soma os totais de cada serviço no período
+     * @param de primeiro dia
+     * @param ate último dia (inclusivo)
+     * @return totais por serviço, do maior faturamento para o menor
+     */
+    @Query("SELECT new com.salon.agendamento.dto.FaturamentoServico(f.servicoId, s.nome, sum(f.quantidade), " +
+           "sum(f.faturamento), sum(f.minutos)) " +
+           "FROM FaturamentoDiario f LEFT JOIN Servico s ON s.id = f.servicoId " +
+           "WHERE f.dia BETWEEN :de AND :ate GROUP BY f.servicoId, s.nome HAVING sum(f.quantidade) > 0 " +
+           "ORDER BY sum(f.faturamento) DESC, s.nome ASC")
+    List<FaturamentoServico> somarPorServico(@Param("de") LocalDate de, @Param("ate") LocalDate ate);
+
+    /**
+     * Soma os totais de cada dia do período (todos os serviços)
+     * @param de primeiro dia
+     * @param ate último dia (inclusivo)
+     * @return totais por dia, em ordem cronológica (só dias com agendamentos realizados)
+     */
+    @Query("SELECT new com.salon.agendamento.dto.FaturamentoDia(f.dia, sum(f.quantidade), sum(f.faturamento), " +
+           "sum(f.minutos)) FROM FaturamentoDiario f WHERE f.dia BETWEEN :de AND :ate " +
+           "GROUP BY f.dia HAVING sum(f.quantidade) > 0 ORDER BY f.dia ASC")
+    List<FaturamentoDia> somarPorDia(@Param("de") LocalDate de, @Param("ate") LocalDate ate);
+}
@@ -0,0 +1,20 @@
+package com.salon.agendamento.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projeção com apenas o intervalo ocupado por um agendamento
+ *
+ * Usada para carregar o índice de agenda e os lembretes em memória sem trazer
+ * cliente, serviço e demais colunas da entidade.
+ */
+public interface IntervaloAgendamento {
+
+    Long getId();
+
+    Long getProfissionalId();
+
+    LocalDateTime getDataHora();
+
+    LocalDateTime getDataHoraFim();
+}
@@ -0,0 +1,56 @@
+package com.salon.agendamento.repository;
+
+import com.salon.agendamento.model.Lembrete;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositório da fila de saída de lembretes
+ */
+@Repository
+public interface LembreteRepository extends JpaRepository<Lembrete, Long> {
+
+    /**
+     * Próximo lote da fila de envio
+     * @param maximoTentativas lembretes com essa quantidade de falhas saem da fila
+     * @param limite tamanho do lote
+     * @return lembretes pendentes, em ordem de chegada
+     */
+    @Query("SELECT l FROM Lembrete l WHERE l.enviadoEm IS NULL AND l.tentativas < :maximoTentativas ORDER BY l.id")
+    List<Lembrete> findPendentes(@Param("maximoTentativas") int maximoTentativas, Limit limite);
+
+    /**
+     * Lembretes já gravados para os agendamentos (para não gravar o mesmo duas vezes)
+     * @param agendamentoIds IDs dos agendamentos
+     * @return lembretes dos agendamentos, enviados ou não
+     */
+    List<Lembrete> findByAgendamentoIdIn(Collection<Long> agendamentoIds);
+
+    /**
+     * Marca lembretes como enviados
+     * @param ids IDs dos lembretes
+     * @param enviadoEm instante do envio
+     * @return quantidade de lembretes marcados
+     */
+    @Modifying
+    @Query("UPDATE Lembrete l SET l.enviadoEm = :enviadoEm WHERE l.id IN :ids")
+    int marcarEnviados(@Param("ids") Collection<Long> ids, @Param("enviadoEm") LocalDateTime enviadoEm);
+
+    /**
+     * Registra uma falha de envio; os lembretes continuam na fila até o máximo de tentativas
+     * @param ids IDs dos lembretes
+     * @param erro mensagem do erro
+     * @return quantidade de lembretes alterados
+     */
+    @Modifying
+    @Query("UPDATE Lembrete l SET l.tentativas = l.tentativas + 1, l.ultimoErro = :erro WHERE l.id IN :ids")
+    int registrarFalha(@Param("ids") Collection<Long> ids, @Param("erro") String erro);
+}
@@ -0,0 +1,43 @@
+package com.salon.agendamento.repository;
+
+import com.salon.agendamento.model.Profissional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositório para a entidade Profissional
+ * 
+ * Esta interface fornece métodos para acessar dados de profissionais no banco.
+ */
+@Repository
+public interface ProfissionalRepository extends JpaRepository<Profissional, Long> {
+    
+    /**
+     * Busca todos os profissionais ordenados por nome
+     * @return lista de profissionais ordenados alfabeticamente
+     */
+    List<Profissional> findAllByOrderByNomeAsc();
+    
+    /**
+     * Busca profissionais ativos ordenados por nome
+     * @return lista de profissionais ativos ordenados alfabeticamente
+     */
+    List<Profissional> findByAtivoTrueOrderByNomeAsc();
+    
+    /**
+     * Busca os profissionais ativos que realizam algum dos serviços informados
+     * 
+     * Retorna o ID do serviço junto com o profissional, para agrupar os profissionais
+     * de vários serviços com uma única consulta.
+     * @param servicoIds IDs dos serviços
+     * @return pares [ID do serviço, profissional], ordenados por nome do profissional
+     */
+    @Query("SELECT s.id, p FROM Profissional p JOIN p.servicos s " +
+           "WHERE s.id IN :servicoIds AND p.ativo = true ORDER BY p.nome ASC, p.id ASC")
+    List<Object[]> findAtivosPorServicos(@Param("servicoIds") Collection<Long> servicoIds);
+}
@@ -1,7 +1,10 @@
 package com.salon.agendamento.repository;
 
 import com.salon.agendamento.model.Servico;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -20,6 +23,12 @@ public interface ServicoRepository extends JpaRepository<Servico, Long> {
      */
     List<Servico> findByAtivoTrue();
     
+    /**
+     * Conta os serviços ativos
+     * @return quantidade de serviços ativos
+     */
+    long countByAtivoTrue();
+    
     /**
      * Busca serviços por nome (ignorando maiúsculas/minúsculas)
      * @param nome nome do serviço
@@ -41,4 +50,23 @@ public interface ServicoRepository extends JpaRepository<Servico, Long> {
      */
     List<Servico> findByPrecoBetweenAndAtivoTrue(java.math.BigDecimal precoMinimo, 
                                                  java.math.BigDecimal precoMaximo);
+    
+    /**
+     * Busca a primeira página de serviços em ordem alfabética
+     * @param limite quantidade máxima de serviços
+     * @return serviços ordenados por nome e ID
+     */
+    @Query("SELECT s FROM Servico s ORDER BY s.nome ASC, s.id ASC")
+    List<Servico> findPaginaPorNome(Limit limite);
+    
+    /**
+     * Busca a página de serviços seguinte a um cursor (keyset)
+     * @param nome nome do último item da página anterior
+     * @param id ID do último item da página anterior
+     * @param limite quantidade máxima de serviços
+     * @return serviços posteriores ao cursor, ordenados por nome e ID
+     */
+    @Query("SELECT s FROM Servico s WHERE s.nome >= :nome AND (s.nome > :nome OR s.id > :id) " +
+           "ORDER BY s.nome ASC, s.id ASC")
+    List<Servico> findPaginaPorNomeApos(@Param("nome") String nome, @Param("id") Long id, Limit limite);
 }
@@ -1,15 +1,48 @@
 package com.salon.agendamento.service;
 
+import com.salon.agendamento.config.ConfiguracaoMetricas;
+import com.salon.agendamento.dto.AgendamentoApi;
+import com.salon.agendamento.dto.AgendamentoResumo;
+import com.salon.agendamento.dto.Pagina;
+import com.salon.agendamento.dto.ResultadoItemLote;
+import com.salon.agendamento.dto.ResultadoSerie;
+import com.salon.agendamento.dto.SolicitacaoAgendamento;
+import com.salon.agendamento.dto.SolicitacaoSerie;
 import com.salon.agendamento.model.Agendamento;
 import com.salon.agendamento.model.Cliente;
+import com.salon.agendamento.model.Profissional;
 import com.salon.agendamento.model.Servico;
 import com.salon.agendamento.repository.AgendamentoRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Serviço para gerenciar operações relacionadas a Agendamentos
@@ -18,8 +51,30 @@ import java.util.Optional;
  * incluindo validações de horários e regras de negócio.
  */
 @Service
+@Timed(value = ConfiguracaoMetricas.METODOS_SERVICO, histogram = true)
 public class AgendamentoService {
     
+    // Horário de funcionamento do salão
+    public static final int HORA_ABERTURA = 8;
+    public static final int HORA_FECHAMENTO = 18;
+    
+    // Quantidade máxima de itens aceitos em uma criação em lote
+    public static final int MAXIMO_ITENS_LOTE = 1000;
+    
+    // Quantidade máxima de ocorrências de uma série recorrente (dois anos de repetição semanal)
+    public static final int MAXIMO_OCORRENCIAS_SERIE = 104;
+    
+    /** Período máximo de uma listagem da API JSON */
+    public static final int MAXIMO_DIAS_API = 31;
+    
+    // Releituras quando o agendamento é remarcado entre a leitura e a aquisição das travas
+    private static final int MAXIMO_TENTATIVAS_TRAVAS = 5;
+    
+    private static final DateTimeFormatter FORMATO_OCORRENCIA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    
+    private static final String AGENDAMENTO_ALTERADO =
+            "O agendamento foi alterado por outra pessoa. Recarregue a página e tente novamente.";
+    
     @Autowired
     private AgendamentoRepository agendamentoRepository;
     
@@ -29,15 +84,53 @@ public class AgendamentoService {
     @Autowired
     private ServicoService servicoService;
     
+    @Autowired
+    private ProfissionalService profissionalService;
+    
+    @Autowired
+    private IndiceAgenda indiceAgenda;
+    
+    @Autowired
+    private TravasAgenda travasAgenda;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private ResumoDashboard resumoDashboard;
+    
+    @Autowired
+    private FaturamentoService faturamentoService;
+    
+    @Autowired
+    private VersaoDados versaoDados;
+    
+    @Autowired
+    private MetricasAgenda metricasAgenda;
+    
+    @Autowired
+    private LembreteService lembreteService;
+    
+    @Autowired
+    private DiarioAgendamentos diarioAgendamentos;
+    
+    // Repete a verificação de conflito no banco depois do índice (útil com mais de uma instância)
+    @Value("${agenda.indice.confirmar-no-banco:false}")
+    private boolean confirmarConflitoNoBanco;
+    
     /**
      * Cria um novo agendamento
+     * 
+     * Sem profissional informado, o agendamento vai para o primeiro profissional apto ao serviço
+     * que esteja livre no horário; se nenhum profissional realiza o serviço, vai para a agenda do salão.
      * @param clienteId ID do cliente
      * @param servicoId ID do serviço
+     * @param profissionalId ID do profissional (null para escolher automaticamente)
      * @param dataHora data e hora do agendamento
      * @param observacoes observações do agendamento
      * @return agendamento criado
      */
-    public Agendamento criar(Long clienteId, Long servicoId, LocalDateTime dataHora, String observacoes) {
+    public Agendamento criar(Long clienteId, Long servicoId, Long profissionalId, LocalDateTime dataHora, String observacoes) {
         // Busca cliente e serviço
         Cliente cliente = clienteService.buscarPorId(clienteId)
                 .orElseThrow(() -> new IllegalArgumentException("Cliente não encontrado"));
@@ -47,13 +140,28 @@ public class AgendamentoService {
         
         // Validações de negócio
         validarHorarioAgendamento(dataHora);
-        validarConflitoHorario(dataHora, servico, null);
+        
+        List<Profissional> opcoes = opcoesDeProfissional(profissionalId, profissionalService.listarPorServico(servicoId));
         
         // Cria o agendamento
         Agendamento agendamento = new Agendamento(cliente, servico, dataHora);
         agendamento.setObservacoes(observacoes);
         
-        return agendamentoRepository.save(agendamento);
+        // Verificação de conflito e gravação acontecem sob as travas das agendas candidatas, numa única
+        // transação; o índice é atualizado depois do commit, ainda com as travas
+        return travasAgenda.executar(chaves(opcoes, dataHora, agendamento.getDataHoraFim()), () -> {
+            long cargaResumo = resumoDashboard.cargaAtual();
+            Agendamento salvo = transactionTemplate.execute(status -> {
+                agendamento.setProfissional(escolherProfissional(opcoes, dataHora, agendamento.getDataHoraFim(), null));
+                return agendamentoRepository.save(agendamento);
+            });
+            indiceAgenda.registrar(salvo);
+            lembreteService.agendamentoSalvo(salvo);
+            resumoDashboard.agendamentoSalvo(cargaResumo, null, salvo);
+            diarioAgendamentos.registrar(DiarioAgendamentos.Tipo.CRIADO, salvo);
+            versaoDados.alterado(VersaoDados.Dominio.AGENDAMENTOS);
+            return salvo;
+        });
     }
     
     /**
@@ -61,11 +169,13 @@ public class AgendamentoService {
      * @param id ID do agendamento
      * @param clienteId ID do cliente
      * @param servicoId ID do serviço
+     * @param profissionalId ID do profissional (null para manter o atual, se estiver livre, ou escolher outro)
      * @param dataHora nova data e hora
      * @param observacoes novas observações
      * @return agendamento atualizado
      */
-    public Agendamento atualizar(Long id, Long clienteId, Long servicoId, LocalDateTime dataHora, String observacoes) {
+    public Agendamento atualizar(Long id, Long clienteId, Long servicoId, Long profissionalId,
+                                 LocalDateTime dataHora, String observacoes) {
         Agendamento agendamento = buscarPorId(id)
                 .orElseThrow(() -> new IllegalArgumentException("Agendamento não encontrado"));
         
@@ -78,21 +188,321 @@ public class AgendamentoService {
         
         // Validações de negócio
         validarHorarioAgendamento(dataHora);
-        validarConflitoHorario(dataHora, servico, id);
         
-        // Atualiza os dados
-        agendamento.setCliente(cliente);
-        agendamento.setServico(servico);
-        agendamento.setDataHora(dataHora);
-        agendamento.setValor(servico.getPreco());
-        agendamento.setObservacoes(observacoes);
+        LocalDateTime dataHoraAnterior = agendamento.getDataHora();
+        FaturamentoService.Contribuicao faturamentoAnterior = FaturamentoService.contribuicao(agendamento);
+        
+        // O profissional atual tem preferência, se continuar apto ao serviço
+        List<Profissional> opcoes = new ArrayList<>(
+                opcoesDeProfissional(profissionalId, profissionalService.listarPorServico(servicoId)));
+        Long profissionalAtual = idDe(agendamento.getProfissional());
+        for (int i = 1; i < opcoes.size(); i++) {
+            if (Objects.equals(idDe(opcoes.get(i)), profissionalAtual)) {
+                opcoes.add(0, opcoes.remove(i));
+            }
+        }
+        
+        // Trava tanto a agenda do horário atual quanto as candidatas ao novo horário
+        LocalDateTime novoFim = servico.getDuracaoMinutos() != null
+                ? dataHora.plusMinutes(servico.getDuracaoMinutos()) : dataHora;
+        Set<TravasAgenda.Chave> chaves = TravasAgenda.chaves(profissionalAtual, agendamento.getDataHora(), agendamento.getDataHoraFim());
+        chaves.addAll(chaves(opcoes, dataHora, novoFim));
+        
+        return travasAgenda.executar(chaves, () -> {
+            long cargaResumo = resumoDashboard.cargaAtual();
+            Agendamento salvo = comControleDeVersao(() -> transactionTemplate.execute(status -> {
+                Profissional profissional = escolherProfissional(opcoes, dataHora, novoFim, id);
+                
+                // Atualiza os dados
+                agendamento.setProfissional(profissional);
+                agendamento.setCliente(cliente);
+                agendamento.setServico(servico);
+                agendamento.setDataHora(dataHora);
+                agendamento.setValor(servico.getPreco());
+                agendamento.setObservacoes(observacoes);
+                
+                // Recalcula o horário de fim
+                agendamento.setDataHoraFim(novoFim);
+                
+                Agendamento atualizado = agendamentoRepository.save(agendamento);
+                // Um agendamento já realizado pode ter mudado de dia, serviço ou valor
+                faturamentoService.registrarTransicao(faturamentoAnterior, FaturamentoService.contribuicao(atualizado));
+                return atualizado;
+            }));
+            indiceAgenda.registrar(salvo);
+            lembreteService.agendamentoSalvo(salvo);
+            resumoDashboard.agendamentoSalvo(cargaResumo, dataHoraAnterior, salvo);
+            diarioAgendamentos.registrar(DiarioAgendamentos.Tipo.ALTERADO, salvo);
+            versaoDados.alterado(VersaoDados.Dominio.AGENDAMENTOS);
+            return salvo;
+        });
+    }
+    
+    /**
+     * Cria vários agendamentos de uma vez
+     * 
+     * Todos os itens são validados numa única passada: os candidatos são ordenados por horário
+     * e comparados com a agenda existente (índice em memória) e com os itens já aceitos no próprio lote.
+     * Os aceitos são gravados numa só transação, em lotes JDBC. Um item rejeitado não impede os demais.
+     * @param solicitacoes agendamentos a criar
+     * @return resultado de cada item, na ordem da requisição
+     */
+    public List<ResultadoItemLote> criarEmLote(List<SolicitacaoAgendamento> solicitacoes) {
+        if (solicitacoes.size() > MAXIMO_ITENS_LOTE) {
+            throw new IllegalArgumentException("O lote deve ter no máximo " + MAXIMO_ITENS_LOTE + " agendamentos");
+        }
+        
+        ResultadoItemLote[] resultados = new ResultadoItemLote[solicitacoes.size()];
+        
+        // Busca clientes e serviços de todo o lote com uma consulta para cada
+        Set<Long> clienteIds = new HashSet<>();
+        Set<Long> servicoIds = new HashSet<>();
+        for (SolicitacaoAgendamento solicitacao : solicitacoes) {
+            if (solicitacao != null && solicitacao.getClienteId() != null) {
+                clienteIds.add(solicitacao.getClienteId());
+            }
+            if (solicitacao != null && solicitacao.getServicoId() != null) {
+                servicoIds.add(solicitacao.getServicoId());
+            }
+        }
+        Map<Long, Cliente> clientes = clienteService.buscarPorIds(clienteIds);
+        Map<Long, Servico> servicos = servicoService.buscarPorIds(servicoIds);
+        Map<Long, List<Profissional>> profissionaisPorServico = profissionalService.listarPorServicos(servicoIds);
+        
+        // Validações que não dependem da agenda
+        List<CandidatoLote> candidatos = new ArrayList<>();
+        for (int i = 0; i < solicitacoes.size(); i++) {
+            SolicitacaoAgendamento solicitacao = solicitacoes.get(i);
+            if (solicitacao == null || solicitacao.getDataHora() == null) {
+                resultados[i] = ResultadoItemLote.rejeitado(i, "Data e hora são obrigatórias");
+                continue;
+            }
+            Cliente cliente = clientes.get(solicitacao.getClienteId());
+            if (cliente == null) {
+                resultados[i] = ResultadoItemLote.rejeitado(i, "Cliente não encontrado");
+                continue;
+            }
+            Servico servico = servicos.get(solicitacao.getServicoId());
+            if (servico == null) {
+                resultados[i] = ResultadoItemLote.rejeitado(i, "Serviço não encontrado");
+                continue;
+            }
+            List<Profissional> opcoes;
+            try {
+                validarHorarioAgendamento(solicitacao.getDataHora());
+                opcoes = opcoesDeProfissional(solicitacao.getProfissionalId(),
+                        profissionaisPorServico.getOrDefault(servico.getId(), List.of()));
+            } catch (IllegalArgumentException e) {
+                resultados[i] = ResultadoItemLote.rejeitado(i, e.getMessage());
+                continue;
+            }
+            
+            Agendamento agendamento = new Agendamento(cliente, servico, solicitacao.getDataHora());
+            agendamento.setObservacoes(solicitacao.getObservacoes());
+            candidatos.add(new CandidatoLote(i, agendamento, opcoes));
+        }
+        
+        if (candidatos.isEmpty()) {
+            return Arrays.asList(resultados);
+        }
+        
+        Agendamento[] gravados = new Agendamento[solicitacoes.size()];
+        String[] motivos = new String[solicitacoes.size()];
+        gravarSemConflito(candidatos, gravados, motivos, "Conflita com outro agendamento do mesmo lote");
+        for (CandidatoLote candidato : candidatos) {
+            int i = candidato.indice();
+            resultados[i] = gravados[i] != null
+                    ? ResultadoItemLote.aceito(i, gravados[i].getId())
+                    : ResultadoItemLote.rejeitado(i, motivos[i]);
+        }
+        
+        return Arrays.asList(resultados);
+    }
+    
+    /**
+     * Cria uma série de agendamentos recorrentes
+     * 
+     * As ocorrências são geradas a partir da data inicial, seguindo a recorrência, até a data final
+     * ou até a quantidade pedida. Cada uma é validada como um agendamento avulso e a série inteira
+     * passa pela mesma varredura única do lote: ocorrências com conflito são rejeitadas
+     * sem impedir as demais, e as aceitas são gravadas numa só transação.
+     * @param solicitacao dados da série
+     * @return resultado de cada ocorrência, em ordem de data
+     */
+    public ResultadoSerie criarSerie(SolicitacaoSerie solicitacao) {
+        if (solicitacao.getDataHoraInicial() == null) {
+            throw new IllegalArgumentException("Data e hora são obrigatórias");
+        }
+        if (solicitacao.getRecorrencia() == null) {
+            throw new IllegalArgumentException("Informe a recorrência da série");
+        }
+        if (solicitacao.getDataFim() == null && solicitacao.getQuantidade() == null) {
+            throw new IllegalArgumentException("Informe a data final ou a quantidade de ocorrências");
+        }
+        if (solicitacao.getQuantidade() != null && solicitacao.getQuantidade() < 1) {
+            throw new IllegalArgumentException("A quantidade de ocorrências deve ser positiva");
+        }
+        
+        Cliente cliente = clienteService.buscarPorId(solicitacao.getClienteId())
+                .orElseThrow(() -> new IllegalArgumentException("Cliente não encontrado"));
+        
+        Servico servico = servicoService.buscarPorId(solicitacao.getServicoId())
+                .orElseThrow(() -> new IllegalArgumentException("Serviço não encontrado"));
+        
+        List<Profissional> opcoes = opcoesDeProfissional(solicitacao.getProfissionalId(),
+                profissionalService.listarPorServico(servico.getId()));
+        
+        // Expande a regra de recorrência
+        List<LocalDateTime> datas = new ArrayList<>();
+        LocalDateTime dataHora = solicitacao.getDataHoraInicial();
+        while ((solicitacao.getQuantidade() == null || datas.size() < solicitacao.getQuantidade())
+                && (solicitacao.getDataFim() == null || !dataHora.toLocalDate().isAfter(solicitacao.getDataFim()))) {
+            if (datas.size() == MAXIMO_OCORRENCIAS_SERIE) {
+                throw new IllegalArgumentException("A série deve ter no máximo " + MAXIMO_OCORRENCIAS_SERIE + " ocorrências");
+            }
+            datas.add(dataHora);
+            dataHora = dataHora.plusDays(solicitacao.getRecorrencia().getIntervaloDias());
+        }
+        if (datas.isEmpty()) {
+            throw new IllegalArgumentException("A data final deve ser posterior à data inicial");
+        }
+        
+        String serieId = UUID.randomUUID().toString();
+        String[] motivos = new String[datas.size()];
+        List<CandidatoLote> candidatos = new ArrayList<>();
+        for (int i = 0; i < datas.size(); i++) {
+            try {
+                validarHorarioAgendamento(datas.get(i));
+            } catch (IllegalArgumentException e) {
+                motivos[i] = e.getMessage();
+                continue;
+            }
+            Agendamento agendamento = new Agendamento(cliente, servico, datas.get(i));
+            agendamento.setObservacoes(solicitacao.getObservacoes());
+            agendamento.setSerieId(serieId);
+            candidatos.add(new CandidatoLote(i, agendamento, opcoes));
+        }
+        
+        Agendamento[] gravados = new Agendamento[datas.size()];
+        gravarSemConflito(candidatos, gravados, motivos, "Conflita com outra ocorrência da série");
+        
+        List<ResultadoSerie.Ocorrencia> ocorrencias = new ArrayList<>();
+        for (int i = 0; i < datas.size(); i++) {
+            ocorrencias.add(gravados[i] != null
+                    ? ResultadoSerie.Ocorrencia.agendada(datas.get(i), gravados[i].getId())
+                    : ResultadoSerie.Ocorrencia.rejeitada(datas.get(i), motivos[i]));
+        }
+        return new ResultadoSerie(serieId, ocorrencias);
+    }
+    
+    /**
+     * Lista os agendamentos de uma série
+     * @param serieId identificador da série
+     * @return agendamentos da série, em ordem de data
+     */
+    public List<Agendamento> listarPorSerie(String serieId) {
+        return agendamentoRepository.findBySerieIdOrderByDataHoraAsc(serieId);
+    }
+    
+    /**
+     * Cancela as ocorrências futuras de uma série que ainda estão ativas
+     * 
+     * Ocorrências passadas, realizadas ou já canceladas ficam como estão.
+     * @param serieId identificador da série
+     * @return quantidade de ocorrências canceladas
+     */
+    public int cancelarSerie(String serieId) {
+        List<Agendamento> serie = listarPorSerie(serieId);
+        if (serie.isEmpty()) {
+            throw new IllegalArgumentException("Série não encontrada");
+        }
+        
+        List<Agendamento> pendentes = ocorrenciasPendentes(serie);
+        if (pendentes.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = new ArrayList<>();
+        for (Agendamento agendamento : pendentes) {
+            ids.add(agendamento.getId());
+        }
+        return mudarStatusEmLote(Agendamento.StatusAgendamento.CANCELADO,
+                () -> agendamentoRepository.findParaMudarStatus(ids)).size();
+    }
+    
+    /**
+     * Remarca as ocorrências futuras e ativas de uma série
+     * 
+     * A primeira ocorrência pendente vai para o novo horário e as seguintes são deslocadas
+     * pela mesma diferença, mantendo o intervalo da recorrência. A operação é tudo ou nada:
+     * se qualquer ocorrência cair fora do horário permitido ou em conflito, nada é alterado.
+     * @param serieId identificador da série
+     * @param novaDataHora novo horário da primeira ocorrência pendente
+     * @return quantidade de ocorrências remarcadas
+     */
+    public int reagendarSerie(String serieId, LocalDateTime novaDataHora) {
+        List<Agendamento> serie = listarPorSerie(serieId);
+        if (serie.isEmpty()) {
+            throw new IllegalArgumentException("Série não encontrada");
+        }
         
-        // Recalcula o horário de fim
-        if (servico.getDuracaoMinutos() != null) {
-            agendamento.setDataHoraFim(dataHora.plusMinutes(servico.getDuracaoMinutos()));
+        List<Agendamento> pendentes = ocorrenciasPendentes(serie);
+        if (pendentes.isEmpty()) {
+            throw new IllegalArgumentException("A série não tem ocorrências futuras para remarcar");
         }
         
-        return agendamentoRepository.save(agendamento);
+        Duration deslocamento = Duration.between(pendentes.get(0).getDataHora(), novaDataHora);
+        TreeSet<LocalDate> dias = new TreeSet<>();
+        Set<TravasAgenda.Chave> chaves = new HashSet<>();
+        Set<Long> ids = new HashSet<>();
+        for (Agendamento agendamento : pendentes) {
+            LocalDateTime novoInicio = agendamento.getDataHora().plus(deslocamento);
+            try {
+                validarHorarioAgendamento(novoInicio);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Ocorrência de " + novoInicio.format(FORMATO_OCORRENCIA) + ": " + e.getMessage());
+            }
+            Long profissionalId = idDe(agendamento.getProfissional());
+            chaves.addAll(TravasAgenda.chaves(profissionalId, agendamento.getDataHora(), fimDe(agendamento)));
+            chaves.addAll(TravasAgenda.chaves(profissionalId, novoInicio, fimDe(agendamento).plus(deslocamento)));
+            ids.add(agendamento.getId());
+        }
+        for (TravasAgenda.Chave chave : chaves) {
+            dias.add(chave.dia());
+        }
+        
+        return travasAgenda.executar(chaves, () -> {
+            indiceAgenda.carregarPeriodo(dias.first(), dias.last());
+            
+            // As ocorrências da própria série não contam como conflito: todas saem do horário antigo.
+            // Cada ocorrência continua com o seu profissional
+            for (Agendamento agendamento : pendentes) {
+                LocalDateTime novoInicio = agendamento.getDataHora().plus(deslocamento);
+                if (existeConflito(idDe(agendamento.getProfissional()), novoInicio, fimDe(agendamento).plus(deslocamento), ids)) {
+                    metricasAgenda.rejeitado(MetricasAgenda.Motivo.CONFLITO);
+                    throw new IllegalArgumentException("Ocorrência de " + novoInicio.format(FORMATO_OCORRENCIA)
+                            + ": já existe um agendamento neste horário");
+                }
+            }
+            
+            List<LocalDateTime> anteriores = new ArrayList<>();
+            for (Agendamento agendamento : pendentes) {
+                anteriores.add(agendamento.getDataHora());
+                agendamento.setDataHora(agendamento.getDataHora().plus(deslocamento));
+                agendamento.setDataHoraFim(fimDe(agendamento).plus(deslocamento));
+            }
+            
+            long cargaResumo = resumoDashboard.cargaAtual();
+            List<Agendamento> salvos = comControleDeVersao(
+                    () -> transactionTemplate.execute(status -> agendamentoRepository.saveAll(pendentes)));
+            for (int i = 0; i < salvos.size(); i++) {
+                indiceAgenda.registrar(salvos.get(i));
+                lembreteService.agendamentoSalvo(salvos.get(i));
+                resumoDashboard.agendamentoSalvo(cargaResumo, anteriores.get(i), salvos.get(i));
+            }
+            diarioAgendamentos.registrar(DiarioAgendamentos.Tipo.ALTERADO, salvos);
+            versaoDados.alterado(VersaoDados.Dominio.AGENDAMENTOS);
+            return salvos.size();
+        });
     }
     
     /**
@@ -102,11 +512,50 @@ public class AgendamentoService {
      * @return agendamento atualizado
      */
     public Agendamento atualizarStatus(Long id, Agendamento.StatusAgendamento status) {
-        Agendamento agendamento = buscarPorId(id)
-                .orElseThrow(() -> new IllegalArgumentException("Agendamento não encontrado"));
-        
-        agendamento.setStatus(status);
-        return agendamentoRepository.save(agendamento);
+        return atualizarStatus(id, status, null);
+    }
+    
+    /**
+     * Atualiza o status de um agendamento, conferindo a versão que o usuário tinha em mãos
+     * 
+     * A mudança precisa ser uma transição permitida (StatusAgendamento.podeMudarPara). Se o
+     * agendamento mudou desde a versão informada, ou desde a leitura feita aqui, nada é gravado:
+     * dois cliques concorrentes (confirmar e cancelar) não se sobrescrevem, o segundo é recusado.
+     * Gravação e atualizações em memória acontecem sob as travas da agenda do agendamento.
+     * @param id ID do agendamento
+     * @param status novo status
+     * @param versaoEsperada versão exibida ao usuário (null para conferir só a versão lida agora)
+     * @return agendamento atualizado
+     * @throws OptimisticLockingFailureException se o agendamento foi alterado por outra pessoa
+     */
+    public Agendamento atualizarStatus(Long id, Agendamento.StatusAgendamento status, Long versaoEsperada) {
+        return sobTravasDosAgendamentos(() -> List.of(buscarExistente(id)), travadas -> {
+            Agendamento agendamento = buscarExistente(id);
+            if (!travadas.containsAll(chavesDe(List.of(agendamento)))) {
+                return Optional.empty();
+            }
+            if (versaoEsperada != null && !versaoEsperada.equals(agendamento.getVersao())) {
+                throw new OptimisticLockingFailureException(AGENDAMENTO_ALTERADO);
+            }
+            validarTransicao(agendamento.getStatus(), status);
+            
+            FaturamentoService.Contribuicao faturamentoAnterior = FaturamentoService.contribuicao(agendamento);
+            agendamento.setStatus(status);
+            // Entrar ou sair de REALIZADO altera os totais de faturamento, gravados na mesma transação.
+            // O UPDATE confere a versão (@Version): se outra transação gravou antes, nada é alterado
+            long cargaResumo = resumoDashboard.cargaAtual();
+            Agendamento salvo = comControleDeVersao(() -> transactionTemplate.execute(transacao -> {
+                Agendamento atualizado = agendamentoRepository.save(agendamento);
+                faturamentoService.registrarTransicao(faturamentoAnterior, FaturamentoService.contribuicao(atualizado));
+                return atualizado;
+            }));
+            indiceAgenda.registrar(salvo);
+            lembreteService.agendamentoSalvo(salvo);
+            resumoDashboard.agendamentoSalvo(cargaResumo, salvo.getDataHora(), salvo);
+            diarioAgendamentos.registrar(DiarioAgendamentos.Tipo.STATUS, salvo);
+            versaoDados.alterado(VersaoDados.Dominio.AGENDAMENTOS);
+            return Optional.of(salvo);
+        });
     }
     
     /**
@@ -126,12 +575,45 @@ public class AgendamentoService {
         return agendamentoRepository.findAllByOrderByDataHoraDesc();
     }
     
+    /**
+     * Lista uma página de agendamentos, dos mais recentes para os mais antigos
+     * 
+     * Usa paginação por keyset em (dataHora, id): cada página custa o mesmo,
+     * não importa quão longe esteja do início do histórico.
+     * @param cursor cursor recebido na página anterior (null para a primeira página)
+     * @param tamanho quantidade de agendamentos por página
+     * @return página de agendamentos
+     */
+    public Pagina<Agendamento> listarPagina(String cursor, int tamanho) {
+        Limit limite = Limit.of(tamanho + 1);
+        String[] posicao = CursorPaginacao.decodificar(cursor);
+        
+        List<Agendamento> agendamentos;
+        LocalDateTime dataHora = posicao != null ? lerDataHora(posicao[0]) : null;
+        if (dataHora == null) {
+            agendamentos = agendamentoRepository.findPaginaMaisRecentes(limite);
+        } else {
+            agendamentos = agendamentoRepository.findPaginaMaisRecentesApos(dataHora, Long.valueOf(posicao[1]), limite);
+        }
+        return CursorPaginacao.paginar(agendamentos, tamanho,
+                agendamento -> CursorPaginacao.codificar(agendamento.getDataHora(), agendamento.getId()));
+    }
+    
+    private static LocalDateTime lerDataHora(String texto) {
+        try {
+            return LocalDateTime.parse(texto);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+    
     /**
      * Lista agendamentos de hoje
      * @return lista de agendamentos de hoje
      */
     public List<Agendamento> listarAgendamentosDeHoje() {
-        return agendamentoRepository.findAgendamentosDeHoje(LocalDateTime.now());
+        LocalDate hoje = LocalDate.now();
+        return agendamentoRepository.findAgendamentosDeHoje(hoje.atStartOfDay(), hoje.plusDays(1).atStartOfDay());
     }
     
     /**
@@ -142,6 +624,60 @@ public class AgendamentoService {
         return agendamentoRepository.findAgendamentosFuturos(LocalDateTime.now());
     }
     
+    /**
+     * Lista o resumo dos agendamentos de hoje (projeção com as colunas exibidas)
+     * @return resumos dos agendamentos de hoje
+     */
+    public List<AgendamentoResumo> listarResumosDeHoje() {
+        LocalDate hoje = LocalDate.now();
+        return agendamentoRepository.findResumosDeHoje(hoje.atStartOfDay(), hoje.plusDays(1).atStartOfDay());
+    }
+    
+    /**
+     * Valida o período de uma listagem da API JSON
+     * @param de primeiro dia
+     * @param ate último dia (inclusivo)
+     */
+    public void validarPeriodoApi(LocalDate de, LocalDate ate) {
+        if (de == null || ate == null) {
+            throw new IllegalArgumentException("Informe o período");
+        }
+        if (ate.isBefore(de)) {
+            throw new IllegalArgumentException("A data final deve ser igual ou posterior à data inicial");
+        }
+        if (ChronoUnit.DAYS.between(de, ate) >= MAXIMO_DIAS_API) {
+            throw new IllegalArgumentException("O período deve ter no máximo " + MAXIMO_DIAS_API + " dias");
+        }
+    }
+    
+    /**
+     * Lista os agendamentos de um período para a API JSON (projeção, sem entidades)
+     * @param de primeiro dia
+     * @param ate último dia (inclusivo)
+     * @return agendamentos do período em ordem de data/hora
+     */
+    public List<AgendamentoApi> listarParaApi(LocalDate de, LocalDate ate) {
+        validarPeriodoApi(de, ate);
+        return agendamentoRepository.findParaApi(de.atStartOfDay(), ate.plusDays(1).atStartOfDay());
+    }
+    
+    /**
+     * Busca um agendamento para a API JSON (projeção, sem entidades)
+     * @param id ID do agendamento
+     * @return Optional contendo o agendamento se encontrado
+     */
+    public Optional<AgendamentoApi> buscarParaApi(Long id) {
+        return agendamentoRepository.findParaApiPorId(id);
+    }
+    
+    /**
+     * Conta os agendamentos futuros
+     * @return quantidade de agendamentos futuros
+     */
+    public long contarAgendamentosFuturos() {
+        return agendamentoRepository.countAgendamentosFuturos(LocalDateTime.now());
+    }
+    
     /**
      * Lista agendamentos por cliente
      * @param clienteId ID do cliente
@@ -197,15 +733,72 @@ public class AgendamentoService {
         return atualizarStatus(id, Agendamento.StatusAgendamento.REALIZADO);
     }
     
+    /**
+     * Confirma de uma vez os agendamentos de um dia que ainda estão só agendados
+     * @param dia dia dos agendamentos
+     * @return IDs dos agendamentos confirmados
+     */
+    public List<Long> confirmarDoDia(LocalDate dia) {
+        if (dia == null) {
+            throw new IllegalArgumentException("Informe o dia dos agendamentos a confirmar");
+        }
+        return idsDe(mudarStatusEmLote(Agendamento.StatusAgendamento.CONFIRMADO,
+                () -> agendamentoRepository.findParaMudarStatusNoPeriodo(dia.atStartOfDay(), dia.plusDays(1).atStartOfDay(),
+                        Agendamento.StatusAgendamento.AGENDADO)));
+    }
+    
+    /**
+     * Cancela de uma vez vários agendamentos
+     * 
+     * IDs inexistentes e agendamentos cujo status não permite cancelamento são ignorados.
+     * @param ids IDs dos agendamentos
+     * @return IDs dos agendamentos cancelados
+     */
+    public List<Long> cancelarEmLote(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("Selecione ao menos um agendamento");
+        }
+        if (ids.size() > MAXIMO_ITENS_LOTE) {
+            throw new IllegalArgumentException("O lote pode ter no máximo " + MAXIMO_ITENS_LOTE + " agendamentos");
+        }
+        Set<Long> distintos = new HashSet<>(ids);
+        return idsDe(mudarStatusEmLote(Agendamento.StatusAgendamento.CANCELADO,
+                () -> agendamentoRepository.findParaMudarStatus(distintos)));
+    }
+    
     /**
      * Deleta um agendamento
+     * 
+     * A linha é lida com trava de escrita dentro da transação da exclusão: a contribuição
+     * retirada do faturamento é a do estado que está sendo apagado, e não a de uma leitura
+     * anterior que uma mudança concorrente pode ter deixado desatualizada. A exclusão e as
+     * atualizações em memória acontecem sob as travas da agenda do agendamento.
      * @param id ID do agendamento
      */
     public void deletar(Long id) {
-        if (!agendamentoRepository.existsById(id)) {
-            throw new IllegalArgumentException("Agendamento não encontrado");
-        }
-        agendamentoRepository.deleteById(id);
+        sobTravasDosAgendamentos(() -> List.of(buscarExistente(id)), travadas -> {
+            long cargaResumo = resumoDashboard.cargaAtual();
+            Agendamento agendamento = transactionTemplate.execute(transacao -> {
+                Agendamento atual = agendamentoRepository.findParaMudarStatus(List.of(id)).stream()
+                        .findFirst()
+                        .orElseThrow(() -> new IllegalArgumentException("Agendamento não encontrado"));
+                if (!travadas.containsAll(chavesDe(List.of(atual)))) {
+                    return null;
+                }
+                agendamentoRepository.delete(atual);
+                faturamentoService.registrarTransicao(FaturamentoService.contribuicao(atual), null);
+                return atual;
+            });
+            if (agendamento == null) {
+                return Optional.empty();
+            }
+            indiceAgenda.remover(id);
+            lembreteService.agendamentoRemovido(id);
+            resumoDashboard.agendamentoRemovido(cargaResumo, id, agendamento.getDataHora());
+            diarioAgendamentos.registrar(DiarioAgendamentos.Tipo.EXCLUIDO, agendamento);
+            versaoDados.alterado(VersaoDados.Dominio.AGENDAMENTOS);
+            return Optional.of(agendamento);
+        });
     }
     
     /**
@@ -217,35 +810,391 @@ public class AgendamentoService {
         
         // Não permite agendamentos no passado
         if (dataHora.isBefore(agora)) {
+            metricasAgenda.rejeitado(MetricasAgenda.Motivo.PASSADO);
             throw new IllegalArgumentException("Não é possível agendar para um horário no passado");
         }
         
         // Não permite agendamentos muito no futuro (exemplo: mais de 1 ano)
         if (dataHora.isAfter(agora.plusYears(1))) {
+            metricasAgenda.rejeitado(MetricasAgenda.Motivo.ALEM_DO_LIMITE);
             throw new IllegalArgumentException("Não é possível agendar para mais de 1 ano no futuro");
         }
         
         // Verifica se é um horário comercial (8h às 18h)
         int hora = dataHora.getHour();
-        if (hora < 8 || hora >= 18) {
+        if (hora < HORA_ABERTURA || hora >= HORA_FECHAMENTO) {
+            metricasAgenda.rejeitado(MetricasAgenda.Motivo.FORA_DO_HORARIO);
             throw new IllegalArgumentException("Horário de funcionamento: 8h às 18h");
         }
     }
     
     /**
-     * Valida se há conflito de horário
-     * @param dataHora data e hora do agendamento
-     * @param servico serviço a ser agendado
+     * Profissionais que podem receber um agendamento, em ordem de preferência
+     * 
+     * Com um profissional informado, só ele (se estiver ativo e realizar o serviço). Sem profissional,
+     * todos os aptos ao serviço; se o serviço não tem profissional apto, a agenda do salão (null).
+     * @param profissionalId ID do profissional escolhido, ou null
+     * @param aptos profissionais ativos que realizam o serviço
+     * @return opções de profissional (nunca vazia)
+     */
+    static List<Profissional> opcoesDeProfissional(Long profissionalId, List<Profissional> aptos) {
+        if (profissionalId != null) {
+            for (Profissional profissional : aptos) {
+                if (profissional.getId().equals(profissionalId)) {
+                    return List.of(profissional);
+                }
+            }
+            throw new IllegalArgumentException("Profissional não encontrado ou não realiza este serviço");
+        }
+        return aptos.isEmpty() ? Collections.singletonList(null) : aptos;
+    }
+    
+    /**
+     * Escolhe o primeiro profissional livre no intervalo
+     * 
+     * A verificação é feita no índice em memória; a consulta ao banco fica como
+     * rede de segurança, usada se o índice falhar ou se confirmarConflitoNoBanco estiver ligado.
+     * @param opcoes profissionais candidatos, em ordem de preferência
+     * @param inicio início do agendamento
+     * @param fim fim do agendamento
      * @param idAgendamento ID do agendamento (para exclusão na edição)
+     * @return profissional escolhido (null para a agenda do salão)
+     */
+    private Profissional escolherProfissional(List<Profissional> opcoes, LocalDateTime inicio, LocalDateTime fim,
+                                              Long idAgendamento) {
+        for (Profissional profissional : opcoes) {
+            if (!existeConflito(idDe(profissional), inicio, fim, idAgendamento)) {
+                return profissional;
+            }
+        }
+        metricasAgenda.rejeitado(MetricasAgenda.Motivo.CONFLITO);
+        throw new IllegalArgumentException(opcoes.size() > 1
+                ? "Nenhum profissional disponível neste horário" : "Já existe um agendamento neste horário");
+    }
+    
+    /**
+     * Verifica conflito na agenda de um profissional, no índice em memória e, se necessário, no banco
+     * @param profissionalId ID do profissional (null para a agenda do salão)
+     * @param inicio início do intervalo
+     * @param fim fim do intervalo
+     * @param idAgendamento ID do agendamento (para exclusão na edição)
+     * @return true se há conflito
+     */
+    private boolean existeConflito(Long profissionalId, LocalDateTime inicio, LocalDateTime fim, Long idAgendamento) {
+        long inicioVerificacao = System.nanoTime();
+        boolean conflito;
+        boolean consultarBanco = confirmarConflitoNoBanco;
+        try {
+            conflito = indiceAgenda.existeConflito(profissionalId, inicio, fim, idAgendamento);
+        } catch (RuntimeException e) {
+            conflito = false;
+            consultarBanco = true;
+        }
+        
+        if (!conflito && consultarBanco) {
+            conflito = agendamentoRepository.existsConflitoHorario(profissionalId, inicio, fim, idAgendamento);
+        }
+        metricasAgenda.conflitoVerificado(System.nanoTime() - inicioVerificacao, conflito);
+        return conflito;
+    }
+    
+    /**
+     * Verifica conflito na agenda de um profissional desconsiderando um conjunto de agendamentos,
+     * no índice e, se necessário, no banco
+     * @param profissionalId ID do profissional (null para a agenda do salão)
+     * @param inicio início do intervalo
+     * @param fim fim do intervalo
+     * @param idsIgnorados IDs dos agendamentos a desconsiderar
+     * @return true se há conflito
+     */
+    private boolean existeConflito(Long profissionalId, LocalDateTime inicio, LocalDateTime fim, Set<Long> idsIgnorados) {
+        long inicioVerificacao = System.nanoTime();
+        boolean conflito;
+        boolean consultarBanco = confirmarConflitoNoBanco;
+        try {
+            conflito = indiceAgenda.existeConflito(profissionalId, inicio, fim, idsIgnorados);
+        } catch (RuntimeException e) {
+            conflito = false;
+            consultarBanco = true;
+        }
+        
+        if (!conflito && consultarBanco) {
+            conflito = agendamentoRepository.existsConflitoHorarioIgnorando(profissionalId, inicio, fim, idsIgnorados);
+        }
+        metricasAgenda.conflitoVerificado(System.nanoTime() - inicioVerificacao, conflito);
+        return conflito;
+    }
+    
+    /**
+     * Valida os candidatos contra a agenda numa única passada e grava os aceitos
+     * 
+     * Os candidatos são ordenados por horário e comparados com a agenda existente (índice em memória)
+     * e com os já aceitos na mesma chamada, em cada agenda de profissional. Cada candidato fica com o
+     * primeiro profissional livre entre as suas opções. Os aceitos são gravados numa só transação,
+     * em lotes JDBC, e depois registrados no índice e no dashboard.
+     * @param candidatos candidatos já validados individualmente
+     * @param gravados recebe, na posição de cada candidato aceito, o agendamento gravado
+     * @param motivos recebe, na posição de cada candidato rejeitado, o motivo
+     * @param motivoMesmaChamada motivo usado quando o candidato conflita com outro da mesma chamada
+     */
+    private void gravarSemConflito(List<CandidatoLote> candidatos, Agendamento[] gravados, String[] motivos,
+                                   String motivoMesmaChamada) {
+        if (candidatos.isEmpty()) {
+            return;
+        }
+        
+        candidatos.sort(Comparator.comparing(candidato -> candidato.agendamento().getDataHora()));
+        TreeSet<LocalDate> dias = new TreeSet<>();
+        Set<TravasAgenda.Chave> chaves = new HashSet<>();
+        for (CandidatoLote candidato : candidatos) {
+            chaves.addAll(chaves(candidato.opcoes(), candidato.agendamento().getDataHora(), fimDe(candidato.agendamento())));
+        }
+        for (TravasAgenda.Chave chave : chaves) {
+            dias.add(chave.dia());
+        }
+        
+        travasAgenda.executar(chaves, () -> {
+            indiceAgenda.carregarPeriodo(dias.first(), dias.last());
+            
+            List<CandidatoLote> aceitos = new ArrayList<>();
+            long cargaResumo = resumoDashboard.cargaAtual();
+            List<Agendamento> salvos = transactionTemplate.execute(status -> {
+                // Varredura em ordem de início: em cada agenda basta comparar com o maior fim entre os já aceitos
+                Map<Long, LocalDateTime> maiorFimPorAgenda = new HashMap<>();
+                for (CandidatoLote candidato : candidatos) {
+                    LocalDateTime inicio = candidato.agendamento().getDataHora();
+                    LocalDateTime fim = fimDe(candidato.agendamento());
+                    String motivo = null;
+                    for (Profissional profissional : candidato.opcoes()) {
+                        long agenda = IndiceAgenda.agendaDe(idDe(profissional));
+                        LocalDateTime maiorFimAceito = maiorFimPorAgenda.get(agenda);
+                        if (maiorFimAceito != null && !inicio.isAfter(maiorFimAceito)) {
+                            motivo = motivoMesmaChamada;
+                        } else if (existeConflito(idDe(profissional), inicio, fim, (Long) null)) {
+                            motivo = "Já existe um agendamento neste horário";
+                        } else {
+                            candidato.agendamento().setProfissional(profissional);
+                            aceitos.add(candidato);
+                            maiorFimPorAgenda.merge(agenda, fim, (atual, novo) -> novo.isAfter(atual) ? novo : atual);
+                            motivo = null;
+                            break;
+                        }
+                    }
+                    if (motivo != null) {
+                        metricasAgenda.rejeitado(MetricasAgenda.Motivo.CONFLITO);
+                        motivos[candidato.indice()] = candidato.opcoes().size() > 1
+                                ? "Nenhum profissional disponível neste horário" : motivo;
+                    }
+                }
+                
+                List<Agendamento> novos = new ArrayList<>();
+                for (CandidatoLote candidato : aceitos) {
+                    novos.add(candidato.agendamento());
+                }
+                return agendamentoRepository.saveAll(novos);
+            });
+            
+            for (int i = 0; i < salvos.size(); i++) {
+                Agendamento salvo = salvos.get(i);
+                indiceAgenda.registrar(salvo);
+                lembreteService.agendamentoSalvo(salvo);
+                resumoDashboard.agendamentoSalvo(cargaResumo, null, salvo);
+                gravados[aceitos.get(i).indice()] = salvo;
+            }
+            diarioAgendamentos.registrar(DiarioAgendamentos.Tipo.CRIADO, salvos);
+            versaoDados.alterado(VersaoDados.Dominio.AGENDAMENTOS);
+            return null;
+        });
+    }
+    
+    /**
+     * Muda o status de vários agendamentos com um único UPDATE
+     * 
+     * Os candidatos são lidos com trava de escrita; só os que podem passar para o novo status são
+     * alterados. Faturamento na mesma transação; índice, resumo, lembretes e diário depois do commit,
+     * como nas mudanças individuais, tudo sob as travas das agendas dos candidatos.
+     * @param novo novo status
+     * @param travarCandidatos lê (com trava) os agendamentos candidatos
+     * @return agendamentos alterados (desanexados, já com o novo status)
      */
-    private void validarConflitoHorario(LocalDateTime dataHora, Servico servico, Long idAgendamento) {
-        LocalDateTime dataHoraFim = dataHora;
-        if (servico.getDuracaoMinutos() != null) {
-            dataHoraFim = dataHora.plusMinutes(servico.getDuracaoMinutos());
+    private List<Agendamento> mudarStatusEmLote(Agendamento.StatusAgendamento novo,
+                                                Supplier<List<Agendamento>> travarCandidatos) {
+        // As agendas envolvidas vêm de uma primeira leitura dos candidatos
+        return sobTravasDosAgendamentos(() -> transactionTemplate.execute(transacao -> travarCandidatos.get()),
+                travadas -> mudarStatusEmLote(novo, travarCandidatos, travadas));
+    }
+    
+    private Optional<List<Agendamento>> mudarStatusEmLote(Agendamento.StatusAgendamento novo,
+                                                          Supplier<List<Agendamento>> travarCandidatos,
+                                                          Set<TravasAgenda.Chave> travadas) {
+        Set<Agendamento.StatusAgendamento> origens = Agendamento.StatusAgendamento.origensPara(novo);
+        long cargaResumo = resumoDashboard.cargaAtual();
+        List<Agendamento> alterados = transactionTemplate.execute(transacao -> {
+            List<Agendamento> lidos = travarCandidatos.get();
+            if (!travadas.containsAll(chavesDe(lidos))) {
+                return null;
+            }
+            List<Agendamento> candidatos = new ArrayList<>();
+            List<FaturamentoService.Contribuicao> saida = new ArrayList<>();
+            for (Agendamento agendamento : lidos) {
+                if (origens.contains(agendamento.getStatus())) {
+                    candidatos.add(agendamento);
+                    adicionarContribuicao(saida, agendamento);
+                }
+            }
+            if (candidatos.isEmpty()) {
+                return candidatos;
+            }
+            
+            int alteradas = agendamentoRepository.atualizarStatus(idsDe(candidatos), origens, novo);
+            if (alteradas != candidatos.size()) {
+                // Não deveria acontecer com as linhas travadas; desfaz tudo
+                throw new OptimisticLockingFailureException(AGENDAMENTO_ALTERADO);
+            }
+            // O UPDATE desanexou as entidades lidas: o novo status e a versão incrementada por ele
+            // são aplicados só em memória
+            List<FaturamentoService.Contribuicao> entrada = new ArrayList<>();
+            for (Agendamento agendamento : candidatos) {
+                agendamento.setStatus(novo);
+                agendamento.setVersao(agendamento.getVersao() + 1);
+                adicionarContribuicao(entrada, agendamento);
+            }
+            faturamentoService.registrarTransicoes(saida, entrada);
+            return candidatos;
+        });
+        if (alterados == null) {
+            return Optional.empty();
         }
         
-        if (agendamentoRepository.existsConflitoHorario(dataHora, dataHoraFim, idAgendamento)) {
-            throw new IllegalArgumentException("Já existe um agendamento neste horário");
+        for (Agendamento agendamento : alterados) {
+            indiceAgenda.registrar(agendamento);
+            lembreteService.agendamentoSalvo(agendamento);
+            resumoDashboard.agendamentoSalvo(cargaResumo, agendamento.getDataHora(), agendamento);
+        }
+        diarioAgendamentos.registrar(DiarioAgendamentos.Tipo.STATUS, alterados);
+        if (!alterados.isEmpty()) {
+            versaoDados.alterado(VersaoDados.Dominio.AGENDAMENTOS);
+        }
+        return Optional.of(alterados);
+    }
+    
+    /**
+     * Executa uma mudança em agendamentos já gravados segurando as travas das agendas onde eles estão
+     * 
+     * Assim a gravação e as atualizações em memória feitas depois do commit (índice, lembretes,
+     * resumo, diário) ficam ordenadas com as remarcações, que seguram as travas do horário antigo
+     * e do novo. As agendas vêm de uma leitura feita sem as travas: a mudança relê os agendamentos
+     * e devolve vazio se algum saiu das agendas travadas nesse meio tempo, e então tudo recomeça.
+     * @param localizar lê os agendamentos afetados, para saber as agendas a travar
+     * @param mudanca recebe as agendas travadas; vazio para recomeçar
+     * @return resultado da mudança
+     */
+    private <T> T sobTravasDosAgendamentos(Supplier<List<Agendamento>> localizar,
+                                           Function<Set<TravasAgenda.Chave>, Optional<T>> mudanca) {
+        for (int tentativa = 0; tentativa < MAXIMO_TENTATIVAS_TRAVAS; tentativa++) {
+            Set<TravasAgenda.Chave> chaves = chavesDe(localizar.get());
+            Optional<T> resultado = travasAgenda.executar(chaves, () -> mudanca.apply(chaves));
+            if (resultado.isPresent()) {
+                return resultado.get();
+            }
+        }
+        throw new OptimisticLockingFailureException(AGENDAMENTO_ALTERADO);
+    }
+    
+    /**
+     * Travas das agendas onde os agendamentos estão
+     */
+    private static Set<TravasAgenda.Chave> chavesDe(Collection<Agendamento> agendamentos) {
+        Set<TravasAgenda.Chave> chaves = new HashSet<>();
+        for (Agendamento agendamento : agendamentos) {
+            chaves.addAll(TravasAgenda.chaves(idDe(agendamento.getProfissional()), agendamento.getDataHora(),
+                    fimDe(agendamento)));
+        }
+        return chaves;
+    }
+    
+    private Agendamento buscarExistente(Long id) {
+        return buscarPorId(id).orElseThrow(() -> new IllegalArgumentException("Agendamento não encontrado"));
+    }
+    
+    private static void adicionarContribuicao(List<FaturamentoService.Contribuicao> contribuicoes, Agendamento agendamento) {
+        FaturamentoService.Contribuicao contribuicao = FaturamentoService.contribuicao(agendamento);
+        if (contribuicao != null) {
+            contribuicoes.add(contribuicao);
+        }
+    }
+    
+    private static List<Long> idsDe(List<Agendamento> agendamentos) {
+        List<Long> ids = new ArrayList<>(agendamentos.size());
+        for (Agendamento agendamento : agendamentos) {
+            ids.add(agendamento.getId());
+        }
+        return ids;
+    }
+    
+    /**
+     * Recusa as mudanças de status fora da matriz de transições permitidas
+     */
+    private static void validarTransicao(Agendamento.StatusAgendamento atual, Agendamento.StatusAgendamento novo) {
+        if (atual == novo) {
+            throw new IllegalArgumentException("O agendamento já está " + novo.getDescricao().toLowerCase());
         }
+        if (!atual.podeMudarPara(novo)) {
+            throw new IllegalArgumentException("Um agendamento " + atual.getDescricao().toLowerCase()
+                    + " não pode passar para " + novo.getDescricao().toLowerCase());
+        }
+    }
+    
+    /**
+     * Executa uma gravação e troca a falha de versão (@Version) por uma mensagem para o usuário
+     */
+    private static <T> T comControleDeVersao(Supplier<T> gravacao) {
+        try {
+            return gravacao.get();
+        } catch (OptimisticLockingFailureException e) {
+            throw new OptimisticLockingFailureException(AGENDAMENTO_ALTERADO, e);
+        }
+    }
+    
+    /**
+     * Ocorrências de uma série que ainda podem ser canceladas ou remarcadas: futuras e agendadas/confirmadas
+     */
+    private static List<Agendamento> ocorrenciasPendentes(List<Agendamento> serie) {
+        LocalDateTime agora = LocalDateTime.now();
+        List<Agendamento> pendentes = new ArrayList<>();
+        for (Agendamento agendamento : serie) {
+            Agendamento.StatusAgendamento status = agendamento.getStatus();
+            if (agendamento.getDataHora().isAfter(agora)
+                    && (status == Agendamento.StatusAgendamento.AGENDADO || status == Agendamento.StatusAgendamento.CONFIRMADO)) {
+                pendentes.add(agendamento);
+            }
+        }
+        return pendentes;
+    }
+    
+    /**
+     * Travas das agendas de todos os profissionais candidatos em um intervalo
+     */
+    private static Set<TravasAgenda.Chave> chaves(List<Profissional> opcoes, LocalDateTime inicio, LocalDateTime fim) {
+        Set<TravasAgenda.Chave> chaves = new HashSet<>();
+        for (Profissional profissional : opcoes) {
+            chaves.addAll(TravasAgenda.chaves(idDe(profissional), inicio, fim));
+        }
+        return chaves;
+    }
+    
+    private static Long idDe(Profissional profissional) {
+        return profissional != null ? profissional.getId() : null;
+    }
+    
+    private static LocalDateTime fimDe(Agendamento agendamento) {
+        return agendamento.getDataHoraFim() != null ? agendamento.getDataHoraFim() : agendamento.getDataHora();
+    }
+    
+    /**
+     * Item do lote que passou nas validações básicas, com sua posição na requisição
+     * e os profissionais que podem atendê-lo (em ordem de preferência)
+     */
+    private record CandidatoLote(int indice, Agendamento agendamento, List<Profissional> opcoes) {
     }
 }
@@ -1,12 +1,21 @@
 package com.salon.agendamento.service;
 
+import com.salon.agendamento.config.ConfiguracaoMetricas;
+import com.salon.agendamento.dto.Pagina;
+import com.salon.agendamento.dto.SugestaoCliente;
 import com.salon.agendamento.model.Cliente;
 import com.salon.agendamento.repository.ClienteRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -16,11 +25,24 @@ import java.util.Optional;
  * Ela fica entre os controllers (que recebem requisições) e os repositories (que acessam o banco).
  */
 @Service
+@Timed(value = ConfiguracaoMetricas.METODOS_SERVICO, histogram = true)
 public class ClienteService {
     
+    // Resultados da busca na tela de clientes
+    private static final int LIMITE_BUSCA = 100;
+    
     @Autowired
     private ClienteRepository clienteRepository;
     
+    @Autowired
+    private IndiceClientes indiceClientes;
+    
+    @Autowired
+    private ResumoDashboard resumoDashboard;
+    
+    @Autowired
+    private VersaoDados versaoDados;
+    
     /**
      * Salva um novo cliente
      * @param cliente cliente a ser salvo
@@ -44,7 +66,12 @@ public class ClienteService {
         // Define a data de cadastro
         cliente.setDataCadastro(LocalDateTime.now());
         
-        return clienteRepository.save(cliente);
+        long cargaResumo = resumoDashboard.cargaAtual();
+        Cliente salvo = clienteRepository.save(cliente);
+        indiceClientes.registrar(salvo);
+        resumoDashboard.clienteAdicionado(cargaResumo);
+        versaoDados.alterado(VersaoDados.Dominio.CLIENTES);
+        return salvo;
     }
     
     /**
@@ -78,7 +105,10 @@ public class ClienteService {
         clienteExistente.setTelefone(cliente.getTelefone());
         clienteExistente.setEndereco(cliente.getEndereco());
         
-        return clienteRepository.save(clienteExistente);
+        Cliente salvo = clienteRepository.save(clienteExistente);
+        indiceClientes.registrar(salvo);
+        versaoDados.alterado(VersaoDados.Dominio.CLIENTES);
+        return salvo;
     }
     
     /**
@@ -90,6 +120,19 @@ public class ClienteService {
         return clienteRepository.findById(id);
     }
     
+    /**
+     * Busca vários clientes de uma vez
+     * @param ids IDs desejados
+     * @return mapa de ID para cliente (IDs inexistentes ficam de fora)
+     */
+    public Map<Long, Cliente> buscarPorIds(Collection<Long> ids) {
+        Map<Long, Cliente> encontrados = new HashMap<>();
+        for (Cliente cliente : clienteRepository.findAllById(ids)) {
+            encontrados.put(cliente.getId(), cliente);
+        }
+        return encontrados;
+    }
+    
     /**
      * Busca um cliente por email
      * @param email email do cliente
@@ -108,12 +151,46 @@ public class ClienteService {
     }
     
     /**
-     * Busca clientes por nome
-     * @param nome nome ou parte do nome do cliente
-     * @return lista de clientes encontrados
+     * Lista uma página de clientes em ordem alfabética (paginação por keyset em nome e ID)
+     * @param cursor cursor recebido na página anterior (null para a primeira página)
+     * @param tamanho quantidade de clientes por página
+     * @return página de clientes
+     */
+    public Pagina<Cliente> listarPagina(String cursor, int tamanho) {
+        Limit limite = Limit.of(tamanho + 1);
+        String[] posicao = CursorPaginacao.decodificar(cursor);
+        
+        List<Cliente> clientes = posicao == null
+                ? clienteRepository.findPaginaPorNome(limite)
+                : clienteRepository.findPaginaPorNomeApos(posicao[0], Long.valueOf(posicao[1]), limite);
+        return CursorPaginacao.paginar(clientes, tamanho,
+                cliente -> CursorPaginacao.codificar(cliente.getNome(), cliente.getId()));
+    }
+    
+    /**
+     * Busca clientes por nome, email ou telefone, ignorando acentos e maiúsculas
+     * @param nome nome ou parte do nome (também aceita trecho do email ou do telefone)
+     * @return clientes encontrados, os mais relevantes primeiro (no máximo LIMITE_BUSCA)
      */
     public List<Cliente> buscarPorNome(String nome) {
-        return clienteRepository.findByNomeContainingIgnoreCase(nome);
+        List<Long> ids = indiceClientes.buscar(nome, LIMITE_BUSCA).stream()
+                .map(SugestaoCliente::getId)
+                .toList();
+        Map<Long, Cliente> encontrados = buscarPorIds(ids);
+        return ids.stream()
+                .map(encontrados::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+    
+    /**
+     * Sugestões de clientes para a busca incremental, sem consultar o banco
+     * @param termo texto digitado
+     * @param limite quantidade máxima de sugestões
+     * @return clientes mais relevantes para o termo
+     */
+    public List<SugestaoCliente> sugerir(String termo, int limite) {
+        return indiceClientes.buscar(termo, limite);
     }
     
     /**
@@ -143,7 +220,11 @@ public class ClienteService {
         if (!clienteRepository.existsById(id)) {
             throw new IllegalArgumentException("Cliente não encontrado");
         }
+        long cargaResumo = resumoDashboard.cargaAtual();
         clienteRepository.deleteById(id);
+        indiceClientes.removerCliente(id);
+        resumoDashboard.clienteRemovido(cargaResumo);
+        versaoDados.alterado(VersaoDados.Dominio.CLIENTES);
     }
     
     /**
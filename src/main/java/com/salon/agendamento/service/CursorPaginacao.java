@@ -0,0 +1,63 @@
+package com.salon.agendamento.service;
+
+import com.salon.agendamento.dto.Pagina;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Codificação dos cursores usados na paginação por keyset
+ *
+ * O cursor é a chave de ordenação do último item da página seguida do ID
+ * (desempate), codificada em Base64 para poder ir na URL.
+ */
+final class CursorPaginacao {
+
+    private static final char SEPARADOR = '|';
+
+    private CursorPaginacao() {}
+
+    /**
+     * Monta a página a partir de uma consulta que buscou um item a mais que o tamanho pedido
+     * @param itens itens retornados (até tamanho + 1)
+     * @param tamanho tamanho da página
+     * @param chave função que gera o cursor de um item
+     * @return página com o cursor da próxima, se houver
+     */
+    static <T> Pagina<T> paginar(List<T> itens, int tamanho, Function<T, String> chave) {
+        if (itens.size() <= tamanho) {
+            return new Pagina<>(itens, null);
+        }
+        List<T> pagina = itens.subList(0, tamanho);
+        return new Pagina<>(pagina, chave.apply(pagina.get(tamanho - 1)));
+    }
+
+    static String codificar(Object valor, Long id) {
+        String texto = valor + String.valueOf(SEPARADOR) + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica um cursor
+     * @param cursor cursor recebido na URL
+     * @return {valor, id}, ou null se o cursor for vazio ou inválido
+     */
+    static String[] decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = texto.lastIndexOf(SEPARADOR);
+            if (separador < 0) {
+                return null;
+            }
+            Long.parseLong(texto.substring(separador + 1));
+            return new String[] {texto.substring(0, separador), texto.substring(separador + 1)};
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package com.salon.agendamento.service;
+
+import com.salon.agendamento.model.Agendamento;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Diário das alterações de agendamentos: cada mudança gravada vira um registro binário no fim
+ * de arquivos de segmento, nunca alterado depois
+ *
+ * O banco guarda só o estado atual de cada agendamento; o diário guarda a sequência de estados
+ * (criação, alteração, mudança de status, exclusão), numerada, para auditoria e para
+ * consumidores como análises, que o acompanham com um {@link LeitorDiario}.
+ *
+ * Escrita: o segmento atual fica mapeado em memória e gravar um registro é copiar uns 40 bytes
+ * sob uma trava, sem chamada ao sistema operacional. A sincronização com o disco (force) é feita
+ * em grupo por uma tarefa periódica (agenda.diario.sincronizacao.intervalo), que cobre de uma vez
+ * todos os registros escritos desde a anterior; numa queda da máquina perdem-se no máximo os
+ * registros desse intervalo. Quando o segmento enche, ele é sincronizado e fechado com uma marca
+ * de fim, e o seguinte é criado com o nome da sua primeira sequência.
+ *
+ * Os registros são escritos depois do commit, como as demais estruturas em memória (IndiceAgenda,
+ * ResumoDashboard): uma falha no diário é registrada no log e não desfaz a alteração.
+ */
+@Service
+public class DiarioAgendamentos {
+
+    private static final Logger log = LoggerFactory.getLogger(DiarioAgendamentos.class);
+
+    // Abaixo disso, a rotação seria frequente demais para valer o mapeamento
+    private static final long MINIMO_TAMANHO_SEGMENTO = 64 * 1024;
+
+    @Value("${agenda.diario.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${agenda.diario.diretorio:diario}")
+    private String diretorio;
+
+    @Value("${agenda.diario.tamanho-segmento:16777216}")
+    private long tamanhoSegmento;
+
+    private final ReentrantLock trava = new ReentrantLock();
+
+    // Sinaliza aos leitores em espera que há registros novos
+    private final Condition novosRegistros = trava.newCondition();
+
+    // Conteúdo do registro sendo escrito (protegido pela trava)
+    private final ByteBuffer codificacao = ByteBuffer.allocate(FormatoDiario.MAXIMO_CONTEUDO);
+
+    private FileChannel canal;
+
+    private MappedByteBuffer segmento;
+
+    private int posicao;
+
+    // Início do trecho do segmento atual ainda não sincronizado com o disco
+    private int inicioNaoSincronizado;
+
+    private long proximaSequencia;
+
+    // Escrita por último a cada registro: quem lê o valor enxerga os bytes gravados até ele
+    private volatile long ultimaSequencia;
+
+    @PostConstruct
+    public void abrir() throws IOException {
+        if (!habilitado) {
+            return;
+        }
+        if (tamanhoSegmento < MINIMO_TAMANHO_SEGMENTO || tamanhoSegmento > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("agenda.diario.tamanho-segmento deve ficar entre "
+                    + MINIMO_TAMANHO_SEGMENTO + " e " + Integer.MAX_VALUE + " bytes");
+        }
+        Path pasta = Path.of(diretorio);
+        Files.createDirectories(pasta);
+        List<Path> segmentos = LeitorDiario.segmentos(pasta);
+        // Queda logo depois de criar o arquivo de um segmento, antes do cabeçalho: o anterior continua valendo
+        if (!segmentos.isEmpty() && semCabecalho(segmentos.get(segmentos.size() - 1))) {
+            Files.delete(segmentos.remove(segmentos.size() - 1));
+        }
+        if (segmentos.isEmpty()) {
+            criarSegmento(pasta, 1);
+        } else {
+            recuperar(segmentos.get(segmentos.size() - 1));
+        }
+        log.info("Diário de agendamentos em {} (próxima sequência {})", pasta.toAbsolutePath(), proximaSequencia);
+    }
+
+    /**
+     * Registra a mudança de um agendamento já gravada no banco
+     * @param tipo tipo da mudança
+     * @param agendamento agendamento no estado depois da mudança (na exclusão, o último estado)
+     */
+    public void registrar(Tipo tipo, Agendamento agendamento) {
+        registrar(tipo, List.of(agendamento));
+    }
+
+    /**
+     * Registra a mesma mudança em vários agendamentos, com uma única aquisição da trava
+     * @param tipo tipo da mudança
+     * @param agendamentos agendamentos no estado depois da mudança
+     */
+    public void registrar(Tipo tipo, List<Agendamento> agendamentos) {
+        if (!habilitado || agendamentos.isEmpty()) {
+            return;
+        }
+        long instante = System.currentTimeMillis();
+        trava.lock();
+        try {
+            if (segmento == null) {
+                return;
+            }
+            for (Agendamento agendamento : agendamentos) {
+                escrever(tipo, agendamento, instante);
+            }
+            ultimaSequencia = proximaSequencia - 1;
+            novosRegistros.signalAll();
+        } catch (IOException | RuntimeException e) {
+            log.error("Falha ao registrar {} de {} agendamento(s) no diário", tipo, agendamentos.size(), e);
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Sincroniza com o disco os registros escritos desde a última sincronização
+     */
+    @Scheduled(fixedDelayString = "${agenda.diario.sincronizacao.intervalo:200}")
+    public void sincronizar() {
+        MappedByteBuffer alvo;
+        int inicio;
+        int fim;
+        trava.lock();
+        try {
+            if (segmento == null || inicioNaoSincronizado == posicao) {
+                return;
+            }
+            alvo = segmento;
+            inicio = inicioNaoSincronizado;
+            fim = posicao;
+            inicioNaoSincronizado = posicao;
+        } finally {
+            trava.unlock();
+        }
+        // Fora da trava: quem grava não espera pelo disco
+        alvo.force(inicio, fim - inicio);
+    }
+
+    @PreDestroy
+    public void fechar() throws IOException {
+        trava.lock();
+        try {
+            if (segmento == null) {
+                return;
+            }
+            segmento.force();
+            canal.close();
+            segmento = null;
+            canal = null;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Entrega, em ordem, os registros já escritos a partir de uma sequência
+     * @param aPartirDe primeira sequência desejada (1 para o diário inteiro)
+     * @param consumidor recebe cada registro
+     * @return quantidade de registros entregues
+     */
+    public long reproduzir(long aPartirDe, Consumer<Registro> consumidor) {
+        long quantidade = 0;
+        try (LeitorDiario leitor = abrirLeitor(aPartirDe)) {
+            for (Registro registro = leitor.proximo(); registro != null; registro = leitor.proximo()) {
+                consumidor.accept(registro);
+                quantidade++;
+            }
+        }
+        return quantidade;
+    }
+
+    /**
+     * Abre um leitor que acompanha o diário a partir de uma sequência
+     *
+     * Quem consome guarda a sequência do último registro tratado e, ao recomeçar, abre o leitor
+     * na seguinte.
+     * @param aPartirDe primeira sequência desejada
+     * @return leitor (deve ser fechado)
+     */
+    public LeitorDiario abrirLeitor(long aPartirDe) {
+        return new LeitorDiario(Path.of(diretorio), aPartirDe, this);
+    }
+
+    /**
+     * Sequência do último registro escrito (0 se o diário está vazio)
+     */
+    public long ultimaSequencia() {
+        return ultimaSequencia;
+    }
+
+    /**
+     * Espera até haver um registro depois de uma sequência
+     * @param sequencia última sequência já lida
+     * @param esperaMillis tempo máximo de espera
+     * @return true se há registros depois da sequência
+     */
+    boolean aguardar(long sequencia, long esperaMillis) throws InterruptedException {
+        long restante = TimeUnit.MILLISECONDS.toNanos(esperaMillis);
+        trava.lock();
+        try {
+            while (ultimaSequencia <= sequencia && restante > 0) {
+                restante = novosRegistros.awaitNanos(restante);
+            }
+            return ultimaSequencia > sequencia;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    private void escrever(Tipo tipo, Agendamento agendamento, long instante) throws IOException {
+        codificacao.clear();
+        FormatoDiario.codificar(proximaSequencia, instante, tipo, agendamento, codificacao);
+        int tamanho = codificacao.position();
+        // Deixa sempre espaço para a marca de fim do segmento
+        if (posicao + FormatoDiario.TAMANHO_MOLDURA + tamanho + 4 > segmento.capacity()) {
+            rotacionar();
+        }
+        segmento.put(posicao + FormatoDiario.TAMANHO_MOLDURA, codificacao, 0, tamanho);
+        segmento.putInt(posicao + 4, FormatoDiario.crc(segmento, posicao + FormatoDiario.TAMANHO_MOLDURA, tamanho));
+        // O tamanho vai por último: até aqui, quem lê vê o registro como ainda não escrito
+        segmento.putInt(posicao, tamanho);
+        posicao += FormatoDiario.TAMANHO_MOLDURA + tamanho;
+        proximaSequencia++;
+    }
+
+    /**
+     * Fecha o segmento atual com a marca de fim e passa para um novo
+     *
+     * O novo arquivo existe antes da marca: quem lê a marca sempre encontra o segmento seguinte.
+     */
+    private void rotacionar() throws IOException {
+        MappedByteBuffer anterior = segmento;
+        FileChannel canalAnterior = canal;
+        int fimAnterior = posicao;
+        criarSegmento(Path.of(diretorio), proximaSequencia);
+        anterior.putInt(fimAnterior, FormatoDiario.FIM_SEGMENTO);
+        anterior.force();
+        canalAnterior.close();
+        log.info("Diário de agendamentos: novo segmento a partir da sequência {}", proximaSequencia);
+    }
+
+    private void criarSegmento(Path pasta, long primeiraSequencia) throws IOException {
+        Path arquivo = pasta.resolve(FormatoDiario.nomeSegmento(primeiraSequencia));
+        FileChannel novoCanal = FileChannel.open(arquivo, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // Mapear além do tamanho do arquivo o estende, já zerado
+        MappedByteBuffer novo = novoCanal.map(FileChannel.MapMode.READ_WRITE, 0, tamanhoSegmento);
+        FormatoDiario.escreverCabecalho(novo, primeiraSequencia);
+        novo.force(0, FormatoDiario.TAMANHO_CABECALHO);
+        canal = novoCanal;
+        segmento = novo;
+        posicao = FormatoDiario.TAMANHO_CABECALHO;
+        inicioNaoSincronizado = posicao;
+        proximaSequencia = primeiraSequencia;
+    }
+
+    /**
+     * Reabre o último segmento e continua depois do último registro íntegro
+     *
+     * Um registro pela metade (queda no meio da escrita) falha no CRC; o restante do segmento
+     * a partir dele é zerado para ser escrito de novo.
+     */
+    private void recuperar(Path arquivo) throws IOException {
+        long primeiraSequencia = FormatoDiario.primeiraSequencia(arquivo.getFileName().toString());
+        FileChannel canalExistente = FileChannel.open(arquivo, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer existente = canalExistente.map(FileChannel.MapMode.READ_WRITE, 0, canalExistente.size());
+        FormatoDiario.validarCabecalho(existente, primeiraSequencia);
+
+        int fim = FormatoDiario.TAMANHO_CABECALHO;
+        long sequencia = primeiraSequencia;
+        boolean encerrado = false;
+        while (fim + FormatoDiario.TAMANHO_MOLDURA <= existente.capacity()) {
+            int tamanho = existente.getInt(fim);
+            if (tamanho == FormatoDiario.FIM_SEGMENTO) {
+                encerrado = true;
+                break;
+            }
+            if (tamanho <= 0 || fim + FormatoDiario.TAMANHO_MOLDURA + tamanho > existente.capacity()
+                    || existente.getInt(fim + 4) != FormatoDiario.crc(existente, fim + FormatoDiario.TAMANHO_MOLDURA, tamanho)) {
+                break;
+            }
+            fim += FormatoDiario.TAMANHO_MOLDURA + tamanho;
+            sequencia++;
+        }
+
+        canal = canalExistente;
+        segmento = existente;
+        posicao = fim;
+        inicioNaoSincronizado = fim;
+        proximaSequencia = sequencia;
+        ultimaSequencia = sequencia - 1;
+        if (encerrado) {
+            // O segmento seguinte foi apagado depois da rotação: recomeça em um novo
+            criarSegmento(arquivo.getParent(), proximaSequencia);
+            canalExistente.close();
+            return;
+        }
+        if (fim + 4 <= existente.capacity() && existente.getInt(fim) != 0) {
+            log.warn("Diário de agendamentos: registro incompleto descartado em {} (posição {})", arquivo, fim);
+            for (int i = fim; i < existente.capacity(); i++) {
+                existente.put(i, (byte) 0);
+            }
+            existente.force();
+        }
+    }
+
+    private static boolean semCabecalho(Path arquivo) throws IOException {
+        try (FileChannel leitura = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            ByteBuffer cabecalho = ByteBuffer.allocate(4);
+            return leitura.size() < FormatoDiario.TAMANHO_CABECALHO || leitura.read(cabecalho, 0) < 4
+                    || cabecalho.getInt(0) == 0;
+        }
+    }
+
+    /**
+     * Tipo da mudança registrada
+     */
+    public enum Tipo {
+        CRIADO,
+        ALTERADO,
+        STATUS,
+        EXCLUIDO
+    }
+
+    /**
+     * Um registro do diário: a mudança e o estado do agendamento depois dela
+     *
+     * Datas e horários com precisão de segundos; valor com duas casas decimais.
+     */
+    public record Registro(long sequencia, Instant instante, Tipo tipo, long agendamentoId, Long clienteId,
+                           Long servicoId, Long profissionalId, LocalDateTime dataHora, LocalDateTime dataHoraFim,
+                           Agendamento.StatusAgendamento status, BigDecimal valor, String observacoes) {
+    }
+}
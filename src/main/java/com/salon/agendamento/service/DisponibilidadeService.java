@@ -0,0 +1,134 @@
+package com.salon.agendamento.service;
+
+import com.salon.agendamento.dto.DisponibilidadeDia;
+import com.salon.agendamento.model.Profissional;
+import com.salon.agendamento.model.Servico;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Serviço para consultar horários livres na agenda
+ *
+ * Para cada dia monta, para a agenda de cada profissional apto ao serviço, um mapa de bits com
+ * um bit por minuto da janela de funcionamento (8h às 18h), a partir do índice de agenda em memória.
+ * Um horário de início está livre quando, em alguma dessas agendas, todos os minutos entre ele
+ * e o fim do serviço estão desocupados.
+ */
+@Service
+public class DisponibilidadeService {
+
+    private static final int MINUTOS_JANELA =
+            (AgendamentoService.HORA_FECHAMENTO - AgendamentoService.HORA_ABERTURA) * 60;
+    private static final int MAXIMO_DIAS = 62;
+
+    @Autowired
+    private ServicoService servicoService;
+
+    @Autowired
+    private ProfissionalService profissionalService;
+
+    @Autowired
+    private IndiceAgenda indiceAgenda;
+
+    /**
+     * Lista os horários em que um serviço cabe na agenda
+     * @param servicoId ID do serviço
+     * @param profissionalId ID do profissional (null para qualquer profissional apto ao serviço)
+     * @param de primeiro dia da busca
+     * @param ate último dia da busca (inclusivo)
+     * @param passoMinutos intervalo entre os horários candidatos
+     * @return horários livres de cada dia do período
+     */
+    public List<DisponibilidadeDia> buscarHorariosLivres(Long servicoId, Long profissionalId, LocalDate de, LocalDate ate,
+                                                         int passoMinutos) {
+        Servico servico = servicoService.buscarPorId(servicoId)
+                .orElseThrow(() -> new IllegalArgumentException("Serviço não encontrado"));
+
+        if (ate.isBefore(de)) {
+            throw new IllegalArgumentException("A data final deve ser posterior à data inicial");
+        }
+        if (ChronoUnit.DAYS.between(de, ate) >= MAXIMO_DIAS) {
+            throw new IllegalArgumentException("O período de busca deve ter no máximo " + MAXIMO_DIAS + " dias");
+        }
+        if (passoMinutos < 1 || passoMinutos > 60) {
+            throw new IllegalArgumentException("O passo deve estar entre 1 e 60 minutos");
+        }
+
+        List<Profissional> opcoes = AgendamentoService.opcoesDeProfissional(profissionalId,
+                profissionalService.listarPorServico(servicoId));
+
+        LocalDateTime agora = LocalDateTime.now();
+        LocalDate hoje = agora.toLocalDate();
+        LocalDate ultimoDiaPermitido = hoje.plusYears(1);
+        LocalDate inicio = de.isBefore(hoje) ? hoje : de;
+        LocalDate fim = ate.isAfter(ultimoDiaPermitido) ? ultimoDiaPermitido : ate;
+
+        List<DisponibilidadeDia> resultado = new ArrayList<>();
+        if (fim.isBefore(inicio)) {
+            return resultado;
+        }
+
+        // Uma única consulta carrega todos os dias que ainda não estão no índice
+        indiceAgenda.carregarPeriodo(inicio, fim);
+
+        int duracao = servico.getDuracaoMinutos() != null ? servico.getDuracaoMinutos() : 0;
+        for (LocalDate dia = inicio; !dia.isAfter(fim); dia = dia.plusDays(1)) {
+            LocalDateTime abertura = dia.atTime(AgendamentoService.HORA_ABERTURA, 0);
+            List<BitSet> ocupacoes = new ArrayList<>();
+            for (Profissional profissional : opcoes) {
+                Long id = profissional != null ? profissional.getId() : null;
+                ocupacoes.add(mapaDeOcupacao(indiceAgenda.obterDia(id, dia), IndiceAgenda.paraMinuto(abertura)));
+            }
+
+            // Minutos já passados de hoje não podem receber agendamentos
+            int primeiroMinuto = 0;
+            if (dia.equals(hoje)) {
+                primeiroMinuto = (int) Math.max(0, ChronoUnit.MINUTES.between(abertura, agora) + 1);
+            }
+
+            List<LocalTime> horarios = new ArrayList<>();
+            for (int minuto = 0; minuto < MINUTOS_JANELA && minuto + duracao <= MINUTOS_JANELA; minuto += passoMinutos) {
+                if (minuto < primeiroMinuto) {
+                    continue;
+                }
+                for (BitSet ocupacao : ocupacoes) {
+                    int proximoOcupado = ocupacao.nextSetBit(minuto);
+                    if (proximoOcupado == -1 || proximoOcupado > minuto + duracao) {
+                        horarios.add(abertura.plusMinutes(minuto).toLocalTime());
+                        break;
+                    }
+                }
+            }
+            resultado.add(new DisponibilidadeDia(dia, horarios));
+        }
+        return resultado;
+    }
+
+    /**
+     * Monta o mapa de bits da janela de funcionamento de um dia (bit i = minuto i após a abertura)
+     * @param diaAgenda ocupação da agenda de um profissional no dia
+     * @param minutoAbertura minuto (desde a época) da abertura do salão no dia
+     * @return minutos ocupados
+     */
+    private BitSet mapaDeOcupacao(IndiceAgenda.DiaAgenda diaAgenda, long minutoAbertura) {
+        BitSet ocupacao = new BitSet(MINUTOS_JANELA + 1);
+        for (int i = 0; i < diaAgenda.tamanho(); i++) {
+            long inicio = diaAgenda.inicio(i) - minutoAbertura;
+            long fim = diaAgenda.fim(i) - minutoAbertura;
+            if (fim < 0 || inicio > MINUTOS_JANELA) {
+                continue;
+            }
+            // Intervalos fechados: o minuto final também fica ocupado
+            ocupacao.set((int) Math.max(0, inicio), (int) Math.min(MINUTOS_JANELA, fim) + 1);
+        }
+        return ocupacao;
+    }
+}
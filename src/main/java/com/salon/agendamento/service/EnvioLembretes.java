@@ -0,0 +1,23 @@
+package com.salon.agendamento.service;
+
+import com.salon.agendamento.model.Lembrete;
+
+import java.util.List;
+
+/**
+ * Canal de envio dos lembretes (SMS, WhatsApp, e-mail...)
+ *
+ * Recebe lotes da fila de saída. Se lançar exceção, o lote inteiro continua na fila e é
+ * tentado de novo no próximo ciclo, até o máximo de tentativas; por isso o envio deve tolerar
+ * receber de novo um lembrete de um lote que falhou no meio. Para trocar o canal local
+ * (ConfiguracaoLembretes), basta declarar outro bean desta interface com {@code @Primary}.
+ */
+public interface EnvioLembretes {
+
+    /**
+     * Envia um lote de lembretes
+     * @param lembretes lembretes pendentes, em ordem de chegada
+     * @throws Exception se o lote não pôde ser enviado
+     */
+    void enviar(List<Lembrete> lembretes) throws Exception;
+}
@@ -0,0 +1,55 @@
+package com.salon.agendamento.service;
+
+import com.salon.agendamento.model.Lembrete;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Envio de lembretes para uso local: escreve no log ou acrescenta a um arquivo
+ *
+ * No arquivo, uma linha por lembrete, separada por ponto e vírgula: ID, agendamento, tipo,
+ * horário do agendamento, telefone, e-mail e mensagem.
+ */
+public class EnvioLembretesLocal implements EnvioLembretes {
+
+    private static final Logger log = LoggerFactory.getLogger(EnvioLembretesLocal.class);
+
+    private final Path arquivo;
+
+    /**
+     * @param arquivo arquivo de saída (null para escrever só no log)
+     */
+    public EnvioLembretesLocal(Path arquivo) {
+        this.arquivo = arquivo;
+    }
+
+    @Override
+    public void enviar(List<Lembrete> lembretes) throws IOException {
+        if (arquivo == null) {
+            for (Lembrete lembrete : lembretes) {
+                log.info("Lembrete {} para {} ({}): {}", lembrete.getTipo(), lembrete.getClienteNome(),
+                        lembrete.getTelefone(), lembrete.getMensagem());
+            }
+            return;
+        }
+        List<String> linhas = new ArrayList<>(lembretes.size());
+        for (Lembrete lembrete : lembretes) {
+            linhas.add(String.join(";", String.valueOf(lembrete.getId()), String.valueOf(lembrete.getAgendamentoId()),
+                    lembrete.getTipo().name(), String.valueOf(lembrete.getDataHoraAgendamento()),
+                    valor(lembrete.getTelefone()), valor(lembrete.getEmail()), valor(lembrete.getMensagem())));
+        }
+        Files.write(arquivo, linhas, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private static String valor(String texto) {
+        return texto == null ? "" : texto.replace(';', ',').replace('\n', ' ');
+    }
+}
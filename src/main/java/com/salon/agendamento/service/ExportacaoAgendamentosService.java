@@ -0,0 +1,150 @@
+package com.salon.agendamento.service;
+
+import com.salon.agendamento.dto.AgendamentoExportado;
+import com.salon.agendamento.repository.AgendamentoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exportação de agendamentos em CSV, direto do cursor do banco para a resposta
+ *
+ * As linhas são lidas com um cursor somente para frente (fetch size de 500) e escritas uma a uma,
+ * opcionalmente comprimidas em gzip. Nenhuma lista do período é montada, então o uso de memória
+ * não depende do tamanho do período exportado.
+ *
+ * O CSV usa ponto e vírgula e vírgula decimal, como o Excel em português espera.
+ */
+@Service
+public class ExportacaoAgendamentosService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportacaoAgendamentosService.class);
+
+    private static final char SEPARADOR = ';';
+
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    private static final DateTimeFormatter FORMATO_DATA_HORA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private static final String[] CABECALHO = {
+            "id", "data_hora", "data_hora_fim", "status", "valor", "cliente", "email", "telefone",
+            "servico", "profissional", "observacoes"
+    };
+
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Valida o período antes de a resposta começar a ser enviada
+     * @param de primeiro dia
+     * @param ate último dia (inclusivo)
+     */
+    public void validarPeriodo(LocalDate de, LocalDate ate) {
+        if (de == null || ate == null) {
+            throw new IllegalArgumentException("Informe o período da exportação");
+        }
+        if (ate.isBefore(de)) {
+            throw new IllegalArgumentException("A data final deve ser igual ou posterior à data inicial");
+        }
+    }
+
+    /**
+     * Escreve os agendamentos do período em CSV
+     * @param de primeiro dia
+     * @param ate último dia (inclusivo)
+     * @param compactar true para comprimir a saída em gzip
+     * @param saida destino (não é fechado)
+     * @return quantidade de agendamentos exportados
+     */
+    public long exportar(LocalDate de, LocalDate ate, boolean compactar, OutputStream saida) throws IOException {
+        validarPeriodo(de, ate);
+        long inicio = System.currentTimeMillis();
+        GZIPOutputStream gzip = compactar ? new GZIPOutputStream(saida, TAMANHO_BUFFER) : null;
+        Writer escritor = new BufferedWriter(
+                new OutputStreamWriter(gzip != null ? gzip : saida, StandardCharsets.UTF_8), TAMANHO_BUFFER);
+
+        // BOM: o Excel só reconhece o CSV como UTF-8 com ele
+        escritor.write('\uFEFF');
+        escreverLinha(escritor, CABECALHO);
+
+        // O cursor só fica aberto dentro de uma transação
+        TransactionTemplate transacaoLeitura = new TransactionTemplate(transactionManager);
+        transacaoLeitura.setReadOnly(true);
+        Long linhas;
+        try {
+            linhas = transacaoLeitura.execute(status -> {
+                try (Stream<AgendamentoExportado> agendamentos = agendamentoRepository.streamParaExportacao(
+                        de.atStartOfDay(), ate.plusDays(1).atStartOfDay())) {
+                    long total = 0;
+                    for (AgendamentoExportado agendamento : (Iterable<AgendamentoExportado>) agendamentos::iterator) {
+                        escreverLinha(escritor, linha(agendamento));
+                        total++;
+                    }
+                    return total;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Normalmente o cliente desistiu do download
+            throw e.getCause();
+        }
+
+        escritor.flush();
+        if (gzip != null) {
+            gzip.finish();
+        }
+        log.info("Exportação de agendamentos de {} a {}: {} linhas em {} ms", de, ate, linhas,
+                System.currentTimeMillis() - inicio);
+        return linhas == null ? 0 : linhas;
+    }
+
+    private static String[] linha(AgendamentoExportado agendamento) {
+        return new String[] {
+                String.valueOf(agendamento.getId()),
+                formatar(agendamento.getDataHora()),
+                formatar(agendamento.getDataHoraFim()),
+                agendamento.getStatus() != null ? agendamento.getStatus().getDescricao() : null,
+                agendamento.getValor() != null ? agendamento.getValor().toPlainString().replace('.', ',') : null,
+                agendamento.getClienteNome(),
+                agendamento.getClienteEmail(),
+                agendamento.getClienteTelefone(),
+                agendamento.getServicoNome(),
+                agendamento.getProfissionalNome(),
+                agendamento.getObservacoes()
+        };
+    }
+
+    private static String formatar(LocalDateTime dataHora) {
+        return dataHora != null ? dataHora.format(FORMATO_DATA_HORA) : null;
+    }
+
+    private static void escreverLinha(Writer escritor, String[] campos) throws IOException {
+        for (int i = 0; i < campos.length; i++) {
+            if (i > 0) {
+                escritor.write(SEPARADOR);
+            }
+            escritor.write(LeitorCsv.escapar(campos[i], SEPARADOR));
+        }
+        escritor.write("\r\n");
+    }
+}
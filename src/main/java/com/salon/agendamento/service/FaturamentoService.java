@@ -0,0 +1,267 @@
+package com.salon.agendamento.service;
+
+import com.salon.agendamento.dto.RelatorioFaturamento;
+import com.salon.agendamento.model.Agendamento;
+import com.salon.agendamento.model.FaturamentoDiario;
+import com.salon.agendamento.repository.FaturamentoDiarioRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Totais de faturamento por dia e serviço (tabela faturamento_diario)
+ *
+ * Os totais são mantidos de forma incremental: cada alteração de agendamento que o faz entrar
+ * ou sair do status REALIZADO (ou que muda dia, serviço, valor ou duração de um realizado)
+ * aplica a diferença na mesma transação da alteração, então totais e agendamentos nunca
+ * divergem por uma falha no meio do caminho. Uma reconstrução completa a partir dos agendamentos
+ * roda toda noite e pode ser pedida pela tela de relatório (por exemplo, depois de uma carga
+ * feita direto no banco).
+ *
+ * O relatório lê só os totais: o custo depende da quantidade de dias do período, não da
+ * quantidade de agendamentos.
+ */
+@Service
+public class FaturamentoService {
+
+    private static final Logger log = LoggerFactory.getLogger(FaturamentoService.class);
+
+    /** Período máximo do relatório (a tabela por dia teria linhas demais para a tela) */
+    public static final int MAXIMO_DIAS_RELATORIO = 366;
+
+    private static final Comparator<Chave> ORDEM_CHAVES =
+            Comparator.comparing(Chave::dia).thenComparing(Chave::servicoId);
+
+    @Autowired
+    private FaturamentoDiarioRepository faturamentoDiarioRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Uma reconstrução por vez (ReentrantLock: a espera não prende a thread portadora de uma thread virtual)
+    private final ReentrantLock reconstrucao = new ReentrantLock();
+
+    /**
+     * Quanto um agendamento soma aos totais
+     * @param agendamento agendamento no estado atual
+     * @return contribuição do agendamento, ou null se ele não está realizado
+     */
+    public static Contribuicao contribuicao(Agendamento agendamento) {
+        if (agendamento == null || agendamento.getStatus() != Agendamento.StatusAgendamento.REALIZADO) {
+            return null;
+        }
+        LocalDateTime fim = agendamento.getDataHoraFim() != null ? agendamento.getDataHoraFim() : agendamento.getDataHora();
+        return new Contribuicao(agendamento.getDataHora().toLocalDate(), agendamento.getServico().getId(),
+                agendamento.getValor() != null ? agendamento.getValor() : BigDecimal.ZERO,
+                Duration.between(agendamento.getDataHora(), fim).toMinutes());
+    }
+
+    /**
+     * Aplica aos totais a mudança de um agendamento
+     *
+     * Deve ser chamado dentro da transação que grava a mudança.
+     * @param antes contribuição antes da mudança (null se não estava realizado)
+     * @param depois contribuição depois da mudança (null se não está mais realizado ou foi excluído)
+     */
+    public void registrarTransicao(Contribuicao antes, Contribuicao depois) {
+        if (Objects.equals(antes, depois)) {
+            return;
+        }
+        List<Contribuicao> saida = antes != null ? List.of(antes) : List.of();
+        List<Contribuicao> entrada = depois != null ? List.of(depois) : List.of();
+        registrarTransicoes(saida, entrada);
+    }
+
+    /**
+     * Aplica aos totais a mudança de vários agendamentos
+     *
+     * Deve ser chamado dentro da transação que grava as mudanças. As variações são agrupadas
+     * por dia e serviço e aplicadas sempre na mesma ordem, para que duas transações concorrentes
+     * não travem as mesmas linhas em ordens diferentes.
+     * @param saida contribuições que deixam de valer
+     * @param entrada contribuições que passam a valer
+     */
+    public void registrarTransicoes(Collection<Contribuicao> saida, Collection<Contribuicao> entrada) {
+        Map<Chave, Variacao> variacoes = new TreeMap<>(ORDEM_CHAVES);
+        for (Contribuicao contribuicao : saida) {
+            variacoes.computeIfAbsent(contribuicao.chave(), chave -> new Variacao()).somar(contribuicao, -1);
+        }
+        for (Contribuicao contribuicao : entrada) {
+            variacoes.computeIfAbsent(contribuicao.chave(), chave -> new Variacao()).somar(contribuicao, 1);
+        }
+        variacoes.forEach(this::aplicar);
+    }
+
+    /**
+     * Recalcula todos os totais a partir dos agendamentos realizados
+     *
+     * Roda toda noite (faturamento.reconstrucao.cron) e corrige qualquer desvio dos totais,
+     * como os causados por cargas gravadas direto no banco.
+     * @return quantidade de linhas (dia e serviço) gravadas
+     */
+    @Scheduled(cron = "${faturamento.reconstrucao.cron:0 30 3 * * *}")
+    public int reconstruir() {
+        long inicio = System.currentTimeMillis();
+        Integer linhas;
+        reconstrucao.lock();
+        try {
+            linhas = transactionTemplate.execute(status -> {
+                faturamentoDiarioRepository.deleteAllInBatch();
+                List<FaturamentoDiario> totais = faturamentoDiarioRepository.calcularTotaisDosAgendamentos();
+                faturamentoDiarioRepository.saveAll(totais);
+                // Grava agora e não mantém as linhas no contexto de persistência da requisição
+                entityManager.flush();
+                entityManager.clear();
+                return totais.size();
+            });
+        } finally {
+            reconstrucao.unlock();
+        }
+        log.info("Totais de faturamento reconstruídos: {} linhas em {} ms", linhas,
+                System.currentTimeMillis() - inicio);
+        return linhas == null ? 0 : linhas;
+    }
+
+    /**
+     * Monta os totais na inicialização quando a tabela está vazia (banco novo ou recém-migrado)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruirSeVazio() {
+        if (faturamentoDiarioRepository.count() == 0) {
+            reconstruir();
+        }
+    }
+
+    /**
+     * Valida o período do relatório
+     * @param de primeiro dia
+     * @param ate último dia (inclusivo)
+     */
+    public void validarPeriodo(LocalDate de, LocalDate ate) {
+        if (de == null || ate == null) {
+            throw new IllegalArgumentException("Informe o período do relatório");
+        }
+        if (ate.isBefore(de)) {
+            throw new IllegalArgumentException("A data final deve ser igual ou posterior à data inicial");
+        }
+        if (ChronoUnit.DAYS.between(de, ate) >= MAXIMO_DIAS_RELATORIO) {
+            throw new IllegalArgumentException("O período do relatório é de no máximo " + MAXIMO_DIAS_RELATORIO + " dias");
+        }
+    }
+
+    /**
+     * Monta o relatório de faturamento de um período
+     * @param de primeiro dia
+     * @param ate último dia (inclusivo)
+     * @return totais por serviço e por dia
+     */
+    public RelatorioFaturamento relatorio(LocalDate de, LocalDate ate) {
+        validarPeriodo(de, ate);
+        return new RelatorioFaturamento(de, ate,
+                faturamentoDiarioRepository.somarPorServico(de, ate),
+                faturamentoDiarioRepository.somarPorDia(de, ate));
+    }
+
+    private void aplicar(Chave chave, Variacao variacao) {
+        if (variacao.vazia()) {
+            return;
+        }
+        int alteradas = faturamentoDiarioRepository.somar(chave.dia(), chave.servicoId(),
+                variacao.quantidade, variacao.faturamento, variacao.minutos);
+        if (alteradas == 0) {
+            if (variacao.quantidade < 0) {
+                // Só acontece se os totais já estavam defasados; a reconstrução corrige
+                log.warn("Sem totais de faturamento para {} / serviço {} ao remover um agendamento realizado",
+                        chave.dia(), chave.servicoId());
+                return;
+            }
+            criarLinha(chave);
+            faturamentoDiarioRepository.somar(chave.dia(), chave.servicoId(),
+                    variacao.quantidade, variacao.faturamento, variacao.minutos);
+        }
+        if (variacao.quantidade < 0) {
+            faturamentoDiarioRepository.removerVazio(chave.dia(), chave.servicoId());
+        }
+    }
+
+    /**
+     * Cria a linha zerada de um dia e serviço em uma transação própria
+     *
+     * Assim, se outra transação criar a mesma linha ao mesmo tempo, a violação da chave única
+     * não desfaz a alteração do agendamento: basta somar na linha que a outra criou.
+     */
+    private void criarLinha(Chave chave) {
+        TransactionTemplate transacaoPropria = new TransactionTemplate(transactionManager);
+        transacaoPropria.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            transacaoPropria.executeWithoutResult(status -> faturamentoDiarioRepository.saveAndFlush(
+                    new FaturamentoDiario(chave.dia(), chave.servicoId(), 0L, BigDecimal.ZERO, 0L)));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Totais de {} / serviço {} criados por outra transação", chave.dia(), chave.servicoId());
+        }
+    }
+
+    /**
+     * Contribuição de um agendamento realizado para os totais do seu dia e serviço
+     */
+    public record Contribuicao(LocalDate dia, Long servicoId, BigDecimal valor, long minutos) {
+
+        private Chave chave() {
+            return new Chave(dia, servicoId);
+        }
+    }
+
+    private record Chave(LocalDate dia, Long servicoId) {
+    }
+
+    /**
+     * Variação acumulada dos totais de um dia e serviço
+     */
+    private static final class Variacao {
+
+        private long quantidade;
+
+        private BigDecimal faturamento = BigDecimal.ZERO;
+
+        private long minutos;
+
+        void somar(Contribuicao contribuicao, int sinal) {
+            quantidade += sinal;
+            faturamento = sinal > 0 ? faturamento.add(contribuicao.valor()) : faturamento.subtract(contribuicao.valor());
+            minutos += sinal * contribuicao.minutos();
+        }
+
+        boolean vazia() {
+            return quantidade == 0 && faturamento.signum() == 0 && minutos == 0;
+        }
+    }
+}
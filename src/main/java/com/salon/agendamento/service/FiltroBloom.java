@@ -0,0 +1,67 @@
+package com.salon.agendamento.service;
+
+/**
+ * Filtro de Bloom de textos
+ *
+ * Responde "com certeza não contém" ou "talvez contenha" usando poucos bits por elemento.
+ * As k posições de cada elemento vêm de dois hashes de 64 bits combinados
+ * (h1 + i * h2), sem calcular k hashes independentes.
+ */
+final class FiltroBloom {
+
+    private final long[] bits;
+    private final long quantidadeBits;
+    private final int quantidadeHashes;
+
+    /**
+     * @param elementosEsperados quantidade de elementos que o filtro deve comportar
+     * @param taxaFalsoPositivo probabilidade aceita de "talvez contenha" para um elemento ausente
+     */
+    FiltroBloom(long elementosEsperados, double taxaFalsoPositivo) {
+        long n = Math.max(1, elementosEsperados);
+        long m = (long) Math.ceil(-n * Math.log(taxaFalsoPositivo) / (Math.log(2) * Math.log(2)));
+        this.bits = new long[(int) Math.max(1, (m + 63) / 64)];
+        this.quantidadeBits = (long) bits.length * 64;
+        this.quantidadeHashes = (int) Math.max(1, Math.round((double) quantidadeBits / n * Math.log(2)));
+    }
+
+    void adicionar(String valor) {
+        long hash = fnv(valor);
+        long h1 = misturar(hash);
+        long h2 = misturar(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < quantidadeHashes; i++) {
+            long posicao = Math.floorMod(h1 + i * h2, quantidadeBits);
+            bits[(int) (posicao >>> 6)] |= 1L << posicao;
+        }
+    }
+
+    boolean talvezContenha(String valor) {
+        long hash = fnv(valor);
+        long h1 = misturar(hash);
+        long h2 = misturar(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < quantidadeHashes; i++) {
+            long posicao = Math.floorMod(h1 + i * h2, quantidadeBits);
+            if ((bits[(int) (posicao >>> 6)] & (1L << posicao)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FNV-1a de 64 bits sobre os caracteres UTF-16
+    private static long fnv(String valor) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < valor.length(); i++) {
+            hash ^= valor.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // Finalizador do SplitMix64: espalha os bits do hash
+    private static long misturar(long valor) {
+        valor = (valor ^ (valor >>> 30)) * 0xBF58476D1CE4E5B9L;
+        valor = (valor ^ (valor >>> 27)) * 0x94D049BB133111EBL;
+        return valor ^ (valor >>> 31);
+    }
+}
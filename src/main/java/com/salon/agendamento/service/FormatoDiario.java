@@ -0,0 +1,206 @@
+package com.salon.agendamento.service;
+
+import com.salon.agendamento.model.Agendamento;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.CRC32;
+
+/**
+ * Formato binário dos segmentos do diário de agendamentos
+ *
+ * Segmento: cabeçalho (magia, versão, sequência do primeiro registro) seguido dos registros.
+ * Registro: tamanho do conteúdo (int), CRC32 do conteúdo (int) e o conteúdo. Um tamanho 0
+ * marca o fim do que foi escrito (o arquivo é criado zerado) e {@link #FIM_SEGMENTO}, que o
+ * escritor passou para o segmento seguinte.
+ *
+ * O conteúdo usa inteiros de tamanho variável (7 bits por byte), então um registro típico
+ * ocupa uns 40 bytes. Campos opcionais são gravados como valor + 1, com 0 para ausente.
+ * Tipo e status são gravados pela posição no enum: valores novos só podem entrar no final.
+ */
+final class FormatoDiario {
+
+    static final int MAGIA = 0x41474431; // "AGD1"
+
+    static final int VERSAO = 1;
+
+    static final int TAMANHO_CABECALHO = 16;
+
+    static final int TAMANHO_MOLDURA = 8;
+
+    static final int FIM_SEGMENTO = -1;
+
+    /** Maior conteúdo de um registro (observações de até 500 caracteres cabem com folga) */
+    static final int MAXIMO_CONTEUDO = 4096;
+
+    private static final String PREFIXO_ARQUIVO = "diario-";
+
+    private static final String EXTENSAO_ARQUIVO = ".seg";
+
+    private FormatoDiario() {
+    }
+
+    /**
+     * Nome do arquivo de um segmento: a sequência do primeiro registro, com zeros à esquerda
+     * para que a ordem alfabética seja a ordem do diário
+     */
+    static String nomeSegmento(long primeiraSequencia) {
+        return PREFIXO_ARQUIVO + String.format("%020d", primeiraSequencia) + EXTENSAO_ARQUIVO;
+    }
+
+    /**
+     * Sequência do primeiro registro a partir do nome do arquivo
+     * @return a sequência, ou -1 se o arquivo não é um segmento
+     */
+    static long primeiraSequencia(String nomeArquivo) {
+        if (!nomeArquivo.startsWith(PREFIXO_ARQUIVO) || !nomeArquivo.endsWith(EXTENSAO_ARQUIVO)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(nomeArquivo.substring(PREFIXO_ARQUIVO.length(),
+                    nomeArquivo.length() - EXTENSAO_ARQUIVO.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    static void escreverCabecalho(ByteBuffer segmento, long primeiraSequencia) {
+        segmento.putInt(0, MAGIA);
+        segmento.putInt(4, VERSAO);
+        segmento.putLong(8, primeiraSequencia);
+    }
+
+    /**
+     * Confere o cabeçalho de um segmento
+     * @throws IllegalStateException se o arquivo não é um segmento desta versão
+     */
+    static void validarCabecalho(ByteBuffer segmento, long primeiraSequencia) {
+        if (segmento.limit() < TAMANHO_CABECALHO || segmento.getInt(0) != MAGIA) {
+            throw new IllegalStateException("Arquivo não é um segmento do diário");
+        }
+        if (segmento.getInt(4) != VERSAO) {
+            throw new IllegalStateException("Versão de segmento do diário não suportada: " + segmento.getInt(4));
+        }
+        if (segmento.getLong(8) != primeiraSequencia) {
+            throw new IllegalStateException("Sequência do cabeçalho não confere com o nome do segmento");
+        }
+    }
+
+    /**
+     * Codifica o conteúdo de um registro
+     * @param destino buffer limpo, com pelo menos {@link #MAXIMO_CONTEUDO} bytes livres
+     */
+    static void codificar(long sequencia, long instanteMillis, DiarioAgendamentos.Tipo tipo,
+                          Agendamento agendamento, ByteBuffer destino) {
+        escreverVarLong(destino, sequencia);
+        escreverVarLong(destino, instanteMillis);
+        destino.put((byte) tipo.ordinal());
+        escreverVarLong(destino, agendamento.getId());
+        escreverOpcional(destino, agendamento.getCliente() != null ? agendamento.getCliente().getId() : null);
+        escreverOpcional(destino, agendamento.getServico() != null ? agendamento.getServico().getId() : null);
+        escreverOpcional(destino, agendamento.getProfissional() != null ? agendamento.getProfissional().getId() : null);
+        LocalDateTime dataHora = agendamento.getDataHora();
+        escreverVarLong(destino, zigZag(dataHora.toEpochSecond(ZoneOffset.UTC)));
+        // O fim vai como duração: cabe em dois bytes em vez de cinco
+        escreverOpcional(destino, agendamento.getDataHoraFim() != null
+                ? zigZag(agendamento.getDataHoraFim().toEpochSecond(ZoneOffset.UTC) - dataHora.toEpochSecond(ZoneOffset.UTC))
+                : null);
+        destino.put((byte) (agendamento.getStatus() != null ? agendamento.getStatus().ordinal() + 1 : 0));
+        escreverOpcional(destino, agendamento.getValor() != null ? zigZag(centavos(agendamento.getValor())) : null);
+        if (agendamento.getObservacoes() == null) {
+            escreverVarLong(destino, 0);
+        } else {
+            byte[] texto = agendamento.getObservacoes().getBytes(StandardCharsets.UTF_8);
+            int tamanho = Math.min(texto.length, destino.remaining() - 8);
+            escreverVarLong(destino, tamanho + 1L);
+            destino.put(texto, 0, tamanho);
+        }
+    }
+
+    /**
+     * Decodifica o conteúdo de um registro
+     * @param origem buffer posicionado no início do conteúdo, com o limite no fim dele
+     */
+    static DiarioAgendamentos.Registro decodificar(ByteBuffer origem) {
+        long sequencia = lerVarLong(origem);
+        Instant instante = Instant.ofEpochMilli(lerVarLong(origem));
+        DiarioAgendamentos.Tipo tipo = DiarioAgendamentos.Tipo.values()[origem.get()];
+        long agendamentoId = lerVarLong(origem);
+        Long clienteId = lerOpcional(origem);
+        Long servicoId = lerOpcional(origem);
+        Long profissionalId = lerOpcional(origem);
+        long inicio = desfazerZigZag(lerVarLong(origem));
+        Long duracao = lerOpcional(origem);
+        int status = origem.get();
+        Long valor = lerOpcional(origem);
+        long tamanhoObservacoes = lerVarLong(origem);
+        String observacoes = null;
+        if (tamanhoObservacoes > 0) {
+            byte[] texto = new byte[(int) tamanhoObservacoes - 1];
+            origem.get(texto);
+            observacoes = new String(texto, StandardCharsets.UTF_8);
+        }
+        return new DiarioAgendamentos.Registro(sequencia, instante, tipo, agendamentoId, clienteId, servicoId,
+                profissionalId,
+                LocalDateTime.ofEpochSecond(inicio, 0, ZoneOffset.UTC),
+                duracao != null ? LocalDateTime.ofEpochSecond(inicio + desfazerZigZag(duracao), 0, ZoneOffset.UTC) : null,
+                status > 0 ? Agendamento.StatusAgendamento.values()[status - 1] : null,
+                valor != null ? BigDecimal.valueOf(desfazerZigZag(valor), 2) : null,
+                observacoes);
+    }
+
+    /**
+     * CRC32 de um trecho de um buffer, sem alterar a posição dele
+     */
+    static int crc(ByteBuffer buffer, int inicio, int tamanho) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().limit(inicio + tamanho).position(inicio));
+        return (int) crc.getValue();
+    }
+
+    private static long centavos(BigDecimal valor) {
+        return valor.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private static void escreverOpcional(ByteBuffer destino, Long valor) {
+        escreverVarLong(destino, valor == null ? 0 : valor + 1);
+    }
+
+    private static Long lerOpcional(ByteBuffer origem) {
+        long valor = lerVarLong(origem);
+        return valor == 0 ? null : valor - 1;
+    }
+
+    private static void escreverVarLong(ByteBuffer destino, long valor) {
+        while ((valor & ~0x7FL) != 0) {
+            destino.put((byte) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        destino.put((byte) valor);
+    }
+
+    private static long lerVarLong(ByteBuffer origem) {
+        long valor = 0;
+        for (int deslocamento = 0; deslocamento < 64; deslocamento += 7) {
+            byte b = origem.get();
+            valor |= (long) (b & 0x7F) << deslocamento;
+            if ((b & 0x80) == 0) {
+                return valor;
+            }
+        }
+        throw new IllegalStateException("Inteiro de tamanho variável inválido no diário");
+    }
+
+    private static long zigZag(long valor) {
+        return (valor << 1) ^ (valor >> 63);
+    }
+
+    private static long desfazerZigZag(long valor) {
+        return (valor >>> 1) ^ -(valor & 1);
+    }
+}
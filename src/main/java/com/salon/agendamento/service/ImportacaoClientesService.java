@@ -0,0 +1,368 @@
+package com.salon.agendamento.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.salon.agendamento.dto.ResultadoImportacao;
+import com.salon.agendamento.model.Cliente;
+import com.salon.agendamento.repository.ClienteRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Importação de clientes a partir de um arquivo CSV
+ *
+ * O arquivo é lido registro a registro e processado em blocos, com memória constante.
+ * Um filtro de Bloom carregado com os emails já cadastrados separa os emails certamente
+ * novos dos possivelmente repetidos; só estes são conferidos no banco, com uma consulta
+ * por bloco. Os clientes aceitos são gravados em lote (hibernate.jdbc.batch_size), uma
+ * transação por bloco.
+ *
+ * Os registros rejeitados vão para um relatório CSV temporário, disponível para download
+ * por algumas horas.
+ */
+@Service
+public class ImportacaoClientesService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportacaoClientesService.class);
+
+    private static final int TAMANHO_BLOCO = 500;
+
+    private static final double TAXA_FALSO_POSITIVO = 0.01;
+
+    // Estimativa conservadora para dimensionar o filtro a partir do tamanho do arquivo
+    private static final int BYTES_POR_REGISTRO = 40;
+
+    private static final String EMAIL_JA_CADASTRADO = "Já existe um cliente cadastrado com este email";
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private IndiceClientes indiceClientes;
+
+    @Autowired
+    private ResumoDashboard resumoDashboard;
+
+    @Autowired
+    private VersaoDados versaoDados;
+
+    // Relatórios de rejeitados recentes; o arquivo é apagado quando sai do cache
+    private final Cache<String, Path> relatorios = Caffeine.newBuilder()
+            .maximumSize(20)
+            .expireAfterWrite(Duration.ofHours(6))
+            .executor(Runnable::run)
+            .removalListener((String id, Path arquivo, RemovalCause causa) -> apagar(arquivo))
+            .build();
+
+    /**
+     * Importa os clientes de um arquivo CSV com cabeçalho (colunas nome, email, telefone e endereco,
+     * em qualquer ordem, separadas por vírgula ou ponto e vírgula)
+     * @param arquivo conteúdo do arquivo, em UTF-8
+     * @param tamanhoBytes tamanho do arquivo, usado para dimensionar o filtro de Bloom
+     * @return totais da importação e o ID do relatório de rejeitados
+     */
+    public ResultadoImportacao importar(InputStream arquivo, long tamanhoBytes) throws IOException {
+        BufferedReader leitor = new BufferedReader(new InputStreamReader(arquivo, StandardCharsets.UTF_8));
+        leitor.mark(64 * 1024);
+        String primeiraLinha = leitor.readLine();
+        if (primeiraLinha == null) {
+            throw new IllegalArgumentException("O arquivo está vazio");
+        }
+        leitor.reset();
+        char separador = contar(primeiraLinha, ';') > contar(primeiraLinha, ',') ? ';' : ',';
+
+        try (LeitorCsv csv = new LeitorCsv(leitor, separador)) {
+            List<String> cabecalho = csv.proximo();
+            Colunas colunas = Colunas.de(cabecalho);
+            FiltroBloom emails = carregarEmails(tamanhoBytes / BYTES_POR_REGISTRO);
+
+            Path relatorio = Files.createTempFile("clientes-rejeitados-", ".csv");
+            Importacao importacao;
+            try (BufferedWriter rejeitados = Files.newBufferedWriter(relatorio, StandardCharsets.UTF_8)) {
+                rejeitados.write("linha" + separador + "motivo");
+                for (String coluna : cabecalho) {
+                    rejeitados.write(separador + LeitorCsv.escapar(coluna, separador));
+                }
+                rejeitados.newLine();
+                importacao = new Importacao(colunas, emails, rejeitados, separador);
+                importacao.processar(csv);
+            } catch (IOException | RuntimeException e) {
+                apagar(relatorio);
+                throw e;
+            }
+
+            String relatorioId = null;
+            if (importacao.rejeitados > 0) {
+                relatorioId = UUID.randomUUID().toString();
+                relatorios.put(relatorioId, relatorio);
+            } else {
+                apagar(relatorio);
+            }
+            log.info("Importação de clientes: {} registros, {} importados, {} rejeitados, {} emails conferidos no banco",
+                    importacao.registros, importacao.importados, importacao.rejeitados, importacao.confirmacoes);
+            return new ResultadoImportacao(importacao.registros, importacao.importados, importacao.rejeitados,
+                    importacao.confirmacoes, relatorioId);
+        }
+    }
+
+    /**
+     * Busca o relatório de rejeitados de uma importação recente
+     * @param id ID informado no resultado da importação
+     * @return arquivo CSV, se ainda estiver disponível
+     */
+    public Optional<Path> buscarRelatorio(String id) {
+        return Optional.ofNullable(relatorios.getIfPresent(id)).filter(Files::exists);
+    }
+
+    @PreDestroy
+    public void descartarRelatorios() {
+        relatorios.invalidateAll();
+    }
+
+    /**
+     * Filtro de Bloom com os emails já cadastrados, lidos do banco sem carregar entidades
+     */
+    private FiltroBloom carregarEmails(long registrosEstimados) {
+        FiltroBloom filtro = new FiltroBloom(clienteRepository.count() + registrosEstimados, TAXA_FALSO_POSITIVO);
+        jdbcTemplate.query(conexao -> {
+            PreparedStatement consulta = conexao.prepareStatement("SELECT email FROM clientes");
+            consulta.setFetchSize(1000);
+            return consulta;
+        }, (RowCallbackHandler) resultado -> filtro.adicionar(resultado.getString(1)));
+        return filtro;
+    }
+
+    private static int contar(String texto, char caractere) {
+        int quantidade = 0;
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) == caractere) {
+                quantidade++;
+            }
+        }
+        return quantidade;
+    }
+
+    private static void apagar(Path arquivo) {
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException e) {
+            log.warn("Não foi possível apagar o relatório {}", arquivo, e);
+        }
+    }
+
+    /**
+     * Posição das colunas conhecidas no cabeçalho (-1 se ausente)
+     */
+    private record Colunas(int nome, int email, int telefone, int endereco) {
+
+        static Colunas de(List<String> cabecalho) {
+            Map<String, Integer> posicoes = new HashMap<>();
+            for (int i = 0; cabecalho != null && i < cabecalho.size(); i++) {
+                posicoes.putIfAbsent(IndiceClientes.normalizar(cabecalho.get(i)).replace(" ", ""), i);
+            }
+            Colunas colunas = new Colunas(
+                    posicoes.getOrDefault("nome", -1),
+                    posicoes.getOrDefault("email", -1),
+                    posicoes.getOrDefault("telefone", posicoes.getOrDefault("celular", -1)),
+                    posicoes.getOrDefault("endereco", -1));
+            if (colunas.nome() < 0 || colunas.email() < 0) {
+                throw new IllegalArgumentException("O arquivo deve ter um cabeçalho com as colunas nome e email");
+            }
+            return colunas;
+        }
+    }
+
+    /**
+     * Estado de uma importação em andamento
+     */
+    private final class Importacao {
+
+        private final Colunas colunas;
+        private final FiltroBloom emails;
+        private final BufferedWriter relatorio;
+        private final char separador;
+
+        private final List<Registro> bloco = new ArrayList<>(TAMANHO_BLOCO);
+
+        private int registros;
+        private int importados;
+        private int rejeitados;
+        private int confirmacoes;
+
+        private Importacao(Colunas colunas, FiltroBloom emails, BufferedWriter relatorio, char separador) {
+            this.colunas = colunas;
+            this.emails = emails;
+            this.relatorio = relatorio;
+            this.separador = separador;
+        }
+
+        void processar(LeitorCsv csv) throws IOException {
+            while (true) {
+                List<String> campos;
+                try {
+                    campos = csv.proximo();
+                } catch (IOException e) {
+                    // Arquivo malformado: o restante não pode ser lido com segurança
+                    registros++;
+                    rejeitar(csv.getLinha(), e.getMessage(), List.of());
+                    break;
+                }
+                if (campos == null) {
+                    break;
+                }
+                if (campos.size() == 1 && campos.get(0).isBlank()) {
+                    continue;
+                }
+                registros++;
+                String motivo = validar(campos);
+                if (motivo != null) {
+                    rejeitar(csv.getLinha(), motivo, campos);
+                    continue;
+                }
+                bloco.add(new Registro(csv.getLinha(), campos));
+                if (bloco.size() == TAMANHO_BLOCO) {
+                    gravarBloco();
+                }
+            }
+            gravarBloco();
+        }
+
+        private String validar(List<String> campos) {
+            String nome = campo(campos, colunas.nome());
+            String email = campo(campos, colunas.email());
+            if (nome == null) {
+                return "Nome do cliente é obrigatório";
+            }
+            if (email == null) {
+                return "Email do cliente é obrigatório";
+            }
+            if (nome.length() > 100 || email.length() > 100) {
+                return "Nome e email devem ter no máximo 100 caracteres";
+            }
+            String telefone = campo(campos, colunas.telefone());
+            String endereco = campo(campos, colunas.endereco());
+            if ((telefone != null && telefone.length() > 20) || (endereco != null && endereco.length() > 200)) {
+                return "Telefone deve ter no máximo 20 caracteres e endereço, 200";
+            }
+            return null;
+        }
+
+        /**
+         * Descarta os emails repetidos do bloco (no arquivo ou no banco) e grava o restante
+         */
+        private void gravarBloco() throws IOException {
+            if (bloco.isEmpty()) {
+                return;
+            }
+            // Emails possivelmente já vistos: só estes vão ao banco
+            Set<String> suspeitos = new HashSet<>();
+            for (Registro registro : bloco) {
+                String email = campo(registro.campos(), colunas.email());
+                if (emails.talvezContenha(email)) {
+                    suspeitos.add(email);
+                }
+            }
+            Set<String> existentes = suspeitos.isEmpty()
+                    ? Set.of()
+                    : new HashSet<>(clienteRepository.findEmailsExistentes(suspeitos));
+            confirmacoes += suspeitos.size();
+
+            Map<String, Integer> linhaDoEmail = new HashMap<>();
+            List<Cliente> novos = new ArrayList<>(bloco.size());
+            LocalDateTime agora = LocalDateTime.now();
+            for (Registro registro : bloco) {
+                List<String> campos = registro.campos();
+                String email = campo(campos, colunas.email());
+                if (existentes.contains(email)) {
+                    rejeitar(registro.linha(), EMAIL_JA_CADASTRADO, campos);
+                    continue;
+                }
+                Integer linhaAnterior = linhaDoEmail.putIfAbsent(email, registro.linha());
+                if (linhaAnterior != null) {
+                    rejeitar(registro.linha(), "Email repetido no arquivo (linha " + linhaAnterior + ")", campos);
+                    continue;
+                }
+                Cliente cliente = new Cliente(campo(campos, colunas.nome()), email,
+                        campo(campos, colunas.telefone()), campo(campos, colunas.endereco()));
+                cliente.setDataCadastro(agora);
+                novos.add(cliente);
+                emails.adicionar(email);
+            }
+            bloco.clear();
+            if (novos.isEmpty()) {
+                return;
+            }
+
+            long cargaResumo = resumoDashboard.cargaAtual();
+            transactionTemplate.executeWithoutResult(status -> {
+                clienteRepository.saveAll(novos);
+                // Com open-in-view a sessão dura a requisição inteira; sem limpar, cada flush
+                // percorreria os clientes de todos os blocos anteriores
+                entityManager.flush();
+                entityManager.clear();
+            });
+            importados += novos.size();
+            indiceClientes.registrarTodos(novos);
+            resumoDashboard.clientesAdicionados(cargaResumo, novos.size());
+            versaoDados.alterado(VersaoDados.Dominio.CLIENTES);
+        }
+
+        private void rejeitar(int linha, String motivo, List<String> campos) throws IOException {
+            rejeitados++;
+            relatorio.write(linha + String.valueOf(separador) + LeitorCsv.escapar(motivo, separador));
+            for (String campo : campos) {
+                relatorio.write(separador + LeitorCsv.escapar(campo, separador));
+            }
+            relatorio.newLine();
+        }
+
+        private String campo(List<String> campos, int coluna) {
+            if (coluna < 0 || coluna >= campos.size()) {
+                return null;
+            }
+            String valor = campos.get(coluna).trim();
+            return valor.isEmpty() ? null : valor;
+        }
+    }
+
+    private record Registro(int linha, List<String> campos) {
+    }
+}
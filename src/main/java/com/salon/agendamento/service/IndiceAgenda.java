@@ -0,0 +1,482 @@
+package com.salon.agendamento.service;
+
+import com.salon.agendamento.model.Agendamento;
+import com.salon.agendamento.repository.AgendamentoRepository;
+import com.salon.agendamento.repository.IntervaloAgendamento;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongPredicate;
+
+/**
+ * Índice em memória dos agendamentos ativos, organizado por dia e por profissional
+ *
+ * Cada dia guarda, para a agenda de cada profissional, arrays ordenados com o início e o fim
+ * (em minutos desde a época) dos agendamentos que a ocupam naquele dia. Assim a verificação de
+ * conflito é uma busca binária em memória, restrita aos agendamentos de um único profissional,
+ * em vez de uma consulta que varre a tabela. Agendamentos sem profissional formam uma agenda
+ * à parte (SEM_PROFISSIONAL), a do salão.
+ *
+ * Os dias são carregados do banco sob demanda, na primeira vez em que são consultados,
+ * e depois mantidos atualizados pelo AgendamentoService a cada criação, edição,
+ * mudança de status e exclusão. Agendamentos CANCELADO e NAO_COMPARECEU não ocupam a agenda.
+ */
+@Component
+public class IndiceAgenda {
+
+    private static final int MINUTOS_POR_DIA = 24 * 60;
+    private static final int TENTATIVAS_CARREGAMENTO = 3;
+
+    // Chave da agenda dos agendamentos sem profissional (IDs gerados por sequência nunca são 0)
+    public static final long SEM_PROFISSIONAL = 0L;
+
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+
+    private final Map<LocalDate, AgendasDoDia> dias = new ConcurrentHashMap<>();
+
+    private final Map<Long, Intervalo> intervalosPorId = new ConcurrentHashMap<>();
+
+    // Incrementada a cada alteração; permite descartar uma carga que concorreu com uma escrita
+    private final AtomicLong geracao = new AtomicLong();
+
+    // Serializa as escritas no índice. É uma ReentrantLock, e não um monitor, porque a carga de
+    // último recurso consulta o banco com a trava: em threads virtuais um monitor prenderia a
+    // thread portadora durante toda a consulta
+    private final ReentrantLock trava = new ReentrantLock();
+
+    /**
+     * Verifica se um intervalo conflita com algum agendamento ativo do mesmo profissional
+     * @param profissionalId ID do profissional (null para a agenda do salão)
+     * @param inicio início do intervalo
+     * @param fim fim do intervalo
+     * @param idIgnorado ID do agendamento a desconsiderar (edição), ou null
+     * @return true se há conflito, false caso contrário
+     */
+    public boolean existeConflito(Long profissionalId, LocalDateTime inicio, LocalDateTime fim, Long idIgnorado) {
+        long ignorado = idIgnorado != null ? idIgnorado : Long.MIN_VALUE;
+        return existeConflito(profissionalId, inicio, fim, id -> id == ignorado);
+    }
+
+    /**
+     * Verifica se um intervalo conflita com algum agendamento ativo do mesmo profissional fora de um conjunto
+     * @param profissionalId ID do profissional (null para a agenda do salão)
+     * @param inicio início do intervalo
+     * @param fim fim do intervalo
+     * @param idsIgnorados IDs dos agendamentos a desconsiderar (ex.: os de uma série sendo remarcada)
+     * @return true se há conflito, false caso contrário
+     */
+    public boolean existeConflito(Long profissionalId, LocalDateTime inicio, LocalDateTime fim, Collection<Long> idsIgnorados) {
+        return existeConflito(profissionalId, inicio, fim, idsIgnorados::contains);
+    }
+
+    private boolean existeConflito(Long profissionalId, LocalDateTime inicio, LocalDateTime fim, LongPredicate ignorado) {
+        long inicioMinuto = paraMinuto(inicio);
+        long fimMinuto = paraMinuto(fim);
+
+        for (LocalDate dia = inicio.toLocalDate(); !dia.isAfter(fim.toLocalDate()); dia = dia.plusDays(1)) {
+            if (obterDia(profissionalId, dia).conflita(inicioMinuto, fimMinuto, ignorado)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Retorna a ocupação da agenda de um profissional em um dia, carregando o dia do banco se necessário
+     * @param profissionalId ID do profissional (null para a agenda do salão)
+     * @param dia dia desejado
+     * @return ocupação do profissional no dia
+     */
+    public DiaAgenda obterDia(Long profissionalId, LocalDate dia) {
+        AgendasDoDia carregado = dias.get(dia);
+        if (carregado == null) {
+            carregarPeriodo(dia, dia);
+            carregado = dias.getOrDefault(dia, AgendasDoDia.VAZIO);
+        }
+        return carregado.obter(agendaDe(profissionalId));
+    }
+
+    /**
+     * Garante que todos os dias de um período estejam carregados (de todos os profissionais), usando uma única consulta
+     * @param de primeiro dia do período
+     * @param ate último dia do período (inclusivo)
+     */
+    public void carregarPeriodo(LocalDate de, LocalDate ate) {
+        LocalDate primeiroFaltante = de;
+        while (!primeiroFaltante.isAfter(ate) && dias.containsKey(primeiroFaltante)) {
+            primeiroFaltante = primeiroFaltante.plusDays(1);
+        }
+        if (primeiroFaltante.isAfter(ate)) {
+            return;
+        }
+
+        for (int tentativa = 1; tentativa <= TENTATIVAS_CARREGAMENTO; tentativa++) {
+            long geracaoInicial = geracao.get();
+            List<IntervaloAgendamento> linhas = buscarIntervalos(primeiroFaltante, ate);
+            trava.lock();
+            try {
+                if (geracao.get() == geracaoInicial) {
+                    instalar(primeiroFaltante, ate, linhas);
+                    return;
+                }
+            } finally {
+                trava.unlock();
+            }
+        }
+
+        // Muitas escritas concorrentes: carrega segurando a trava para garantir uma visão consistente
+        trava.lock();
+        try {
+            instalar(primeiroFaltante, ate, buscarIntervalos(primeiroFaltante, ate));
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Registra (ou atualiza) um agendamento no índice
+     *
+     * Agendamentos com status inativo são apenas removidos.
+     * @param agendamento agendamento já persistido
+     */
+    public void registrar(Agendamento agendamento) {
+        trava.lock();
+        try {
+            registrarComTrava(agendamento);
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    private void registrarComTrava(Agendamento agendamento) {
+        geracao.incrementAndGet();
+        removerDosDias(agendamento.getId());
+
+        if (!ocupaAgenda(agendamento.getStatus())) {
+            return;
+        }
+
+        LocalDateTime fim = agendamento.getDataHoraFim() != null ? agendamento.getDataHoraFim() : agendamento.getDataHora();
+        Long profissionalId = agendamento.getProfissional() != null ? agendamento.getProfissional().getId() : null;
+        Intervalo intervalo = new Intervalo(agendamento.getId(), agendaDe(profissionalId),
+                paraMinuto(agendamento.getDataHora()), paraMinuto(fim));
+        boolean indexado = false;
+        for (LocalDate dia = intervalo.primeiroDia(); !dia.isAfter(intervalo.ultimoDia()); dia = dia.plusDays(1)) {
+            AgendasDoDia atual = dias.get(dia);
+            // Dias ainda não carregados serão lidos do banco quando consultados
+            if (atual != null) {
+                dias.put(dia, atual.com(intervalo));
+                indexado = true;
+            }
+        }
+        if (indexado) {
+            intervalosPorId.put(intervalo.id(), intervalo);
+        }
+    }
+
+    /**
+     * Remove um agendamento do índice
+     * @param id ID do agendamento
+     */
+    public void remover(Long id) {
+        trava.lock();
+        try {
+            geracao.incrementAndGet();
+            removerDosDias(id);
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Descarta todo o conteúdo do índice; os dias serão recarregados sob demanda
+     */
+    public void limpar() {
+        trava.lock();
+        try {
+            geracao.incrementAndGet();
+            dias.clear();
+            intervalosPorId.clear();
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Indica se um status ocupa horário na agenda
+     * @param status status do agendamento
+     * @return true se o agendamento bloqueia o horário
+     */
+    public static boolean ocupaAgenda(Agendamento.StatusAgendamento status) {
+        return status != Agendamento.StatusAgendamento.CANCELADO
+                && status != Agendamento.StatusAgendamento.NAO_COMPARECEU;
+    }
+
+    /**
+     * Chave da agenda de um profissional no índice
+     * @param profissionalId ID do profissional, ou null
+     * @return o próprio ID, ou SEM_PROFISSIONAL
+     */
+    public static long agendaDe(Long profissionalId) {
+        return profissionalId != null ? profissionalId : SEM_PROFISSIONAL;
+    }
+
+    /**
+     * Converte uma data/hora para minutos desde a época
+     * @param dataHora data e hora
+     * @return minutos desde 1970-01-01T00:00
+     */
+    public static long paraMinuto(LocalDateTime dataHora) {
+        return Math.floorDiv(dataHora.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private List<IntervaloAgendamento> buscarIntervalos(LocalDate de, LocalDate ate) {
+        return agendamentoRepository.findIntervalosAtivos(de.atStartOfDay(), ate.plusDays(1).atStartOfDay());
+    }
+
+    private void removerDosDias(Long id) {
+        Intervalo anterior = intervalosPorId.remove(id);
+        if (anterior == null) {
+            return;
+        }
+        for (LocalDate dia = anterior.primeiroDia(); !dia.isAfter(anterior.ultimoDia()); dia = dia.plusDays(1)) {
+            dias.computeIfPresent(dia, (d, atual) -> atual.sem(anterior));
+        }
+    }
+
+    /**
+     * Instala no índice os dias ainda ausentes do período. Quem chama deve estar segurando a trava.
+     */
+    private void instalar(LocalDate de, LocalDate ate, List<IntervaloAgendamento> linhas) {
+        Map<LocalDate, List<Intervalo>> porDia = new HashMap<>();
+        for (IntervaloAgendamento linha : linhas) {
+            LocalDateTime fim = linha.getDataHoraFim() != null ? linha.getDataHoraFim() : linha.getDataHora();
+            Intervalo intervalo = new Intervalo(linha.getId(), agendaDe(linha.getProfissionalId()),
+                    paraMinuto(linha.getDataHora()), paraMinuto(fim));
+            for (LocalDate dia = intervalo.primeiroDia(); !dia.isAfter(intervalo.ultimoDia()); dia = dia.plusDays(1)) {
+                if (!dia.isBefore(de) && !dia.isAfter(ate)) {
+                    porDia.computeIfAbsent(dia, d -> new ArrayList<>()).add(intervalo);
+                }
+            }
+        }
+
+        for (LocalDate dia = de; !dia.isAfter(ate); dia = dia.plusDays(1)) {
+            if (dias.containsKey(dia)) {
+                continue;
+            }
+            List<Intervalo> intervalos = porDia.getOrDefault(dia, List.of());
+            dias.put(dia, AgendasDoDia.de(intervalos));
+            for (Intervalo intervalo : intervalos) {
+                intervalosPorId.put(intervalo.id(), intervalo);
+            }
+        }
+
+        descartarDiasPassados();
+    }
+
+    /**
+     * Agendamentos no passado não são mais validados; libera a memória desses dias
+     */
+    private void descartarDiasPassados() {
+        LocalDate ontem = LocalDate.now().minusDays(1);
+        if (dias.keySet().removeIf(dia -> dia.isBefore(ontem))) {
+            intervalosPorId.values().removeIf(intervalo -> intervalo.ultimoDia().isBefore(ontem));
+        }
+    }
+
+    /**
+     * Intervalo fechado [inicio, fim] em minutos desde a época, na agenda de um profissional
+     */
+    record Intervalo(long id, long agenda, long inicio, long fim) {
+
+        LocalDate primeiroDia() {
+            return LocalDate.ofEpochDay(Math.floorDiv(inicio, MINUTOS_POR_DIA));
+        }
+
+        LocalDate ultimoDia() {
+            return LocalDate.ofEpochDay(Math.floorDiv(fim, MINUTOS_POR_DIA));
+        }
+    }
+
+    /**
+     * Agendas de todos os profissionais em um dia (imutável)
+     *
+     * Cada escrita copia apenas o mapa de agendas (uma entrada por profissional com agendamentos
+     * no dia) e os arrays da agenda alterada; as agendas dos demais profissionais são compartilhadas.
+     */
+    static final class AgendasDoDia {
+
+        static final AgendasDoDia VAZIO = new AgendasDoDia(Map.of());
+
+        private final Map<Long, DiaAgenda> porAgenda;
+
+        private AgendasDoDia(Map<Long, DiaAgenda> porAgenda) {
+            this.porAgenda = porAgenda;
+        }
+
+        static AgendasDoDia de(List<Intervalo> intervalos) {
+            Map<Long, List<Intervalo>> porAgenda = new HashMap<>();
+            for (Intervalo intervalo : intervalos) {
+                porAgenda.computeIfAbsent(intervalo.agenda(), agenda -> new ArrayList<>()).add(intervalo);
+            }
+            Map<Long, DiaAgenda> agendas = new HashMap<>();
+            porAgenda.forEach((agenda, lista) -> agendas.put(agenda, DiaAgenda.de(lista)));
+            return new AgendasDoDia(agendas);
+        }
+
+        DiaAgenda obter(long agenda) {
+            return porAgenda.getOrDefault(agenda, DiaAgenda.VAZIO);
+        }
+
+        AgendasDoDia com(Intervalo intervalo) {
+            Map<Long, DiaAgenda> agendas = new HashMap<>(porAgenda);
+            agendas.put(intervalo.agenda(), obter(intervalo.agenda()).com(intervalo));
+            return new AgendasDoDia(agendas);
+        }
+
+        AgendasDoDia sem(Intervalo intervalo) {
+            DiaAgenda atual = porAgenda.get(intervalo.agenda());
+            if (atual == null) {
+                return this;
+            }
+            Map<Long, DiaAgenda> agendas = new HashMap<>(porAgenda);
+            agendas.put(intervalo.agenda(), atual.sem(intervalo.id()));
+            return new AgendasDoDia(agendas);
+        }
+    }
+
+    /**
+     * Ocupação imutável da agenda de um profissional em um dia
+     *
+     * Os intervalos ficam ordenados pelo início; maiorFim[i] guarda o maior fim entre
+     * os intervalos 0..i, o que permite interromper a busca assim que nenhum intervalo
+     * anterior pode alcançar o início consultado.
+     */
+    public static final class DiaAgenda {
+
+        static final DiaAgenda VAZIO = new DiaAgenda(new long[0], new long[0], new long[0]);
+
+        private final long[] ids;
+        private final long[] inicios;
+        private final long[] fins;
+        private final long[] maiorFim;
+
+        private DiaAgenda(long[] ids, long[] inicios, long[] fins) {
+            this.ids = ids;
+            this.inicios = inicios;
+            this.fins = fins;
+            this.maiorFim = new long[fins.length];
+            long maior = Long.MIN_VALUE;
+            for (int i = 0; i < fins.length; i++) {
+                maior = Math.max(maior, fins[i]);
+                maiorFim[i] = maior;
+            }
+        }
+
+        static DiaAgenda de(List<Intervalo> intervalos) {
+            Intervalo[] ordenados = intervalos.toArray(new Intervalo[0]);
+            Arrays.sort(ordenados, (a, b) -> Long.compare(a.inicio(), b.inicio()));
+            long[] ids = new long[ordenados.length];
+            long[] inicios = new long[ordenados.length];
+            long[] fins = new long[ordenados.length];
+            for (int i = 0; i < ordenados.length; i++) {
+                ids[i] = ordenados[i].id();
+                inicios[i] = ordenados[i].inicio();
+                fins[i] = ordenados[i].fim();
+            }
+            return new DiaAgenda(ids, inicios, fins);
+        }
+
+        /**
+         * Verifica conflito com o intervalo fechado [inicio, fim], com a mesma semântica
+         * da consulta existsConflitoHorario (horários que se tocam também conflitam)
+         */
+        boolean conflita(long inicio, long fim, LongPredicate ignorado) {
+            for (int i = ultimoQueIniciaAte(fim); i >= 0 && maiorFim[i] >= inicio; i--) {
+                if (fins[i] >= inicio && !ignorado.test(ids[i])) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        DiaAgenda com(Intervalo intervalo) {
+            int posicao = ultimoQueIniciaAte(intervalo.inicio()) + 1;
+            return new DiaAgenda(
+                    inserir(ids, posicao, intervalo.id()),
+                    inserir(inicios, posicao, intervalo.inicio()),
+                    inserir(fins, posicao, intervalo.fim()));
+        }
+
+        DiaAgenda sem(long id) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    return new DiaAgenda(excluir(ids, i), excluir(inicios, i), excluir(fins, i));
+                }
+            }
+            return this;
+        }
+
+        /**
+         * @return quantidade de agendamentos que ocupam o dia
+         */
+        public int tamanho() {
+            return ids.length;
+        }
+
+        public long inicio(int i) {
+            return inicios[i];
+        }
+
+        public long fim(int i) {
+            return fins[i];
+        }
+
+        /**
+         * Busca binária pelo último intervalo cujo início é menor ou igual ao minuto informado
+         */
+        private int ultimoQueIniciaAte(long minuto) {
+            int baixo = 0;
+            int alto = inicios.length - 1;
+            int resultado = -1;
+            while (baixo <= alto) {
+                int meio = (baixo + alto) >>> 1;
+                if (inicios[meio] <= minuto) {
+                    resultado = meio;
+                    baixo = meio + 1;
+                } else {
+                    alto = meio - 1;
+                }
+            }
+            return resultado;
+        }
+
+        private static long[] inserir(long[] origem, int posicao, long valor) {
+            long[] destino = new long[origem.length + 1];
+            System.arraycopy(origem, 0, destino, 0, posicao);
+            destino[posicao] = valor;
+            System.arraycopy(origem, posicao, destino, posicao + 1, origem.length - posicao);
+            return destino;
+        }
+
+        private static long[] excluir(long[] origem, int posicao) {
+            long[] destino = new long[origem.length - 1];
+            System.arraycopy(origem, 0, destino, 0, posicao);
+            System.arraycopy(origem, posicao + 1, destino, posicao, origem.length - posicao - 1);
+            return destino;
+        }
+    }
+}
@@ -0,0 +1,387 @@
+package com.salon.agendamento.service;
+
+import com.salon.agendamento.dto.SugestaoCliente;
+import com.salon.agendamento.model.Cliente;
+import com.salon.agendamento.repository.ClienteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice de busca de clientes em memória, por trigramas de nome, email e telefone
+ *
+ * Os textos são normalizados sem acentos e em minúsculas ("João" vira "joao"), e cada palavra
+ * é quebrada em trigramas. Para cada trigrama o índice guarda a lista ordenada dos IDs dos
+ * clientes que o contêm; uma busca cruza as listas dos trigramas do termo (começando pela
+ * menor), confirma o trecho no texto do candidato e ordena pela qualidade da correspondência.
+ * Assim a busca não faz LIKE '%termo%' no banco, que varre a tabela inteira.
+ *
+ * É carregado do banco na primeira busca e mantido atualizado pelo ClienteService a cada
+ * cadastro, edição e exclusão.
+ */
+@Component
+public class IndiceClientes {
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Ordem do resultado: qualidade da correspondência, depois nome e ID
+    private static final Comparator<Candidato> ORDEM = Comparator
+            .comparingInt(Candidato::relevancia)
+            .thenComparing(candidato -> candidato.documento().nome)
+            .thenComparingLong(candidato -> candidato.documento().sugestao.getId());
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    private final ReadWriteLock trava = new ReentrantReadWriteLock();
+
+    private final Map<Long, Documento> documentos = new HashMap<>();
+
+    private final Map<Long, ListaIds> porTrigrama = new HashMap<>();
+
+    private boolean carregado;
+
+    /**
+     * Busca os clientes cujo nome, email ou telefone contêm todas as palavras do termo
+     * @param termo texto digitado (acentos e maiúsculas são ignorados)
+     * @param limite quantidade máxima de resultados
+     * @return clientes encontrados, os mais relevantes primeiro
+     */
+    public List<SugestaoCliente> buscar(String termo, int limite) {
+        String[] palavras = palavras(termo);
+        if (palavras.length == 0 || limite <= 0) {
+            return List.of();
+        }
+        garantirCarregado();
+
+        trava.readLock().lock();
+        try {
+            PriorityQueue<Candidato> melhores = new PriorityQueue<>(limite + 1, ORDEM.reversed());
+            String termoNormalizado = String.join(" ", palavras);
+            for (Documento documento : candidatos(palavras)) {
+                int relevancia = documento.relevancia(termoNormalizado, palavras);
+                if (relevancia < 0) {
+                    continue;
+                }
+                melhores.add(new Candidato(documento, relevancia));
+                if (melhores.size() > limite) {
+                    melhores.poll();
+                }
+            }
+            List<SugestaoCliente> resultado = new ArrayList<>(melhores.size());
+            while (!melhores.isEmpty()) {
+                resultado.add(melhores.poll().documento().sugestao);
+            }
+            Collections.reverse(resultado);
+            return resultado;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Inclui ou atualiza um cliente no índice (após a gravação)
+     * @param cliente cliente já persistido
+     */
+    public void registrar(Cliente cliente) {
+        registrarTodos(List.of(cliente));
+    }
+
+    /**
+     * Inclui ou atualiza vários clientes de uma vez (importação), com uma única aquisição da trava
+     * @param clientes clientes já persistidos
+     */
+    public void registrarTodos(Collection<Cliente> clientes) {
+        trava.writeLock().lock();
+        try {
+            if (carregado) {
+                for (Cliente cliente : clientes) {
+                    remover(cliente.getId());
+                    incluir(new SugestaoCliente(cliente.getId(), cliente.getNome(), cliente.getEmail(), cliente.getTelefone()));
+                }
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove um cliente do índice (após a exclusão)
+     * @param id ID do cliente
+     */
+    public void removerCliente(Long id) {
+        trava.writeLock().lock();
+        try {
+            if (carregado) {
+                remover(id);
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Descarta o índice; a próxima busca recarrega do banco
+     */
+    public void invalidar() {
+        trava.writeLock().lock();
+        try {
+            documentos.clear();
+            porTrigrama.clear();
+            carregado = false;
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Normaliza um texto para busca: sem acentos, em minúsculas e com as palavras separadas por espaço
+     * @param texto texto original
+     * @return texto normalizado (vazio para null)
+     */
+    static String normalizar(String texto) {
+        return String.join(" ", palavras(texto));
+    }
+
+    private static String[] palavras(String texto) {
+        if (texto == null) {
+            return new String[0];
+        }
+        String semAcentos = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        String limpo = SEPARADORES.matcher(semAcentos.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+        return limpo.isEmpty() ? new String[0] : limpo.split(" ");
+    }
+
+    /**
+     * Carrega todos os clientes do banco, uma única vez
+     *
+     * A carga acontece sob a trava de escrita; uma gravação concorrente espera e é aplicada
+     * por cima (registrar e removerCliente são idempotentes), então nada se perde.
+     */
+    private void garantirCarregado() {
+        trava.readLock().lock();
+        try {
+            if (carregado) {
+                return;
+            }
+        } finally {
+            trava.readLock().unlock();
+        }
+        trava.writeLock().lock();
+        try {
+            if (!carregado) {
+                for (SugestaoCliente cliente : clienteRepository.findDadosBusca()) {
+                    incluir(cliente);
+                }
+                carregado = true;
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Candidatos que contêm todos os trigramas do termo; palavras com menos de três letras
+     * não formam trigramas próprios e caem na verificação direta do texto
+     */
+    private List<Documento> candidatos(String[] palavras) {
+        Set<Long> trigramas = new LinkedHashSet<>();
+        for (String palavra : palavras) {
+            if (palavra.length() >= 3) {
+                adicionarTrigramas(palavra, trigramas);
+            } else {
+                // Uma ou duas letras: exige o início de uma palavra (" jo")
+                String comInicio = " " + palavra;
+                if (comInicio.length() == 3) {
+                    trigramas.add(trigrama(comInicio, 0));
+                }
+            }
+        }
+        if (trigramas.isEmpty()) {
+            return new ArrayList<>(documentos.values());
+        }
+
+        List<ListaIds> listas = new ArrayList<>(trigramas.size());
+        for (Long trigrama : trigramas) {
+            ListaIds lista = porTrigrama.get(trigrama);
+            if (lista == null) {
+                return List.of();
+            }
+            listas.add(lista);
+        }
+        listas.sort(Comparator.comparingInt(lista -> lista.tamanho));
+
+        long[] ids = Arrays.copyOf(listas.get(0).ids, listas.get(0).tamanho);
+        int tamanho = ids.length;
+        for (int i = 1; i < listas.size() && tamanho > 0; i++) {
+            tamanho = listas.get(i).intersectar(ids, tamanho);
+        }
+        List<Documento> candidatos = new ArrayList<>(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            candidatos.add(documentos.get(ids[i]));
+        }
+        return candidatos;
+    }
+
+    private void incluir(SugestaoCliente cliente) {
+        Documento documento = new Documento(cliente);
+        documentos.put(cliente.getId(), documento);
+        for (long trigrama : documento.trigramas) {
+            porTrigrama.computeIfAbsent(trigrama, chave -> new ListaIds()).adicionar(cliente.getId());
+        }
+    }
+
+    private void remover(Long id) {
+        Documento documento = documentos.remove(id);
+        if (documento == null) {
+            return;
+        }
+        for (long trigrama : documento.trigramas) {
+            ListaIds lista = porTrigrama.get(trigrama);
+            if (lista != null && lista.remover(id) == 0) {
+                porTrigrama.remove(trigrama);
+            }
+        }
+    }
+
+    /**
+     * Trigramas das palavras de um texto normalizado, com um espaço antes e depois de cada
+     * palavra (" joao " gera " jo", "joa", "oao", "ao ")
+     */
+    private static void adicionarTrigramasDoTexto(String textoNormalizado, Set<Long> destino) {
+        for (String palavra : textoNormalizado.split(" ")) {
+            if (!palavra.isEmpty()) {
+                adicionarTrigramas(" " + palavra + " ", destino);
+            }
+        }
+    }
+
+    private static void adicionarTrigramas(String texto, Set<Long> destino) {
+        for (int i = 0; i + 3 <= texto.length(); i++) {
+            destino.add(trigrama(texto, i));
+        }
+    }
+
+    // Três caracteres UTF-16 em um long
+    private static long trigrama(String texto, int inicio) {
+        return ((long) texto.charAt(inicio) << 32) | ((long) texto.charAt(inicio + 1) << 16) | texto.charAt(inicio + 2);
+    }
+
+    private record Candidato(Documento documento, int relevancia) {
+    }
+
+    /**
+     * Cliente indexado: dados exibidos e textos normalizados usados na busca
+     */
+    private static final class Documento {
+
+        private final SugestaoCliente sugestao;
+        private final String nome;
+        // " nome | email | telefone ", com espaços nas pontas para testar início de palavra
+        private final String texto;
+        private final long[] trigramas;
+
+        private Documento(SugestaoCliente sugestao) {
+            this.sugestao = sugestao;
+            this.nome = normalizar(sugestao.getNome());
+            // O telefone também entra só com os dígitos, para "11999" achar "(11) 99999-9999"
+            String telefone = sugestao.getTelefone() == null ? "" : sugestao.getTelefone().replaceAll("\\D", "");
+            this.texto = " " + nome + " | " + normalizar(sugestao.getEmail()) + " | "
+                    + normalizar(sugestao.getTelefone()) + " " + telefone + " ";
+            Set<Long> todos = new LinkedHashSet<>();
+            adicionarTrigramasDoTexto(texto.replace('|', ' '), todos);
+            this.trigramas = todos.stream().mapToLong(Long::longValue).toArray();
+        }
+
+        /**
+         * Qualidade da correspondência (menor é melhor), ou -1 se alguma palavra não aparece:
+         * 0 - o nome começa com o termo; 1 - cada palavra inicia uma palavra do nome;
+         * 2 - cada palavra inicia uma palavra do nome, email ou telefone; 3 - trecho no meio
+         */
+        int relevancia(String termo, String[] palavras) {
+            int relevancia = nome.startsWith(termo) ? 0 : 1;
+            String nomeComEspaco = " " + nome;
+            for (String palavra : palavras) {
+                int posicao = texto.indexOf(palavra);
+                if (posicao < 0) {
+                    return -1;
+                }
+                if (relevancia < 2 && !nomeComEspaco.contains(" " + palavra)) {
+                    relevancia = 2;
+                }
+                if (relevancia < 3 && !texto.contains(" " + palavra)) {
+                    relevancia = 3;
+                }
+            }
+            return relevancia;
+        }
+    }
+
+    /**
+     * Lista ordenada e crescente de IDs de clientes (sem boxing)
+     */
+    private static final class ListaIds {
+
+        private long[] ids = new long[4];
+        private int tamanho;
+
+        void adicionar(long id) {
+            int posicao = Arrays.binarySearch(ids, 0, tamanho, id);
+            if (posicao >= 0) {
+                return;
+            }
+            posicao = -posicao - 1;
+            if (tamanho == ids.length) {
+                ids = Arrays.copyOf(ids, tamanho * 2);
+            }
+            System.arraycopy(ids, posicao, ids, posicao + 1, tamanho - posicao);
+            ids[posicao] = id;
+            tamanho++;
+        }
+
+        int remover(long id) {
+            int posicao = Arrays.binarySearch(ids, 0, tamanho, id);
+            if (posicao >= 0) {
+                System.arraycopy(ids, posicao + 1, ids, posicao, tamanho - posicao - 1);
+                tamanho--;
+            }
+            return tamanho;
+        }
+
+        /**
+         * Mantém em alvo[0..tamanhoAlvo) apenas os IDs também presentes nesta lista
+         * @return novo tamanho de alvo
+         */
+        int intersectar(long[] alvo, int tamanhoAlvo) {
+            int mantidos = 0;
+            int j = 0;
+            for (int i = 0; i < tamanhoAlvo && j < tamanho; i++) {
+                while (j < tamanho && ids[j] < alvo[i]) {
+                    j++;
+                }
+                if (j < tamanho && ids[j] == alvo[i]) {
+                    alvo[mantidos++] = alvo[i];
+                }
+            }
+            return mantidos;
+        }
+    }
+}
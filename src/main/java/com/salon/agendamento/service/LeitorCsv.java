@@ -0,0 +1,120 @@
+package com.salon.agendamento.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitor de CSV registro a registro, com memória constante
+ *
+ * Segue a RFC 4180: campos entre aspas podem conter o separador, quebras de linha
+ * e aspas duplicadas (""). Aceita finais de linha CRLF ou LF e ignora o BOM do UTF-8.
+ */
+final class LeitorCsv implements Closeable {
+
+    private final Reader entrada;
+    private final char separador;
+    private int linha;
+    private int linhaDoRegistro;
+    private boolean inicio = true;
+
+    /**
+     * @param entrada texto do arquivo (já bufferizado)
+     * @param separador separador de campos (',' ou ';')
+     */
+    LeitorCsv(Reader entrada, char separador) {
+        this.entrada = entrada;
+        this.separador = separador;
+    }
+
+    /**
+     * Lê o próximo registro
+     * @return campos do registro, ou null no fim do arquivo
+     */
+    List<String> proximo() throws IOException {
+        int c = ler();
+        if (c == -1) {
+            return null;
+        }
+        linhaDoRegistro = ++linha;
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreAspas = false;
+        while (true) {
+            if (entreAspas) {
+                if (c == -1) {
+                    throw new IOException("Aspas sem fechamento no registro da linha " + linhaDoRegistro);
+                }
+                if (c == '"') {
+                    int seguinte = ler();
+                    if (seguinte == '"') {
+                        campo.append('"');
+                    } else {
+                        entreAspas = false;
+                        c = seguinte;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        linha++;
+                    }
+                    campo.append((char) c);
+                }
+            } else if (c == -1 || c == '\n') {
+                campos.add(campo.toString());
+                return campos;
+            } else if (c == '\r') {
+                // O \n seguinte encerra o registro
+            } else if (c == separador) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '"' && campo.length() == 0) {
+                entreAspas = true;
+            } else {
+                campo.append((char) c);
+            }
+            c = ler();
+        }
+    }
+
+    /**
+     * @return número da linha do arquivo em que começa o último registro lido
+     */
+    int getLinha() {
+        return linhaDoRegistro;
+    }
+
+    /**
+     * Escreve um campo no formato CSV, entre aspas quando necessário
+     * @param valor valor do campo (null vira vazio)
+     * @param separador separador de campos
+     * @return campo pronto para o arquivo
+     */
+    static String escapar(String valor, char separador) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.indexOf(separador) < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+
+    private int ler() throws IOException {
+        int c = entrada.read();
+        if (inicio) {
+            inicio = false;
+            if (c == '\uFEFF') {
+                c = entrada.read();
+            }
+        }
+        return c;
+    }
+
+    @Override
+    public void close() throws IOException {
+        entrada.close();
+    }
+}
@@ -0,0 +1,202 @@
+package com.salon.agendamento.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Leitor que acompanha o diário de agendamentos, registro a registro, a partir de uma sequência
+ *
+ * Lê os arquivos de segmento por um mapeamento próprio, só de leitura: não trava o escritor e
+ * pode rodar em outro processo (basta o diretório do diário). {@link #proximo()} devolve null
+ * quando alcança o fim do que foi escrito; chamado de novo mais tarde, continua do mesmo ponto,
+ * inclusive depois de uma troca de segmento. Um registro só é entregue com o CRC conferido,
+ * então um registro ainda sendo escrito é visto como ausente até ficar completo.
+ *
+ * Não é thread-safe: cada consumidor usa o seu leitor.
+ */
+public class LeitorDiario implements AutoCloseable {
+
+    // Intervalo entre consultas ao diretório quando o escritor está em outro processo
+    private static final long INTERVALO_CONSULTA_MILLIS = 50;
+
+    private final Path diretorio;
+
+    // Escritor no mesmo processo, para esperar por registros novos sem consultar o disco (pode ser null)
+    private final DiarioAgendamentos diario;
+
+    private FileChannel canal;
+
+    private MappedByteBuffer segmento;
+
+    private int posicao;
+
+    private long proximaSequencia;
+
+    /**
+     * Leitor independente do escritor (por exemplo, em outro processo)
+     * @param diretorio diretório dos segmentos
+     * @param aPartirDe primeira sequência desejada
+     */
+    public LeitorDiario(Path diretorio, long aPartirDe) {
+        this(diretorio, aPartirDe, null);
+    }
+
+    LeitorDiario(Path diretorio, long aPartirDe, DiarioAgendamentos diario) {
+        this.diretorio = diretorio;
+        this.diario = diario;
+        this.proximaSequencia = Math.max(aPartirDe, 1);
+    }
+
+    /**
+     * Próximo registro, se já foi escrito
+     * @return o registro, ou null se o leitor alcançou o fim do diário
+     */
+    public DiarioAgendamentos.Registro proximo() {
+        if (diario != null) {
+            // Leitura volátil: os bytes escritos até essa sequência ficam visíveis para esta thread
+            diario.ultimaSequencia();
+        }
+        try {
+            while (true) {
+                if (segmento == null && !abrirSegmento()) {
+                    return null;
+                }
+                if (posicao + FormatoDiario.TAMANHO_MOLDURA > segmento.capacity()) {
+                    return null;
+                }
+                int tamanho = segmento.getInt(posicao);
+                if (tamanho == FormatoDiario.FIM_SEGMENTO) {
+                    fecharSegmento();
+                    continue;
+                }
+                if (tamanho <= 0 || posicao + FormatoDiario.TAMANHO_MOLDURA + tamanho > segmento.capacity()) {
+                    return null;
+                }
+                int inicio = posicao + FormatoDiario.TAMANHO_MOLDURA;
+                if (segmento.getInt(posicao + 4) != FormatoDiario.crc(segmento, inicio, tamanho)) {
+                    return null;
+                }
+                DiarioAgendamentos.Registro registro = FormatoDiario.decodificar(
+                        segmento.duplicate().limit(inicio + tamanho).position(inicio));
+                posicao = inicio + tamanho;
+                if (registro.sequencia() >= proximaSequencia) {
+                    proximaSequencia = registro.sequencia() + 1;
+                    return registro;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler o diário de agendamentos em " + diretorio, e);
+        }
+    }
+
+    /**
+     * Próximo registro, esperando até que seja escrito
+     * @param esperaMillis tempo máximo de espera
+     * @return o registro, ou null se nada foi escrito durante a espera
+     * @throws InterruptedException se a thread for interrompida durante a espera
+     */
+    public DiarioAgendamentos.Registro proximo(long esperaMillis) throws InterruptedException {
+        long limite = System.currentTimeMillis() + esperaMillis;
+        DiarioAgendamentos.Registro registro = proximo();
+        while (registro == null) {
+            long restante = limite - System.currentTimeMillis();
+            if (restante <= 0) {
+                return null;
+            }
+            if (diario != null) {
+                diario.aguardar(proximaSequencia - 1, restante);
+            } else {
+                Thread.sleep(Math.min(restante, INTERVALO_CONSULTA_MILLIS));
+            }
+            registro = proximo();
+        }
+        return registro;
+    }
+
+    /**
+     * Sequência do próximo registro a ser entregue
+     */
+    public long getProximaSequencia() {
+        return proximaSequencia;
+    }
+
+    @Override
+    public void close() {
+        try {
+            fecharSegmento();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Arquivos de segmento de um diretório, em ordem de sequência
+     */
+    static List<Path> segmentos(Path diretorio) throws IOException {
+        if (!Files.isDirectory(diretorio)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return new ArrayList<>(arquivos
+                    .filter(arquivo -> FormatoDiario.primeiraSequencia(arquivo.getFileName().toString()) > 0)
+                    .sorted(Comparator.comparing(arquivo -> arquivo.getFileName().toString()))
+                    .toList());
+        }
+    }
+
+    /**
+     * Abre o segmento que contém a próxima sequência (o último que começa nela ou antes)
+     * @return false se ainda não há segmento com ela
+     */
+    private boolean abrirSegmento() throws IOException {
+        Path escolhido = null;
+        long primeiraSequencia = 0;
+        for (Path arquivo : segmentos(diretorio)) {
+            long primeira = FormatoDiario.primeiraSequencia(arquivo.getFileName().toString());
+            if (primeira > proximaSequencia) {
+                break;
+            }
+            escolhido = arquivo;
+            primeiraSequencia = primeira;
+        }
+        if (escolhido == null) {
+            return false;
+        }
+        FileChannel novoCanal;
+        try {
+            novoCanal = FileChannel.open(escolhido, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        MappedByteBuffer novo = novoCanal.size() >= FormatoDiario.TAMANHO_CABECALHO
+                ? novoCanal.map(FileChannel.MapMode.READ_ONLY, 0, novoCanal.size()) : null;
+        if (novo == null || novo.getInt(0) == 0) {
+            // Segmento recém-criado, ainda sem cabeçalho
+            novoCanal.close();
+            return false;
+        }
+        FormatoDiario.validarCabecalho(novo, primeiraSequencia);
+        canal = novoCanal;
+        segmento = novo;
+        posicao = FormatoDiario.TAMANHO_CABECALHO;
+        return true;
+    }
+
+    private void fecharSegmento() throws IOException {
+        if (canal != null) {
+            canal.close();
+        }
+        canal = null;
+        segmento = null;
+    }
+}
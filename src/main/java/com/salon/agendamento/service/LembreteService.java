@@ -0,0 +1,281 @@
+package com.salon.agendamento.service;
+
+import com.salon.agendamento.model.Agendamento;
+import com.salon.agendamento.model.Lembrete;
+import com.salon.agendamento.repository.AgendamentoRepository;
+import com.salon.agendamento.repository.IntervaloAgendamento;
+import com.salon.agendamento.repository.LembreteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Lembretes aos clientes 24 horas e 2 horas antes de cada agendamento
+ *
+ * Os lembretes pendentes ficam em memória, numa roda de temporização montada na inicialização
+ * a partir dos agendamentos futuros e mantida pelo AgendamentoService a cada criação, remarcação,
+ * mudança de status e exclusão; nenhuma consulta periódica à tabela de agendamentos é feita.
+ * Quando um lembrete vence, o agendamento é conferido no banco (ainda ativo, mesmo horário) e
+ * o lembrete vai para a fila de saída (tabela lembretes), que é esvaziada em lotes pelo canal
+ * de envio (EnvioLembretes). Falhas de envio ficam na fila e são tentadas de novo a cada
+ * lembretes.envio.intervalo.
+ *
+ * Depois de reiniciar, a roda é montada de novo; a chave única da fila impede lembretes em
+ * dobro. Um lembrete vencido há pouco (ATRASO_TOLERADO: aplicação parada, agendamento feito em
+ * cima da hora) ainda é enviado; mais atrasado que isso, é descartado.
+ */
+@Service
+public class LembreteService {
+
+    private static final Logger log = LoggerFactory.getLogger(LembreteService.class);
+
+    private static final long TICK_MILLIS = 1000;
+
+    // 4096 posições de 1 segundo: uma volta a cada ~68 minutos
+    private static final int POSICOES_RODA = 4096;
+
+    private static final Duration ATRASO_TOLERADO = Duration.ofMinutes(30);
+
+    // Vencidos que não puderam ir para a fila (banco indisponível) voltam para a roda
+    private static final Duration NOVA_TENTATIVA = Duration.ofMinutes(1);
+
+    private static final int TAMANHO_ERRO = 500;
+
+    private static final DateTimeFormatter FORMATO_DATA_HORA = DateTimeFormatter.ofPattern("dd/MM/yyyy 'às' HH:mm");
+
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+
+    @Autowired
+    private LembreteRepository lembreteRepository;
+
+    @Autowired
+    private EnvioLembretes envioLembretes;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${lembretes.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${lembretes.envio.lote:100}")
+    private int tamanhoLote;
+
+    @Value("${lembretes.envio.maximo-tentativas:5}")
+    private int maximoTentativas;
+
+    private final RodaTemporizacao<Chave, LocalDateTime> roda =
+            new RodaTemporizacao<>(TICK_MILLIS, POSICOES_RODA, System.currentTimeMillis());
+
+    // Um esvaziamento da fila por vez (o disparo da roda e o agendamento periódico podem coincidir)
+    private final ReentrantLock envio = new ReentrantLock();
+
+    /**
+     * Monta a roda com os lembretes de todos os agendamentos futuros ativos
+     *
+     * Roda na inicialização e depois de cargas feitas direto no banco.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recarregar() {
+        if (!habilitado) {
+            return;
+        }
+        long inicio = System.currentTimeMillis();
+        roda.limpar();
+        LocalDateTime agora = LocalDateTime.now();
+        List<IntervaloAgendamento> futuros = agendamentoRepository.findFuturosParaLembrete(agora);
+        for (IntervaloAgendamento agendamento : futuros) {
+            programar(agendamento.getId(), agendamento.getDataHora(), agora);
+        }
+        log.info("Lembretes de {} agendamentos futuros programados ({} pendentes) em {} ms",
+                futuros.size(), roda.tamanho(), System.currentTimeMillis() - inicio);
+    }
+
+    /**
+     * Atualiza os lembretes de um agendamento gravado (criado, remarcado ou com novo status)
+     *
+     * Deve ser chamado depois do commit.
+     * @param agendamento agendamento como foi gravado
+     */
+    public void agendamentoSalvo(Agendamento agendamento) {
+        if (!habilitado) {
+            return;
+        }
+        if (recebeLembrete(agendamento.getStatus())) {
+            programar(agendamento.getId(), agendamento.getDataHora(), LocalDateTime.now());
+        } else {
+            cancelar(agendamento.getId());
+        }
+    }
+
+    /**
+     * Cancela os lembretes de um agendamento excluído
+     * @param id ID do agendamento
+     */
+    public void agendamentoRemovido(Long id) {
+        if (habilitado) {
+            cancelar(id);
+        }
+    }
+
+    /**
+     * Avança a roda e põe na fila os lembretes vencidos
+     */
+    @Scheduled(fixedRate = TICK_MILLIS)
+    public void avancar() {
+        if (!habilitado) {
+            return;
+        }
+        List<RodaTemporizacao.Vencida<Chave, LocalDateTime>> vencidas = roda.avancar(System.currentTimeMillis());
+        if (vencidas.isEmpty()) {
+            return;
+        }
+        int enfileirados;
+        try {
+            enfileirados = enfileirar(vencidas);
+        } catch (RuntimeException e) {
+            log.warn("Falha ao gravar {} lembretes na fila; nova tentativa em {} s", vencidas.size(),
+                    NOVA_TENTATIVA.toSeconds(), e);
+            long novaTentativa = System.currentTimeMillis() + NOVA_TENTATIVA.toMillis();
+            for (RodaTemporizacao.Vencida<Chave, LocalDateTime> vencida : vencidas) {
+                roda.agendar(vencida.chave(), novaTentativa, vencida.valor());
+            }
+            return;
+        }
+        if (enfileirados > 0) {
+            enviarPendentes();
+        }
+    }
+
+    /**
+     * Envia os lembretes da fila, em lotes, até esvaziá-la ou o canal falhar
+     *
+     * Chamado logo depois que lembretes entram na fila e periodicamente, para as novas tentativas.
+     * @return quantidade de lembretes enviados
+     */
+    @Scheduled(fixedDelayString = "${lembretes.envio.intervalo:60000}", initialDelayString = "${lembretes.envio.intervalo:60000}")
+    public int enviarPendentes() {
+        if (!habilitado || !envio.tryLock()) {
+            return 0;
+        }
+        int enviados = 0;
+        try {
+            while (true) {
+                List<Lembrete> lote = lembreteRepository.findPendentes(maximoTentativas, Limit.of(tamanhoLote));
+                if (lote.isEmpty()) {
+                    break;
+                }
+                List<Long> ids = lote.stream().map(Lembrete::getId).toList();
+                try {
+                    envioLembretes.enviar(lote);
+                } catch (Exception e) {
+                    log.warn("Falha no envio de {} lembretes: {}", lote.size(), e.toString());
+                    String erro = e.toString().length() > TAMANHO_ERRO ? e.toString().substring(0, TAMANHO_ERRO) : e.toString();
+                    transactionTemplate.executeWithoutResult(status -> lembreteRepository.registrarFalha(ids, erro));
+                    break;
+                }
+                transactionTemplate.executeWithoutResult(status -> lembreteRepository.marcarEnviados(ids, LocalDateTime.now()));
+                enviados += lote.size();
+                if (lote.size() < tamanhoLote) {
+                    break;
+                }
+            }
+        } finally {
+            envio.unlock();
+        }
+        return enviados;
+    }
+
+    /**
+     * Grava na fila os lembretes vencidos cujo agendamento continua valendo
+     * @return quantidade de lembretes gravados
+     */
+    private int enfileirar(List<RodaTemporizacao.Vencida<Chave, LocalDateTime>> vencidas) {
+        Set<Long> ids = new HashSet<>();
+        for (RodaTemporizacao.Vencida<Chave, LocalDateTime> vencida : vencidas) {
+            ids.add(vencida.chave().agendamentoId());
+        }
+        Integer gravados = transactionTemplate.execute(status -> {
+            Map<Long, Agendamento> agendamentos = agendamentoRepository.findByIdIn(ids).stream()
+                    .collect(Collectors.toMap(Agendamento::getId, Function.identity()));
+            Set<ChaveGravada> existentes = lembreteRepository.findByAgendamentoIdIn(ids).stream()
+                    .map(lembrete -> new ChaveGravada(lembrete.getAgendamentoId(), lembrete.getTipo(),
+                            lembrete.getDataHoraAgendamento()))
+                    .collect(Collectors.toSet());
+            List<Lembrete> novos = new ArrayList<>();
+            for (RodaTemporizacao.Vencida<Chave, LocalDateTime> vencida : vencidas) {
+                Agendamento agendamento = agendamentos.get(vencida.chave().agendamentoId());
+                // A roda pode estar defasada (alteração entre a carga e o disparo): vale o banco
+                if (agendamento == null || !recebeLembrete(agendamento.getStatus())
+                        || !agendamento.getDataHora().equals(vencida.valor())) {
+                    continue;
+                }
+                Lembrete.Tipo tipo = vencida.chave().tipo();
+                if (existentes.add(new ChaveGravada(agendamento.getId(), tipo, agendamento.getDataHora()))) {
+                    novos.add(criarLembrete(agendamento, tipo));
+                }
+            }
+            lembreteRepository.saveAll(novos);
+            return novos.size();
+        });
+        return gravados == null ? 0 : gravados;
+    }
+
+    private void programar(Long agendamentoId, LocalDateTime dataHora, LocalDateTime agora) {
+        for (Lembrete.Tipo tipo : Lembrete.Tipo.values()) {
+            Chave chave = new Chave(agendamentoId, tipo);
+            LocalDateTime vencimento = dataHora.minus(tipo.getAntecedencia());
+            if (!dataHora.isAfter(agora) || vencimento.isBefore(agora.minus(ATRASO_TOLERADO))) {
+                roda.cancelar(chave);
+            } else {
+                roda.agendar(chave, vencimento.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), dataHora);
+            }
+        }
+    }
+
+    private void cancelar(Long agendamentoId) {
+        for (Lembrete.Tipo tipo : Lembrete.Tipo.values()) {
+            roda.cancelar(new Chave(agendamentoId, tipo));
+        }
+    }
+
+    private static boolean recebeLembrete(Agendamento.StatusAgendamento status) {
+        return status == Agendamento.StatusAgendamento.AGENDADO || status == Agendamento.StatusAgendamento.CONFIRMADO;
+    }
+
+    private static Lembrete criarLembrete(Agendamento agendamento, Lembrete.Tipo tipo) {
+        String mensagem = "Olá, " + agendamento.getCliente().getNome() + "! Lembrete do seu horário de "
+                + agendamento.getServico().getNome() + " em " + agendamento.getDataHora().format(FORMATO_DATA_HORA) + ".";
+        Lembrete lembrete = new Lembrete(agendamento.getId(), tipo, agendamento.getDataHora(), mensagem);
+        lembrete.setClienteNome(agendamento.getCliente().getNome());
+        lembrete.setTelefone(agendamento.getCliente().getTelefone());
+        lembrete.setEmail(agendamento.getCliente().getEmail());
+        return lembrete;
+    }
+
+    private record Chave(Long agendamentoId, Lembrete.Tipo tipo) {
+    }
+
+    private record ChaveGravada(Long agendamentoId, Lembrete.Tipo tipo, LocalDateTime dataHora) {
+    }
+}
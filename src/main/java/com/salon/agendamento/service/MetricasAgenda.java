@@ -0,0 +1,81 @@
+package com.salon.agendamento.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas da agenda: latência da verificação de conflito e agendamentos recusados por motivo
+ *
+ * - agenda.conflito.verificacao (timer com histograma, tag resultado=livre|conflito): cada
+ *   verificação de uma agenda de profissional, no índice em memória e, se for o caso, no banco.
+ * - agenda.agendamentos.rejeitados (contador, tag motivo): tentativas de agendamento recusadas
+ *   (criação, edição, lote e série), contadas uma vez por agendamento.
+ */
+@Component
+public class MetricasAgenda {
+
+    /**
+     * Motivo da recusa de um agendamento (valor da tag motivo)
+     */
+    public enum Motivo {
+        PASSADO("passado"),
+        ALEM_DO_LIMITE("alem_do_limite"),
+        FORA_DO_HORARIO("fora_do_horario"),
+        CONFLITO("conflito");
+
+        private final String tag;
+
+        Motivo(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final Timer verificacaoLivre;
+
+    private final Timer verificacaoConflito;
+
+    private final Map<Motivo, Counter> rejeitados = new EnumMap<>(Motivo.class);
+
+    public MetricasAgenda(MeterRegistry registry) {
+        verificacaoLivre = timerVerificacao(registry, "livre");
+        verificacaoConflito = timerVerificacao(registry, "conflito");
+        // Registrados já na inicialização, para que os motivos apareçam zerados no Prometheus
+        for (Motivo motivo : Motivo.values()) {
+            rejeitados.put(motivo, Counter.builder("agenda.agendamentos.rejeitados")
+                    .description("Agendamentos recusados, por motivo")
+                    .tag("motivo", motivo.tag)
+                    .register(registry));
+        }
+    }
+
+    private static Timer timerVerificacao(MeterRegistry registry, String resultado) {
+        return Timer.builder("agenda.conflito.verificacao")
+                .description("Verificação de conflito na agenda de um profissional")
+                .tag("resultado", resultado)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Registra uma verificação de conflito
+     * @param nanos duração da verificação
+     * @param conflito true se foi encontrado conflito
+     */
+    public void conflitoVerificado(long nanos, boolean conflito) {
+        (conflito ? verificacaoConflito : verificacaoLivre).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registra um agendamento recusado
+     * @param motivo motivo da recusa
+     */
+    public void rejeitado(Motivo motivo) {
+        rejeitados.get(motivo).increment();
+    }
+}
@@ -0,0 +1,187 @@
+package com.salon.agendamento.service;
+
+import com.salon.agendamento.model.Profissional;
+import com.salon.agendamento.model.Servico;
+import com.salon.agendamento.repository.AgendamentoRepository;
+import com.salon.agendamento.repository.ProfissionalRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Serviço para gerenciar operações relacionadas a Profissionais
+ * 
+ * Esta classe contém a lógica de negócio para profissionais e para
+ * a escolha de quem pode realizar cada serviço.
+ */
+@Service
+public class ProfissionalService {
+    
+    @Autowired
+    private ProfissionalRepository profissionalRepository;
+    
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+    
+    @Autowired
+    private ServicoService servicoService;
+    
+    @Autowired
+    private VersaoDados versaoDados;
+    
+    /**
+     * Salva um novo profissional
+     * @param profissional profissional a ser salvo
+     * @param servicoIds IDs dos serviços que o profissional realiza
+     * @return profissional salvo com ID gerado
+     */
+    public Profissional salvar(Profissional profissional, Collection<Long> servicoIds) {
+        validar(profissional);
+        profissional.setServicos(new HashSet<>(buscarServicos(servicoIds)));
+        Profissional salvo = profissionalRepository.save(profissional);
+        versaoDados.alterado(VersaoDados.Dominio.PROFISSIONAIS);
+        return salvo;
+    }
+    
+    /**
+     * Atualiza um profissional existente
+     * @param id ID do profissional
+     * @param profissional dados atualizados do profissional
+     * @param servicoIds IDs dos serviços que o profissional realiza
+     * @return profissional atualizado
+     */
+    public Profissional atualizar(Long id, Profissional profissional, Collection<Long> servicoIds) {
+        Profissional existente = buscarPorId(id)
+                .orElseThrow(() -> new IllegalArgumentException("Profissional não encontrado"));
+        
+        validar(profissional);
+        
+        // Atualiza os dados
+        existente.setNome(profissional.getNome());
+        existente.setTelefone(profissional.getTelefone());
+        existente.setEmail(profissional.getEmail());
+        existente.setAtivo(profissional.getAtivo());
+        existente.setServicos(new HashSet<>(buscarServicos(servicoIds)));
+        
+        Profissional salvo = profissionalRepository.save(existente);
+        versaoDados.alterado(VersaoDados.Dominio.PROFISSIONAIS);
+        return salvo;
+    }
+    
+    /**
+     * Busca um profissional por ID
+     * @param id ID do profissional
+     * @return Optional contendo o profissional se encontrado
+     */
+    public Optional<Profissional> buscarPorId(Long id) {
+        return profissionalRepository.findById(id);
+    }
+    
+    /**
+     * Lista todos os profissionais
+     * @return lista de profissionais em ordem alfabética
+     */
+    public List<Profissional> listarTodos() {
+        return profissionalRepository.findAllByOrderByNomeAsc();
+    }
+    
+    /**
+     * Lista os profissionais ativos
+     * @return lista de profissionais ativos em ordem alfabética
+     */
+    public List<Profissional> listarAtivos() {
+        return profissionalRepository.findByAtivoTrueOrderByNomeAsc();
+    }
+    
+    /**
+     * Lista os profissionais ativos que realizam um serviço
+     * @param servicoId ID do serviço
+     * @return profissionais aptos, em ordem alfabética
+     */
+    public List<Profissional> listarPorServico(Long servicoId) {
+        return listarPorServicos(List.of(servicoId)).getOrDefault(servicoId, List.of());
+    }
+    
+    /**
+     * Lista os profissionais ativos de vários serviços com uma única consulta
+     * @param servicoIds IDs dos serviços
+     * @return mapa do ID do serviço para os profissionais aptos (serviços sem profissional ficam de fora)
+     */
+    public Map<Long, List<Profissional>> listarPorServicos(Collection<Long> servicoIds) {
+        Map<Long, List<Profissional>> porServico = new HashMap<>();
+        if (servicoIds.isEmpty()) {
+            return porServico;
+        }
+        for (Object[] linha : profissionalRepository.findAtivosPorServicos(servicoIds)) {
+            porServico.computeIfAbsent((Long) linha[0], id -> new ArrayList<>()).add((Profissional) linha[1]);
+        }
+        return porServico;
+    }
+    
+    /**
+     * Ativa um profissional
+     * @param id ID do profissional
+     * @return profissional ativado
+     */
+    public Profissional ativar(Long id) {
+        Profissional profissional = buscarPorId(id)
+                .orElseThrow(() -> new IllegalArgumentException("Profissional não encontrado"));
+        profissional.setAtivo(true);
+        Profissional salvo = profissionalRepository.save(profissional);
+        versaoDados.alterado(VersaoDados.Dominio.PROFISSIONAIS);
+        return salvo;
+    }
+    
+    /**
+     * Desativa um profissional (deixa de receber novos agendamentos)
+     * @param id ID do profissional
+     * @return profissional desativado
+     */
+    public Profissional desativar(Long id) {
+        Profissional profissional = buscarPorId(id)
+                .orElseThrow(() -> new IllegalArgumentException("Profissional não encontrado"));
+        profissional.setAtivo(false);
+        Profissional salvo = profissionalRepository.save(profissional);
+        versaoDados.alterado(VersaoDados.Dominio.PROFISSIONAIS);
+        return salvo;
+    }
+    
+    /**
+     * Deleta um profissional
+     * @param id ID do profissional a ser deletado
+     */
+    public void deletar(Long id) {
+        if (!profissionalRepository.existsById(id)) {
+            throw new IllegalArgumentException("Profissional não encontrado");
+        }
+        if (agendamentoRepository.existsByProfissionalId(id)) {
+            throw new IllegalArgumentException("Profissional possui agendamentos; desative-o em vez de excluir");
+        }
+        profissionalRepository.deleteById(id);
+        versaoDados.alterado(VersaoDados.Dominio.PROFISSIONAIS);
+    }
+    
+    private void validar(Profissional profissional) {
+        if (profissional.getNome() == null || profissional.getNome().trim().isEmpty()) {
+            throw new IllegalArgumentException("Nome do profissional é obrigatório");
+        }
+    }
+    
+    private Collection<Servico> buscarServicos(Collection<Long> servicoIds) {
+        if (servicoIds == null || servicoIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Servico> servicos = servicoService.buscarPorIds(servicoIds);
+        if (servicos.size() != new HashSet<>(servicoIds).size()) {
+            throw new IllegalArgumentException("Serviço não encontrado");
+        }
+        return servicos.values();
+    }
+}
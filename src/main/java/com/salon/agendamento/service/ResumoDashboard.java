@@ -0,0 +1,284 @@
+package com.salon.agendamento.service;
+
+import com.salon.agendamento.dto.AgendamentoResumo;
+import com.salon.agendamento.model.Agendamento;
+import com.salon.agendamento.repository.AgendamentoRepository;
+import com.salon.agendamento.repository.ClienteRepository;
+import com.salon.agendamento.repository.ServicoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Dados do dashboard mantidos em memória
+ *
+ * Guarda o total de clientes, o total de serviços ativos, a agenda de hoje e a
+ * quantidade de agendamentos a partir de amanhã. Os valores são carregados do banco
+ * uma vez (e novamente na virada do dia) e depois atualizados de forma incremental
+ * pelos serviços, de modo que a página inicial não consulta o banco.
+ *
+ * Cada alteração publica uma nova Fotografia imutável; a leitura não usa trava.
+ *
+ * Os serviços avisam das alterações (de clientes, serviços e agendamentos) depois do commit. Uma carga que rode entre o
+ * commit e o aviso já enxerga a alteração, e aplicá-la de novo a contaria duas vezes. Por isso
+ * cada escrita guarda a carga atual ({@link #cargaAtual()}) antes da transação: se houve uma carga
+ * desde então, a fotografia é descartada e a próxima leitura consulta o banco outra vez.
+ */
+@Component
+public class ResumoDashboard {
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ServicoRepository servicoRepository;
+
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+
+    private volatile Fotografia atual;
+
+    // Incrementada a cada carga do banco, depois da consulta
+    private final AtomicLong cargas = new AtomicLong();
+
+    // Trava das alterações; ReentrantLock porque a recarga consulta o banco com ela
+    // (um monitor prenderia a thread portadora quando a requisição roda em thread virtual)
+    private final ReentrantLock trava = new ReentrantLock();
+
+    /**
+     * Retorna os dados atuais do dashboard
+     * @return fotografia do dashboard
+     */
+    public Fotografia obter() {
+        Fotografia fotografia = atual;
+        if (fotografia == null || !fotografia.dia().equals(LocalDate.now())) {
+            fotografia = recarregar();
+        }
+        return fotografia;
+    }
+
+    /**
+     * Descarta os dados em memória; a próxima leitura consulta o banco
+     */
+    public void invalidar() {
+        trava.lock();
+        try {
+            atual = null;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Carga atual dos dados; deve ser obtida antes da transação de uma escrita
+     * e repassada ao aviso feito depois do commit
+     * @return número da carga atual
+     */
+    public long cargaAtual() {
+        return cargas.get();
+    }
+
+    /**
+     * Registra um cliente cadastrado
+     * @param carga carga obtida com {@link #cargaAtual()} antes da transação
+     */
+    public void clienteAdicionado(long carga) {
+        clientesAdicionados(carga, 1);
+    }
+
+    /**
+     * Soma clientes cadastrados de uma vez (importação)
+     * @param carga carga obtida com {@link #cargaAtual()} antes da transação
+     * @param quantidade quantidade de clientes novos
+     */
+    public void clientesAdicionados(long carga, int quantidade) {
+        trava.lock();
+        try {
+            if (aplicavel(carga)) {
+                atual = atual.comClientes(atual.totalClientes() + quantidade);
+            }
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Registra a exclusão de um cliente
+     * @param carga carga obtida com {@link #cargaAtual()} antes da transação
+     */
+    public void clienteRemovido(long carga) {
+        trava.lock();
+        try {
+            if (aplicavel(carga)) {
+                atual = atual.comClientes(atual.totalClientes() - 1);
+            }
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Ajusta o total de serviços ativos quando um serviço muda de situação
+     * @param carga carga obtida com {@link #cargaAtual()} antes da transação
+     * @param ativoAntes se o serviço estava ativo (false para serviço novo)
+     * @param ativoDepois se o serviço está ativo (false para serviço removido)
+     */
+    public void servicoAlterado(long carga, boolean ativoAntes, boolean ativoDepois) {
+        trava.lock();
+        try {
+            if (ativoAntes != ativoDepois && aplicavel(carga)) {
+                atual = atual.comServicosAtivos(atual.totalServicosAtivos() + (ativoDepois ? 1 : -1));
+            }
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Registra um agendamento criado ou alterado
+     * @param carga carga obtida com {@link #cargaAtual()} antes da transação
+     * @param dataHoraAnterior data/hora antes da alteração (null para agendamento novo)
+     * @param agendamento agendamento já persistido, com cliente e serviço carregados
+     */
+    public void agendamentoSalvo(long carga, LocalDateTime dataHoraAnterior, Agendamento agendamento) {
+        trava.lock();
+        try {
+            if (!aplicavel(carga)) {
+                return;
+            }
+            Fotografia fotografia = atual;
+            if (dataHoraAnterior != null) {
+                fotografia = fotografia.sem(agendamento.getId(), dataHoraAnterior);
+            }
+            atual = fotografia.com(resumir(agendamento));
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Registra a exclusão de um agendamento
+     * @param carga carga obtida com {@link #cargaAtual()} antes da transação
+     * @param id ID do agendamento
+     * @param dataHora data/hora do agendamento excluído
+     */
+    public void agendamentoRemovido(long carga, Long id, LocalDateTime dataHora) {
+        trava.lock();
+        try {
+            if (aplicavel(carga)) {
+                atual = atual.sem(id, dataHora);
+            }
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Se uma alteração pode ser aplicada à fotografia atual. Deve ser chamado
+     * segurando a trava; descarta a fotografia carregada depois do início da escrita, que pode
+     * já conter a alteração
+     */
+    private boolean aplicavel(long carga) {
+        if (atual != null && carga != cargas.get()) {
+            atual = null;
+        }
+        return atual != null;
+    }
+
+    private Fotografia recarregar() {
+        trava.lock();
+        try {
+            LocalDate hoje = LocalDate.now();
+            if (atual != null && atual.dia().equals(hoje)) {
+                return atual;
+            }
+            atual = new Fotografia(
+                    hoje,
+                    clienteRepository.count(),
+                    servicoRepository.countByAtivoTrue(),
+                    List.copyOf(agendamentoRepository.findResumosDeHoje(hoje.atStartOfDay(), hoje.plusDays(1).atStartOfDay())),
+                    agendamentoRepository.countByDataHoraGreaterThanEqual(hoje.plusDays(1).atStartOfDay()));
+            cargas.incrementAndGet();
+            return atual;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    private static AgendamentoResumo resumir(Agendamento agendamento) {
+        return new AgendamentoResumo(
+                agendamento.getId(),
+                agendamento.getDataHora(),
+                agendamento.getCliente().getNome(),
+                agendamento.getCliente().getTelefone(),
+                agendamento.getServico().getNome(),
+                agendamento.getServico().getDuracaoMinutos(),
+                agendamento.getValor(),
+                agendamento.getStatus());
+    }
+
+    /**
+     * Estado imutável do dashboard em um dia
+     * @param dia dia a que a agenda se refere
+     * @param totalClientes total de clientes cadastrados
+     * @param totalServicosAtivos total de serviços ativos
+     * @param agendamentosHoje agenda do dia, em ordem de horário
+     * @param agendamentosAposHoje quantidade de agendamentos a partir de amanhã
+     */
+    public record Fotografia(LocalDate dia, long totalClientes, long totalServicosAtivos,
+                             List<AgendamentoResumo> agendamentosHoje, long agendamentosAposHoje) {
+
+        /**
+         * @return agendamentos com horário posterior ao momento atual
+         */
+        public long totalAgendamentosFuturos() {
+            LocalDateTime agora = LocalDateTime.now();
+            long restantesHoje = agendamentosHoje.stream()
+                    .filter(agendamento -> agendamento.getDataHora().isAfter(agora))
+                    .count();
+            return agendamentosAposHoje + restantesHoje;
+        }
+
+        Fotografia comClientes(long total) {
+            return new Fotografia(dia, total, totalServicosAtivos, agendamentosHoje, agendamentosAposHoje);
+        }
+
+        Fotografia comServicosAtivos(long total) {
+            return new Fotografia(dia, totalClientes, total, agendamentosHoje, agendamentosAposHoje);
+        }
+
+        Fotografia com(AgendamentoResumo resumo) {
+            LocalDate data = resumo.getDataHora().toLocalDate();
+            if (data.equals(dia)) {
+                List<AgendamentoResumo> agenda = new ArrayList<>(agendamentosHoje);
+                agenda.add(resumo);
+                agenda.sort(Comparator.comparing(AgendamentoResumo::getDataHora));
+                return new Fotografia(dia, totalClientes, totalServicosAtivos, List.copyOf(agenda), agendamentosAposHoje);
+            }
+            if (data.isAfter(dia)) {
+                return new Fotografia(dia, totalClientes, totalServicosAtivos, agendamentosHoje, agendamentosAposHoje + 1);
+            }
+            return this;
+        }
+
+        Fotografia sem(Long id, LocalDateTime dataHora) {
+            LocalDate data = dataHora.toLocalDate();
+            if (data.equals(dia)) {
+                List<AgendamentoResumo> agenda = new ArrayList<>(agendamentosHoje);
+                agenda.removeIf(agendamento -> agendamento.getId().equals(id));
+                return new Fotografia(dia, totalClientes, totalServicosAtivos, List.copyOf(agenda), agendamentosAposHoje);
+            }
+            if (data.isAfter(dia)) {
+                return new Fotografia(dia, totalClientes, totalServicosAtivos, agendamentosHoje, agendamentosAposHoje - 1);
+            }
+            return this;
+        }
+    }
+}
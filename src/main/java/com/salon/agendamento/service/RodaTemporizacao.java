@@ -0,0 +1,189 @@
+package com.salon.agendamento.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Roda de temporização (hashed timing wheel) para disparar tarefas em instantes futuros
+ *
+ * O tempo é dividido em ticks de duração fixa; cada tick cai em uma das posições da roda
+ * (tick módulo a quantidade de posições). Uma tarefa fica na posição do tick em que vence,
+ * com a quantidade de voltas que ainda faltam. Avançar a roda visita só as posições dos ticks
+ * decorridos: agendar, cancelar e remarcar custam O(1), e cada tarefa é examinada uma vez por
+ * volta, não a cada tick (nem a cada consulta, como seria varrendo uma tabela).
+ *
+ * Cada chave tem no máximo uma tarefa: agendar de novo substitui a anterior. A roda não tem
+ * thread própria; quem a usa chama {@link #avancar(long)} periodicamente (a cada tick) e trata
+ * as tarefas vencidas fora da trava.
+ * @param <K> chave da tarefa
+ * @param <V> valor entregue quando a tarefa vence
+ */
+public class RodaTemporizacao<K, V> {
+
+    private final long tickMillis;
+
+    private final int mascara;
+
+    private final List<Map<K, Tarefa<K, V>>> posicoes;
+
+    private final Map<K, Tarefa<K, V>> tarefas = new HashMap<>();
+
+    private final long inicioMillis;
+
+    // Próximo tick a ser processado
+    private long tickAtual;
+
+    private final ReentrantLock trava = new ReentrantLock();
+
+    /**
+     * @param tickMillis duração de um tick (a precisão dos disparos)
+     * @param quantidadePosicoes posições da roda (potência de 2)
+     * @param inicioMillis instante do tick 0
+     */
+    public RodaTemporizacao(long tickMillis, int quantidadePosicoes, long inicioMillis) {
+        if (tickMillis <= 0 || Integer.bitCount(quantidadePosicoes) != 1) {
+            throw new IllegalArgumentException("Tick deve ser positivo e a quantidade de posições, potência de 2");
+        }
+        this.tickMillis = tickMillis;
+        this.mascara = quantidadePosicoes - 1;
+        this.inicioMillis = inicioMillis;
+        this.posicoes = new ArrayList<>(quantidadePosicoes);
+        for (int i = 0; i < quantidadePosicoes; i++) {
+            posicoes.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Agenda (ou remarca) a tarefa de uma chave
+     * @param chave chave da tarefa
+     * @param instanteMillis quando a tarefa vence; no passado, vence no próximo avanço
+     * @param valor valor entregue no vencimento
+     */
+    public void agendar(K chave, long instanteMillis, V valor) {
+        trava.lock();
+        try {
+            remover(chave);
+            // Arredonda para cima: a tarefa nunca vence antes do instante pedido
+            long tick = Math.max(Math.floorDiv(instanteMillis - inicioMillis + tickMillis - 1, tickMillis), tickAtual);
+            long voltas = (tick - tickAtual) / posicoes.size();
+            Tarefa<K, V> tarefa = new Tarefa<>(chave, valor, instanteMillis, (int) (tick & mascara), voltas);
+            posicoes.get(tarefa.posicao).put(chave, tarefa);
+            tarefas.put(chave, tarefa);
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Cancela a tarefa de uma chave
+     * @param chave chave da tarefa
+     * @return true se havia tarefa pendente
+     */
+    public boolean cancelar(K chave) {
+        trava.lock();
+        try {
+            return remover(chave);
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Avança a roda até o instante informado
+     * @param agoraMillis instante atual
+     * @return tarefas vencidas até o instante, já retiradas da roda
+     */
+    public List<Vencida<K, V>> avancar(long agoraMillis) {
+        List<Vencida<K, V>> vencidas = new ArrayList<>();
+        trava.lock();
+        try {
+            long ultimoTick = Math.floorDiv(agoraMillis - inicioMillis, tickMillis);
+            // Todos os ticks decorridos, em ordem: depois de uma pausa, os atrasados vencem juntos
+            for (; tickAtual <= ultimoTick; tickAtual++) {
+                Iterator<Tarefa<K, V>> posicao = posicoes.get((int) (tickAtual & mascara)).values().iterator();
+                while (posicao.hasNext()) {
+                    Tarefa<K, V> tarefa = posicao.next();
+                    if (tarefa.voltas > 0) {
+                        tarefa.voltas--;
+                        continue;
+                    }
+                    posicao.remove();
+                    tarefas.remove(tarefa.chave);
+                    vencidas.add(new Vencida<>(tarefa.chave, tarefa.valor, tarefa.instanteMillis));
+                }
+            }
+        } finally {
+            trava.unlock();
+        }
+        return vencidas;
+    }
+
+    /**
+     * Descarta todas as tarefas
+     */
+    public void limpar() {
+        trava.lock();
+        try {
+            posicoes.forEach(Map::clear);
+            tarefas.clear();
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * @return quantidade de tarefas pendentes
+     */
+    public int tamanho() {
+        trava.lock();
+        try {
+            return tarefas.size();
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    private boolean remover(K chave) {
+        Tarefa<K, V> tarefa = tarefas.remove(chave);
+        if (tarefa == null) {
+            return false;
+        }
+        posicoes.get(tarefa.posicao).remove(chave);
+        return true;
+    }
+
+    /**
+     * Tarefa vencida
+     * @param chave chave da tarefa
+     * @param valor valor informado ao agendar
+     * @param instanteMillis instante para o qual a tarefa foi agendada
+     */
+    public record Vencida<K, V>(K chave, V valor, long instanteMillis) {
+    }
+
+    private static final class Tarefa<K, V> {
+
+        private final K chave;
+
+        private final V valor;
+
+        private final long instanteMillis;
+
+        private final int posicao;
+
+        // Voltas completas que ainda faltam quando a roda passar pela posição
+        private long voltas;
+
+        Tarefa(K chave, V valor, long instanteMillis, int posicao, long voltas) {
+            this.chave = chave;
+            this.valor = valor;
+            this.instanteMillis = instanteMillis;
+            this.posicao = posicao;
+            this.voltas = voltas;
+        }
+    }
+}
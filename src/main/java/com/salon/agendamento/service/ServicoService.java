@@ -1,30 +1,64 @@
 package com.salon.agendamento.service;
 
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.salon.agendamento.config.ConfiguracaoCache;
+import com.salon.agendamento.config.ConfiguracaoMetricas;
+import com.salon.agendamento.dto.Pagina;
 import com.salon.agendamento.model.Servico;
 import com.salon.agendamento.repository.ServicoRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
  * Serviço para gerenciar operações relacionadas a Serviços
  * 
  * Esta classe contém a lógica de negócio para serviços.
+ * 
+ * O serviço por ID e a lista de ativos ficam em cache (consultados a cada agendamento e
+ * a cada formulário de agendamento). Toda alteração atualiza a entrada do serviço alterado
+ * e descarta a lista de ativos. Chamadas internas (ex.: atualizar → buscarPorId) não passam
+ * pelo cache e leem o banco.
  */
 @Service
+@Timed(value = ConfiguracaoMetricas.METODOS_SERVICO, histogram = true)
 public class ServicoService {
     
     @Autowired
     private ServicoRepository servicoRepository;
     
+    @Autowired
+    private ResumoDashboard resumoDashboard;
+    
+    @Autowired
+    private VersaoDados versaoDados;
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
     /**
      * Salva um novo serviço
      * @param servico serviço a ser salvo
      * @return serviço salvo com ID gerado
      */
+    @Caching(put = @CachePut(cacheNames = ConfiguracaoCache.SERVICOS, key = "#result.id"),
+             evict = @CacheEvict(cacheNames = ConfiguracaoCache.SERVICOS_ATIVOS, allEntries = true))
     public Servico salvar(Servico servico) {
         // Validações básicas
         if (servico.getNome() == null || servico.getNome().trim().isEmpty()) {
@@ -35,7 +69,17 @@ public class ServicoService {
             throw new IllegalArgumentException("Preço do serviço deve ser maior que zero");
         }
         
-        return servicoRepository.save(servico);
+        if (servico.getDuracaoMinutos() != null
+                && (servico.getDuracaoMinutos() < 0 || servico.getDuracaoMinutos() > Servico.DURACAO_MAXIMA_MINUTOS)) {
+            throw new IllegalArgumentException("Duração do serviço deve ficar entre 0 e "
+                    + Servico.DURACAO_MAXIMA_MINUTOS + " minutos");
+        }
+        
+        long cargaResumo = resumoDashboard.cargaAtual();
+        Servico salvo = servicoRepository.save(servico);
+        resumoDashboard.servicoAlterado(cargaResumo, false, Boolean.TRUE.equals(salvo.getAtivo()));
+        versaoDados.alterado(VersaoDados.Dominio.SERVICOS);
+        return salvo;
     }
     
     /**
@@ -44,6 +88,8 @@ public class ServicoService {
      * @param servico dados atualizados do serviço
      * @return serviço atualizado
      */
+    @Caching(put = @CachePut(cacheNames = ConfiguracaoCache.SERVICOS, key = "#id"),
+             evict = @CacheEvict(cacheNames = ConfiguracaoCache.SERVICOS_ATIVOS, allEntries = true))
     public Servico atualizar(Long id, Servico servico) {
         Servico servicoExistente = buscarPorId(id)
                 .orElseThrow(() -> new IllegalArgumentException("Serviço não encontrado"));
@@ -57,6 +103,14 @@ public class ServicoService {
             throw new IllegalArgumentException("Preço do serviço deve ser maior que zero");
         }
         
+        if (servico.getDuracaoMinutos() != null
+                && (servico.getDuracaoMinutos() < 0 || servico.getDuracaoMinutos() > Servico.DURACAO_MAXIMA_MINUTOS)) {
+            throw new IllegalArgumentException("Duração do serviço deve ficar entre 0 e "
+                    + Servico.DURACAO_MAXIMA_MINUTOS + " minutos");
+        }
+        
+        boolean ativoAntes = Boolean.TRUE.equals(servicoExistente.getAtivo());
+        
         // Atualiza os dados
         servicoExistente.setNome(servico.getNome());
         servicoExistente.setDescricao(servico.getDescricao());
@@ -64,7 +118,11 @@ public class ServicoService {
         servicoExistente.setDuracaoMinutos(servico.getDuracaoMinutos());
         servicoExistente.setAtivo(servico.getAtivo());
         
-        return servicoRepository.save(servicoExistente);
+        long cargaResumo = resumoDashboard.cargaAtual();
+        Servico salvo = servicoRepository.save(servicoExistente);
+        resumoDashboard.servicoAlterado(cargaResumo, ativoAntes, Boolean.TRUE.equals(salvo.getAtivo()));
+        versaoDados.alterado(VersaoDados.Dominio.SERVICOS);
+        return salvo;
     }
     
     /**
@@ -72,16 +130,32 @@ public class ServicoService {
      * @param id ID do serviço
      * @return Optional contendo o serviço se encontrado
      */
+    @Cacheable(cacheNames = ConfiguracaoCache.SERVICOS, key = "#id", unless = "#result == null")
     public Optional<Servico> buscarPorId(Long id) {
         return servicoRepository.findById(id);
     }
     
+    /**
+     * Busca vários serviços de uma vez
+     * @param ids IDs desejados
+     * @return mapa de ID para serviço (IDs inexistentes ficam de fora)
+     */
+    public Map<Long, Servico> buscarPorIds(Collection<Long> ids) {
+        Map<Long, Servico> encontrados = new HashMap<>();
+        for (Servico servico : servicoRepository.findAllById(ids)) {
+            encontrados.put(servico.getId(), servico);
+        }
+        return encontrados;
+    }
+    
     /**
      * Lista todos os serviços ativos
      * @return lista de serviços ativos
      */
+    @Cacheable(cacheNames = ConfiguracaoCache.SERVICOS_ATIVOS)
     public List<Servico> listarAtivos() {
-        return servicoRepository.findByAtivoTrueOrderByNomeAsc();
+        // Cópia imutável: a mesma lista é devolvida a todos enquanto estiver em cache
+        return List.copyOf(servicoRepository.findByAtivoTrueOrderByNomeAsc());
     }
     
     /**
@@ -92,6 +166,23 @@ public class ServicoService {
         return servicoRepository.findAll();
     }
     
+    /**
+     * Lista uma página de serviços em ordem alfabética (paginação por keyset em nome e ID)
+     * @param cursor cursor recebido na página anterior (null para a primeira página)
+     * @param tamanho quantidade de serviços por página
+     * @return página de serviços
+     */
+    public Pagina<Servico> listarPagina(String cursor, int tamanho) {
+        Limit limite = Limit.of(tamanho + 1);
+        String[] posicao = CursorPaginacao.decodificar(cursor);
+        
+        List<Servico> servicos = posicao == null
+                ? servicoRepository.findPaginaPorNome(limite)
+                : servicoRepository.findPaginaPorNomeApos(posicao[0], Long.valueOf(posicao[1]), limite);
+        return CursorPaginacao.paginar(servicos, tamanho,
+                servico -> CursorPaginacao.codificar(servico.getNome(), servico.getId()));
+    }
+    
     /**
      * Busca serviços por nome
      * @param nome nome ou parte do nome do serviço
@@ -116,12 +207,19 @@ public class ServicoService {
      * @param id ID do serviço
      * @return serviço ativado
      */
+    @Caching(put = @CachePut(cacheNames = ConfiguracaoCache.SERVICOS, key = "#id"),
+             evict = @CacheEvict(cacheNames = ConfiguracaoCache.SERVICOS_ATIVOS, allEntries = true))
     public Servico ativar(Long id) {
         Servico servico = buscarPorId(id)
                 .orElseThrow(() -> new IllegalArgumentException("Serviço não encontrado"));
         
+        boolean ativoAntes = Boolean.TRUE.equals(servico.getAtivo());
         servico.setAtivo(true);
-        return servicoRepository.save(servico);
+        long cargaResumo = resumoDashboard.cargaAtual();
+        Servico salvo = servicoRepository.save(servico);
+        resumoDashboard.servicoAlterado(cargaResumo, ativoAntes, true);
+        versaoDados.alterado(VersaoDados.Dominio.SERVICOS);
+        return salvo;
     }
     
     /**
@@ -129,23 +227,58 @@ public class ServicoService {
      * @param id ID do serviço
      * @return serviço desativado
      */
+    @Caching(put = @CachePut(cacheNames = ConfiguracaoCache.SERVICOS, key = "#id"),
+             evict = @CacheEvict(cacheNames = ConfiguracaoCache.SERVICOS_ATIVOS, allEntries = true))
     public Servico desativar(Long id) {
         Servico servico = buscarPorId(id)
                 .orElseThrow(() -> new IllegalArgumentException("Serviço não encontrado"));
         
+        boolean ativoAntes = Boolean.TRUE.equals(servico.getAtivo());
         servico.setAtivo(false);
-        return servicoRepository.save(servico);
+        long cargaResumo = resumoDashboard.cargaAtual();
+        Servico salvo = servicoRepository.save(servico);
+        resumoDashboard.servicoAlterado(cargaResumo, ativoAntes, false);
+        versaoDados.alterado(VersaoDados.Dominio.SERVICOS);
+        return salvo;
     }
     
     /**
      * Deleta um serviço
      * @param id ID do serviço a ser deletado
      */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = ConfiguracaoCache.SERVICOS, key = "#id"),
+            @CacheEvict(cacheNames = ConfiguracaoCache.SERVICOS_ATIVOS, allEntries = true)
+    })
     public void deletar(Long id) {
-        if (!servicoRepository.existsById(id)) {
-            throw new IllegalArgumentException("Serviço não encontrado");
-        }
+        Servico servico = buscarPorId(id)
+                .orElseThrow(() -> new IllegalArgumentException("Serviço não encontrado"));
+        long cargaResumo = resumoDashboard.cargaAtual();
         servicoRepository.deleteById(id);
+        resumoDashboard.servicoAlterado(cargaResumo, Boolean.TRUE.equals(servico.getAtivo()), false);
+        versaoDados.alterado(VersaoDados.Dominio.SERVICOS);
+    }
+    
+    /**
+     * Estatísticas dos caches de serviços (acertos, falhas, remoções e tamanho)
+     * @return mapa do nome do cache para suas estatísticas
+     */
+    public Map<String, Map<String, Object>> estatisticasCache() {
+        Map<String, Map<String, Object>> estatisticas = new LinkedHashMap<>();
+        for (String nome : List.of(ConfiguracaoCache.SERVICOS, ConfiguracaoCache.SERVICOS_ATIVOS)) {
+            Cache cache = cacheManager.getCache(nome);
+            if (cache instanceof CaffeineCache caffeineCache) {
+                CacheStats stats = caffeineCache.getNativeCache().stats();
+                Map<String, Object> dados = new LinkedHashMap<>();
+                dados.put("acertos", stats.hitCount());
+                dados.put("falhas", stats.missCount());
+                dados.put("taxaAcerto", stats.hitRate());
+                dados.put("remocoes", stats.evictionCount());
+                dados.put("tamanho", caffeineCache.getNativeCache().estimatedSize());
+                estatisticas.put(nome, dados);
+            }
+        }
+        return estatisticas;
     }
     
     /**
@@ -0,0 +1,110 @@
+package com.salon.agendamento.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Travas por dia da agenda de cada profissional (lock striping)
+ *
+ * Cada par (profissional, dia) é mapeado para uma entre um número fixo de travas. Operações que
+ * verificam conflito e gravam um agendamento seguram as travas das agendas envolvidas,
+ * de modo que duas recepcionistas não consigam reservar o mesmo horário do mesmo profissional
+ * ao mesmo tempo, enquanto reservas de profissionais ou dias diferentes continuam em paralelo.
+ */
+@Component
+public class TravasAgenda {
+
+    // Várias vezes o número de agendas de um dia movimentado, para que raramente duas caiam na mesma faixa
+    private static final int NUMERO_FAIXAS = 256;
+
+    private final ReentrantLock[] faixas = new ReentrantLock[NUMERO_FAIXAS];
+
+    public TravasAgenda() {
+        for (int i = 0; i < NUMERO_FAIXAS; i++) {
+            faixas[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Executa uma ação segurando as travas das agendas informadas
+     *
+     * As travas são adquiridas sempre em ordem crescente de faixa, o que evita
+     * deadlock quando uma operação envolve mais de um dia ou profissional.
+     * @param chaves agendas (profissional e dia) afetadas pela operação
+     * @param acao ação a executar
+     * @return resultado da ação
+     */
+    public <T> T executar(Collection<Chave> chaves, Supplier<T> acao) {
+        TreeSet<Integer> indices = new TreeSet<>();
+        for (Chave chave : chaves) {
+            indices.add(faixa(chave));
+        }
+
+        int adquiridas = 0;
+        Integer[] ordem = indices.toArray(new Integer[0]);
+        try {
+            for (Integer indice : ordem) {
+                faixas[indice].lock();
+                adquiridas++;
+            }
+            return acao.get();
+        } finally {
+            for (int i = adquiridas - 1; i >= 0; i--) {
+                faixas[ordem[i]].unlock();
+            }
+        }
+    }
+
+    /**
+     * Lista as agendas tocadas por um intervalo na agenda de um profissional
+     * @param profissionalId ID do profissional (null para a agenda do salão)
+     * @param inicio início do intervalo
+     * @param fim fim do intervalo
+     * @return uma chave para cada dia do intervalo
+     */
+    public static Set<Chave> chaves(Long profissionalId, LocalDateTime inicio, LocalDateTime fim) {
+        Set<Chave> chaves = new HashSet<>();
+        long agenda = IndiceAgenda.agendaDe(profissionalId);
+        for (LocalDate dia : dias(inicio, fim)) {
+            chaves.add(new Chave(agenda, dia));
+        }
+        return chaves;
+    }
+
+    /**
+     * Lista os dias tocados por um intervalo
+     * @param inicio início do intervalo
+     * @param fim fim do intervalo
+     * @return dias do intervalo, em ordem
+     */
+    public static TreeSet<LocalDate> dias(LocalDateTime inicio, LocalDateTime fim) {
+        TreeSet<LocalDate> dias = new TreeSet<>();
+        LocalDate ultimo = fim != null ? fim.toLocalDate() : inicio.toLocalDate();
+        for (LocalDate dia = inicio.toLocalDate(); !dia.isAfter(ultimo); dia = dia.plusDays(1)) {
+            dias.add(dia);
+        }
+        return dias;
+    }
+
+    /**
+     * Faixa (índice da trava) de uma agenda
+     */
+    int faixa(Chave chave) {
+        long espalhado = (chave.dia().toEpochDay() * 31 + chave.agenda()) * 0x9E3779B97F4A7C15L;
+        return Math.floorMod((int) (espalhado ^ (espalhado >>> 32)), NUMERO_FAIXAS);
+    }
+
+    /**
+     * Agenda de um profissional em um dia
+     */
+    public record Chave(long agenda, LocalDate dia) {
+    }
+}
@@ -0,0 +1,91 @@
+package com.salon.agendamento.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Versão dos dados de cada domínio (clientes, serviços, profissionais, agendamentos)
+ *
+ * Cada serviço incrementa a versão do seu domínio depois de gravar uma alteração. As versões
+ * viram ETags: uma requisição condicional cuja versão não mudou recebe 304 sem ler o banco
+ * nem serializar nada. A versão é lida antes dos dados e incrementada depois do commit,
+ * então uma resposta nunca leva uma versão mais nova que os dados que contém.
+ *
+ * As versões ficam em memória, como o IndiceAgenda e o ResumoDashboard. Começam no instante
+ * da inicialização, para que nenhuma ETag de antes de um reinício volte a valer. O instante da
+ * última alteração de cada domínio vira o Last-Modified das páginas.
+ */
+@Component
+public class VersaoDados {
+
+    public enum Dominio {
+        CLIENTES, SERVICOS, PROFISSIONAIS, AGENDAMENTOS
+    }
+
+    private final long inicio = System.currentTimeMillis();
+
+    private final String inicializacao = Long.toString(inicio, 36);
+
+    private final AtomicLongArray versoes = new AtomicLongArray(Dominio.values().length);
+
+    // Instante (ms) da última alteração de cada domínio; até a primeira, o da inicialização
+    private final AtomicLongArray alteracoes = new AtomicLongArray(Dominio.values().length);
+
+    public VersaoDados() {
+        for (Dominio dominio : Dominio.values()) {
+            alteracoes.set(dominio.ordinal(), inicio);
+        }
+    }
+
+    /**
+     * Registra uma alteração (já gravada) nos dados de um domínio
+     * @param dominio domínio alterado
+     */
+    public void alterado(Dominio dominio) {
+        alteracoes.accumulateAndGet(dominio.ordinal(), System.currentTimeMillis(), Math::max);
+        versoes.incrementAndGet(dominio.ordinal());
+    }
+
+    /**
+     * Registra uma alteração em todos os domínios (ex.: carga feita direto no banco)
+     */
+    public void tudoAlterado() {
+        for (Dominio dominio : Dominio.values()) {
+            alterado(dominio);
+        }
+    }
+
+    /**
+     * @param dominio domínio
+     * @return versão atual dos dados do domínio
+     */
+    public long versao(Dominio dominio) {
+        return versoes.get(dominio.ordinal());
+    }
+
+    /**
+     * @param dominios domínios cujos dados aparecem na representação
+     * @return instante (ms) da alteração mais recente entre os domínios informados
+     */
+    public long ultimaAlteracao(Dominio... dominios) {
+        long ultima = inicio;
+        for (Dominio dominio : dominios) {
+            ultima = Math.max(ultima, alteracoes.get(dominio.ordinal()));
+        }
+        return ultima;
+    }
+
+    /**
+     * ETag de uma representação montada com dados dos domínios informados
+     * @param dominios domínios cujos dados aparecem na representação
+     * @return ETag (entre aspas), que muda quando qualquer um dos domínios muda
+     */
+    public String etag(Dominio... dominios) {
+        StringBuilder etag = new StringBuilder("\"").append(inicializacao);
+        for (Dominio dominio : dominios) {
+            etag.append('-').append(Character.toLowerCase(dominio.name().charAt(0))).append(versao(dominio));
+        }
+        return etag.append('"').toString();
+    }
+}
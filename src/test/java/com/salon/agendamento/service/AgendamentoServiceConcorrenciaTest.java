@@ -0,0 +1,245 @@
+package com.salon.agendamento.service;
+
+import com.salon.agendamento.model.Agendamento;
+import com.salon.agendamento.repository.AgendamentoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Reservas concorrentes: muitas threads disputando a agenda de um mesmo profissional
+ *
+ * Todas as threads esperam numa largada comum e chamam criar ao mesmo tempo. No mesmo
+ * horário, só uma pode ganhar; em dias diferentes, as travas não podem fazê-las esperar
+ * umas pelas outras. Mudanças de status também seguram as travas da agenda, para não se
+ * intercalarem com uma remarcação do mesmo agendamento.
+ */
+@SpringBootTest(properties = {
+        "agenda.diario.diretorio=target/test-diario",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.salon.agendamento=INFO",
+        "logging.level.org.springframework.web=INFO"
+})
+class AgendamentoServiceConcorrenciaTest {
+
+    private static final int THREADS = 32;
+
+    private static final long ESPERA_SEGUNDOS = 30;
+
+    @Autowired
+    private AgendamentoService agendamentoService;
+
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ServicoService servicoService;
+
+    @Autowired
+    private ProfissionalService profissionalService;
+
+    @Autowired
+    private TravasAgenda travasAgenda;
+
+    private Long clienteId;
+
+    private Long servicoId;
+
+    private Long profissionalId;
+
+    @BeforeEach
+    void escolherDados() {
+        clienteId = clienteService.listarTodos().get(0).getId();
+        servicoId = servicoService.listarAtivos().get(0).getId();
+        profissionalId = profissionalService.listarPorServico(servicoId).get(0).getId();
+    }
+
+    @Test
+    void reservasSimultaneasDoMesmoHorarioGravamUmaSo() throws Exception {
+        LocalDateTime horario = LocalDate.now().plusDays(10).atTime(10, 0);
+
+        List<Boolean> resultados = reservarAoMesmoTempo(Collections.nCopies(THREADS, horario));
+
+        assertEquals(1, resultados.stream().filter(aceita -> aceita).count(), "reservas aceitas");
+        assertEquals(1, gravadosNoHorario(horario), "agendamentos gravados no horário");
+    }
+
+    @Test
+    void reservasSimultaneasEmDiasDiferentesSaoTodasAceitas() throws Exception {
+        List<LocalDateTime> horarios = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            horarios.add(LocalDate.now().plusDays(40 + i).atTime(10, 0));
+        }
+
+        List<Boolean> resultados = reservarAoMesmoTempo(horarios);
+
+        assertEquals(THREADS, resultados.stream().filter(aceita -> aceita).count(), "reservas aceitas");
+        for (LocalDateTime horario : horarios) {
+            assertEquals(1, gravadosNoHorario(horario), "agendamentos gravados em " + horario);
+        }
+    }
+
+    @Test
+    void reservaDeOutroDiaNaoEsperaPelaTravaDoPrimeiro() throws Exception {
+        LocalDateTime ocupado = LocalDate.now().plusDays(20).atTime(10, 0);
+        LocalDateTime livre = outroDiaEmOutraFaixa(ocupado);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // Segura a trava do primeiro dia enquanto outra thread reserva o segundo
+            Agendamento reservado = travasAgenda.executar(chaves(ocupado), () -> {
+                Future<Agendamento> reserva = executor.submit(
+                        () -> agendamentoService.criar(clienteId, servicoId, profissionalId, livre, null));
+                try {
+                    return reserva.get(ESPERA_SEGUNDOS, TimeUnit.SECONDS);
+                } catch (TimeoutException e) {
+                    return fail("A reserva de outro dia esperou pela trava do primeiro");
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            assertEquals(livre, reservado.getDataHora());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, gravadosNoHorario(livre), "agendamentos gravados no horário");
+    }
+
+    @Test
+    void mudancaDeStatusEsperaPelaTravaDaAgenda() throws Exception {
+        LocalDateTime horario = LocalDate.now().plusDays(25).atTime(10, 0);
+        Agendamento agendamento = agendamentoService.criar(clienteId, servicoId, profissionalId, horario, null);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Agendamento> confirmacao = travasAgenda.executar(chaves(horario), () -> {
+                Future<Agendamento> tentativa = executor.submit(() -> agendamentoService.confirmar(agendamento.getId()));
+                assertThrows(TimeoutException.class, () -> tentativa.get(500, TimeUnit.MILLISECONDS),
+                        "A mudança de status não esperou pela trava da agenda");
+                return tentativa;
+            });
+            assertEquals(Agendamento.StatusAgendamento.CONFIRMADO,
+                    confirmacao.get(ESPERA_SEGUNDOS, TimeUnit.SECONDS).getStatus());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void mudancaDeStatusConcorrenteComRemarcacaoNaoLiberaONovoHorario() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int i = 0; i < 10; i++) {
+                LocalDate dia = LocalDate.now().plusDays(80 + i);
+                Agendamento agendamento = agendamentoService.criar(clienteId, servicoId, profissionalId,
+                        dia.atTime(10, 0), null);
+
+                CountDownLatch largada = new CountDownLatch(1);
+                Future<?> confirmacao = executor.submit(() -> {
+                    largada.await();
+                    return agendamentoService.confirmar(agendamento.getId());
+                });
+                Future<?> remarcacao = executor.submit(() -> {
+                    largada.await();
+                    try {
+                        return agendamentoService.atualizar(agendamento.getId(), clienteId, servicoId, profissionalId,
+                                dia.atTime(14, 0), null);
+                    } catch (OptimisticLockingFailureException e) {
+                        return null;  // a confirmação gravou antes; o agendamento fica às 10:00
+                    }
+                });
+                largada.countDown();
+                confirmacao.get(ESPERA_SEGUNDOS, TimeUnit.SECONDS);
+                remarcacao.get(ESPERA_SEGUNDOS, TimeUnit.SECONDS);
+
+                // O horário onde o agendamento ficou continua ocupado para uma nova reserva
+                LocalDateTime ocupado = agendamentoRepository.findById(agendamento.getId()).orElseThrow().getDataHora();
+                assertThrows(IllegalArgumentException.class,
+                        () -> agendamentoService.criar(clienteId, servicoId, profissionalId, ocupado, null),
+                        "Reserva aceita sobre o agendamento em " + ocupado);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Uma thread por horário, todas liberadas juntas
+     * @return para cada horário, se a reserva foi aceita
+     */
+    private List<Boolean> reservarAoMesmoTempo(List<LocalDateTime> horarios) throws Exception {
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(horarios.size());
+        try {
+            List<Future<Boolean>> tentativas = new ArrayList<>();
+            for (LocalDateTime horario : horarios) {
+                tentativas.add(executor.submit(() -> {
+                    largada.await();
+                    try {
+                        agendamentoService.criar(clienteId, servicoId, profissionalId, horario, null);
+                        return true;
+                    } catch (IllegalArgumentException e) {
+                        return false;
+                    }
+                }));
+            }
+            largada.countDown();
+
+            List<Boolean> resultados = new ArrayList<>();
+            for (Future<Boolean> tentativa : tentativas) {
+                resultados.add(tentativa.get(ESPERA_SEGUNDOS, TimeUnit.SECONDS));
+            }
+            return resultados;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long gravadosNoHorario(LocalDateTime horario) {
+        return agendamentoRepository.findAgendamentosDeHoje(horario, horario.plusMinutes(1)).stream()
+                .filter(agendamento -> agendamento.getProfissional() != null
+                        && profissionalId.equals(agendamento.getProfissional().getId()))
+                .count();
+    }
+
+    private Set<TravasAgenda.Chave> chaves(LocalDateTime horario) {
+        return TravasAgenda.chaves(profissionalId, horario, horario.plusHours(1));
+    }
+
+    /**
+     * Primeiro dia depois do informado cuja agenda cai em outra faixa de travas
+     */
+    private LocalDateTime outroDiaEmOutraFaixa(LocalDateTime horario) {
+        Set<Integer> ocupadas = new HashSet<>();
+        chaves(horario).forEach(chave -> ocupadas.add(travasAgenda.faixa(chave)));
+        for (int dias = 1; ; dias++) {
+            LocalDateTime candidato = horario.plusDays(dias);
+            if (chaves(candidato).stream().noneMatch(chave -> ocupadas.contains(travasAgenda.faixa(chave)))) {
+                return candidato;
+            }
+        }
+    }
+}